@@ -156,15 +156,40 @@ public class ChatGeneral {
      * @throws IllegalStateException si el remitente no es participante del chat.
      */
     public Mensaje enviarMensaje(Usuario remitente, String texto) {
+        return enviarMensaje(remitente, texto, new Date());
+    }
+
+    /**
+     * Igual que {@link #enviarMensaje(Usuario, String)}, con la fecha indicada (p. ej., al reconstruir el
+     * historial desde la bitácora de cambios).
+     * @param remitente quien envía (debe participar en el chat).
+     * @param texto contenido (no nulo/ni vacío).
+     * @param fecha fecha del mensaje (no nula).
+     * @return el {@link Mensaje} creado y agregado al historial.
+     * @throws IllegalArgumentException si parámetros inválidos.
+     * @throws IllegalStateException si el remitente no participa.
+     */
+    public Mensaje enviarMensaje(Usuario remitente, String texto, Date fecha) {
         Objects.requireNonNull(remitente, "Remitente no puede ser nulo.");
         if (!estaParticipando(remitente)) {
             throw new IllegalStateException("El remitente no participa en este chat.");
         }
-        Mensaje msg = new Mensaje(new Date(), remitente, texto);
+        Mensaje msg = new Mensaje(fecha, remitente, texto);
         mensajes.add(msg);
         return msg;
     }
 
+    /**
+     * Agrega al historial un mensaje ya enviado (p. ej., al restaurar una instantánea), sin exigir que el
+     * remitente siga participando: quien escribió y luego salió del chat conserva sus mensajes.
+     * @param mensaje mensaje a agregar al final del historial (no nulo).
+     * @throws IllegalArgumentException si es nulo.
+     */
+    public void restaurarMensaje(Mensaje mensaje) {
+        if (mensaje == null) throw new IllegalArgumentException("El mensaje no puede ser nulo.");
+        mensajes.add(mensaje);
+    }
+
     /**
      * Devuelve una vista inmutable del historial completo de mensajes.
      * @return lista inmutable con el historial.
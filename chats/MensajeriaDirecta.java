@@ -109,11 +109,25 @@ public class MensajeriaDirecta {
      * @throws IllegalStateException si el remitente no pertenece a la conversación.
      */
     public Mensaje enviarMensaje(Usuario remitente, String texto) {
+        return enviarMensaje(remitente, texto, new Date());
+    }
+
+    /**
+     * Igual que {@link #enviarMensaje(Usuario, String)}, con la fecha indicada (p. ej., al reconstruir el
+     * historial desde la bitácora de cambios).
+     * @param remitente quien envía (debe participar en la conversación).
+     * @param texto contenido (no nulo/ni vacío).
+     * @param fecha fecha del mensaje (no nula).
+     * @return el {@link Mensaje} creado y agregado al historial.
+     * @throws IllegalArgumentException si parámetros inválidos.
+     * @throws IllegalStateException si el remitente no participa.
+     */
+    public Mensaje enviarMensaje(Usuario remitente, String texto, Date fecha) {
         Objects.requireNonNull(remitente, "Remitente no puede ser nulo.");
         if (!esParticipante(remitente)) {
             throw new IllegalStateException("El remitente no pertenece a esta conversación.");
         }
-        Mensaje msg = new Mensaje(new Date(), remitente, texto);
+        Mensaje msg = new Mensaje(fecha, remitente, texto);
         mensajes.add(msg);
         return msg;
     }
@@ -0,0 +1,326 @@
+package eventos;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * La clase {@code ArbolPosiciones} es un árbol de estadísticos de orden (treap con tamaño de subárbol)
+ * sobre las filas de un {@link ResultadosEvento}, ordenadas por (tiempo en milisegundos, dorsal, id de
+ * inscripción). Permite saber en O(log n) cuántos tiempos son estrictamente menores que uno dado, que es
+ * lo que determina una posición en la clasificación.
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>El árbol no tiene nodos: el nodo de una fila es la propia fila, la clave se lee de las columnas del
+ *       almacén y los hijos y tamaños viven en arreglos indexados por fila ({@link Enlaces}). Una fila está
+ *       a lo sumo en un árbol de cada familia (una distancia, una categoría), así que todos los árboles de
+ *       una familia comparten los mismos arreglos: 12 bytes por fila y familia, sin objetos.</li>
+ *   <li>Orden: tiempo ascendente; a igual tiempo, dorsal y luego id (cada clave es única aunque dos
+ *       inscripciones compartan dorsal).</li>
+ *   <li>La prioridad de cada fila es un hash de su clave (no se guarda). Insertar, remover y contar son
+ *       O(log n) esperado.</li>
+ *   <li>La clave de una fila no debe cambiar mientras está en el árbol: {@link RankingEvento} la quita,
+ *       reescribe la fila y la vuelve a insertar.</li>
+ *   <li>No es segura para hilos: la sincronización corresponde a {@link RankingEvento}.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+final class ArbolPosiciones {
+
+    /** Fila nula (árbol o subárbol vacío). */
+    static final int VACIO = -1;
+
+    /**
+     * Hijos y tamaño de subárbol por fila, compartidos por los árboles de una familia.
+     */
+    static final class Enlaces {
+        int[] izq = new int[0];
+        int[] der = new int[0];
+        int[] tam = new int[0];
+
+        /**
+         * Agranda los arreglos hasta la capacidad del almacén (si hace falta).
+         * @param capacidad filas que deben caber.
+         */
+        void asegurar(int capacidad) {
+            if (izq.length >= capacidad) return;
+            izq = Arrays.copyOf(izq, capacidad);
+            der = Arrays.copyOf(der, capacidad);
+            tam = Arrays.copyOf(tam, capacidad);
+        }
+    }
+
+    /** Almacén del que se leen las claves. */
+    private final ResultadosEvento filas;
+
+    /** Enlaces de la familia. */
+    private final Enlaces enlaces;
+
+    /** Raíz del árbol ({@link #VACIO} si está vacío). */
+    private int raiz = VACIO;
+
+    /** Espina derecha durante una carga en orden ({@link #anexar(int)}). */
+    private int[] espina = new int[0];
+
+    /** Largo de {@link #espina}. */
+    private int tope;
+
+    /**
+     * @param filas   almacén del que se leen las claves.
+     * @param enlaces enlaces de la familia del árbol.
+     */
+    ArbolPosiciones(ResultadosEvento filas, Enlaces enlaces) {
+        this.filas = filas;
+        this.enlaces = enlaces;
+    }
+
+    /** @return cantidad de filas en el árbol. */
+    int tamanio() { return tam(raiz); }
+
+    /**
+     * Inserta una fila (que no debe estar ya en el árbol).
+     * @param fila fila con su clave escrita en el almacén.
+     */
+    void insertar(int fila) {
+        raiz = insertarEn(raiz, fila);
+    }
+
+    /**
+     * Remueve una fila (con la misma clave con la que se insertó).
+     * @param fila fila a remover; si no está, no hace nada.
+     */
+    void remover(int fila) {
+        raiz = removerEn(raiz, fila);
+    }
+
+    /**
+     * La fila {@code vieja} se mudó a {@code nueva} en el almacén (misma clave): el nodo pasa a ser la fila
+     * nueva sin cambiar la forma del árbol. Uso de {@link RankingEvento} al quitar una fila.
+     * @param vieja fila anterior (en el árbol).
+     * @param nueva fila actual, con la clave ya copiada.
+     */
+    void mudar(int vieja, int nueva) {
+        int[] izq = enlaces.izq, der = enlaces.der;
+        int padre = VACIO;
+        int n = raiz;
+        while (n != VACIO && n != vieja) {
+            padre = n;
+            n = (comparar(nueva, n) < 0) ? izq[n] : der[n];
+        }
+        if (n == VACIO) return;
+        izq[nueva] = izq[vieja];
+        der[nueva] = der[vieja];
+        enlaces.tam[nueva] = enlaces.tam[vieja];
+        if (padre == VACIO) raiz = nueva;
+        else if (izq[padre] == vieja) izq[padre] = nueva;
+        else der[padre] = nueva;
+    }
+
+    /**
+     * Carga en orden: agrega una fila mayor que todas las anteriores, en O(1) amortizado (entra por la
+     * espina derecha y baja a su izquierda las filas de menor prioridad). Uso de la carga en bloque de
+     * {@link RankingEvento}; el árbol queda consultable tras {@link #cerrarCarga()}.
+     * @param fila fila siguiente en el orden.
+     * @throws IllegalStateException si el árbol no estaba vacío al empezar la carga.
+     */
+    void anexar(int fila) {
+        if (raiz != VACIO) throw new IllegalStateException("El árbol debe estar vacío.");
+        int[] izq = enlaces.izq, der = enlaces.der;
+        int bajado = VACIO;
+        while (tope > 0 && prioridad(espina[tope - 1]) < prioridad(fila)) {
+            bajado = espina[--tope];
+            actualizar(bajado); // su subárbol ya no cambia
+        }
+        izq[fila] = bajado;
+        der[fila] = VACIO;
+        if (tope > 0) der[espina[tope - 1]] = fila;
+        if (tope == espina.length) espina = Arrays.copyOf(espina, Math.max(16, tope * 2));
+        espina[tope++] = fila;
+    }
+
+    /** Termina una carga en orden. */
+    void cerrarCarga() {
+        if (tope == 0) return;
+        int primera = espina[0];
+        while (tope > 0) actualizar(espina[--tope]);
+        raiz = primera;
+        espina = new int[0];
+    }
+
+    /**
+     * @param tiempo tiempo de referencia.
+     * @return cantidad de filas con tiempo estrictamente menor.
+     */
+    int contarMenores(long tiempo) {
+        int[] izq = enlaces.izq, der = enlaces.der;
+        long[] ms = filas.milisegundos;
+        int cuenta = 0;
+        int n = raiz;
+        while (n != VACIO) {
+            if (ms[n] < tiempo) {
+                cuenta += tam(izq[n]) + 1;
+                n = der[n];
+            } else {
+                n = izq[n];
+            }
+        }
+        return cuenta;
+    }
+
+    /**
+     * @param k posición en el orden (0 = primero; 0 &le; k &lt; tamanio).
+     * @return fila que ocupa esa posición.
+     * @throws IndexOutOfBoundsException si {@code k} está fuera de rango.
+     */
+    int filaEnPosicion(int k) {
+        if (k < 0 || k >= tamanio()) throw new IndexOutOfBoundsException("Posición fuera de rango: " + k);
+        int[] izq = enlaces.izq, der = enlaces.der;
+        int n = raiz;
+        while (true) {
+            int t = tam(izq[n]);
+            if (k < t) {
+                n = izq[n];
+            } else if (k == t) {
+                return n;
+            } else {
+                k -= t + 1;
+                n = der[n];
+            }
+        }
+    }
+
+    /**
+     * Recorre en orden las primeras {@code k} filas.
+     * @param k      cantidad máxima a recorrer.
+     * @param accion receptor de filas, en orden de clasificación.
+     */
+    void recorrerPrimeros(int k, IntConsumer accion) {
+        recorrer(raiz, new int[]{k}, accion);
+    }
+
+    /**
+     * Ordena filas del almacén por clave (ordenamiento por mezcla estable, sin objetos).
+     * @param filas almacén.
+     * @param orden filas a ordenar (se reordena en el lugar).
+     */
+    static void ordenar(ResultadosEvento filas, int[] orden) {
+        int n = orden.length;
+        int[] a = orden, b = new int[n];
+        for (int ancho = 1; ancho < n; ancho *= 2) {
+            for (int desde = 0; desde < n; desde += 2 * ancho) {
+                int medio = Math.min(desde + ancho, n), hasta = Math.min(desde + 2 * ancho, n);
+                int i = desde, j = medio, k = desde;
+                while (i < medio && j < hasta) b[k++] = (comparar(filas, a[j], a[i]) < 0) ? a[j++] : a[i++];
+                while (i < medio) b[k++] = a[i++];
+                while (j < hasta) b[k++] = a[j++];
+            }
+            int[] t = a;
+            a = b;
+            b = t;
+        }
+        if (a != orden) System.arraycopy(a, 0, orden, 0, n);
+    }
+
+    /**
+     * Compara dos filas por clave (tiempo, dorsal, id).
+     * @param filas almacén.
+     * @param a     fila.
+     * @param b     fila.
+     * @return negativo, cero o positivo.
+     */
+    static int comparar(ResultadosEvento filas, int a, int b) {
+        int c = Long.compare(filas.milisegundos[a], filas.milisegundos[b]);
+        if (c != 0) return c;
+        c = Integer.compare(filas.dorsales[a], filas.dorsales[b]);
+        return (c != 0) ? c : Integer.compare(filas.ids[a], filas.ids[b]);
+    }
+
+    // ------------------------------------------------------------
+    // Utilidades internas
+    // ------------------------------------------------------------
+
+    private int tam(int n) { return (n == VACIO) ? 0 : enlaces.tam[n]; }
+
+    private void actualizar(int n) { enlaces.tam[n] = 1 + tam(enlaces.izq[n]) + tam(enlaces.der[n]); }
+
+    private int comparar(int a, int b) { return comparar(filas, a, b); }
+
+    /** Prioridad del treap: mezcla de la clave de la fila (estable mientras la fila está en el árbol). */
+    private int prioridad(int fila) {
+        long h = filas.milisegundos[fila] * 0x9E3779B97F4A7C15L + filas.ids[fila];
+        h = (h ^ (h >>> 32)) * 0xD6E8FEB86659FD93L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int insertarEn(int n, int fila) {
+        int[] izq = enlaces.izq, der = enlaces.der;
+        if (n == VACIO) {
+            izq[fila] = VACIO;
+            der[fila] = VACIO;
+            enlaces.tam[fila] = 1;
+            return fila;
+        }
+        if (comparar(fila, n) < 0) {
+            izq[n] = insertarEn(izq[n], fila);
+            if (prioridad(izq[n]) > prioridad(n)) return rotarDerecha(n);
+        } else {
+            der[n] = insertarEn(der[n], fila);
+            if (prioridad(der[n]) > prioridad(n)) return rotarIzquierda(n);
+        }
+        actualizar(n);
+        return n;
+    }
+
+    private int removerEn(int n, int fila) {
+        if (n == VACIO) return VACIO;
+        int[] izq = enlaces.izq, der = enlaces.der;
+        if (n == fila) return unir(izq[n], der[n]);
+        if (comparar(fila, n) < 0) izq[n] = removerEn(izq[n], fila);
+        else der[n] = removerEn(der[n], fila);
+        actualizar(n);
+        return n;
+    }
+
+    /** Une dos árboles donde todo {@code a} es menor que todo {@code b}. */
+    private int unir(int a, int b) {
+        if (a == VACIO) return b;
+        if (b == VACIO) return a;
+        if (prioridad(a) > prioridad(b)) {
+            enlaces.der[a] = unir(enlaces.der[a], b);
+            actualizar(a);
+            return a;
+        }
+        enlaces.izq[b] = unir(a, enlaces.izq[b]);
+        actualizar(b);
+        return b;
+    }
+
+    private int rotarDerecha(int n) {
+        int h = enlaces.izq[n];
+        enlaces.izq[n] = enlaces.der[h];
+        enlaces.der[h] = n;
+        actualizar(n);
+        actualizar(h);
+        return h;
+    }
+
+    private int rotarIzquierda(int n) {
+        int h = enlaces.der[n];
+        enlaces.der[n] = enlaces.izq[h];
+        enlaces.izq[h] = n;
+        actualizar(n);
+        actualizar(h);
+        return h;
+    }
+
+    private void recorrer(int n, int[] restantes, IntConsumer accion) {
+        if (n == VACIO || restantes[0] <= 0) return;
+        recorrer(enlaces.izq[n], restantes, accion);
+        if (restantes[0] <= 0) return;
+        accion.accept(n);
+        restantes[0]--;
+        recorrer(enlaces.der[n], restantes, accion);
+    }
+}
@@ -0,0 +1,201 @@
+package eventos;
+
+import java.util.EnumMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * La clase {@code AsignadorDorsales} reparte números de dorsal de un {@link Evento} a partir de
+ * rangos configurables por {@link Inscripcion.Distancia} (p. ej., 1–4999 para MARATON).
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>Cada rango lleva un mapa de bits de dorsales ocupados (1 = ocupado).</li>
+ *   <li>Asignar, marcar y liberar son operaciones sin bloqueo (CAS sobre {@link AtomicLongArray}).</li>
+ *   <li>Los rangos de distintas distancias no pueden solaparse.</li>
+ *   <li>Los dorsales fuera de todo rango se ignoran (se siguen validando en {@link Evento}).</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+final class AsignadorDorsales {
+
+    /**
+     * Rango de dorsales de una distancia con su mapa de bits de ocupación.
+     */
+    private static final class Rango {
+        private final int desde;
+        private final int hasta;
+        private final AtomicLongArray ocupados;
+        /** Palabra del mapa donde se encontró el último hueco (punto de partida de la búsqueda). */
+        private final AtomicInteger pista = new AtomicInteger();
+
+        Rango(int desde, int hasta) {
+            this.desde = desde;
+            this.hasta = hasta;
+            int cantidad = hasta - desde + 1;
+            this.ocupados = new AtomicLongArray((cantidad + 63) >>> 6);
+            // Los bits sobrantes de la última palabra quedan marcados como ocupados.
+            int resto = cantidad & 63;
+            if (resto != 0) ocupados.set(ocupados.length() - 1, -1L << resto);
+        }
+
+        boolean contiene(int dorsal) {
+            return dorsal >= desde && dorsal <= hasta;
+        }
+
+        boolean seSolapaCon(int d, int h) {
+            return d <= hasta && h >= desde;
+        }
+    }
+
+    /**
+     * Rangos configurados por distancia. Se reemplaza completo al configurar (copia en escritura),
+     * de modo que las lecturas no necesitan bloqueo.
+     */
+    private volatile EnumMap<Inscripcion.Distancia, Rango> rangos = new EnumMap<>(Inscripcion.Distancia.class);
+
+    /**
+     * Configura (o reemplaza) el rango de dorsales de una distancia. El nuevo rango arranca vacío;
+     * {@link Evento} vuelve a marcar los dorsales ya en uso.
+     *
+     * @param distancia distancia (no nula).
+     * @param desde     primer dorsal del rango (&gt; 0).
+     * @param hasta     último dorsal del rango (&ge; desde).
+     * @throws IllegalArgumentException si el rango es inválido o se solapa con el de otra distancia.
+     */
+    synchronized void configurarRango(Inscripcion.Distancia distancia, int desde, int hasta) {
+        if (distancia == null) throw new IllegalArgumentException("La distancia no puede ser nula.");
+        if (desde <= 0 || hasta < desde) throw new IllegalArgumentException("Rango de dorsales inválido: " + desde + "-" + hasta);
+        for (var e : rangos.entrySet()) {
+            if (e.getKey() != distancia && e.getValue().seSolapaCon(desde, hasta)) {
+                throw new IllegalArgumentException("El rango se solapa con el de " + e.getKey() + ".");
+            }
+        }
+        EnumMap<Inscripcion.Distancia, Rango> copia = new EnumMap<>(rangos);
+        copia.put(distancia, new Rango(desde, hasta));
+        rangos = copia;
+    }
+
+    /**
+     * Deja todos los rangos configurados sin dorsales ocupados.
+     */
+    synchronized void vaciar() {
+        EnumMap<Inscripcion.Distancia, Rango> copia = new EnumMap<>(Inscripcion.Distancia.class);
+        rangos.forEach((d, r) -> copia.put(d, new Rango(r.desde, r.hasta)));
+        rangos = copia;
+    }
+
+    /**
+     * @param distancia distancia a consultar.
+     * @return {@code true} si la distancia tiene un rango configurado.
+     */
+    boolean tieneRango(Inscripcion.Distancia distancia) {
+        return rangos.containsKey(distancia);
+    }
+
+    /**
+     * @param distancia distancia a consultar.
+     * @return primer dorsal del rango, o 0 si no tiene rango.
+     */
+    int desde(Inscripcion.Distancia distancia) {
+        Rango r = rangos.get(distancia);
+        return (r == null) ? 0 : r.desde;
+    }
+
+    /**
+     * @param distancia distancia a consultar.
+     * @return último dorsal del rango, o 0 si no tiene rango.
+     */
+    int hasta(Inscripcion.Distancia distancia) {
+        Rango r = rangos.get(distancia);
+        return (r == null) ? 0 : r.hasta;
+    }
+
+    /**
+     * Asigna un dorsal libre del rango de la distancia, sin bloqueos.
+     * <p>Si otro hilo gana el CAS de una palabra, se relee y se sigue con el siguiente bit libre.</p>
+     *
+     * @param distancia distancia (no nula).
+     * @return dorsal reservado.
+     * @throws IllegalStateException si la distancia no tiene rango o el rango está agotado.
+     */
+    int asignar(Inscripcion.Distancia distancia) {
+        Rango r = rangos.get(distancia);
+        if (r == null) throw new IllegalStateException("No hay rango de dorsales configurado para " + distancia + ".");
+        int palabras = r.ocupados.length();
+        int inicio = r.pista.get();
+        for (int k = 0; k < palabras; k++) {
+            int w = (inicio + k) % palabras;
+            long actual = r.ocupados.get(w);
+            while (actual != -1L) {
+                int bit = Long.numberOfTrailingZeros(~actual);
+                if (r.ocupados.compareAndSet(w, actual, actual | (1L << bit))) {
+                    r.pista.set(w);
+                    return r.desde + (w << 6) + bit;
+                }
+                actual = r.ocupados.get(w);
+            }
+        }
+        throw new IllegalStateException("No quedan dorsales libres para " + distancia + ".");
+    }
+
+    /**
+     * Reserva un dorsal concreto (p. ej., elegido a mano): lo marca como ocupado solo si su bit estaba libre.
+     * @param dorsal dorsal a reservar.
+     * @return {@code true} si quedó reservado o está fuera de todo rango; {@code false} si su bit ya estaba
+     *         marcado (dorsal en uso o reservado por una asignación automática en curso).
+     */
+    boolean reservar(int dorsal) {
+        Rango r = rangoQueContiene(dorsal);
+        if (r == null) return true;
+        int idx = dorsal - r.desde;
+        long mascara = 1L << (idx & 63);
+        int w = idx >>> 6;
+        long actual;
+        do {
+            actual = r.ocupados.get(w);
+            if ((actual & mascara) != 0) return false;
+        } while (!r.ocupados.compareAndSet(w, actual, actual | mascara));
+        return true;
+    }
+
+    /**
+     * Marca un dorsal como ocupado aunque ya lo estuviera (p. ej., al volver a marcar los dorsales en uso).
+     * @param dorsal dorsal a marcar.
+     */
+    void marcar(int dorsal) {
+        reservar(dorsal);
+    }
+
+    /**
+     * Libera un dorsal para que pueda reutilizarse.
+     * @param dorsal dorsal a liberar.
+     */
+    void liberar(int dorsal) {
+        Rango r = rangoQueContiene(dorsal);
+        if (r == null) return;
+        int idx = dorsal - r.desde;
+        long mascara = 1L << (idx & 63);
+        int w = idx >>> 6;
+        long actual;
+        do {
+            actual = r.ocupados.get(w);
+            if ((actual & mascara) == 0) return;
+        } while (!r.ocupados.compareAndSet(w, actual, actual & ~mascara));
+        // Favorece reutilizar primero los números recién liberados.
+        r.pista.set(w);
+    }
+
+    /**
+     * @param dorsal dorsal a ubicar.
+     * @return el rango que contiene el dorsal o {@code null}.
+     */
+    private Rango rangoQueContiene(int dorsal) {
+        for (Rango r : rangos.values()) {
+            if (r.contiene(dorsal)) return r;
+        }
+        return null;
+    }
+}
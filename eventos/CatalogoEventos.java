@@ -0,0 +1,239 @@
+package eventos;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * La clase {@code CatalogoEventos} mantiene los {@link Evento} registrados indexados por id,
+ * por fecha y por {@link Evento.EstadoEvento}, de modo que los listados ordenados y las consultas
+ * por rango (p. ej., "eventos ABIERTOS en los próximos 30 días") no requieren ordenar ni recorrer
+ * todo el catálogo.
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>Un evento pertenece como máximo a un catálogo; el id debe ser único dentro del catálogo.</li>
+ *   <li>El evento avisa a su catálogo cuando cambia su fecha o su estado, y los índices se actualizan
+ *       en O(log n).</li>
+ *   <li>A igual fecha, los eventos se ordenan por id.</li>
+ *   <li>Las consultas devuelven listas inmutables (copias), seguras de recorrer aunque el catálogo cambie.</li>
+ *   <li>Sin lectura/escritura por consola.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+public class CatalogoEventos {
+
+    /**
+     * Clave de los índices por fecha: milisegundos de la fecha y, para desempatar, el id.
+     */
+    private static final class ClaveFecha implements Comparable<ClaveFecha> {
+        private final long millis;
+        private final int id;
+
+        ClaveFecha(long millis, int id) {
+            this.millis = millis;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(ClaveFecha o) {
+            int c = Long.compare(millis, o.millis);
+            return (c != 0) ? c : Integer.compare(id, o.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ClaveFecha)) return false;
+            ClaveFecha k = (ClaveFecha) o;
+            return millis == k.millis && id == k.id;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(millis) * 31 + id;
+        }
+    }
+
+    /** Eventos por id (orden ascendente). */
+    private final TreeMap<Integer, Evento> porId = new TreeMap<>();
+
+    /** Eventos por fecha (y id). */
+    private final TreeMap<ClaveFecha, Evento> porFecha = new TreeMap<>();
+
+    /** Eventos por estado, cada uno ordenado por fecha (y id). */
+    private final EnumMap<Evento.EstadoEvento, TreeMap<ClaveFecha, Evento>> porEstado = new EnumMap<>(Evento.EstadoEvento.class);
+
+    /** Clave y estado con los que cada evento está indexado (para poder reubicarlo al cambiar). */
+    private final Map<Integer, ClaveFecha> clavesIndexadas = new HashMap<>();
+    private final Map<Integer, Evento.EstadoEvento> estadosIndexados = new HashMap<>();
+
+    /** Crea un catálogo vacío. */
+    public CatalogoEventos() {
+        for (Evento.EstadoEvento e : Evento.EstadoEvento.values()) porEstado.put(e, new TreeMap<>());
+    }
+
+    // ------------------------------------------------------------
+    // Altas / bajas
+    // ------------------------------------------------------------
+
+    /**
+     * Agrega un evento al catálogo.
+     * @param evento evento a agregar (no nulo).
+     * @throws IllegalArgumentException si el evento es nulo o ya existe uno con el mismo id.
+     * @throws IllegalStateException si el evento ya pertenece a otro catálogo.
+     */
+    public synchronized void agregar(Evento evento) {
+        if (evento == null) throw new IllegalArgumentException("El evento no puede ser nulo.");
+        if (porId.containsKey(evento.getId())) {
+            throw new IllegalArgumentException("Ya existe un evento con id " + evento.getId() + ".");
+        }
+        evento.vincularCatalogo(this);
+        porId.put(evento.getId(), evento);
+        indexar(evento);
+    }
+
+    /**
+     * Quita un evento del catálogo por id.
+     * @param id id del evento.
+     * @return el evento removido o {@code null} si no existía.
+     */
+    public synchronized Evento remover(int id) {
+        Evento ev = porId.remove(id);
+        if (ev == null) return null;
+        desindexar(ev);
+        ev.desvincularCatalogo(this);
+        return ev;
+    }
+
+    // ------------------------------------------------------------
+    // Consultas
+    // ------------------------------------------------------------
+
+    /**
+     * @param id id del evento.
+     * @return el evento o {@code null} si no existe.
+     */
+    public synchronized Evento obtener(int id) {
+        return porId.get(id);
+    }
+
+    /** @return cantidad de eventos del catálogo. */
+    public synchronized int tamanio() { return porId.size(); }
+
+    /** @return {@code true} si no hay eventos. */
+    public synchronized boolean estaVacio() { return porId.isEmpty(); }
+
+    /** @return todos los eventos ordenados por id. */
+    public synchronized List<Evento> listarPorId() {
+        return copiar(porId);
+    }
+
+    /** @return todos los eventos ordenados por fecha (y id). */
+    public synchronized List<Evento> listarPorFecha() {
+        return copiar(porFecha);
+    }
+
+    /**
+     * @param estado estado a filtrar (no nulo).
+     * @return eventos en ese estado, ordenados por fecha (y id).
+     */
+    public synchronized List<Evento> listarPorEstado(Evento.EstadoEvento estado) {
+        if (estado == null) throw new IllegalArgumentException("El estado no puede ser nulo.");
+        return copiar(porEstado.get(estado));
+    }
+
+    /**
+     * Eventos cuya fecha está en el rango [desde, hasta] (ambos inclusive), ordenados por fecha.
+     * @param desde inicio del rango (no nulo).
+     * @param hasta fin del rango (no nulo).
+     * @return eventos del rango.
+     * @throws IllegalArgumentException si alguna fecha es nula.
+     */
+    public synchronized List<Evento> buscarEntreFechas(Date desde, Date hasta) {
+        return copiar(rango(porFecha, desde, hasta));
+    }
+
+    /**
+     * Eventos en un estado cuya fecha está en el rango [desde, hasta] (ambos inclusive), ordenados por fecha.
+     * @param estado estado a filtrar (no nulo).
+     * @param desde  inicio del rango (no nulo).
+     * @param hasta  fin del rango (no nulo).
+     * @return eventos del rango.
+     * @throws IllegalArgumentException si algún parámetro es nulo.
+     */
+    public synchronized List<Evento> buscarPorEstadoEntreFechas(Evento.EstadoEvento estado, Date desde, Date hasta) {
+        if (estado == null) throw new IllegalArgumentException("El estado no puede ser nulo.");
+        return copiar(rango(porEstado.get(estado), desde, hasta));
+    }
+
+    /**
+     * Eventos en un estado cuya fecha cae en los próximos {@code dias} días a partir de {@code desde}.
+     * @param estado estado a filtrar (no nulo).
+     * @param desde  fecha de referencia (no nula), normalmente "ahora".
+     * @param dias   cantidad de días (&ge; 0).
+     * @return eventos del rango, ordenados por fecha.
+     * @throws IllegalArgumentException si algún parámetro es inválido.
+     */
+    public List<Evento> buscarProximos(Evento.EstadoEvento estado, Date desde, int dias) {
+        if (desde == null) throw new IllegalArgumentException("La fecha no puede ser nula.");
+        if (dias < 0) throw new IllegalArgumentException("Los días no pueden ser negativos.");
+        Date hasta = new Date(desde.getTime() + TimeUnit.DAYS.toMillis(dias));
+        return buscarPorEstadoEntreFechas(estado, desde, hasta);
+    }
+
+    // ------------------------------------------------------------
+    // Avisos desde Evento
+    // ------------------------------------------------------------
+
+    /**
+     * Reubica el evento en los índices tras un cambio de fecha o de estado.
+     * @param evento evento modificado (perteneciente a este catálogo).
+     */
+    synchronized void reindexar(Evento evento) {
+        if (porId.get(evento.getId()) != evento) return;
+        desindexar(evento);
+        indexar(evento);
+    }
+
+    // ------------------------------------------------------------
+    // Utilidades internas
+    // ------------------------------------------------------------
+
+    private void indexar(Evento ev) {
+        ClaveFecha clave = new ClaveFecha(ev.getFecha().getTime(), ev.getId());
+        Evento.EstadoEvento estado = ev.getEstado();
+        porFecha.put(clave, ev);
+        porEstado.get(estado).put(clave, ev);
+        clavesIndexadas.put(ev.getId(), clave);
+        estadosIndexados.put(ev.getId(), estado);
+    }
+
+    private void desindexar(Evento ev) {
+        ClaveFecha clave = clavesIndexadas.remove(ev.getId());
+        Evento.EstadoEvento estado = estadosIndexados.remove(ev.getId());
+        if (clave == null) return;
+        porFecha.remove(clave);
+        porEstado.get(estado).remove(clave);
+    }
+
+    private static NavigableMap<ClaveFecha, Evento> rango(TreeMap<ClaveFecha, Evento> indice, Date desde, Date hasta) {
+        if (desde == null || hasta == null) throw new IllegalArgumentException("Las fechas no pueden ser nulas.");
+        if (hasta.before(desde)) return Collections.emptyNavigableMap();
+        return indice.subMap(new ClaveFecha(desde.getTime(), Integer.MIN_VALUE), true,
+                new ClaveFecha(hasta.getTime(), Integer.MAX_VALUE), true);
+    }
+
+    private static List<Evento> copiar(Map<?, Evento> indice) {
+        return Collections.unmodifiableList(new ArrayList<>(indice.values()));
+    }
+}
@@ -0,0 +1,94 @@
+package eventos;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * La clase {@code ControlCupos} lleva el cupo y la ocupación de cada {@link Inscripcion.Distancia}
+ * de un {@link Evento} con contadores atómicos (admisión sin bloqueos).
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>Un cupo de 0 significa "sin límite" (la ocupación se sigue contando).</li>
+ *   <li>{@link #reservar} nunca deja la ocupación por encima del cupo, aun con miles de hilos.</li>
+ *   <li>Bajar el cupo por debajo de la ocupación actual no expulsa a nadie: solo impide nuevas altas.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+final class ControlCupos {
+
+    /** Cupo por distancia (índice = ordinal); 0 = sin límite. */
+    private final AtomicIntegerArray cupos = new AtomicIntegerArray(Inscripcion.Distancia.values().length);
+
+    /** Inscripciones admitidas por distancia (índice = ordinal). */
+    private final AtomicIntegerArray ocupados = new AtomicIntegerArray(Inscripcion.Distancia.values().length);
+
+    /**
+     * Define el cupo de una distancia.
+     * @param distancia distancia (no nula).
+     * @param cupo      cupo máximo (&gt; 0) o 0 para quitar el límite.
+     * @throws IllegalArgumentException si la distancia es nula o el cupo es negativo.
+     */
+    void configurar(Inscripcion.Distancia distancia, int cupo) {
+        if (distancia == null) throw new IllegalArgumentException("La distancia no puede ser nula.");
+        if (cupo < 0) throw new IllegalArgumentException("El cupo no puede ser negativo.");
+        cupos.set(distancia.ordinal(), cupo);
+    }
+
+    /**
+     * @param distancia distancia a consultar.
+     * @return cupo configurado (0 = sin límite).
+     */
+    int cupo(Inscripcion.Distancia distancia) {
+        return cupos.get(distancia.ordinal());
+    }
+
+    /**
+     * @param distancia distancia a consultar.
+     * @return inscripciones admitidas en la distancia.
+     */
+    int ocupados(Inscripcion.Distancia distancia) {
+        return ocupados.get(distancia.ordinal());
+    }
+
+    /**
+     * @param distancia distancia a consultar.
+     * @return {@code true} si una reserva tendría éxito en este momento.
+     */
+    boolean hayCupo(Inscripcion.Distancia distancia) {
+        int limite = cupos.get(distancia.ordinal());
+        return limite == 0 || ocupados.get(distancia.ordinal()) < limite;
+    }
+
+    /**
+     * Intenta admitir una inscripción más en la distancia (CAS, sin bloqueos).
+     * @param distancia distancia.
+     * @return {@code true} si se admitió; {@code false} si el cupo está lleno.
+     */
+    boolean reservar(Inscripcion.Distancia distancia) {
+        int d = distancia.ordinal();
+        while (true) {
+            int actual = ocupados.get(d);
+            int limite = cupos.get(d);
+            if (limite != 0 && actual >= limite) return false;
+            if (ocupados.compareAndSet(d, actual, actual + 1)) return true;
+        }
+    }
+
+    /**
+     * Devuelve un lugar de la distancia.
+     * @param distancia distancia.
+     */
+    void liberar(Inscripcion.Distancia distancia) {
+        ocupados.decrementAndGet(distancia.ordinal());
+    }
+
+    /**
+     * Reemplaza la ocupación de todas las distancias (p. ej., al reemplazar la lista de inscripciones).
+     * @param porDistancia ocupación indexada por ordinal de distancia.
+     */
+    void fijarOcupacion(int[] porDistancia) {
+        for (int d = 0; d < porDistancia.length; d++) ocupados.set(d, porDistancia[d]);
+    }
+}
@@ -1,11 +1,19 @@
 package eventos;
 
+import usuarios.Corredor;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * La clase {@code Evento} modela una competición con fecha, categorías e inscripciones.
@@ -16,9 +24,17 @@ import java.util.stream.Collectors;
  *     <li>Unicidad de dorsal: en un mismo evento, dos inscripciones no pueden compartir dorsal.</li>
  *     <li>Las inscripciones asociadas deben referenciar este mismo evento.</li>
  *     <li>Estados de evento: PLANIFICADO, ABIERTO, CERRADO, FINALIZADO.</li>
+ *     <li>Cupo opcional por distancia; las solicitudes sin cupo esperan en una lista por orden de llegada.</li>
+ *     <li>Si pertenece a un {@link CatalogoEventos}, los cambios de fecha y estado se reflejan en sus índices.</li>
  *     <li>Sin lectura/escritura por consola dentro de la entidad.</li>
  * </ul>
  *
+ * <p><b>Concurrencia:</b> las operaciones sobre inscripciones se sincronizan con el monitor del
+ * propio evento, de modo que varios hilos pueden registrar inscripciones a la vez; las lecturas de la
+ * lista usan instantáneas inmutables ({@link InstantaneaInscripciones}) y no bloquean. {@link Inscripcion}
+ * usa ese mismo monitor para sus transiciones de estado y cambios de dorsal. Quien además necesite
+ * bloquear un {@code Corredor} debe hacerlo <i>antes</i> de entrar al evento (orden corredor → evento).</p>
+ *
  * @author
  * @version 1.0
  */
@@ -47,8 +63,51 @@ public class Evento {
     /** Categorías del evento. */
     private List<Categoria> categorias = new ArrayList<>();
 
-    /** Inscripciones registradas en el evento. */
-    private List<Inscripcion> inscripciones = new ArrayList<>();
+    /**
+     * Inscripciones registradas en el evento. Es una instantánea inmutable que se reemplaza
+     * (bajo el monitor del evento) en cada cambio; los lectores la obtienen sin bloquear.
+     */
+    private volatile InstantaneaInscripciones inscripciones = InstantaneaInscripciones.vacia();
+
+    /** Índice primitivo dorsal → id de inscripción (verificación de dorsal en O(1)). */
+    private IndiceEnteros indiceDorsales = new IndiceEnteros();
+
+    /** Índice primitivo id de inscripción → posición en {@link #inscripciones}. */
+    private IndiceEnteros indicePosiciones = new IndiceEnteros();
+
+    /**
+     * Índice secundario por {@link Inscripcion.Estado} (posición = ordinal): un vector persistente por estado
+     * que se reemplaza bajo el monitor del evento en cada cambio y se lee sin bloquear. Su tamaño sirve
+     * además como contador por estado.
+     */
+    private final AtomicReferenceArray<VectorPersistente<Inscripcion>> inscripcionesPorEstado = nuevoIndicePorEstado();
+
+    /** Índice primitivo id de inscripción → posición en el vector de su estado. */
+    private IndiceEnteros posicionesEnEstado = new IndiceEnteros();
+
+    /** Asignador automático de dorsales por rangos de distancia. */
+    private final AsignadorDorsales asignadorDorsales = new AsignadorDorsales();
+
+    /** Cupo y ocupación por distancia (admisión con contadores atómicos). */
+    private final ControlCupos cupos = new ControlCupos();
+
+    /** Listas de espera por distancia, en orden de llegada. */
+    private final EnumMap<Inscripcion.Distancia, Deque<SolicitudInscripcion>> listasEspera = nuevasListasEspera();
+
+    /** Solicitudes en espera por cédula de corredor (protegido por sí mismo, junto con las listas). */
+    private final Map<Integer, Integer> enEsperaPorCorredor = new HashMap<>();
+
+    /** Clasificación incremental de los tiempos registrados en el evento. */
+    private final RankingEvento ranking = new RankingEvento(this);
+
+    /** Tiempos parciales por punto de control. */
+    private final ParcialesEvento parciales = new ParcialesEvento(this);
+
+    /** Premiación generada al pasar a FINALIZADO (o {@code null} si aún no finalizó). */
+    private volatile Premiacion premiacion;
+
+    /** Catálogo al que pertenece el evento (o {@code null}); se le avisa de cambios de fecha y estado. */
+    private volatile CatalogoEventos catalogo;
 
     /**
      * Crea un nuevo {@code Evento}.
@@ -82,12 +141,52 @@ public class Evento {
      * @param dorsal número de dorsal a verificar.
      * @return {@code true} si existe una inscripción con ese dorsal; {@code false} en caso contrario.
      */
-    public boolean existeDorsal(int dorsal) {
-        if (dorsal <= 0) return false;
-        for (Inscripcion i : inscripciones) {
-            if (i != null && i.getNumeroDorsal() == dorsal) return true;
-        }
-        return false;
+    public synchronized boolean existeDorsal(int dorsal) {
+        return indiceDorsales.contiene(dorsal);
+    }
+
+    /**
+     * Busca una inscripción del evento por su ID en O(1).
+     *
+     * @param idInscripcion id de la inscripción.
+     * @return la inscripción, o {@code null} si no pertenece a este evento.
+     */
+    public synchronized Inscripcion buscarInscripcionPorId(int idInscripcion) {
+        int pos = indicePosiciones.obtener(idInscripcion);
+        return (pos == IndiceEnteros.AUSENTE) ? null : inscripciones.get(pos);
+    }
+
+    /**
+     * Busca una inscripción del evento por su número de dorsal en O(1).
+     *
+     * @param dorsal número de dorsal.
+     * @return la inscripción, o {@code null} si ningún inscrito tiene ese dorsal.
+     */
+    public synchronized Inscripcion buscarInscripcionPorDorsal(int dorsal) {
+        int id = indiceDorsales.obtener(dorsal);
+        return (id == IndiceEnteros.AUSENTE) ? null : buscarInscripcionPorId(id);
+    }
+
+    /**
+     * Resuelve un lote de dorsales tomando el monitor del evento una sola vez.
+     *
+     * @param dorsales dorsales a resolver.
+     * @param cantidad cantidad de posiciones válidas en {@code dorsales}.
+     * @param destino  recibe en cada posición la inscripción de ese dorsal, o {@code null} si no existe.
+     */
+    synchronized void resolverDorsales(int[] dorsales, int cantidad, Inscripcion[] destino) {
+        for (int i = 0; i < cantidad; i++) destino[i] = buscarInscripcionPorDorsal(dorsales[i]);
+    }
+
+    /**
+     * Resuelve un lote de ids de inscripción tomando el monitor del evento una sola vez.
+     *
+     * @param ids      ids a resolver.
+     * @param cantidad cantidad de posiciones válidas en {@code ids}.
+     * @param destino  recibe en cada posición la inscripción de ese id, o {@code null} si no existe.
+     */
+    synchronized void resolverIds(int[] ids, int cantidad, Inscripcion[] destino) {
+        for (int i = 0; i < cantidad; i++) destino[i] = buscarInscripcionPorId(ids[i]);
     }
 
     /**
@@ -95,9 +194,38 @@ public class Evento {
      *
      * @param ins inscripción a agregar (no nula).
      * @throws IllegalArgumentException si la inscripción es nula o referencia a otro evento.
-     * @throws IllegalStateException si el dorsal ya está en uso en este evento.
+     * @throws IllegalStateException si el dorsal o el ID ya están en uso en este evento, o si no
+     *                               queda cupo en la distancia.
      */
     public void agregarInscripcion(Inscripcion ins) {
+        if (!agregarInscripcionSiHayCupo(ins)) {
+            throw new IllegalStateException("No hay cupo disponible para " + ins.getDistancia() + ".");
+        }
+    }
+
+    /**
+     * Igual que {@link #agregarInscripcion(Inscripcion)}, pero indica la falta de cupo con el valor
+     * de retorno en lugar de una excepción (útil para derivar a la lista de espera).
+     *
+     * @param ins inscripción a agregar (no nula).
+     * @return {@code true} si se agregó; {@code false} si la distancia no tiene cupo.
+     * @throws IllegalArgumentException si la inscripción es nula o referencia a otro evento.
+     * @throws IllegalStateException si el dorsal o el ID ya están en uso en este evento.
+     */
+    public boolean agregarInscripcionSiHayCupo(Inscripcion ins) {
+        return agregarInscripcionSiHayCupo(ins, false);
+    }
+
+    /**
+     * Núcleo del alta. Un dorsal elegido a mano se reserva aquí en el asignador y se rechaza solo si su bit
+     * ya está marcado (en uso o reservado por una asignación automática en curso); uno asignado
+     * automáticamente ya viene reservado.
+     *
+     * @param ins       inscripción a agregar (no nula).
+     * @param reservado {@code true} si el dorsal ya se reservó con {@link #asignarDorsal}.
+     * @return {@code true} si se agregó; {@code false} si la distancia no tiene cupo.
+     */
+    private synchronized boolean agregarInscripcionSiHayCupo(Inscripcion ins, boolean reservado) {
         if (ins == null) throw new IllegalArgumentException("La inscripción no puede ser nula.");
         if (ins.getEvento() != this) {
             throw new IllegalArgumentException("La inscripción debe referenciar este mismo evento.");
@@ -105,28 +233,63 @@ public class Evento {
         if (existeDorsal(ins.getNumeroDorsal())) {
             throw new IllegalStateException("Dorsal ya utilizado en este evento: " + ins.getNumeroDorsal());
         }
-        inscripciones.add(ins);
+        if (indicePosiciones.contiene(ins.getId())) {
+            throw new IllegalStateException("Ya existe una inscripción con ID " + ins.getId() + " en este evento.");
+        }
+        if (!cupos.reservar(ins.getDistancia())) return false;
+        if (!reservado && !asignadorDorsales.reservar(ins.getNumeroDorsal())) {
+            cupos.liberar(ins.getDistancia());
+            throw new IllegalStateException("Dorsal reservado en este evento: " + ins.getNumeroDorsal());
+        }
+        indicePosiciones.poner(ins.getId(), inscripciones.size());
+        publicar(inscripciones.datos().agregar(ins));
+        indiceDorsales.poner(ins.getNumeroDorsal(), ins.getId());
+        agregarEnEstado(ins, ins.getEstado());
+        return true;
     }
 
     /**
-     * Elimina una inscripción por su ID.
+     * Elimina una inscripción por su ID en O(1).
+     * <p>La última inscripción ocupa el hueco de la eliminada, por lo que el orden de la lista
+     * no se conserva tras una eliminación. El dorsal liberado vuelve al asignador automático y el
+     * lugar vuelve al cupo de la distancia; su tiempo y sus parciales (si tenía) se descartan.</p>
      *
      * @param idInscripcion id de la inscripción a eliminar.
      * @return {@code true} si se eliminó; {@code false} si no se encontró.
      */
-    public boolean removerInscripcionPorId(int idInscripcion) {
-        for (int idx = 0; idx < inscripciones.size(); idx++) {
-            Inscripcion i = inscripciones.get(idx);
-            if (i != null && i.getId() == idInscripcion) {
-                inscripciones.remove(idx);
-                return true;
-            }
+    public synchronized boolean removerInscripcionPorId(int idInscripcion) {
+        int pos = indicePosiciones.obtener(idInscripcion);
+        if (pos == IndiceEnteros.AUSENTE) return false;
+        VectorPersistente<Inscripcion> v = inscripciones.datos();
+        Inscripcion removida = v.get(pos);
+        Inscripcion ultima = v.get(v.size() - 1);
+        if (ultima != removida) {
+            v = v.reemplazar(pos, ultima);
+            indicePosiciones.poner(ultima.getId(), pos);
         }
-        return false;
+        publicar(v.quitarUltimo());
+        indicePosiciones.remover(idInscripcion);
+        indiceDorsales.remover(removida.getNumeroDorsal());
+        quitarDeEstado(removida, removida.getEstado());
+        asignadorDorsales.liberar(removida.getNumeroDorsal());
+        cupos.liberar(removida.getDistancia());
+        ranking.remover(removida);
+        parciales.remover(removida);
+        return true;
     }
 
     /**
-     * Obtiene una lista inmutable de inscripciones filtrada por estado.
+     * Obtiene una lista inmutable de inscripciones filtrada por estado, en O(1), sin bloquear ni copiar.
+     * <p>Es la instantánea del estado publicada en el último cambio (ver {@link VectorPersistente}):
+     * puede recorrerse mientras otros hilos inscriben y nunca refleja cambios posteriores.</p>
+     * <ul>
+     *   <li>Cada estado se publica por separado: dos llamadas (para estados distintos o no) pueden ver
+     *       momentos distintos, y una inscripción que cambia de estado entre ambas puede aparecer en las
+     *       dos o en ninguna.</li>
+     *   <li>Como en {@link InstantaneaInscripciones}, se congela la pertenencia, no el contenido: el
+     *       {@code getEstado()} de una inscripción de la lista puede haber avanzado ya.</li>
+     *   <li>Orden de llegada al estado, salvo que al salir una inscripción la última ocupa su hueco.</li>
+     * </ul>
      *
      * @param estado estado a filtrar (no nulo).
      * @return lista inmutable con las inscripciones en el estado indicado.
@@ -134,26 +297,344 @@ public class Evento {
      */
     public List<Inscripcion> obtenerInscripcionesPorEstado(Inscripcion.Estado estado) {
         if (estado == null) throw new IllegalArgumentException("El estado no puede ser nulo.");
-        List<Inscripcion> res = inscripciones.stream()
-                .filter(i -> i != null && i.getEstado() == estado)
-                .collect(Collectors.toList());
-        return Collections.unmodifiableList(res);
+        return inscripcionesPorEstado.get(estado.ordinal());
+    }
+
+    // ------------------------------------------------------------
+    // Asignación automática de dorsales
+    // ------------------------------------------------------------
+
+    /**
+     * Configura (o reemplaza) el rango de dorsales automáticos de una distancia.
+     * Los dorsales ya usados dentro del rango se marcan como ocupados.
+     *
+     * @param distancia distancia (no nula).
+     * @param desde     primer dorsal del rango (&gt; 0).
+     * @param hasta     último dorsal del rango (&ge; desde).
+     * @throws IllegalArgumentException si el rango es inválido o se solapa con el de otra distancia.
+     */
+    public synchronized void configurarRangoDorsales(Inscripcion.Distancia distancia, int desde, int hasta) {
+        asignadorDorsales.configurarRango(distancia, desde, hasta);
+        for (Inscripcion i : inscripciones) {
+            if (i.getNumeroDorsal() >= desde && i.getNumeroDorsal() <= hasta) {
+                asignadorDorsales.marcar(i.getNumeroDorsal());
+            }
+        }
+    }
+
+    /**
+     * @param distancia distancia a consultar.
+     * @return {@code true} si la distancia tiene rango de dorsales automáticos.
+     */
+    public boolean tieneRangoDorsales(Inscripcion.Distancia distancia) {
+        return asignadorDorsales.tieneRango(distancia);
+    }
+
+    /**
+     * @param distancia distancia a consultar.
+     * @return primer dorsal del rango automático, o 0 si la distancia no tiene rango.
+     */
+    public int getDorsalDesde(Inscripcion.Distancia distancia) {
+        return asignadorDorsales.desde(distancia);
+    }
+
+    /**
+     * @param distancia distancia a consultar.
+     * @return último dorsal del rango automático, o 0 si la distancia no tiene rango.
+     */
+    public int getDorsalHasta(Inscripcion.Distancia distancia) {
+        return asignadorDorsales.hasta(distancia);
+    }
+
+    /**
+     * Reserva un dorsal libre del rango de la distancia (sin bloqueos).
+     * <p>El dorsal queda reservado hasta que se registre la inscripción o se devuelva con
+     * {@link #liberarDorsalReservado(int)}.</p>
+     *
+     * @param distancia distancia (no nula).
+     * @return dorsal reservado.
+     * @throws IllegalStateException si la distancia no tiene rango o no quedan dorsales libres.
+     */
+    public int asignarDorsal(Inscripcion.Distancia distancia) {
+        return asignadorDorsales.asignar(distancia);
+    }
+
+    /**
+     * Devuelve al asignador un dorsal reservado que finalmente no se usó.
+     * No tiene efecto si el dorsal pertenece a una inscripción registrada.
+     *
+     * @param dorsal dorsal reservado.
+     */
+    public synchronized void liberarDorsalReservado(int dorsal) {
+        if (!existeDorsal(dorsal)) asignadorDorsales.liberar(dorsal);
+    }
+
+    // ------------------------------------------------------------
+    // Cupos por distancia y lista de espera
+    // ------------------------------------------------------------
+
+    /**
+     * Define el cupo de una distancia. Bajarlo por debajo de la ocupación actual no elimina
+     * inscripciones: solo impide nuevas altas. Si al subirlo quedan lugares libres, se admiten
+     * las solicitudes de la lista de espera (ver {@link #promoverListaEspera}).
+     *
+     * @param distancia distancia (no nula).
+     * @param cupo      cupo máximo (&gt; 0) o 0 para quitar el límite.
+     * @return solicitudes que salieron de la lista de espera e inscripciones creadas (posiblemente vacío).
+     * @throws IllegalArgumentException si la distancia es nula o el cupo es negativo.
+     */
+    public PromocionEspera configurarCupo(Inscripcion.Distancia distancia, int cupo) {
+        cupos.configurar(distancia, cupo);
+        return promoverListaEspera(distancia);
+    }
+
+    /**
+     * @param distancia distancia a consultar (no nula).
+     * @return cupo configurado (0 = sin límite).
+     */
+    public int getCupo(Inscripcion.Distancia distancia) {
+        return cupos.cupo(distancia);
+    }
+
+    /**
+     * @param distancia distancia a consultar (no nula).
+     * @return cantidad de inscripciones admitidas en la distancia.
+     */
+    public int contarInscripcionesPorDistancia(Inscripcion.Distancia distancia) {
+        return cupos.ocupados(distancia);
+    }
+
+    /**
+     * Consulta sin bloqueo si la distancia admite una inscripción más en este momento.
+     * @param distancia distancia a consultar (no nula).
+     * @return {@code true} si hay cupo (o la distancia no tiene límite).
+     */
+    public boolean hayCupo(Inscripcion.Distancia distancia) {
+        return cupos.hayCupo(distancia);
+    }
+
+    /**
+     * Crea una inscripción y la registra en el evento y en el corredor si la distancia tiene cupo.
+     * <p>Es atómica respecto del corredor (se bloquea el corredor y luego el evento): varios hilos pueden
+     * inscribir a la vez sin romper la unicidad de dorsal ni la regla de una inscripción por corredor y
+     * evento. No mira la lista de espera.</p>
+     *
+     * @param inscripcionId id de la inscripción (&gt; 0).
+     * @param corredor      corredor (no nulo).
+     * @param distancia     distancia (no nula).
+     * @param talla         talla de camiseta (no nula).
+     * @param dorsal        dorsal &gt; 0, o 0 para asignarlo desde el rango de la distancia.
+     * @return la inscripción creada, o {@code null} si la distancia no tenía cupo.
+     * @throws IllegalArgumentException / IllegalStateException según reglas violadas.
+     */
+    public Inscripcion inscribirSiHayCupo(int inscripcionId, Corredor corredor, Inscripcion.Distancia distancia,
+                                          Inscripcion.Talla talla, int dorsal) {
+        Objects.requireNonNull(corredor, "corredor no puede ser nulo.");
+        synchronized (corredor) {
+            // Una inscripción por corredor y evento (se valida antes de tocar el evento)
+            if (corredor.estaInscritoEn(this)) {
+                throw new IllegalStateException("El corredor ya tiene una inscripción en este evento.");
+            }
+
+            boolean automatico = (dorsal == 0);
+            while (true) {
+                int numero = automatico ? asignarDorsal(distancia) : dorsal;
+                Inscripcion ins;
+                boolean agregada;
+                try {
+                    ins = new Inscripcion(inscripcionId, distancia, talla, numero, corredor, this);
+                    synchronized (this) {
+                        // El bit reservado choca con un dorsal ya registrado (p. ej., marcado en un rango que se
+                        // reemplazó): ese bit es de la inscripción registrada, así que se busca otro.
+                        if (automatico && existeDorsal(numero)) continue;
+                        // Valida unicidad de dorsal e ID, consistencia de referencia y cupo
+                        agregada = agregarInscripcionSiHayCupo(ins, automatico);
+                    }
+                } catch (RuntimeException ex) {
+                    if (automatico) liberarDorsalReservado(numero);
+                    throw ex;
+                }
+                if (!agregada) {
+                    if (automatico) liberarDorsalReservado(numero);
+                    return null;
+                }
+                corredor.agregarInscripcion(ins);
+                return ins;
+            }
+        }
+    }
+
+    /**
+     * Admite solicitudes de la lista de espera de una distancia mientras haya cupo, en orden de llegada.
+     * <p>Cada solicitud se retira y se inscribe con el corredor bloqueado, así que no se cruza con otra
+     * solicitud del mismo corredor. Las que ya no son válidas (p. ej., el dorsal pedido se ocupó o el
+     * corredor ya se inscribió por otra vía) se descartan. Cada inscripción creada recibe la categoría
+     * elegida en su solicitud. El resultado enumera todas las que salieron de
+     * la lista, para que quien llama pueda registrar cada salida.</p>
+     *
+     * @param distancia distancia a promover (no nula).
+     * @return solicitudes retiradas e inscripciones creadas a partir de ellas (posiblemente vacío).
+     */
+    public PromocionEspera promoverListaEspera(Inscripcion.Distancia distancia) {
+        PromocionEspera promocion = new PromocionEspera();
+        while (hayCupo(distancia)) {
+            SolicitudInscripcion s = listasEspera.get(distancia).peekFirst();
+            if (s == null) break;
+            synchronized (s.getCorredor()) {
+                if (!quitarDeEspera(s)) continue; // otro hilo ya la atendió
+                try {
+                    Inscripcion ins = inscribirSiHayCupo(s.getIdInscripcion(), s.getCorredor(), s.getDistancia(),
+                            s.getTalla(), s.getDorsal());
+                    if (ins == null) {
+                        // Otra alta ganó el lugar: la solicitud conserva su turno.
+                        reponerEnEspera(s);
+                        break;
+                    }
+                    if (s.getCategoria() != null) ins.setCategoria(s.getCategoria());
+                    promocion.admitir(s, ins);
+                } catch (IllegalArgumentException | IllegalStateException ex) {
+                    // Solicitud ya inválida: se descarta y se sigue con la siguiente.
+                    promocion.descartar(s);
+                }
+            }
+        }
+        return promocion;
+    }
+
+    /**
+     * Agrega una solicitud al final de la lista de espera de su distancia.
+     * <p>No valida duplicados (se usa también al restaurar datos); el alta por
+     * {@code Administrador#solicitarInscripcion} rechaza antes a quien ya espera.</p>
+     * @param solicitud solicitud (no nula).
+     * @throws IllegalArgumentException si la solicitud es nula.
+     */
+    public void encolarEnEspera(SolicitudInscripcion solicitud) {
+        if (solicitud == null) throw new IllegalArgumentException("La solicitud no puede ser nula.");
+        synchronized (enEsperaPorCorredor) {
+            listasEspera.get(solicitud.getDistancia()).addLast(solicitud);
+            enEsperaPorCorredor.merge(solicitud.getCorredor().getId(), 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Devuelve una solicitud al frente de su lista de espera (p. ej., si no pudo admitirse por
+     * una carrera con otra alta), conservando su turno.
+     * @param solicitud solicitud (no nula).
+     * @throws IllegalArgumentException si la solicitud es nula.
+     */
+    public void reponerEnEspera(SolicitudInscripcion solicitud) {
+        if (solicitud == null) throw new IllegalArgumentException("La solicitud no puede ser nula.");
+        synchronized (enEsperaPorCorredor) {
+            listasEspera.get(solicitud.getDistancia()).addFirst(solicitud);
+            enEsperaPorCorredor.merge(solicitud.getCorredor().getId(), 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Retira la solicitud más antigua de la lista de espera de una distancia.
+     * @param distancia distancia (no nula).
+     * @return la solicitud, o {@code null} si la lista está vacía.
+     */
+    public SolicitudInscripcion tomarSiguienteEnEspera(Inscripcion.Distancia distancia) {
+        synchronized (enEsperaPorCorredor) {
+            SolicitudInscripcion s = listasEspera.get(distancia).pollFirst();
+            if (s != null) descontarEnEspera(s.getCorredor());
+            return s;
+        }
+    }
+
+    /**
+     * Retira una solicitud concreta de su lista de espera.
+     * @param solicitud solicitud (no nula).
+     * @return {@code true} si estaba en la lista.
+     */
+    public boolean quitarDeEspera(SolicitudInscripcion solicitud) {
+        if (solicitud == null) throw new IllegalArgumentException("La solicitud no puede ser nula.");
+        synchronized (enEsperaPorCorredor) {
+            if (!listasEspera.get(solicitud.getDistancia()).removeFirstOccurrence(solicitud)) return false;
+            descontarEnEspera(solicitud.getCorredor());
+            return true;
+        }
+    }
+
+    /**
+     * Retira de la lista de espera de una distancia la solicitud con un id de inscripción dado
+     * (uso de la restauración de datos, que no tiene la instancia original).
+     * @param distancia     distancia (no nula).
+     * @param idInscripcion id de la inscripción solicitada.
+     * @return {@code true} si la solicitud estaba en la lista.
+     */
+    public boolean retirarDeEspera(Inscripcion.Distancia distancia, int idInscripcion) {
+        synchronized (enEsperaPorCorredor) {
+            Iterator<SolicitudInscripcion> it = listasEspera.get(distancia).iterator();
+            while (it.hasNext()) {
+                SolicitudInscripcion s = it.next();
+                if (s.getIdInscripcion() == idInscripcion) {
+                    it.remove();
+                    descontarEnEspera(s.getCorredor());
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * @param corredor corredor (no nulo).
+     * @return {@code true} si el corredor tiene una solicitud en alguna lista de espera del evento.
+     */
+    public boolean estaEnEspera(Corredor corredor) {
+        if (corredor == null) throw new IllegalArgumentException("El corredor no puede ser nulo.");
+        synchronized (enEsperaPorCorredor) {
+            return enEsperaPorCorredor.containsKey(corredor.getId());
+        }
+    }
+
+    private void descontarEnEspera(Corredor corredor) {
+        enEsperaPorCorredor.computeIfPresent(corredor.getId(), (k, n) -> (n == 1) ? null : n - 1);
+    }
+
+    /**
+     * @param distancia distancia (no nula).
+     * @return {@code true} si hay solicitudes esperando en esa distancia.
+     */
+    public boolean hayEnEspera(Inscripcion.Distancia distancia) {
+        return !listasEspera.get(distancia).isEmpty();
+    }
+
+    /**
+     * Copia de la lista de espera de una distancia, en orden de llegada.
+     * @param distancia distancia (no nula).
+     * @return lista inmutable con las solicitudes pendientes.
+     */
+    public List<SolicitudInscripcion> getListaEspera(Inscripcion.Distancia distancia) {
+        return List.copyOf(listasEspera.get(distancia));
+    }
+
+    /**
+     * Cantidad de inscripciones del evento en un estado dado, en O(1) y sin bloquear (mismo momento que
+     * {@link #obtenerInscripcionesPorEstado}).
+     *
+     * @param estado estado a consultar (no nulo).
+     * @return cantidad de inscripciones en ese estado.
+     * @throws IllegalArgumentException si el estado es nulo.
+     */
+    public int contarInscripcionesPorEstado(Inscripcion.Estado estado) {
+        if (estado == null) throw new IllegalArgumentException("El estado no puede ser nulo.");
+        return inscripcionesPorEstado.get(estado.ordinal()).size();
     }
 
     /**
      * Genera un resumen textual con métricas clave del evento.
      * Incluye: total de inscripciones y cuántas están pagadas/confirmadas.
+     * <p>Usa el índice por estado mantenido incrementalmente (O(1)).</p>
      *
      * @return cadena resumen.
      */
-    public String generarResumenInscripciones() {
+    public synchronized String generarResumenInscripciones() {
         int total = inscripciones.size();
-        long pagadas = inscripciones.stream()
-                .filter(i -> i != null && (i.getEstado() == Inscripcion.Estado.PAGADO || i.getEstado() == Inscripcion.Estado.CONFIRMADO))
-                .count();
-        long confirmadas = inscripciones.stream()
-                .filter(i -> i != null && i.getEstado() == Inscripcion.Estado.CONFIRMADO)
-                .count();
+        int confirmadas = contarInscripcionesPorEstado(Inscripcion.Estado.CONFIRMADO);
+        int pagadas = contarInscripcionesPorEstado(Inscripcion.Estado.PAGADO) + confirmadas;
         return "Evento '" + nombre + "' => Total: " + total +
                 " | Pagadas/Confirmadas: " + pagadas +
                 " | Confirmadas: " + confirmadas;
@@ -188,6 +669,7 @@ public class Evento {
     public void setFecha(Date fecha) {
         if (fecha == null) throw new IllegalArgumentException("La fecha no puede ser nula.");
         this.fecha = new Date(fecha.getTime());
+        avisarCatalogo();
     }
 
     /** @return descripción del evento (puede ser vacía). */
@@ -206,11 +688,69 @@ public class Evento {
 
     /**
      * Establece el estado del evento.
+     * <p>Al pasar a FINALIZADO se arma la {@link Premiacion} con los podios que el ranking mantiene.</p>
      * @param estado nuevo estado (no nulo).
      */
     public void setEstado(EstadoEvento estado) {
         if (estado == null) throw new IllegalArgumentException("El estado no puede ser nulo.");
+        if (estado == EstadoEvento.FINALIZADO) premiacion = ranking.generarPremiacion();
         this.estado = estado;
+        avisarCatalogo();
+    }
+
+    /**
+     * Premiación del evento (podios por categoría y distancia), fijada al pasar a FINALIZADO.
+     * Para la del momento sin finalizar, ver {@link RankingEvento#generarPremiacion()}.
+     * @return premiación o {@code null} si el evento no finalizó.
+     */
+    public Premiacion getPremiacion() { return premiacion; }
+
+    /**
+     * Clasificación de los tiempos del evento (posiciones general y por categoría).
+     * @return ranking del evento.
+     */
+    public RankingEvento getRanking() { return ranking; }
+
+    /**
+     * Tiempos registrados en el evento, en columnas primitivas (ver {@link ResultadosEvento}).
+     * @return resultados del evento.
+     */
+    public ResultadosEvento getResultados() { return ranking.getResultados(); }
+
+    /**
+     * Tiempos parciales por punto de control (ver {@link ParcialesEvento}).
+     * @return parciales del evento.
+     */
+    public ParcialesEvento getParciales() { return parciales; }
+
+    // ------------------------------------------------------------
+    // Catálogo
+    // ------------------------------------------------------------
+
+    /**
+     * Asocia el evento a un catálogo (uso de {@link CatalogoEventos#agregar(Evento)}).
+     * @param c catálogo.
+     * @throws IllegalStateException si ya pertenece a otro catálogo.
+     */
+    synchronized void vincularCatalogo(CatalogoEventos c) {
+        if (catalogo != null && catalogo != c) {
+            throw new IllegalStateException("El evento ya pertenece a otro catálogo.");
+        }
+        catalogo = c;
+    }
+
+    /**
+     * Quita la asociación con el catálogo (uso de {@link CatalogoEventos#remover(int)}).
+     * @param c catálogo que lo remueve.
+     */
+    synchronized void desvincularCatalogo(CatalogoEventos c) {
+        if (catalogo == c) catalogo = null;
+    }
+
+    /** Pide al catálogo (si hay) que reubique el evento en sus índices. */
+    private void avisarCatalogo() {
+        CatalogoEventos c = catalogo;
+        if (c != null) c.reindexar(this);
     }
 
     /**
@@ -243,41 +783,187 @@ public class Evento {
         }
 
     /**
-     * Devuelve una vista inmutable de las inscripciones.
-     * @return lista inmutable de inscripciones.
+     * Devuelve una vista inmutable de las inscripciones: la instantánea vigente, sin bloquear ni copiar.
+     * @return lista inmutable y consistente de inscripciones.
+     * @see #getInstantaneaInscripciones()
      */
     public List<Inscripcion> getInscripciones() {
-        return Collections.unmodifiableList(inscripciones);
+        return inscripciones;
+    }
+
+    /**
+     * Devuelve la instantánea vigente de las inscripciones, con su número de versión.
+     * <p>Pensada para lectores (listados, resúmenes) que deben ver un estado consistente
+     * mientras otros hilos inscriben.</p>
+     * @return instantánea inmutable.
+     */
+    public InstantaneaInscripciones getInstantaneaInscripciones() {
+        return inscripciones;
     }
 
     /**
-     * Reemplaza la lista completa de inscripciones (se valida consistencia y unicidad de dorsal).
-     * <p>Úsalo con cuidado: si alguna inscripción viola reglas, se lanza excepción y no se modifica el estado.</p>
+     * Reemplaza la lista completa de inscripciones (se valida consistencia y unicidad de dorsal e ID).
+     * <p>Úsalo con cuidado: si alguna inscripción viola reglas, se lanza excepción y no se modifica el estado.
+     * Los elementos nulos se descartan. Los cupos no se validan aquí: la ocupación por distancia se
+     * recalcula a partir de la nueva lista.</p>
      *
      * @param nuevasInscripciones lista a establecer (no nula).
      * @throws IllegalArgumentException si la lista es nula o alguna inscripción referencia otro evento.
-     * @throws IllegalStateException si hay dorsales duplicados.
+     * @throws IllegalStateException si hay dorsales o IDs duplicados.
      */
-    public void setInscripciones(List<Inscripcion> nuevasInscripciones) {
+    public synchronized void setInscripciones(List<Inscripcion> nuevasInscripciones) {
         if (nuevasInscripciones == null) throw new IllegalArgumentException("La lista no puede ser nula.");
-        // Validar consistencia y unicidad
-        List<Inscripcion> copia = new ArrayList<>(nuevasInscripciones);
-        // Consistencia de evento
-        for (Inscripcion i : copia) {
+        VectorPersistente<Inscripcion> copia = VectorPersistente.vacio();
+        IndiceEnteros nuevosDorsales = new IndiceEnteros(nuevasInscripciones.size());
+        IndiceEnteros nuevasPosiciones = new IndiceEnteros(nuevasInscripciones.size());
+        List<VectorPersistente<Inscripcion>> nuevoPorEstado = new ArrayList<>();
+        for (int e = 0; e < inscripcionesPorEstado.length(); e++) nuevoPorEstado.add(VectorPersistente.vacio());
+        IndiceEnteros nuevasPosicionesEnEstado = new IndiceEnteros(nuevasInscripciones.size());
+        int[] nuevaOcupacion = new int[Inscripcion.Distancia.values().length];
+        // Consistencia de evento y unicidad de dorsal/ID en una sola pasada
+        for (Inscripcion i : nuevasInscripciones) {
             if (i == null) continue;
             if (i.getEvento() != this) {
                 throw new IllegalArgumentException("Todas las inscripciones deben referenciar este evento.");
             }
+            if (nuevosDorsales.contiene(i.getNumeroDorsal())) {
+                throw new IllegalStateException("Se detectaron dorsales duplicados.");
+            }
+            if (nuevasPosiciones.contiene(i.getId())) {
+                throw new IllegalStateException("Se detectaron IDs de inscripción duplicados.");
+            }
+            nuevosDorsales.poner(i.getNumeroDorsal(), i.getId());
+            nuevasPosiciones.poner(i.getId(), copia.size());
+            copia = copia.agregar(i);
+            int e = i.getEstado().ordinal();
+            nuevasPosicionesEnEstado.poner(i.getId(), nuevoPorEstado.get(e).size());
+            nuevoPorEstado.set(e, nuevoPorEstado.get(e).agregar(i));
+            nuevaOcupacion[i.getDistancia().ordinal()]++;
         }
-        // Unicidad de dorsal
-        List<Integer> dorsales = copia.stream()
-                .filter(Objects::nonNull)
-                .map(Inscripcion::getNumeroDorsal)
-                .collect(Collectors.toList());
-        if (dorsales.size() != dorsales.stream().distinct().count()) {
-            throw new IllegalStateException("Se detectaron dorsales duplicados.");
+        publicar(copia);
+        this.indiceDorsales = nuevosDorsales;
+        this.indicePosiciones = nuevasPosiciones;
+        this.posicionesEnEstado = nuevasPosicionesEnEstado;
+        for (int e = 0; e < nuevoPorEstado.size(); e++) inscripcionesPorEstado.set(e, nuevoPorEstado.get(e));
+        asignadorDorsales.vaciar();
+        for (Inscripcion i : copia) asignadorDorsales.marcar(i.getNumeroDorsal());
+        cupos.fijarOcupacion(nuevaOcupacion);
+        ranking.conservarSolo(nuevasPosiciones::contiene);
+        parciales.conservarSolo(nuevasPosiciones::contiene);
+    }
+
+    /**
+     * Mantiene sincronizado el índice de dorsales cuando una inscripción registrada cambia de dorsal.
+     * <p>Lo invoca {@link Inscripcion#setNumeroDorsal(int)} antes de modificar su estado. Si la
+     * inscripción no pertenece (aún) al evento, no hace nada.</p>
+     *
+     * @param ins      inscripción que cambia de dorsal.
+     * @param anterior dorsal actual de la inscripción.
+     * @param nuevo    dorsal solicitado.
+     * @throws IllegalStateException si el nuevo dorsal ya está en uso en este evento.
+     */
+    synchronized void reasignarDorsal(Inscripcion ins, int anterior, int nuevo) {
+        if (anterior == nuevo || indiceDorsales.obtener(anterior) != ins.getId()) return;
+        if (indiceDorsales.contiene(nuevo)) {
+            throw new IllegalStateException("Dorsal ya utilizado en este evento: " + nuevo);
         }
-        this.inscripciones = copia;
+        if (!asignadorDorsales.reservar(nuevo)) {
+            throw new IllegalStateException("Dorsal reservado en este evento: " + nuevo);
+        }
+        indiceDorsales.remover(anterior);
+        indiceDorsales.poner(nuevo, ins.getId());
+        asignadorDorsales.liberar(anterior);
+    }
+
+    /**
+     * Traspasa el cupo cuando una inscripción registrada cambia de distancia.
+     * <p>Lo invoca {@link Inscripcion#setDistancia(Inscripcion.Distancia)} con el monitor del evento
+     * tomado. Si la inscripción no pertenece a este evento, no hace nada.</p>
+     *
+     * @param ins      inscripción que cambia de distancia.
+     * @param anterior distancia actual.
+     * @param nueva    distancia solicitada.
+     * @throws IllegalStateException si la nueva distancia no tiene cupo.
+     */
+    synchronized void reasignarDistancia(Inscripcion ins, Inscripcion.Distancia anterior, Inscripcion.Distancia nueva) {
+        if (anterior == nueva || buscarInscripcionPorId(ins.getId()) != ins) return;
+        if (!cupos.reservar(nueva)) {
+            throw new IllegalStateException("No hay cupo disponible para " + nueva + ".");
+        }
+        cupos.liberar(anterior);
+    }
+
+    /**
+     * Actualiza el índice por estado cuando una inscripción registrada cambia de estado.
+     * <p>Lo invoca {@link Inscripcion} en cada transición. Si la inscripción no pertenece
+     * a este evento, no hace nada.</p>
+     *
+     * @param ins      inscripción que cambió de estado.
+     * @param anterior estado previo.
+     * @param nuevo    estado nuevo.
+     */
+    synchronized void registrarCambioEstado(Inscripcion ins, Inscripcion.Estado anterior, Inscripcion.Estado nuevo) {
+        if (buscarInscripcionPorId(ins.getId()) != ins) return;
+        quitarDeEstado(ins, anterior);
+        agregarEnEstado(ins, nuevo);
+    }
+
+    /**
+     * Agrega una inscripción al final del vector de un estado (invocar con el monitor del evento tomado).
+     * @param ins    inscripción.
+     * @param estado estado donde se agrega.
+     */
+    private void agregarEnEstado(Inscripcion ins, Inscripcion.Estado estado) {
+        VectorPersistente<Inscripcion> v = inscripcionesPorEstado.get(estado.ordinal());
+        posicionesEnEstado.poner(ins.getId(), v.size());
+        inscripcionesPorEstado.set(estado.ordinal(), v.agregar(ins));
+    }
+
+    /**
+     * Quita una inscripción del vector de un estado en O(log<sub>32</sub> n): la última ocupa su hueco
+     * (invocar con el monitor del evento tomado).
+     * @param ins    inscripción (presente en el estado).
+     * @param estado estado del que se quita.
+     */
+    private void quitarDeEstado(Inscripcion ins, Inscripcion.Estado estado) {
+        int pos = posicionesEnEstado.obtener(ins.getId());
+        VectorPersistente<Inscripcion> v = inscripcionesPorEstado.get(estado.ordinal());
+        Inscripcion ultima = v.get(v.size() - 1);
+        if (ultima != ins) {
+            v = v.reemplazar(pos, ultima);
+            posicionesEnEstado.poner(ultima.getId(), pos);
+        }
+        inscripcionesPorEstado.set(estado.ordinal(), v.quitarUltimo());
+        posicionesEnEstado.remover(ins.getId());
+    }
+
+    /**
+     * Publica una nueva versión de las inscripciones (invocar con el monitor del evento tomado).
+     * @param nuevas contenido de la nueva instantánea.
+     */
+    private void publicar(VectorPersistente<Inscripcion> nuevas) {
+        inscripciones = inscripciones.siguiente(nuevas);
+    }
+
+    /**
+     * Crea las listas de espera vacías de todas las distancias (colas concurrentes sin bloqueo).
+     * @return mapa con una cola por distancia.
+     */
+    private static EnumMap<Inscripcion.Distancia, Deque<SolicitudInscripcion>> nuevasListasEspera() {
+        EnumMap<Inscripcion.Distancia, Deque<SolicitudInscripcion>> m = new EnumMap<>(Inscripcion.Distancia.class);
+        for (Inscripcion.Distancia d : Inscripcion.Distancia.values()) m.put(d, new ConcurrentLinkedDeque<>());
+        return m;
+    }
+
+    /**
+     * Crea un índice por estado vacío, con un vector vacío para cada estado.
+     * @return arreglo con todos los estados inicializados (posición = ordinal).
+     */
+    private static AtomicReferenceArray<VectorPersistente<Inscripcion>> nuevoIndicePorEstado() {
+        AtomicReferenceArray<VectorPersistente<Inscripcion>> a =
+                new AtomicReferenceArray<>(Inscripcion.Estado.values().length);
+        for (int e = 0; e < a.length(); e++) a.set(e, VectorPersistente.vacio());
+        return a;
     }
 
     // ------------------------------------------------------------
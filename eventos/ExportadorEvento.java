@@ -0,0 +1,378 @@
+package eventos;
+
+import usuarios.Corredor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * La clase {@code ExportadorEvento} escribe las inscripciones (con los datos del corredor) o los resultados
+ * (con sus posiciones) de un {@link Evento} en CSV o JSON, para cronometradores y prensa.
+ *
+ * <p><b>Columnas:</b></p>
+ * <ul>
+ *   <li>Inscripciones: {@code id,dorsal,distancia,talla,estado,categoria,cedula,nombre,edad,telefono,correo,
+ *       contacto_emergencia,parentesco_emergencia,telefono_emergencia}, en el orden del evento.</li>
+ *   <li>Resultados: {@code posicion,posicion_categoria,dorsal,cedula,nombre,distancia,categoria,tiempo,
+ *       milisegundos}, distancia por distancia en orden de clasificación ({@code tiempo} como
+ *       {@code HH:MM:SS.mmm}).</li>
+ * </ul>
+ * <p>En CSV la primera línea es el encabezado y los textos con coma, comillas o saltos van entre comillas
+ * ({@code ""} como escape, igual que la importación). En JSON el documento es un arreglo con un objeto por
+ * fila (una fila por línea) y los textos ausentes son {@code null}.</p>
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>Escritura en flujo: cada fila se codifica en UTF-8 directamente sobre un búfer de
+ *       {@link #TAMANIO_BUFER} bytes que se vacía al canal al llenarse; el documento nunca está completo
+ *       en memoria y no se crea un {@code String} por fila.</li>
+ *   <li>El búfer se reutiliza entre exportaciones de la misma instancia.</li>
+ *   <li>Las inscripciones se leen de la instantánea vigente ({@link Evento#getInstantaneaInscripciones()}) y
+ *       los resultados con {@link RankingEvento#recorrerClasificacion}: se puede exportar mientras otros
+ *       hilos inscriben o registran tiempos.</li>
+ *   <li>No es segura para hilos: una exportación a la vez por instancia. No cierra el canal recibido.</li>
+ *   <li>Sin I/O de consola.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+public class ExportadorEvento {
+
+    /** Formato de salida. */
+    public enum Formato { CSV, JSON }
+
+    /** Tamaño del búfer de escritura en bytes. */
+    public static final int TAMANIO_BUFER = 1 << 20;
+
+    /** Espacio que se reserva antes de escribir un carácter o un número (peor caso: {@code \}{@code uXXXX}). */
+    private static final int MARGEN = 24;
+
+    private static final String[] COLUMNAS_INSCRIPCIONES = {
+            "id", "dorsal", "distancia", "talla", "estado", "categoria", "cedula", "nombre", "edad",
+            "telefono", "correo", "contacto_emergencia", "parentesco_emergencia", "telefono_emergencia"};
+
+    private static final String[] COLUMNAS_RESULTADOS = {
+            "posicion", "posicion_categoria", "dorsal", "cedula", "nombre", "distancia", "categoria",
+            "tiempo", "milisegundos"};
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    /** Formato de esta instancia. */
+    private final Formato formato;
+
+    /** Búfer de escritura (reutilizable) y su vista para el canal. */
+    private final byte[] bufer = new byte[TAMANIO_BUFER];
+    private final ByteBuffer envoltura = ByteBuffer.wrap(bufer);
+    private int posicion;
+
+    /** Canal de la exportación en curso. */
+    private WritableByteChannel canal;
+
+    /** Claves JSON ya codificadas ({@code "nombre":}) de la exportación en curso. */
+    private byte[][] claves;
+
+    /** Columna actual de la fila y filas escritas. */
+    private int columna;
+    private long filas;
+
+    /** Auxiliar para formatear tiempos (reutilizable). */
+    private final StringBuilder tiempo = new StringBuilder(16);
+
+    /**
+     * Crea un exportador.
+     * @param formato formato de salida (no nulo).
+     * @throws IllegalArgumentException si es nulo.
+     */
+    public ExportadorEvento(Formato formato) {
+        if (formato == null) throw new IllegalArgumentException("El formato no puede ser nulo.");
+        this.formato = formato;
+    }
+
+    /** @return formato de salida. */
+    public Formato getFormato() { return formato; }
+
+    // ------------------------------------------------------------
+    // Exportaciones
+    // ------------------------------------------------------------
+
+    /**
+     * Exporta las inscripciones del evento con los datos de cada corredor.
+     * @param evento evento (no nulo).
+     * @param canal  destino (no nulo, abierto; no se cierra).
+     * @return cantidad de filas escritas.
+     * @throws IOException si el canal falla.
+     */
+    public long exportarInscripciones(Evento evento, WritableByteChannel canal) throws IOException {
+        iniciar(evento, canal, COLUMNAS_INSCRIPCIONES);
+        for (Inscripcion ins : evento.getInstantaneaInscripciones()) {
+            Corredor c = ins.getCorredor();
+            Categoria cat = ins.getCategoria();
+            abrirFila();
+            numero(ins.getId());
+            numero(ins.getNumeroDorsal());
+            texto(ins.getDistancia().name());
+            texto(ins.getTalla().name());
+            texto(ins.getEstado().name());
+            texto((cat == null) ? null : cat.getNombre());
+            numero(c.getId());
+            texto(c.getNombre());
+            numero(c.getEdad());
+            texto(c.getTelefono());
+            texto(c.getCorreo());
+            texto(c.getNombreContactoEmergencia());
+            texto(c.getParentescoContactoEmergencia());
+            texto(c.getTelefonoContactoEmergencia());
+            cerrarFila();
+        }
+        return terminar();
+    }
+
+    /**
+     * Exporta los resultados del evento con sus posiciones, distancia por distancia.
+     * @param evento evento (no nulo).
+     * @param canal  destino (no nulo, abierto; no se cierra).
+     * @return cantidad de filas escritas.
+     * @throws IOException si el canal falla.
+     */
+    public long exportarResultados(Evento evento, WritableByteChannel canal) throws IOException {
+        iniciar(evento, canal, COLUMNAS_RESULTADOS);
+        RankingEvento ranking = evento.getRanking();
+        for (Inscripcion.Distancia d : Inscripcion.Distancia.values()) {
+            ranking.recorrerClasificacion(d, (ins, cat, ms, pos, posCat) -> {
+                abrirFila();
+                numero(pos);
+                numero(posCat);
+                numero(ins.getNumeroDorsal());
+                numero(ins.getCorredor().getId());
+                texto(ins.getCorredor().getNombre());
+                texto(d.name());
+                texto((cat == null) ? null : cat.getNombre());
+                tiempo.setLength(0);
+                texto(Tiempo.formatearMilisegundos(ms, tiempo));
+                numero(ms);
+                cerrarFila();
+            });
+        }
+        return terminar();
+    }
+
+    /**
+     * Exporta las inscripciones a un archivo (se crea o se reemplaza).
+     * @param evento  evento (no nulo).
+     * @param archivo ruta destino (no nula).
+     * @return cantidad de filas escritas.
+     * @throws IOException si el archivo no puede escribirse.
+     */
+    public long exportarInscripciones(Evento evento, Path archivo) throws IOException {
+        try (FileChannel destino = abrirArchivo(archivo)) {
+            return exportarInscripciones(evento, destino);
+        }
+    }
+
+    /**
+     * Exporta los resultados a un archivo (se crea o se reemplaza).
+     * @param evento  evento (no nulo).
+     * @param archivo ruta destino (no nula).
+     * @return cantidad de filas escritas.
+     * @throws IOException si el archivo no puede escribirse.
+     */
+    public long exportarResultados(Evento evento, Path archivo) throws IOException {
+        try (FileChannel destino = abrirArchivo(archivo)) {
+            return exportarResultados(evento, destino);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Estructura del documento
+    // ------------------------------------------------------------
+
+    private static FileChannel abrirArchivo(Path archivo) throws IOException {
+        if (archivo == null) throw new IllegalArgumentException("La ruta no puede ser nula.");
+        return FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+    }
+
+    private void iniciar(Evento evento, WritableByteChannel canal, String[] columnas) throws IOException {
+        if (evento == null) throw new IllegalArgumentException("El evento no puede ser nulo.");
+        if (canal == null || !canal.isOpen()) throw new IllegalArgumentException("El canal debe estar abierto.");
+        this.canal = canal;
+        this.posicion = 0;
+        this.filas = 0;
+        if (formato == Formato.CSV) {
+            for (int i = 0; i < columnas.length; i++) {
+                if (i > 0) octeto(',');
+                texto(columnas[i], false);
+            }
+            octeto('\n');
+        } else {
+            claves = new byte[columnas.length][];
+            for (int i = 0; i < columnas.length; i++) {
+                claves[i] = ("\"" + columnas[i] + "\":").getBytes(StandardCharsets.UTF_8);
+            }
+            octeto('[');
+        }
+    }
+
+    private long terminar() throws IOException {
+        try {
+            if (formato == Formato.JSON) {
+                if (filas > 0) octeto('\n');
+                octeto(']');
+                octeto('\n');
+            }
+            vaciar();
+            return filas;
+        } finally {
+            canal = null;
+        }
+    }
+
+    private void abrirFila() throws IOException {
+        columna = 0;
+        if (formato == Formato.JSON) {
+            if (filas > 0) octeto(',');
+            octeto('\n');
+            octeto('{');
+        }
+    }
+
+    private void cerrarFila() throws IOException {
+        octeto(formato == Formato.CSV ? '\n' : '}');
+        filas++;
+    }
+
+    /** Separador y, en JSON, clave de la siguiente columna. */
+    private void separar() throws IOException {
+        if (columna > 0) octeto(',');
+        if (formato == Formato.JSON) {
+            byte[] clave = claves[columna];
+            if (posicion > bufer.length - clave.length) vaciar();
+            System.arraycopy(clave, 0, bufer, posicion, clave.length);
+            posicion += clave.length;
+        }
+        columna++;
+    }
+
+    // ------------------------------------------------------------
+    // Valores
+    // ------------------------------------------------------------
+
+    private void numero(long valor) throws IOException {
+        separar();
+        if (posicion > bufer.length - MARGEN) vaciar();
+        if (valor == Long.MIN_VALUE) {
+            byte[] b = Long.toString(valor).getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(b, 0, bufer, posicion, b.length);
+            posicion += b.length;
+            return;
+        }
+        if (valor < 0) {
+            bufer[posicion++] = '-';
+            valor = -valor;
+        }
+        int fin = posicion + cifras(valor);
+        int i = fin;
+        do {
+            bufer[--i] = (byte) ('0' + (int) (valor % 10));
+            valor /= 10;
+        } while (valor != 0);
+        posicion = fin;
+    }
+
+    private static int cifras(long valor) {
+        int n = 1;
+        while (valor >= 10) {
+            valor /= 10;
+            n++;
+        }
+        return n;
+    }
+
+    private void texto(CharSequence valor) throws IOException {
+        separar();
+        if (valor == null) {
+            if (formato == Formato.JSON) {
+                octeto('n');
+                octeto('u');
+                octeto('l');
+                octeto('l');
+            }
+            return;
+        }
+        texto(valor, true);
+    }
+
+    /**
+     * Escribe un texto con el escape del formato (en CSV, comillas solo si hacen falta).
+     */
+    private void texto(CharSequence valor, boolean escapar) throws IOException {
+        boolean json = formato == Formato.JSON;
+        boolean comillas = json || (escapar && requiereComillas(valor));
+        if (comillas) octeto('"');
+        int largo = valor.length();
+        for (int i = 0; i < largo; i++) {
+            if (posicion > bufer.length - MARGEN) vaciar();
+            char c = valor.charAt(i);
+            if (c < 0x80) {
+                if (c == '"') {
+                    bufer[posicion++] = json ? (byte) '\\' : (byte) '"';
+                    bufer[posicion++] = '"';
+                } else if (json && c == '\\') {
+                    bufer[posicion++] = '\\';
+                    bufer[posicion++] = '\\';
+                } else if (json && c < 0x20) {
+                    bufer[posicion++] = '\\';
+                    bufer[posicion++] = 'u';
+                    bufer[posicion++] = '0';
+                    bufer[posicion++] = '0';
+                    bufer[posicion++] = HEX[c >> 4];
+                    bufer[posicion++] = HEX[c & 0xF];
+                } else {
+                    bufer[posicion++] = (byte) c;
+                }
+            } else if (c < 0x800) {
+                bufer[posicion++] = (byte) (0xC0 | (c >> 6));
+                bufer[posicion++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < largo && Character.isLowSurrogate(valor.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, valor.charAt(++i));
+                bufer[posicion++] = (byte) (0xF0 | (cp >> 18));
+                bufer[posicion++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                bufer[posicion++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                bufer[posicion++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                bufer[posicion++] = '?';
+            } else {
+                bufer[posicion++] = (byte) (0xE0 | (c >> 12));
+                bufer[posicion++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bufer[posicion++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        if (comillas) octeto('"');
+    }
+
+    private static boolean requiereComillas(CharSequence valor) {
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+
+    private void octeto(char c) throws IOException {
+        if (posicion == bufer.length) vaciar();
+        bufer[posicion++] = (byte) c;
+    }
+
+    /** Escribe el contenido del búfer en el canal y lo deja vacío. */
+    private void vaciar() throws IOException {
+        envoltura.clear().limit(posicion);
+        while (envoltura.hasRemaining()) canal.write(envoltura);
+        posicion = 0;
+    }
+}
@@ -0,0 +1,158 @@
+package eventos;
+
+/**
+ * La clase {@code HistogramaTiempos} es un histograma log-lineal de tiempos (en milisegundos), al estilo
+ * HDR: permite consultar percentiles (mediana, p90, p99...) sin guardar los tiempos y se combina con otros
+ * histogramas sumando sus cuentas.
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>Los tiempos menores que 256 ms se cuentan exactos; a partir de ahí, cada potencia de 2 se divide en
+ *       128 cubetas. El valor devuelto es el centro de la cubeta: error relativo &le; 0,4 %
+ *       (unos 40 s en una maratón de 3 h, unos 6 s en 25 min).</li>
+ *   <li>Tamaño fijo: {@value #CUBETAS} cuentas {@code int} (unos 13 KB), reservadas al registrar el primer
+ *       tiempo. Los tiempos de más de {@code 2^31} ms (unos 24 días) van a la última cubeta.</li>
+ *   <li>Registrar, quitar y combinar son independientes de la cantidad de tiempos (O(1) y O(cubetas));
+ *       un percentil recorre las cubetas una vez, también independiente de la cantidad de tiempos.</li>
+ *   <li>Admite quitar tiempos (correcciones y bajas), a diferencia de los bocetos de solo inserción.</li>
+ *   <li>No es segura para hilos: la sincronización corresponde a {@link RankingEvento}.</li>
+ *   <li>Sin I/O de consola.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+public class HistogramaTiempos {
+
+    /** Bits de precisión: valores exactos por debajo de {@code 2^BITS}, {@code 2^(BITS-1)} cubetas por octava. */
+    private static final int BITS = 8;
+
+    /** Cubetas exactas (valores 0 .. 2^BITS - 1). */
+    private static final int EXACTAS = 1 << BITS;
+
+    /** Cubetas por potencia de 2 a partir de {@link #EXACTAS}. */
+    private static final int POR_OCTAVA = 1 << (BITS - 1);
+
+    /** Cantidad total de cubetas (cubre valores hasta {@code 2^31 - 1}). */
+    public static final int CUBETAS = EXACTAS + (31 - BITS) * POR_OCTAVA;
+
+    /** Cuentas por cubeta ({@code null} mientras esté vacío). */
+    private int[] cuentas;
+
+    /** Cantidad de tiempos registrados. */
+    private long total;
+
+    /** Crea un histograma vacío. */
+    public HistogramaTiempos() { }
+
+    // ------------------------------------------------------------
+    // Actualización
+    // ------------------------------------------------------------
+
+    /**
+     * Cuenta un tiempo.
+     * @param milisegundos tiempo (&ge; 0).
+     * @throws IllegalArgumentException si el tiempo es negativo.
+     */
+    public void registrar(long milisegundos) {
+        if (milisegundos < 0) throw new IllegalArgumentException("El tiempo debe ser >= 0 milisegundos.");
+        if (cuentas == null) cuentas = new int[CUBETAS];
+        cuentas[indice(milisegundos)]++;
+        total++;
+    }
+
+    /**
+     * Descuenta un tiempo registrado antes (el mismo valor).
+     * @param milisegundos tiempo (&ge; 0).
+     * @return {@code true} si había un tiempo en esa cubeta.
+     */
+    public boolean remover(long milisegundos) {
+        if (milisegundos < 0 || cuentas == null) return false;
+        int i = indice(milisegundos);
+        if (cuentas[i] == 0) return false;
+        cuentas[i]--;
+        total--;
+        return true;
+    }
+
+    /**
+     * Suma las cuentas de otro histograma a este.
+     * @param otro histograma a combinar (no nulo).
+     */
+    public void combinar(HistogramaTiempos otro) {
+        if (otro == null) throw new IllegalArgumentException("El histograma no puede ser nulo.");
+        if (otro.cuentas == null) return;
+        if (cuentas == null) cuentas = new int[CUBETAS];
+        for (int i = 0; i < CUBETAS; i++) cuentas[i] += otro.cuentas[i];
+        total += otro.total;
+    }
+
+    /** @return copia independiente de este histograma. */
+    public HistogramaTiempos copiar() {
+        HistogramaTiempos c = new HistogramaTiempos();
+        c.cuentas = (cuentas == null) ? null : cuentas.clone();
+        c.total = total;
+        return c;
+    }
+
+    // ------------------------------------------------------------
+    // Consultas
+    // ------------------------------------------------------------
+
+    /** @return cantidad de tiempos registrados. */
+    public long getCantidad() { return total; }
+
+    /**
+     * Percentil por rango más cercano: el menor tiempo con al menos {@code ceil(q * n)} tiempos &le; él.
+     * @param q fracción entre 0 y 1 (p. ej., 0.5 = mediana, 0.99 = p99).
+     * @return tiempo aproximado en milisegundos, o -1 si no hay tiempos.
+     * @throws IllegalArgumentException si {@code q} está fuera de [0, 1].
+     */
+    public long percentil(double q) {
+        if (!(q >= 0 && q <= 1)) throw new IllegalArgumentException("El percentil debe estar entre 0 y 1.");
+        if (total == 0) return -1;
+        long objetivo = Math.max(1, (long) Math.ceil(q * total));
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += cuentas[i];
+            if (acumulado >= objetivo) return valorDe(i);
+        }
+        return valorDe(CUBETAS - 1);
+    }
+
+    /** @return mediana aproximada en milisegundos, o -1 si no hay tiempos. */
+    public long mediana() { return percentil(0.5); }
+
+    // ------------------------------------------------------------
+    // Utilidades internas
+    // ------------------------------------------------------------
+
+    /**
+     * @param v tiempo (&ge; 0).
+     * @return cubeta del tiempo.
+     */
+    static int indice(long v) {
+        if (v < EXACTAS) return (int) v;
+        if (v > Integer.MAX_VALUE) return CUBETAS - 1;
+        int desplazamiento = (63 - Long.numberOfLeadingZeros(v)) - (BITS - 1);
+        int sub = (int) (v >>> desplazamiento) - POR_OCTAVA;
+        return EXACTAS + (desplazamiento - 1) * POR_OCTAVA + sub;
+    }
+
+    /**
+     * @param i cubeta.
+     * @return valor representativo (centro) de la cubeta.
+     */
+    static long valorDe(int i) {
+        if (i < EXACTAS) return i;
+        int desplazamiento = (i - EXACTAS) / POR_OCTAVA + 1;
+        long inicio = (long) (POR_OCTAVA + (i - EXACTAS) % POR_OCTAVA) << desplazamiento;
+        return inicio + ((1L << desplazamiento) >> 1);
+    }
+
+    @Override
+    public String toString() {
+        return "HistogramaTiempos{n=" + total + ", p50=" + percentil(0.5) + ", p90=" + percentil(0.9)
+                + ", p99=" + percentil(0.99) + '}';
+    }
+}
@@ -0,0 +1,169 @@
+package eventos;
+
+import java.util.Arrays;
+
+/**
+ * La clase {@code IndiceEnteros} es una tabla hash de direccionamiento abierto que asocia
+ * claves {@code int} a valores {@code int} sin crear objetos {@link Integer}.
+ * Se usa como índice interno de {@link Evento} (p. ej., dorsal → id de inscripción).
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>Las claves deben ser &gt; 0: el valor 0 marca una celda vacía.</li>
+ *   <li>Sondeo lineal con borrado por desplazamiento hacia atrás (sin lápidas).</li>
+ *   <li>Factor de carga máximo de 1/2; la capacidad siempre es potencia de 2.</li>
+ *   <li>No es segura para hilos: la sincronización corresponde a la entidad contenedora.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+final class IndiceEnteros {
+
+    /** Valor devuelto por {@link #obtener(int)} cuando la clave no existe. */
+    static final int AUSENTE = -1;
+
+    /** Capacidad inicial (potencia de 2). */
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    /** Claves almacenadas; 0 indica celda libre. */
+    private int[] claves;
+
+    /** Valores asociados a cada clave (misma posición que en {@link #claves}). */
+    private int[] valores;
+
+    /** Cantidad de claves presentes. */
+    private int tamanio;
+
+    /** Crea un índice vacío. */
+    IndiceEnteros() {
+        this(CAPACIDAD_INICIAL);
+    }
+
+    /**
+     * Crea un índice con capacidad para al menos {@code esperados} claves sin redimensionar.
+     * @param esperados cantidad estimada de claves (&ge; 0).
+     */
+    IndiceEnteros(int esperados) {
+        int cap = CAPACIDAD_INICIAL;
+        while (cap < esperados * 2) cap <<= 1;
+        claves = new int[cap];
+        valores = new int[cap];
+    }
+
+    /**
+     * Obtiene el valor asociado a una clave.
+     * @param clave clave a buscar.
+     * @return valor asociado o {@link #AUSENTE} si no existe.
+     */
+    int obtener(int clave) {
+        if (clave <= 0) return AUSENTE;
+        int mascara = claves.length - 1;
+        for (int i = mezclar(clave) & mascara; ; i = (i + 1) & mascara) {
+            int k = claves[i];
+            if (k == clave) return valores[i];
+            if (k == 0) return AUSENTE;
+        }
+    }
+
+    /**
+     * Indica si la clave está presente.
+     * @param clave clave a verificar.
+     * @return {@code true} si existe.
+     */
+    boolean contiene(int clave) {
+        return obtener(clave) != AUSENTE;
+    }
+
+    /**
+     * Inserta o reemplaza el valor de una clave.
+     * @param clave clave (&gt; 0).
+     * @param valor valor a asociar.
+     * @throws IllegalArgumentException si {@code clave <= 0}.
+     */
+    void poner(int clave, int valor) {
+        if (clave <= 0) throw new IllegalArgumentException("La clave debe ser > 0.");
+        if ((tamanio + 1) * 2 > claves.length) redimensionar(claves.length << 1);
+        int mascara = claves.length - 1;
+        int i = mezclar(clave) & mascara;
+        while (claves[i] != 0) {
+            if (claves[i] == clave) {
+                valores[i] = valor;
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+        claves[i] = clave;
+        valores[i] = valor;
+        tamanio++;
+    }
+
+    /**
+     * Elimina una clave si existe.
+     * @param clave clave a eliminar.
+     * @return {@code true} si se eliminó; {@code false} si no estaba.
+     */
+    boolean remover(int clave) {
+        if (clave <= 0) return false;
+        int mascara = claves.length - 1;
+        int i = mezclar(clave) & mascara;
+        while (claves[i] != clave) {
+            if (claves[i] == 0) return false;
+            i = (i + 1) & mascara;
+        }
+        // Desplazamiento hacia atrás: recoloca las claves posteriores del mismo grupo.
+        int libre = i;
+        for (int j = (libre + 1) & mascara; claves[j] != 0; j = (j + 1) & mascara) {
+            int ideal = mezclar(claves[j]) & mascara;
+            if (((j - ideal) & mascara) >= ((j - libre) & mascara)) {
+                claves[libre] = claves[j];
+                valores[libre] = valores[j];
+                libre = j;
+            }
+        }
+        claves[libre] = 0;
+        valores[libre] = 0;
+        tamanio--;
+        return true;
+    }
+
+    /** Elimina todas las claves conservando la capacidad actual. */
+    void limpiar() {
+        Arrays.fill(claves, 0);
+        Arrays.fill(valores, 0);
+        tamanio = 0;
+    }
+
+    /** @return cantidad de claves presentes. */
+    int tamanio() { return tamanio; }
+
+    /**
+     * Reubica todas las claves en tablas de la capacidad indicada.
+     * @param nuevaCapacidad potencia de 2 mayor que la actual.
+     */
+    private void redimensionar(int nuevaCapacidad) {
+        int[] viejasClaves = claves;
+        int[] viejosValores = valores;
+        claves = new int[nuevaCapacidad];
+        valores = new int[nuevaCapacidad];
+        int mascara = nuevaCapacidad - 1;
+        for (int j = 0; j < viejasClaves.length; j++) {
+            int k = viejasClaves[j];
+            if (k == 0) continue;
+            int i = mezclar(k) & mascara;
+            while (claves[i] != 0) i = (i + 1) & mascara;
+            claves[i] = k;
+            valores[i] = viejosValores[j];
+        }
+    }
+
+    /**
+     * Dispersa la clave para que dorsales/IDs consecutivos no formen grupos largos.
+     * @param clave clave original.
+     * @return hash mezclado.
+     */
+    private static int mezclar(int clave) {
+        int h = clave * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
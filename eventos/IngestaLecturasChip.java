@@ -0,0 +1,409 @@
+package eventos;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.EnumMap;
+
+/**
+ * La clase {@code IngestaLecturasChip} convierte lecturas crudas de los tapetes de cronometraje (RFID) en
+ * tiempos finales y parciales de un {@link Evento}, procesándolas por lotes.
+ *
+ * <p><b>Formato</b> (una lectura por línea, separador coma; la primera línea puede ser un encabezado):</p>
+ * <pre>dorsal,marca,tapete</pre>
+ * <p>{@code marca} es el instante de la lectura en milisegundos (p. ej., época Unix) y {@code tapete} el id
+ * numérico del tapete. El tiempo de la lectura es {@code marca - largada}.</p>
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>El tapete de meta da el tiempo final ({@link RankingEvento}); los tapetes parciales se ubican por
+ *       kilómetro y se asocian al punto de control con ese kilómetro en la distancia de cada inscripción
+ *       ({@link ParcialesEvento}). Si la distancia no tiene ese punto, la lectura se acepta pero no se registra.</li>
+ *   <li>Los lectores emiten muchas lecturas repetidas por corredor: por cada dorsal y tapete vale la primera
+ *       marca (la menor); las demás se descartan como duplicadas. Si llega una marca menor en un lote posterior,
+ *       corrige el tiempo ya registrado.</li>
+ *   <li>Solo se registran tiempos de inscripciones CONFIRMADAS (igual que en el registro manual); las demás
+ *       lecturas se cuentan como rechazadas.</li>
+ *   <li>Por lote ({@link #TAMANIO_LOTE} lecturas) los dorsales se resuelven tomando el monitor del evento una
+ *       vez, y los tiempos finales se registran con {@link RankingEvento#registrarLote} (un bloqueo y una
+ *       publicación de líderes por lote).</li>
+ *   <li>Un lote incompleto se confirma antes de una lectura que bloquearía ({@code available() == 0}, p. ej.
+ *       un socket a la espera del lector) o si lleva {@link #ESPERA_MAXIMA_LOTE_MS} ms abierto: con un flujo
+ *       en vivo, los tiempos no quedan retenidos hasta juntar un lote completo o cerrar la conexión.</li>
+ *   <li>Un {@link OyenteRegistros} opcional recibe, al confirmar cada lote, solo los tiempos y parciales que
+ *       ese lote registró o corrigió (p. ej., para persistirlos sin volver a escribir todo el evento).</li>
+ *   <li>Memoria acotada: los búferes son de tamaño fijo y el estado de depuración es un entero por dorsal
+ *       y tapete, solo para dorsales de inscripciones CONFIRMADAS del evento.</li>
+ *   <li>El análisis trabaja sobre bytes (sin crear {@code String} por línea), así que sirve igual para un
+ *       archivo que para el flujo de un socket local.</li>
+ *   <li>No es segura para hilos: una instancia por origen de lecturas. Los tapetes se definen antes de
+ *       procesar la primera lectura.</li>
+ *   <li>Sin I/O de consola.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+public class IngestaLecturasChip {
+
+    /** Lecturas por lote. */
+    public static final int TAMANIO_LOTE = 8192;
+
+    /** Tiempo máximo, en milisegundos, que un lote incompleto espera más lecturas antes de confirmarse. */
+    public static final long ESPERA_MAXIMA_LOTE_MS = 200;
+
+    /** Tamaño del búfer de lectura en bytes. */
+    private static final int TAMANIO_BUFER = 64 * 1024;
+
+    /** Máximo de tapetes (meta incluida): los cambios de cada lote se marcan en un {@code int}. */
+    private static final int MAX_TAPETES = 32;
+
+    /** Marca de "sin lectura" en el estado de depuración. */
+    private static final int SIN_MARCA = Integer.MAX_VALUE;
+
+    /**
+     * Receptor de lo que registra cada lote: solo las lecturas aceptadas que cambiaron un tiempo o un parcial.
+     */
+    public interface OyenteRegistros {
+        /**
+         * @param inscripcion  inscripción cuyo tiempo final se registró o corrigió.
+         * @param milisegundos tiempo desde la largada.
+         */
+        void tiempo(Inscripcion inscripcion, long milisegundos);
+
+        /**
+         * @param inscripcion  inscripción cuyo parcial se registró o corrigió.
+         * @param punto        índice del punto de control en su distancia.
+         * @param milisegundos tiempo desde la largada.
+         */
+        void parcial(Inscripcion inscripcion, int punto, long milisegundos);
+    }
+
+    /** Evento destino. */
+    private final Evento evento;
+
+    /** Receptor de los registros de cada lote (puede ser nulo). */
+    private OyenteRegistros oyente;
+
+    /** Instante de largada en milisegundos (misma escala que las marcas). */
+    private final long largadaMilis;
+
+    /** Ids de tapete; la posición 0 es la meta. */
+    private int[] tapetes;
+
+    /** Kilómetro de cada tapete (misma posición que {@link #tapetes}; la meta no se usa). */
+    private double[] kmTapetes;
+
+    /** Por distancia: índice de punto de control de cada tapete, o -1 (calculado al iniciar). */
+    private final EnumMap<Inscripcion.Distancia, int[]> puntoPorTapete = new EnumMap<>(Inscripcion.Distancia.class);
+
+    /** Indica que ya se procesaron lecturas (los tapetes quedan fijos). */
+    private boolean iniciada;
+
+    // ---- Estado de depuración por dorsal (una fila por dorsal visto) ----
+
+    private final IndiceEnteros filaPorDorsal = new IndiceEnteros();
+    private Inscripcion[] inscripcionPorFila = new Inscripcion[0];
+    /** Menor marca relativa por fila y tapete: {@code mejores[fila * tapetes.length + t]}. */
+    private int[] mejores = new int[0];
+    /** Tapetes con marca nueva en el lote actual (bit por tapete). */
+    private int[] cambios = new int[0];
+    private int filas;
+
+    // ---- Lote actual ----
+
+    private final int[] loteDorsales = new int[TAMANIO_LOTE];
+    private final int[] loteMarcas = new int[TAMANIO_LOTE];
+    private final int[] loteTapetes = new int[TAMANIO_LOTE];
+    private final Inscripcion[] loteInscripciones = new Inscripcion[TAMANIO_LOTE];
+    private final int[] filasPendientes = new int[TAMANIO_LOTE];
+    private final Inscripcion[] metaInscripciones = new Inscripcion[TAMANIO_LOTE];
+    private final long[] metaMilisegundos = new long[TAMANIO_LOTE];
+    private int loteTamanio;
+    /** Instante ({@link System#nanoTime()}) en que entró la primera lectura del lote actual. */
+    private long inicioLote;
+
+    // ---- Estado del análisis de la línea en curso ----
+
+    private long linea;
+    private int campo;
+    private long valor;
+    private int digitos;
+    private boolean lineaVacia = true;
+    private boolean lineaValida = true;
+    private long dorsalLeido;
+    private long marcaLeida;
+
+    /**
+     * Crea una ingesta para un evento.
+     * @param evento       evento destino (no nulo).
+     * @param largadaMilis instante de largada en la escala de las marcas (0 si las marcas ya son relativas).
+     * @param tapeteMeta   id del tapete de meta (&ge; 0).
+     * @throws IllegalArgumentException si algún parámetro es inválido.
+     */
+    public IngestaLecturasChip(Evento evento, long largadaMilis, int tapeteMeta) {
+        if (evento == null) throw new IllegalArgumentException("El evento no puede ser nulo.");
+        if (tapeteMeta < 0) throw new IllegalArgumentException("El id de tapete debe ser >= 0.");
+        this.evento = evento;
+        this.largadaMilis = largadaMilis;
+        this.tapetes = new int[]{tapeteMeta};
+        this.kmTapetes = new double[]{Double.NaN};
+    }
+
+    /**
+     * Define un tapete intermedio.
+     * @param tapete id del tapete (&ge; 0, distinto de los ya definidos).
+     * @param km     kilómetro en el que está (&gt; 0).
+     * @throws IllegalArgumentException si el tapete ya existe o los datos son inválidos.
+     * @throws IllegalStateException si ya se procesaron lecturas o se alcanzó el máximo de tapetes.
+     */
+    public void definirTapeteParcial(int tapete, double km) {
+        if (iniciada) throw new IllegalStateException("Los tapetes se definen antes de procesar lecturas.");
+        if (tapete < 0) throw new IllegalArgumentException("El id de tapete debe ser >= 0.");
+        if (!(km > 0)) throw new IllegalArgumentException("El kilómetro debe ser > 0.");
+        if (indiceTapete(tapete) >= 0) throw new IllegalArgumentException("Tapete ya definido: " + tapete);
+        if (tapetes.length == MAX_TAPETES) throw new IllegalStateException("Máximo de tapetes: " + MAX_TAPETES);
+        tapetes = Arrays.copyOf(tapetes, tapetes.length + 1);
+        kmTapetes = Arrays.copyOf(kmTapetes, kmTapetes.length + 1);
+        tapetes[tapetes.length - 1] = tapete;
+        kmTapetes[kmTapetes.length - 1] = km;
+    }
+
+    /**
+     * Define quién recibe los tiempos y parciales que registra cada lote.
+     * @param oyente receptor (puede ser nulo para no avisar a nadie).
+     */
+    public void setOyente(OyenteRegistros oyente) {
+        this.oyente = oyente;
+    }
+
+    /**
+     * Lee lecturas hasta agotar el origen, confirmando cada lote completo, el último parcial y cualquier lote
+     * incompleto antes de quedar esperando datos o al vencer {@link #ESPERA_MAXIMA_LOTE_MS}.
+     * <p>Puede llamarse varias veces (p. ej., un archivo por lector): la depuración de duplicados se conserva.</p>
+     * @param entrada origen de bytes (no nulo); lo abre y cierra la capa orquestadora.
+     * @return resumen de la ingesta de este origen.
+     * @throws IOException si falla la lectura.
+     */
+    public ResultadoIngesta procesar(InputStream entrada) throws IOException {
+        if (entrada == null) throw new IllegalArgumentException("La entrada no puede ser nula.");
+        iniciar();
+        ResultadoIngesta res = new ResultadoIngesta();
+        linea = 0;
+        reiniciarLinea();
+        byte[] bufer = new byte[TAMANIO_BUFER];
+        long espera = ESPERA_MAXIMA_LOTE_MS * 1_000_000L;
+        int leidos;
+        while (true) {
+            // No retener un lote incompleto mientras el origen no tiene datos listos
+            if (loteTamanio > 0 && entrada.available() == 0) confirmarLote(res);
+            if ((leidos = entrada.read(bufer)) == -1) break;
+            for (int i = 0; i < leidos; i++) {
+                byte b = bufer[i];
+                if (b == '\n') {
+                    terminarLinea(res);
+                } else if (b >= '0' && b <= '9') {
+                    lineaVacia = false;
+                    if (++digitos > 18) lineaValida = false;
+                    else valor = valor * 10 + (b - '0');
+                } else if (b == ',') {
+                    lineaVacia = false;
+                    cerrarCampo();
+                } else if (b != ' ' && b != '\t' && b != '\r') {
+                    lineaVacia = false;
+                    lineaValida = false;
+                }
+            }
+            if (loteTamanio > 0 && System.nanoTime() - inicioLote >= espera) confirmarLote(res);
+        }
+        terminarLinea(res);
+        confirmarLote(res);
+        return res;
+    }
+
+    // ------------------------------------------------------------
+    // Análisis de líneas
+    // ------------------------------------------------------------
+
+    private void reiniciarLinea() {
+        campo = 0;
+        valor = 0;
+        digitos = 0;
+        lineaVacia = true;
+        lineaValida = true;
+    }
+
+    private void cerrarCampo() {
+        if (digitos == 0) lineaValida = false;
+        if (campo == 0) dorsalLeido = valor;
+        else if (campo == 1) marcaLeida = valor;
+        else lineaValida = false;
+        campo++;
+        valor = 0;
+        digitos = 0;
+    }
+
+    private void terminarLinea(ResultadoIngesta res) {
+        if (lineaVacia) {
+            reiniciarLinea();
+            return;
+        }
+        linea++;
+        boolean conTexto = !lineaValida;
+        boolean completa = lineaValida && campo == 2 && digitos > 0;
+        long tapete = valor;
+        reiniciarLinea();
+        if (!completa) {
+            if (linea == 1 && conTexto) return; // encabezado
+            res.contarLectura();
+            res.agregarInvalida(linea, "Formato esperado: dorsal,marca,tapete");
+            return;
+        }
+        res.contarLectura();
+        if (dorsalLeido <= 0 || dorsalLeido > Integer.MAX_VALUE) {
+            res.agregarInvalida(linea, "Dorsal inválido: " + dorsalLeido);
+            return;
+        }
+        int t = (tapete > Integer.MAX_VALUE) ? -1 : indiceTapete((int) tapete);
+        if (t < 0) {
+            res.agregarInvalida(linea, "Tapete desconocido: " + tapete);
+            return;
+        }
+        long relativa = marcaLeida - largadaMilis;
+        if (relativa < 0 || relativa >= SIN_MARCA) {
+            res.agregarInvalida(linea, "Marca fuera de rango respecto de la largada: " + marcaLeida);
+            return;
+        }
+        if (loteTamanio == 0) inicioLote = System.nanoTime();
+        loteDorsales[loteTamanio] = (int) dorsalLeido;
+        loteMarcas[loteTamanio] = (int) relativa;
+        loteTapetes[loteTamanio] = t;
+        if (++loteTamanio == TAMANIO_LOTE) confirmarLote(res);
+    }
+
+    // ------------------------------------------------------------
+    // Lotes
+    // ------------------------------------------------------------
+
+    /**
+     * Resuelve, depura y registra el lote actual.
+     * @param res resumen donde se cuentan las lecturas.
+     */
+    private void confirmarLote(ResultadoIngesta res) {
+        if (loteTamanio == 0) return;
+        int ancho = tapetes.length;
+        evento.resolverDorsales(loteDorsales, loteTamanio, loteInscripciones);
+
+        int pendientes = 0;
+        for (int i = 0; i < loteTamanio; i++) {
+            Inscripcion ins = loteInscripciones[i];
+            loteInscripciones[i] = null;
+            if (ins == null) {
+                res.contarDesconocida();
+                continue;
+            }
+            if (ins.getEstado() != Inscripcion.Estado.CONFIRMADO) {
+                res.contarRechazada();
+                continue;
+            }
+            int fila = filaDe(loteDorsales[i], ins);
+            int t = loteTapetes[i];
+            if (loteMarcas[i] >= mejores[fila * ancho + t]) {
+                res.contarDuplicada();
+                continue;
+            }
+            mejores[fila * ancho + t] = loteMarcas[i];
+            res.contarAceptada();
+            if (cambios[fila] == 0) filasPendientes[pendientes++] = fila;
+            cambios[fila] |= 1 << t;
+        }
+
+        int enMeta = 0;
+        ParcialesEvento parciales = evento.getParciales();
+        for (int p = 0; p < pendientes; p++) {
+            int fila = filasPendientes[p];
+            int mascara = cambios[fila];
+            cambios[fila] = 0;
+            Inscripcion ins = inscripcionPorFila[fila];
+            if ((mascara & 1) != 0) {
+                metaInscripciones[enMeta] = ins;
+                metaMilisegundos[enMeta++] = mejores[fila * ancho];
+            }
+            int[] puntos = puntoPorTapete.get(ins.getDistancia());
+            for (int t = 1; t < ancho; t++) {
+                if ((mascara & (1 << t)) != 0 && puntos[t] >= 0) {
+                    parciales.registrar(ins, puntos[t], mejores[fila * ancho + t]);
+                    if (oyente != null) oyente.parcial(ins, puntos[t], mejores[fila * ancho + t]);
+                    res.contarParcial();
+                }
+            }
+        }
+        if (enMeta > 0) {
+            evento.getRanking().registrarLote(metaInscripciones, metaMilisegundos, enMeta);
+            if (oyente != null) {
+                for (int i = 0; i < enMeta; i++) oyente.tiempo(metaInscripciones[i], metaMilisegundos[i]);
+            }
+            Arrays.fill(metaInscripciones, 0, enMeta, null);
+            res.contarTiempos(enMeta);
+        }
+        res.contarLote();
+        loteTamanio = 0;
+    }
+
+    /**
+     * Fila de depuración de un dorsal; se crea (o se reinicia si el dorsal cambió de inscripción).
+     * @param dorsal dorsal leído.
+     * @param ins    inscripción que hoy tiene ese dorsal.
+     * @return fila.
+     */
+    private int filaDe(int dorsal, Inscripcion ins) {
+        int fila = filaPorDorsal.obtener(dorsal);
+        if (fila == IndiceEnteros.AUSENTE) {
+            if (filas == inscripcionPorFila.length) crecer();
+            fila = filas++;
+            filaPorDorsal.poner(dorsal, fila);
+        } else if (inscripcionPorFila[fila] == ins) {
+            return fila;
+        }
+        inscripcionPorFila[fila] = ins;
+        Arrays.fill(mejores, fila * tapetes.length, (fila + 1) * tapetes.length, SIN_MARCA);
+        return fila;
+    }
+
+    /** Agranda el estado de depuración en un 50 % o, si es más, hasta la cantidad de inscripciones del evento. */
+    private void crecer() {
+        int nueva = Math.max(Math.max(16, filas + (filas >> 1)), evento.getInstantaneaInscripciones().size());
+        inscripcionPorFila = Arrays.copyOf(inscripcionPorFila, nueva);
+        mejores = Arrays.copyOf(mejores, nueva * tapetes.length);
+        cambios = Arrays.copyOf(cambios, nueva);
+    }
+
+    // ------------------------------------------------------------
+    // Utilidades internas
+    // ------------------------------------------------------------
+
+    /** Fija los tapetes y calcula, por distancia, el punto de control de cada tapete intermedio. */
+    private void iniciar() {
+        if (iniciada) return;
+        ParcialesEvento parciales = evento.getParciales();
+        for (Inscripcion.Distancia d : Inscripcion.Distancia.values()) {
+            double[] puntos = parciales.getPuntos(d);
+            int[] porTapete = new int[tapetes.length];
+            Arrays.fill(porTapete, -1);
+            for (int t = 1; t < tapetes.length; t++) {
+                for (int p = 0; p < puntos.length; p++) {
+                    if (Math.abs(puntos[p] - kmTapetes[t]) < 1e-6) porTapete[t] = p;
+                }
+            }
+            puntoPorTapete.put(d, porTapete);
+        }
+        iniciada = true;
+    }
+
+    private int indiceTapete(int tapete) {
+        for (int t = 0; t < tapetes.length; t++) {
+            if (tapetes[t] == tapete) return t;
+        }
+        return -1;
+    }
+}
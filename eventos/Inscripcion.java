@@ -14,6 +14,8 @@ import java.util.Objects;
  *     <li>El número de dorsal debe ser mayor que cero y único dentro del evento (se valida en {@link Evento}).</li>
  *     <li>No se permite retroceder en los estados ni realizar operaciones inválidas.</li>
  *     <li>No se deben incluir operaciones de entrada/salida de consola dentro de esta clase.</li>
+ *     <li>Las transiciones de estado y los cambios de dorsal se sincronizan con el monitor del {@link Evento}.</li>
+ *     <li>La {@link Categoria} es opcional; si no se indica, el ranking la decide por la edad del corredor.</li>
  * </ul>
  *
  * @author 
@@ -40,16 +42,16 @@ public class Inscripcion {
     private final int id;
 
     /** Distancia seleccionada por el corredor. */
-    private Distancia distancia;
+    private volatile Distancia distancia;
 
     /** Talla de camiseta seleccionada por el corredor. */
     private Talla talla;
 
     /** Número de dorsal asignado al corredor. Debe ser único dentro del evento. */
-    private int numeroDorsal;
+    private volatile int numeroDorsal;
 
     /** Estado actual de la inscripción. */
-    private Estado estado = Estado.PENDIENTE;
+    private volatile Estado estado = Estado.PENDIENTE;
 
     /** Corredor asociado a la inscripción. */
     private Corredor corredor;
@@ -57,6 +59,15 @@ public class Inscripcion {
     /** Evento al que pertenece la inscripción. */
     private Evento evento;
 
+    /** Categoría elegida al inscribir (opcional; se usa para la posición por categoría). */
+    private volatile Categoria categoria;
+
+    /** Fila de esta inscripción en {@link ResultadosEvento} (uso interno; -1 = sin tiempo). */
+    int filaResultado = -1;
+
+    /** Fila de esta inscripción en {@link ParcialesEvento} (uso interno; -1 = sin parciales). */
+    int filaParciales = -1;
+
     /**
      * Constructor de la clase {@code Inscripcion}.
      *
@@ -99,10 +110,13 @@ public class Inscripcion {
      * @throws IllegalStateException si el estado actual no es {@code PENDIENTE}.
      */
     public void confirmarPago() {
-        if (estado != Estado.PENDIENTE) {
-            throw new IllegalStateException("Solo se puede pagar una inscripción pendiente.");
+        synchronized (evento) {
+            if (estado != Estado.PENDIENTE) {
+                throw new IllegalStateException("Solo se puede pagar una inscripción pendiente.");
+            }
+            this.estado = Estado.PAGADO;
+            evento.registrarCambioEstado(this, Estado.PENDIENTE, Estado.PAGADO);
         }
-        this.estado = Estado.PAGADO;
     }
 
     /**
@@ -111,10 +125,13 @@ public class Inscripcion {
      * @throws IllegalStateException si el estado actual no es {@code PAGADO}.
      */
     public void confirmarInscripcion() {
-        if (estado != Estado.PAGADO) {
-            throw new IllegalStateException("Debe estar PAGADO para poder confirmar la inscripción.");
+        synchronized (evento) {
+            if (estado != Estado.PAGADO) {
+                throw new IllegalStateException("Debe estar PAGADO para poder confirmar la inscripción.");
+            }
+            this.estado = Estado.CONFIRMADO;
+            evento.registrarCambioEstado(this, Estado.PAGADO, Estado.CONFIRMADO);
         }
-        this.estado = Estado.CONFIRMADO;
     }
 
     // ------------------------------------------------------------
@@ -129,12 +146,20 @@ public class Inscripcion {
 
     /**
      * Establece la distancia seleccionada.
+     * <p>Si la inscripción ya está registrada en su evento, el lugar se traspasa al cupo de la nueva distancia
+     * y, si ya tiene tiempo, se reubica en el ranking. Los parciales de la distancia anterior se descartan.</p>
      * @param distancia nueva distancia.
      * @throws IllegalArgumentException si la distancia es nula.
+     * @throws IllegalStateException si la nueva distancia no tiene cupo.
      */
     public void setDistancia(Distancia distancia) {
         if (distancia == null) throw new IllegalArgumentException("La distancia no puede ser nula.");
-        this.distancia = distancia;
+        synchronized (evento) {
+            evento.reasignarDistancia(this, this.distancia, distancia);
+            if (distancia != this.distancia) evento.getParciales().remover(this);
+            this.distancia = distancia;
+            evento.getRanking().reubicar(this);
+        }
     }
 
     /** @return la talla de camiseta. */
@@ -154,13 +179,35 @@ public class Inscripcion {
     public int getNumeroDorsal() { return numeroDorsal; }
 
     /**
-     * Establece el número de dorsal (sin validar unicidad aquí).
+     * Establece el número de dorsal.
+     * <p>Si la inscripción ya está registrada en su evento, este actualiza su índice de dorsales
+     * y valida la unicidad; si ya tiene tiempo, se reubica en el ranking (el dorsal desempata).</p>
      * @param numeroDorsal nuevo número de dorsal (> 0).
      * @throws IllegalArgumentException si el número de dorsal es menor o igual a 0.
+     * @throws IllegalStateException si el dorsal ya está en uso en el evento.
      */
     public void setNumeroDorsal(int numeroDorsal) {
         if (numeroDorsal <= 0) throw new IllegalArgumentException("El número de dorsal debe ser mayor que 0.");
-        this.numeroDorsal = numeroDorsal;
+        synchronized (evento) {
+            evento.reasignarDorsal(this, this.numeroDorsal, numeroDorsal);
+            this.numeroDorsal = numeroDorsal;
+            evento.getRanking().reubicar(this);
+        }
+    }
+
+    /** @return la categoría elegida al inscribir, o {@code null} si no se indicó. */
+    public Categoria getCategoria() { return categoria; }
+
+    /**
+     * Establece la categoría en la que compite el corredor.
+     * <p>Si la inscripción ya tiene tiempo, se reubica en el ranking de la nueva categoría.</p>
+     * @param categoria categoría (puede ser nula para decidirla por edad).
+     */
+    public void setCategoria(Categoria categoria) {
+        synchronized (evento) {
+            this.categoria = categoria;
+            evento.getRanking().reubicar(this);
+        }
     }
 
     /** @return el estado actual de la inscripción. */
@@ -0,0 +1,64 @@
+package eventos;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * La clase {@code InstantaneaInscripciones} es una vista inmutable y consistente de las
+ * inscripciones de un {@link Evento} en un instante dado.
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>Obtenerla no bloquea ni copia: el evento publica una instantánea nueva en cada cambio,
+ *       que comparte estructura con la anterior (ver {@link VectorPersistente}).</li>
+ *   <li>Puede recorrerse mientras otros hilos inscriben sin riesgo de
+ *       {@link java.util.ConcurrentModificationException}; nunca refleja cambios posteriores.</li>
+ *   <li>Congela la pertenencia al evento, no el contenido de cada {@link Inscripcion}
+ *       (p. ej., su estado puede seguir avanzando).</li>
+ *   <li>{@link #getVersion()} crece con cada alta, baja o reemplazo de inscripciones.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+public final class InstantaneaInscripciones extends AbstractList<Inscripcion> implements RandomAccess {
+
+    /** Instantánea vacía inicial. */
+    private static final InstantaneaInscripciones VACIA =
+            new InstantaneaInscripciones(VectorPersistente.vacio(), 0);
+
+    /** Inscripciones en la instantánea. */
+    private final VectorPersistente<Inscripcion> datos;
+
+    /** Versión de la instantánea dentro de su evento. */
+    private final long version;
+
+    private InstantaneaInscripciones(VectorPersistente<Inscripcion> datos, long version) {
+        this.datos = datos;
+        this.version = version;
+    }
+
+    /** @return la instantánea vacía (versión 0). */
+    static InstantaneaInscripciones vacia() { return VACIA; }
+
+    /**
+     * Crea la instantánea siguiente a esta con otro contenido.
+     * @param nuevosDatos contenido de la nueva versión.
+     * @return instantánea con versión {@code getVersion() + 1}.
+     */
+    InstantaneaInscripciones siguiente(VectorPersistente<Inscripcion> nuevosDatos) {
+        return new InstantaneaInscripciones(nuevosDatos, version + 1);
+    }
+
+    /** @return vector persistente subyacente. */
+    VectorPersistente<Inscripcion> datos() { return datos; }
+
+    /** @return versión de la instantánea (0 = evento sin cambios aún). */
+    public long getVersion() { return version; }
+
+    @Override
+    public Inscripcion get(int index) { return datos.get(index); }
+
+    @Override
+    public int size() { return datos.size(); }
+}
@@ -0,0 +1,317 @@
+package eventos;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.function.IntPredicate;
+
+/**
+ * La clase {@code ParcialesEvento} guarda los tiempos parciales (puntos de control: 5K, 10K, media...) de
+ * las inscripciones de un {@link Evento}, junto al tiempo final que guarda {@link ResultadosEvento}.
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>Cada {@link Inscripcion.Distancia} tiene sus puntos de control (kilómetros, ascendentes y menores que
+ *       la distancia). Por defecto: 10K → 5; media → 5, 10, 15; maratón → 5, 10, media, 30, 35, 40.</li>
+ *   <li>Por distancia hay una tabla plana: una fila por inscripción con parciales y, en un único {@code int[]},
+ *       sus marcas en milisegundos desde la largada (-1 = no pasó por ese punto). Con 6 puntos una fila cuesta
+ *       28 bytes, sin objetos por parcial. La fila de cada inscripción se guarda en la propia {@link Inscripcion}.</li>
+ *   <li>Los tramos y ritmos no se guardan: se calculan al pedirlos. El último tramo termina en el tiempo final.</li>
+ *   <li>Los puntos de una distancia solo pueden cambiarse mientras no haya parciales registrados en ella.</li>
+ *   <li>Al cambiar de distancia o eliminar la inscripción, sus parciales se descartan.</li>
+ *   <li>Los métodos son seguros para hilos (monitor propio); el evento bloquea antes que este almacén, y aquí
+ *       no se invocan métodos sincronizados del evento con el monitor tomado.</li>
+ *   <li>Sin I/O de consola.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+public class ParcialesEvento {
+
+    /** Capacidad inicial (en filas) de cada tabla. */
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    /** Marca de punto de control no registrado. */
+    private static final int SIN_MARCA = -1;
+
+    /**
+     * Parciales de una distancia: {@code marcas[fila * puntos.length + p]} es la marca del punto {@code p}.
+     */
+    private static final class Tabla {
+        double[] puntos;
+        Inscripcion[] inscripciones = new Inscripcion[CAPACIDAD_INICIAL];
+        int[] marcas;
+        int tamanio;
+
+        Tabla(double... puntos) {
+            this.puntos = puntos;
+            this.marcas = new int[CAPACIDAD_INICIAL * puntos.length];
+        }
+    }
+
+    /** Evento dueño. */
+    private final Evento evento;
+
+    /** Tabla de parciales por distancia. */
+    private final EnumMap<Inscripcion.Distancia, Tabla> tablas = new EnumMap<>(Inscripcion.Distancia.class);
+
+    /**
+     * Crea el almacén de parciales de un evento con los puntos de control por defecto (uso de {@link Evento}).
+     * @param evento evento dueño.
+     */
+    ParcialesEvento(Evento evento) {
+        this.evento = evento;
+        tablas.put(Inscripcion.Distancia.CINCO_K, new Tabla());
+        tablas.put(Inscripcion.Distancia.DIEZ_K, new Tabla(5));
+        tablas.put(Inscripcion.Distancia.MEDIA_MARATON, new Tabla(5, 10, 15));
+        tablas.put(Inscripcion.Distancia.MARATON, new Tabla(5, 10, 21.0975, 30, 35, 40));
+    }
+
+    /**
+     * @param distancia distancia (no nula).
+     * @return largo de la distancia en kilómetros.
+     */
+    public static double kilometros(Inscripcion.Distancia distancia) {
+        if (distancia == null) throw new IllegalArgumentException("La distancia no puede ser nula.");
+        return switch (distancia) {
+            case CINCO_K -> 5;
+            case DIEZ_K -> 10;
+            case MEDIA_MARATON -> 21.0975;
+            case MARATON -> 42.195;
+        };
+    }
+
+    // ------------------------------------------------------------
+    // Puntos de control
+    // ------------------------------------------------------------
+
+    /**
+     * Define los puntos de control de una distancia.
+     * @param distancia distancia (no nula).
+     * @param km        kilómetros de cada punto, ascendentes, &gt; 0 y menores que la distancia (puede ser vacío).
+     * @throws IllegalArgumentException si los puntos no son válidos.
+     * @throws IllegalStateException si ya hay parciales registrados en la distancia.
+     */
+    public synchronized void configurarPuntos(Inscripcion.Distancia distancia, double... km) {
+        double largo = kilometros(distancia);
+        if (km == null) throw new IllegalArgumentException("Los puntos de control no pueden ser nulos.");
+        for (int i = 0; i < km.length; i++) {
+            if (!(km[i] > 0) || km[i] >= largo || (i > 0 && km[i] <= km[i - 1])) {
+                throw new IllegalArgumentException("Los puntos de control deben ser ascendentes, > 0 y menores que "
+                        + largo + " km.");
+            }
+        }
+        if (tablas.get(distancia).tamanio > 0) {
+            throw new IllegalStateException("Ya hay parciales registrados en la distancia " + distancia + ".");
+        }
+        tablas.put(distancia, new Tabla(km.clone()));
+    }
+
+    /**
+     * @param distancia distancia (no nula).
+     * @return copia de los kilómetros de sus puntos de control.
+     */
+    public synchronized double[] getPuntos(Inscripcion.Distancia distancia) {
+        return tabla(distancia).puntos.clone();
+    }
+
+    /**
+     * @param distancia distancia (no nula).
+     * @return cantidad de puntos de control.
+     */
+    public synchronized int cantidadPuntos(Inscripcion.Distancia distancia) {
+        return tabla(distancia).puntos.length;
+    }
+
+    /**
+     * @param distancia distancia (no nula).
+     * @return cantidad de inscripciones con algún parcial en la distancia.
+     */
+    public synchronized int tamanio(Inscripcion.Distancia distancia) {
+        return tabla(distancia).tamanio;
+    }
+
+    // ------------------------------------------------------------
+    // Registro
+    // ------------------------------------------------------------
+
+    /**
+     * Registra (o corrige) el paso de una inscripción por un punto de control de su distancia.
+     * @param ins          inscripción del evento (no nula).
+     * @param punto        índice del punto (0 &le; punto &lt; cantidadPuntos).
+     * @param milisegundos tiempo desde la largada (&ge; 0, hasta unos 24 días).
+     * @throws IllegalArgumentException si algún parámetro es inválido o la inscripción es de otro evento.
+     */
+    public void registrar(Inscripcion ins, int punto, long milisegundos) {
+        validarInscripcion(ins);
+        if (milisegundos < 0 || milisegundos > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("El parcial debe estar entre 0 y " + Integer.MAX_VALUE + " ms.");
+        }
+        synchronized (this) {
+            Tabla t = tablas.get(ins.getDistancia());
+            int n = validarPunto(t, punto);
+            int fila = filaDe(t, ins);
+            if (fila < 0) {
+                if (t.tamanio == t.inscripciones.length) crecer(t);
+                fila = t.tamanio++;
+                t.inscripciones[fila] = ins;
+                Arrays.fill(t.marcas, fila * n, fila * n + n, SIN_MARCA);
+                ins.filaParciales = fila;
+            }
+            t.marcas[fila * n + punto] = (int) milisegundos;
+        }
+    }
+
+    /**
+     * Quita los parciales de una inscripción (uso de {@link Evento} e {@link Inscripcion}).
+     * @param ins inscripción; se usa su distancia actual para ubicar la tabla.
+     * @return {@code true} si tenía parciales.
+     */
+    synchronized boolean remover(Inscripcion ins) {
+        Tabla t = tablas.get(ins.getDistancia());
+        int fila = filaDe(t, ins);
+        if (fila < 0) return false;
+        quitarFila(t, fila);
+        return true;
+    }
+
+    /**
+     * Quita los parciales de las inscripciones que ya no están en el evento (uso de
+     * {@link Evento#setInscripciones(java.util.List)}).
+     * @param existe indica si un id de inscripción sigue en el evento.
+     */
+    synchronized void conservarSolo(IntPredicate existe) {
+        for (Tabla t : tablas.values()) {
+            for (int fila = t.tamanio - 1; fila >= 0; fila--) {
+                if (!existe.test(t.inscripciones[fila].getId())) quitarFila(t, fila);
+            }
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Consultas
+    // ------------------------------------------------------------
+
+    /**
+     * @param ins   inscripción del evento (no nula).
+     * @param punto índice del punto de control de su distancia.
+     * @return milisegundos desde la largada en ese punto, o -1 si no está registrado.
+     */
+    public synchronized long obtener(Inscripcion ins, int punto) {
+        validarInscripcion(ins);
+        Tabla t = tablas.get(ins.getDistancia());
+        int n = validarPunto(t, punto);
+        int fila = filaDe(t, ins);
+        return (fila < 0) ? SIN_MARCA : t.marcas[fila * n + punto];
+    }
+
+    /**
+     * @param ins inscripción del evento (no nula).
+     * @return copia de sus marcas por punto de control (-1 donde no hay marca).
+     */
+    public synchronized long[] obtenerTodos(Inscripcion ins) {
+        validarInscripcion(ins);
+        Tabla t = tablas.get(ins.getDistancia());
+        int n = t.puntos.length;
+        long[] res = new long[n];
+        int fila = filaDe(t, ins);
+        for (int p = 0; p < n; p++) res[p] = (fila < 0) ? SIN_MARCA : t.marcas[fila * n + p];
+        return res;
+    }
+
+    /**
+     * Duración de un tramo: del punto anterior (o la largada) al punto {@code tramo}; el tramo
+     * {@code cantidadPuntos} va del último punto a la llegada (tiempo final en {@link ResultadosEvento}).
+     * @param ins   inscripción del evento (no nula).
+     * @param tramo índice del tramo (0 &le; tramo &le; cantidadPuntos).
+     * @return milisegundos del tramo, o -1 si falta alguna de sus dos marcas.
+     */
+    public long milisegundosTramo(Inscripcion ins, int tramo) {
+        validarInscripcion(ins);
+        long llegada = evento.getResultados().obtenerMilisegundos(ins.getId());
+        synchronized (this) {
+            Tabla t = tablas.get(ins.getDistancia());
+            int n = t.puntos.length;
+            if (tramo < 0 || tramo > n) throw new IllegalArgumentException("Tramo fuera de rango: " + tramo);
+            int fila = filaDe(t, ins);
+            long inicio = (tramo == 0) ? 0 : (fila < 0) ? SIN_MARCA : t.marcas[fila * n + tramo - 1];
+            long fin = (tramo == n) ? llegada : (fila < 0) ? SIN_MARCA : t.marcas[fila * n + tramo];
+            return (inicio < 0 || fin < 0) ? SIN_MARCA : fin - inicio;
+        }
+    }
+
+    /**
+     * Ritmo de un tramo (ver {@link #milisegundosTramo(Inscripcion, int)}).
+     * @param ins   inscripción del evento (no nula).
+     * @param tramo índice del tramo (0 &le; tramo &le; cantidadPuntos).
+     * @return segundos por kilómetro, o -1 si falta alguna de sus dos marcas.
+     */
+    public double ritmoTramo(Inscripcion ins, int tramo) {
+        long ms = milisegundosTramo(ins, tramo);
+        if (ms < 0) return SIN_MARCA;
+        double km = kilometrosTramo(ins.getDistancia(), tramo);
+        return (ms / 1000.0) / km;
+    }
+
+    /**
+     * @param distancia distancia (no nula).
+     * @param tramo     índice del tramo (0 &le; tramo &le; cantidadPuntos).
+     * @return largo del tramo en kilómetros.
+     */
+    public synchronized double kilometrosTramo(Inscripcion.Distancia distancia, int tramo) {
+        double[] puntos = tabla(distancia).puntos;
+        if (tramo < 0 || tramo > puntos.length) throw new IllegalArgumentException("Tramo fuera de rango: " + tramo);
+        double desde = (tramo == 0) ? 0 : puntos[tramo - 1];
+        double hasta = (tramo == puntos.length) ? kilometros(distancia) : puntos[tramo];
+        return hasta - desde;
+    }
+
+    // ------------------------------------------------------------
+    // Utilidades internas
+    // ------------------------------------------------------------
+
+    private Tabla tabla(Inscripcion.Distancia distancia) {
+        if (distancia == null) throw new IllegalArgumentException("La distancia no puede ser nula.");
+        return tablas.get(distancia);
+    }
+
+    private void validarInscripcion(Inscripcion ins) {
+        if (ins == null) throw new IllegalArgumentException("La inscripción no puede ser nula.");
+        if (ins.getEvento() != evento) throw new IllegalArgumentException("La inscripción no pertenece a este evento.");
+    }
+
+    private static int validarPunto(Tabla t, int punto) {
+        int n = t.puntos.length;
+        if (punto < 0 || punto >= n) throw new IllegalArgumentException("Punto de control fuera de rango: " + punto);
+        return n;
+    }
+
+    /**
+     * @return fila de la inscripción en la tabla, o -1 si no tiene parciales en ella.
+     */
+    private static int filaDe(Tabla t, Inscripcion ins) {
+        int fila = ins.filaParciales;
+        return (fila >= 0 && fila < t.tamanio && t.inscripciones[fila] == ins) ? fila : -1;
+    }
+
+    /** Quita una fila; la última ocupa su lugar. */
+    private static void quitarFila(Tabla t, int fila) {
+        int n = t.puntos.length;
+        int ultima = --t.tamanio;
+        t.inscripciones[fila].filaParciales = -1;
+        if (fila != ultima) {
+            t.inscripciones[fila] = t.inscripciones[ultima];
+            System.arraycopy(t.marcas, ultima * n, t.marcas, fila * n, n);
+            t.inscripciones[fila].filaParciales = fila;
+        }
+        t.inscripciones[ultima] = null;
+    }
+
+    /** Agranda la tabla en un 50 % o, si es más, hasta la cantidad de inscripciones del evento. */
+    private void crecer(Tabla t) {
+        int nueva = Math.max(t.inscripciones.length + (t.inscripciones.length >> 1),
+                evento.getInstantaneaInscripciones().size());
+        t.inscripciones = Arrays.copyOf(t.inscripciones, nueva);
+        t.marcas = Arrays.copyOf(t.marcas, nueva * t.puntos.length);
+    }
+}
@@ -0,0 +1,102 @@
+package eventos;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * La clase {@code Premiacion} es la lista de podios de un {@link Evento}: los mejores tiempos de cada
+ * {@link Categoria} dentro de cada {@link Inscripcion.Distancia}.
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>La genera {@link RankingEvento#generarPremiacion()} a partir de podios que se mantienen con cada tiempo
+ *       registrado; el evento guarda la de su paso a FINALIZADO ({@link Evento#getPremiacion()}).</li>
+ *   <li>Podios ordenados por distancia y, dentro de cada una, por edad mínima de la categoría.</li>
+ *   <li>Cada puesto trae su {@link Tiempo} con las posiciones general y por categoría del momento de la
+ *       generación; a igual tiempo, los corredores comparten posición y se listan por dorsal.</li>
+ *   <li>Inmutable. Sin I/O de consola.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+public class Premiacion {
+
+    /**
+     * DTO inmutable con el podio de una categoría en una distancia.
+     */
+    public static final class Podio {
+        private final Inscripcion.Distancia distancia;
+        private final Categoria categoria;
+        private final List<Map.Entry<Inscripcion, Tiempo>> puestos;
+
+        /**
+         * Crea un podio.
+         * @param distancia distancia.
+         * @param categoria categoría.
+         * @param puestos   puestos en orden (inscripción, tiempo).
+         */
+        Podio(Inscripcion.Distancia distancia, Categoria categoria, List<Map.Entry<Inscripcion, Tiempo>> puestos) {
+            this.distancia = distancia;
+            this.categoria = categoria;
+            this.puestos = Collections.unmodifiableList(new ArrayList<>(puestos));
+        }
+
+        /** @return distancia del podio. */
+        public Inscripcion.Distancia getDistancia() { return distancia; }
+
+        /** @return categoría del podio. */
+        public Categoria getCategoria() { return categoria; }
+
+        /** @return puestos en orden (inscripción, tiempo con posiciones). */
+        public List<Map.Entry<Inscripcion, Tiempo>> getPuestos() { return puestos; }
+
+        @Override
+        public String toString() {
+            return "Podio{" + distancia + ", " + categoria.getNombre() + ", puestos=" + puestos.size() + '}';
+        }
+    }
+
+    /** Evento premiado. */
+    private final Evento evento;
+
+    /** Podios en orden de distancia y edad mínima. */
+    private final List<Podio> podios;
+
+    /**
+     * Crea la premiación (uso de {@link RankingEvento}).
+     * @param evento evento premiado.
+     * @param podios podios en orden.
+     */
+    Premiacion(Evento evento, List<Podio> podios) {
+        this.evento = evento;
+        this.podios = Collections.unmodifiableList(new ArrayList<>(podios));
+    }
+
+    /** @return evento premiado. */
+    public Evento getEvento() { return evento; }
+
+    /** @return podios en orden de distancia y edad mínima de la categoría. */
+    public List<Podio> getPodios() { return podios; }
+
+    /**
+     * @param distancia distancia (no nula).
+     * @param categoria categoría (no nula).
+     * @return podio de esa categoría en esa distancia, o {@code null} si no tuvo tiempos.
+     */
+    public Podio getPodio(Inscripcion.Distancia distancia, Categoria categoria) {
+        if (distancia == null) throw new IllegalArgumentException("La distancia no puede ser nula.");
+        if (categoria == null) throw new IllegalArgumentException("La categoría no puede ser nula.");
+        for (Podio p : podios) {
+            if (p.distancia == distancia && p.categoria.getId() == categoria.getId()) return p;
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "Premiacion{evento=" + evento.getId() + ", podios=" + podios.size() + '}';
+    }
+}
@@ -0,0 +1,71 @@
+package eventos;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * La clase {@code PromocionEspera} resume una pasada sobre la lista de espera de una distancia
+ * (ver {@link Evento#promoverListaEspera(Inscripcion.Distancia)}): qué solicitudes salieron de la lista y
+ * qué inscripciones se crearon a partir de ellas.
+ *
+ * <p><b>Convenciones de diseño:</b></p>
+ * <ul>
+ *   <li>Sin I/O de consola: la capa orquestadora decide cómo mostrarla y debe registrar cada inscripción
+ *       admitida y cada solicitud retirada para que la persistencia no pierda ninguna.</li>
+ *   <li>Cada solicitud retirada fue admitida (su inscripción está en {@link #getAdmitidas()}, con el mismo
+ *       id) o descartada por ya no ser válida.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+public final class PromocionEspera {
+
+    /** Inscripciones creadas, en orden de admisión. */
+    private final List<Inscripcion> admitidas = new ArrayList<>();
+
+    /** Solicitudes que salieron de la lista (admitidas o descartadas), en orden. */
+    private final List<SolicitudInscripcion> retiradas = new ArrayList<>();
+
+    /** Solicitudes descartadas. */
+    private int descartadas;
+
+    /** Crea un resumen vacío. */
+    public PromocionEspera() { }
+
+    // ------------------------------------------------------------
+    // Registro (uso interno del evento)
+    // ------------------------------------------------------------
+
+    void admitir(SolicitudInscripcion solicitud, Inscripcion ins) {
+        retiradas.add(solicitud);
+        admitidas.add(ins);
+    }
+
+    void descartar(SolicitudInscripcion solicitud) {
+        retiradas.add(solicitud);
+        descartadas++;
+    }
+
+    // ------------------------------------------------------------
+    // Consultas
+    // ------------------------------------------------------------
+
+    /** @return inscripciones creadas desde la lista de espera (inmutable). */
+    public List<Inscripcion> getAdmitidas() { return Collections.unmodifiableList(admitidas); }
+
+    /** @return solicitudes que salieron de la lista, admitidas o descartadas (inmutable). */
+    public List<SolicitudInscripcion> getRetiradas() { return Collections.unmodifiableList(retiradas); }
+
+    /** @return cantidad de solicitudes descartadas por ya no ser válidas. */
+    public int getDescartadas() { return descartadas; }
+
+    /** @return {@code true} si ninguna solicitud salió de la lista. */
+    public boolean estaVacia() { return retiradas.isEmpty(); }
+
+    @Override
+    public String toString() {
+        return "PromocionEspera{admitidas=" + admitidas.size() + ", descartadas=" + descartadas + '}';
+    }
+}
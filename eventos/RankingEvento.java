@@ -0,0 +1,874 @@
+package eventos;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * La clase {@code RankingEvento} clasifica los {@link Tiempo} registrados en un {@link Evento} y
+ * calcula sus posiciones de forma incremental, en O(log n) por tiempo registrado o corregido.
+ *
+ * <p><b>Clasificaciones que mantiene:</b></p>
+ * <ul>
+ *   <li><b>General</b>: por {@link Inscripcion.Distancia} (todos los que corrieron esa distancia).
+ *       Es la que se guarda en {@link Tiempo#getPosicionGeneral()}.</li>
+ *   <li><b>Por categoría</b>: por {@link Categoria} dentro de cada distancia.
+ *       Es la que se guarda en {@link Tiempo#getPosicionCategoria()}.</li>
+ *   <li><b>Evento</b>: todos los tiempos del evento sin distinguir distancia
+ *       (ver {@link #posicionEnEvento(int)}); se obtiene combinando las de cada distancia.</li>
+ * </ul>
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>Cada tiempo es una fila del almacén columnar ({@link ResultadosEvento}), y los árboles de posiciones
+ *       ({@link ArbolPosiciones}) enlazan filas en arreglos: el ranking no crea objetos por tiempo
+ *       registrado. Solo las filas que entran a una tabla de líderes o a un podio tienen una
+ *       {@link Entrada}.</li>
+ *   <li>Menor tiempo = mejor posición; tiempos iguales (al milisegundo) comparten posición (1, 1, 3...).
+ *       En los listados, a igual tiempo se ordena por dorsal.</li>
+ *   <li>Un nuevo tiempo o una corrección desplaza a los que quedan detrás; en lugar de reescribirlos a
+ *       todos, sus posiciones se recalculan cada vez que se leen por el ranking
+ *       ({@link #obtenerTiempo(int)}, {@link #listarGeneral(int)}, etc.), cada una en O(log n). Las columnas
+ *       de posiciones del almacén se recalculan todas juntas en su primera lectura tras un cambio.</li>
+ *   <li>Los {@link Tiempo} devueltos son objetos nuevos; el ranking no retiene ninguno.</li>
+ *   <li>La categoría de una inscripción es la elegida al inscribir ({@link Inscripcion#getCategoria()}) o,
+ *       si no tiene, la primera del evento que acepta la edad del corredor. Sin categoría, la posición
+ *       por categoría queda en 0.</li>
+ *   <li>Los métodos son seguros para hilos (monitor propio, compartido con el almacén). El ranking no invoca
+ *       métodos sincronizados del evento mientras tiene su monitor, así que puede llamarse con el evento
+ *       bloqueado; las consultas por id buscan la inscripción en el evento antes de tomarlo.</li>
+ *   <li>Los mejores {@link #CAPACIDAD_TABLA_LIDERES} de todo el evento y de cada distancia se mantienen
+ *       además en tablas de líderes ({@link TablaLideres}) para las pantallas en vivo.</li>
+ *   <li>Los podios (los mejores {@link #TAMANIO_PODIO_POR_DEFECTO}, configurable) de cada {@link Categoria}
+ *       dentro de cada distancia se mantienen con cada registro, corrección o baja, así la
+ *       {@link Premiacion} sale de ellos sin ordenar ninguna categoría ({@link #generarPremiacion()}).</li>
+ *   <li>Cada distancia lleva un {@link HistogramaTiempos} actualizado con cada registro, corrección o baja,
+ *       para consultar mediana, p90, p99... sin recorrer los tiempos ({@link #percentil}).</li>
+ *   <li>Sin I/O de consola.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+public class RankingEvento {
+
+    /** Tiempos que guarda cada tabla de líderes (lecturas de top-N sin bloqueo hasta este tamaño). */
+    public static final int CAPACIDAD_TABLA_LIDERES = 100;
+
+    /** Puestos premiados por categoría y distancia si no se configura otro valor. */
+    public static final int TAMANIO_PODIO_POR_DEFECTO = 3;
+
+    /**
+     * Copia de una fila clasificada, para las tablas de líderes y los podios (no cambia si la fila se mueve
+     * en el almacén).
+     */
+    static final class Entrada {
+        final Inscripcion inscripcion;
+        final long milisegundos;
+        final Inscripcion.Distancia distancia;
+        final Categoria categoria;
+        final int dorsal;
+
+        Entrada(Inscripcion inscripcion, long milisegundos, Inscripcion.Distancia distancia, Categoria categoria,
+                int dorsal) {
+            this.inscripcion = inscripcion;
+            this.milisegundos = milisegundos;
+            this.distancia = distancia;
+            this.categoria = categoria;
+            this.dorsal = dorsal;
+        }
+    }
+
+    /**
+     * Receptor de las filas de {@link #recorrerClasificacion}, en orden de clasificación.
+     */
+    @FunctionalInterface
+    public interface VisitanteClasificacion {
+        /**
+         * @param inscripcion       inscripción clasificada.
+         * @param categoria         categoría con la que compite (o {@code null}).
+         * @param milisegundos      tiempo en milisegundos.
+         * @param posicion          posición general en su distancia.
+         * @param posicionCategoria posición en su categoría (0 si no tiene).
+         * @throws IOException si el receptor no pudo escribir la fila.
+         */
+        void visitar(Inscripcion inscripcion, Categoria categoria, long milisegundos, int posicion,
+                     int posicionCategoria) throws IOException;
+    }
+
+    /** Orden de clasificación de las entradas: tiempo y, a igual tiempo, dorsal e id (el de los árboles). */
+    static final Comparator<Entrada> ORDEN = Comparator.<Entrada>comparingLong(e -> e.milisegundos)
+            .thenComparingInt(e -> e.dorsal)
+            .thenComparingInt(e -> e.inscripcion.getId());
+
+    /** Evento dueño del ranking (para resolver categorías por edad). */
+    private final Evento evento;
+
+    /** Almacén columnar: una fila por inscripción con tiempo. */
+    private final ResultadosEvento resultados;
+
+    /** Enlaces de los árboles por distancia (cada fila está en uno). */
+    private final ArbolPosiciones.Enlaces enlacesDistancia = new ArbolPosiciones.Enlaces();
+
+    /** Enlaces de los árboles por categoría (cada fila está a lo sumo en uno). */
+    private final ArbolPosiciones.Enlaces enlacesCategoria = new ArbolPosiciones.Enlaces();
+
+    /** Clasificación general por distancia. */
+    private final EnumMap<Inscripcion.Distancia, ArbolPosiciones> porDistancia = new EnumMap<>(Inscripcion.Distancia.class);
+
+    /** Clasificación por categoría (id) dentro de cada distancia. */
+    private final EnumMap<Inscripcion.Distancia, Map<Integer, ArbolPosiciones>> porCategoria = new EnumMap<>(Inscripcion.Distancia.class);
+
+    /** Líderes de todo el evento. */
+    private final TablaLideres lideresDelEvento = new TablaLideres(CAPACIDAD_TABLA_LIDERES);
+
+    /** Líderes por distancia. */
+    private final EnumMap<Inscripcion.Distancia, TablaLideres> lideresPorDistancia = new EnumMap<>(Inscripcion.Distancia.class);
+
+    /** Puestos premiados por categoría y distancia. */
+    private int tamanioPodio = TAMANIO_PODIO_POR_DEFECTO;
+
+    /** Podio de cada categoría (id) dentro de cada distancia: prefijo exacto de su árbol de categoría. */
+    private final EnumMap<Inscripcion.Distancia, Map<Integer, TablaLideres>> podios = new EnumMap<>(Inscripcion.Distancia.class);
+
+    /** Distribución de tiempos por distancia (percentiles). */
+    private final EnumMap<Inscripcion.Distancia, HistogramaTiempos> histogramas = new EnumMap<>(Inscripcion.Distancia.class);
+
+    /**
+     * Crea el ranking de un evento (uso de {@link Evento}).
+     * @param evento evento dueño.
+     */
+    RankingEvento(Evento evento) {
+        this.evento = evento;
+        this.resultados = new ResultadosEvento(evento, this);
+        for (Inscripcion.Distancia d : Inscripcion.Distancia.values()) {
+            porDistancia.put(d, new ArbolPosiciones(resultados, enlacesDistancia));
+            porCategoria.put(d, new HashMap<>());
+            podios.put(d, new HashMap<>());
+            lideresPorDistancia.put(d, new TablaLideres(CAPACIDAD_TABLA_LIDERES));
+            histogramas.put(d, new HistogramaTiempos());
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Registro
+    // ------------------------------------------------------------
+
+    /**
+     * Registra (o corrige) el tiempo de una inscripción del evento y le asigna sus posiciones.
+     * <p>Si la inscripción ya tenía un tiempo, se reemplaza por el nuevo.</p>
+     *
+     * <p>El ranking no retiene el objeto {@code tiempo}: guarda sus datos en {@link #getResultados()}.</p>
+     *
+     * @param inscripcion inscripción del evento (no nula).
+     * @param tiempo      tiempo a registrar (no nulo).
+     * @return el mismo {@code tiempo}, con posición general y por categoría asignadas.
+     * @throws IllegalArgumentException si algún parámetro es nulo o la inscripción es de otro evento.
+     */
+    public Tiempo registrar(Inscripcion inscripcion, Tiempo tiempo) {
+        if (tiempo == null) throw new IllegalArgumentException("El tiempo no puede ser nulo.");
+        int[] pos = registrarMilisegundos(inscripcion, tiempo.getMilisegundos());
+        tiempo.setPosicionGeneral(pos[0]);
+        tiempo.setPosicionCategoria(pos[1]);
+        return tiempo;
+    }
+
+    /**
+     * Clasifica un tiempo y lo guarda en el almacén columnar.
+     * @param inscripcion  inscripción del evento.
+     * @param milisegundos tiempo en milisegundos.
+     * @return {posición general, posición por categoría}.
+     */
+    private int[] registrarMilisegundos(Inscripcion inscripcion, long milisegundos) {
+        validar(inscripcion);
+        synchronized (this) {
+            int fila = colocar(inscripcion, milisegundos);
+            publicarTablas();
+            return posiciones(fila);
+        }
+    }
+
+    /**
+     * Registra (o corrige) un lote de tiempos tomando el monitor una sola vez y publicando las tablas de
+     * líderes una sola vez al final (uso de la ingesta de lecturas de chip).
+     * @param inscripciones inscripciones del evento.
+     * @param milisegundos  tiempo de cada inscripción (misma posición), &ge; 0.
+     * @param cantidad      cantidad de posiciones válidas.
+     * @throws IllegalArgumentException si alguna inscripción es nula o de otro evento, o un tiempo es negativo
+     *                                  (en ese caso no se registra ninguno).
+     */
+    public void registrarLote(Inscripcion[] inscripciones, long[] milisegundos, int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            if (milisegundos[i] < 0) throw new IllegalArgumentException("El tiempo debe ser >= 0 milisegundos.");
+            validar(inscripciones[i]);
+        }
+        synchronized (this) {
+            if (resultados.filas() == 0) {
+                cargarEnBloque(inscripciones, milisegundos, cantidad);
+            } else {
+                for (int i = 0; i < cantidad; i++) colocar(inscripciones[i], milisegundos[i]);
+            }
+            publicarTablas();
+        }
+    }
+
+    /**
+     * Quita el tiempo de una inscripción del ranking.
+     * @param idInscripcion id de una inscripción del evento.
+     * @return {@code true} si tenía tiempo y se quitó.
+     */
+    public boolean remover(int idInscripcion) {
+        Inscripcion ins = evento.buscarInscripcionPorId(idInscripcion);
+        return ins != null && remover(ins);
+    }
+
+    /**
+     * Quita el tiempo de una inscripción (uso de {@link Evento} al eliminarla, cuando ya no figura en sus
+     * índices).
+     * @param inscripcion inscripción.
+     * @return {@code true} si tenía tiempo y se quitó.
+     */
+    synchronized boolean remover(Inscripcion inscripcion) {
+        int fila = resultados.filaDe(inscripcion);
+        if (fila < 0) return false;
+        quitarFila(fila);
+        publicarTablas();
+        return true;
+    }
+
+    /**
+     * Quita los tiempos de las inscripciones que ya no están en el evento (uso de
+     * {@link Evento#setInscripciones(List)}).
+     * @param existe indica si un id de inscripción sigue en el evento.
+     */
+    synchronized void conservarSolo(IntPredicate existe) {
+        // De atrás hacia adelante: la fila que ocupa cada hueco ya fue revisada
+        for (int fila = resultados.filas() - 1; fila >= 0; fila--) {
+            if (!existe.test(resultados.ids[fila])) quitarFila(fila);
+        }
+        publicarTablas();
+    }
+
+    /**
+     * Vuelve a ubicar a una inscripción tras cambiar su distancia o su categoría (si tiene tiempo).
+     * <p>La búsqueda y la nueva ubicación ocurren con el monitor tomado una sola vez, de modo que no pisan
+     * una corrección ni deshacen un {@link #remover(int)} hechos en paralelo.</p>
+     * @param inscripcion inscripción modificada.
+     */
+    synchronized void reubicar(Inscripcion inscripcion) {
+        int fila = resultados.filaDe(inscripcion);
+        if (fila < 0) return;
+        colocar(inscripcion, resultados.milisegundos[fila]);
+        publicarTablas();
+    }
+
+    // ------------------------------------------------------------
+    // Consultas
+    // ------------------------------------------------------------
+
+    /**
+     * @param idInscripcion id de la inscripción.
+     * @return su tiempo con las posiciones actualizadas, o {@code null} si no tiene tiempo.
+     */
+    public Tiempo obtenerTiempo(int idInscripcion) {
+        Inscripcion ins = evento.buscarInscripcionPorId(idInscripcion);
+        if (ins == null) return null;
+        synchronized (this) {
+            int fila = resultados.filaDe(ins);
+            return (fila < 0) ? null : tiempoActual(fila);
+        }
+    }
+
+    /**
+     * Almacén columnar con el tiempo y las posiciones de cada inscripción (para recorridos y agregados sin
+     * objetos).
+     * @return resultados del evento.
+     */
+    public ResultadosEvento getResultados() { return resultados; }
+
+    /**
+     * @param idInscripcion id de la inscripción.
+     * @return posición entre todos los tiempos del evento (sin distinguir distancia), o 0 si no tiene tiempo.
+     */
+    public int posicionEnEvento(int idInscripcion) {
+        Inscripcion ins = evento.buscarInscripcionPorId(idInscripcion);
+        if (ins == null) return 0;
+        synchronized (this) {
+            int fila = resultados.filaDe(ins);
+            if (fila < 0) return 0;
+            int menores = 0;
+            for (ArbolPosiciones arbol : porDistancia.values()) {
+                menores += arbol.contarMenores(resultados.milisegundos[fila]);
+            }
+            return menores + 1;
+        }
+    }
+
+    /** @return cantidad de tiempos registrados. */
+    public synchronized int tamanio() { return resultados.filas(); }
+
+    /**
+     * @param distancia distancia (no nula).
+     * @return cantidad de tiempos registrados en la distancia.
+     */
+    public synchronized int tamanio(Inscripcion.Distancia distancia) {
+        return porDistancia.get(distancia).tamanio();
+    }
+
+    /**
+     * Percentil aproximado de los tiempos de una distancia (ver {@link HistogramaTiempos#percentil(double)}).
+     * @param distancia distancia (no nula).
+     * @param q         fracción entre 0 y 1 (0.5 = mediana, 0.9 = p90, 0.99 = p99).
+     * @return tiempo en milisegundos, o -1 si la distancia no tiene tiempos.
+     */
+    public synchronized long percentil(Inscripcion.Distancia distancia, double q) {
+        if (distancia == null) throw new IllegalArgumentException("La distancia no puede ser nula.");
+        return histogramas.get(distancia).percentil(q);
+    }
+
+    /**
+     * Copia de la distribución de tiempos de una distancia, para combinarla con la de otros eventos.
+     * @param distancia distancia (no nula).
+     * @return histograma independiente del ranking.
+     */
+    public synchronized HistogramaTiempos getHistograma(Inscripcion.Distancia distancia) {
+        if (distancia == null) throw new IllegalArgumentException("La distancia no puede ser nula.");
+        return histogramas.get(distancia).copiar();
+    }
+
+    /**
+     * Los mejores {@code n} tiempos de todo el evento, en orden de clasificación.
+     * <p>Hasta {@link #CAPACIDAD_TABLA_LIDERES} se leen de la tabla de líderes: O(n), sin ordenar ni
+     * bloquear, y los {@code Tiempo} devueltos son copias con las posiciones del momento de publicación.
+     * Para más se mezclan los primeros {@code n} de cada distancia con el monitor tomado.</p>
+     * @param n cantidad máxima (&ge; 0).
+     * @return pares (inscripción, tiempo) con posiciones actualizadas.
+     */
+    public List<Map.Entry<Inscripcion, Tiempo>> listarGeneral(int n) {
+        if (n < 0) throw new IllegalArgumentException("La cantidad no puede ser negativa.");
+        if (n <= CAPACIDAD_TABLA_LIDERES) return lideresDelEvento.listar(n);
+        synchronized (this) {
+            return listarDelEvento(n);
+        }
+    }
+
+    /**
+     * Los mejores {@code n} tiempos de una distancia, en orden de clasificación.
+     * <p>Igual que {@link #listarGeneral(int)}: hasta {@link #CAPACIDAD_TABLA_LIDERES} se leen de la
+     * tabla de líderes de la distancia sin bloquear.</p>
+     * @param distancia distancia (no nula).
+     * @param n         cantidad máxima (&ge; 0).
+     * @return pares (inscripción, tiempo) con posiciones actualizadas.
+     */
+    public List<Map.Entry<Inscripcion, Tiempo>> listarPorDistancia(Inscripcion.Distancia distancia, int n) {
+        if (distancia == null) throw new IllegalArgumentException("La distancia no puede ser nula.");
+        if (n < 0) throw new IllegalArgumentException("La cantidad no puede ser negativa.");
+        if (n <= CAPACIDAD_TABLA_LIDERES) return lideresPorDistancia.get(distancia).listar(n);
+        synchronized (this) {
+            return listar(porDistancia.get(distancia), n);
+        }
+    }
+
+    /**
+     * Recorre todos los tiempos de una distancia en orden de clasificación, sin crear {@code Tiempo} ni listas
+     * de pares (pensado para exportar miles de filas).
+     * <p>Con el monitor tomado solo se copia el orden (inscripción, categoría y tiempo de cada fila); el
+     * recorrido y el visitante corren fuera del monitor, así que un visitante lento (p. ej., que escribe a
+     * disco) no frena el registro de tiempos. Las posiciones se calculan al avanzar (iguales a las de
+     * {@link #obtenerTiempo(int)}) y corresponden al momento de la copia.</p>
+     * @param distancia distancia (no nula).
+     * @param visitante receptor de cada fila (no nulo).
+     * @throws IOException si el visitante falla (el recorrido se corta).
+     */
+    public void recorrerClasificacion(Inscripcion.Distancia distancia, VisitanteClasificacion visitante)
+            throws IOException {
+        if (distancia == null) throw new IllegalArgumentException("La distancia no puede ser nula.");
+        if (visitante == null) throw new IllegalArgumentException("El visitante no puede ser nulo.");
+        final Inscripcion[] inscripciones;
+        final Categoria[] categorias;
+        final long[] tiempos;
+        synchronized (this) {
+            ArbolPosiciones arbol = porDistancia.get(distancia);
+            int n = arbol.tamanio();
+            inscripciones = new Inscripcion[n];
+            categorias = new Categoria[n];
+            tiempos = new long[n];
+            int[] i = {0};
+            arbol.recorrerPrimeros(n, fila -> {
+                inscripciones[i[0]] = resultados.inscripciones[fila];
+                categorias[i[0]] = resultados.categoriaDe(fila);
+                tiempos[i[0]++] = resultados.milisegundos[fila];
+            });
+        }
+        ContadorPosiciones general = new ContadorPosiciones();
+        Map<Integer, ContadorPosiciones> porCategoriaId = new HashMap<>();
+        for (int i = 0; i < inscripciones.length; i++) {
+            Categoria c = categorias[i];
+            int posicion = general.siguiente(tiempos[i]);
+            int posicionCategoria = (c == null) ? 0 : porCategoriaId
+                    .computeIfAbsent(c.getId(), k -> new ContadorPosiciones())
+                    .siguiente(tiempos[i]);
+            visitante.visitar(inscripciones[i], c, tiempos[i], posicion, posicionCategoria);
+        }
+    }
+
+    /**
+     * Los mejores {@code n} tiempos entre las inscripciones que cumplen {@code filtro}, para cortes que no tienen
+     * árbol propio (p. ej., por talla o por corredor). Usa {@link SeleccionMejores}: O(m log n) sobre los
+     * {@code m} tiempos registrados, con el mismo orden que los demás listados (tiempo y, a igual tiempo, dorsal).
+     * <p>El filtro se evalúa con el monitor del ranking tomado: no debe invocar métodos sincronizados del evento.</p>
+     * @param filtro condición sobre la inscripción (o {@code null} para todas).
+     * @param n      cantidad máxima (&ge; 0).
+     * @return pares (inscripción, tiempo) con posiciones actualizadas.
+     */
+    public synchronized List<Map.Entry<Inscripcion, Tiempo>> listarMejores(Predicate<Inscripcion> filtro, int n) {
+        List<Entrada> mejores = SeleccionMejores.seleccionar(() -> new FilasFiltradas(filtro), n, ORDEN);
+        List<Map.Entry<Inscripcion, Tiempo>> res = new ArrayList<>(mejores.size());
+        for (Entrada e : mejores) res.add(new AbstractMap.SimpleImmutableEntry<>(e.inscripcion, tiempoActual(e)));
+        return res;
+    }
+
+    /**
+     * Los mejores {@code n} tiempos de una categoría dentro de una distancia.
+     * @param distancia distancia (no nula).
+     * @param categoria categoría (no nula).
+     * @param n         cantidad máxima (&ge; 0).
+     * @return pares (inscripción, tiempo) con posiciones actualizadas.
+     */
+    public synchronized List<Map.Entry<Inscripcion, Tiempo>> listarPorCategoria(Inscripcion.Distancia distancia,
+                                                                              Categoria categoria, int n) {
+        if (distancia == null) throw new IllegalArgumentException("La distancia no puede ser nula.");
+        if (categoria == null) throw new IllegalArgumentException("La categoría no puede ser nula.");
+        ArbolPosiciones arbol = porCategoria.get(distancia).get(categoria.getId());
+        return (arbol == null) ? Collections.emptyList() : listar(arbol, n);
+    }
+
+    // ------------------------------------------------------------
+    // Premiación
+    // ------------------------------------------------------------
+
+    /** @return puestos premiados por categoría y distancia. */
+    public synchronized int getTamanioPodio() { return tamanioPodio; }
+
+    /**
+     * Cambia la cantidad de puestos premiados y reconstruye los podios desde los árboles de categoría.
+     * @param tamanioPodio puestos por categoría y distancia (&gt; 0).
+     * @throws IllegalArgumentException si no es positivo.
+     */
+    public synchronized void setTamanioPodio(int tamanioPodio) {
+        if (tamanioPodio <= 0) throw new IllegalArgumentException("El tamaño del podio debe ser > 0.");
+        if (tamanioPodio == this.tamanioPodio) return;
+        this.tamanioPodio = tamanioPodio;
+        for (Inscripcion.Distancia d : Inscripcion.Distancia.values()) {
+            Map<Integer, TablaLideres> porId = podios.get(d);
+            porId.clear();
+            for (Map.Entry<Integer, ArbolPosiciones> c : porCategoria.get(d).entrySet()) {
+                if (c.getValue().tamanio() == 0) continue;
+                TablaLideres podio = new TablaLideres(tamanioPodio);
+                rellenar(podio, c.getValue());
+                porId.put(c.getKey(), podio);
+            }
+        }
+    }
+
+    /**
+     * Arma la premiación con los podios actuales: O(categorías × puestos × log n), sin ordenar ninguna
+     * categoría. Las categorías sin tiempos no figuran.
+     * @return premiación del evento (podios por distancia y edad mínima de la categoría).
+     */
+    public synchronized Premiacion generarPremiacion() {
+        List<Premiacion.Podio> lista = new ArrayList<>();
+        for (Inscripcion.Distancia d : Inscripcion.Distancia.values()) {
+            List<TablaLideres> tablas = new ArrayList<>();
+            for (TablaLideres t : podios.get(d).values()) {
+                if (t.tamanio() > 0) tablas.add(t);
+            }
+            tablas.sort(Comparator.<TablaLideres>comparingInt(t -> t.miembro(0).categoria.getEdadMin())
+                    .thenComparingInt(t -> t.miembro(0).categoria.getId()));
+            for (TablaLideres t : tablas) {
+                List<Map.Entry<Inscripcion, Tiempo>> puestos = new ArrayList<>(t.tamanio());
+                for (int i = 0; i < t.tamanio(); i++) {
+                    Entrada e = t.miembro(i);
+                    puestos.add(new AbstractMap.SimpleImmutableEntry<>(e.inscripcion, tiempoActual(e)));
+                }
+                lista.add(new Premiacion.Podio(d, t.miembro(0).categoria, puestos));
+            }
+        }
+        return new Premiacion(evento, lista);
+    }
+
+    // ------------------------------------------------------------
+    // Columnas de posiciones (uso de ResultadosEvento)
+    // ------------------------------------------------------------
+
+    /**
+     * Reescribe las columnas de posiciones del almacén recorriendo cada árbol en orden: O(n).
+     * Requiere el monitor tomado.
+     */
+    void recalcularPosiciones() {
+        long[] ms = resultados.milisegundos;
+        for (Inscripcion.Distancia d : Inscripcion.Distancia.values()) {
+            ArbolPosiciones arbol = porDistancia.get(d);
+            ContadorPosiciones general = new ContadorPosiciones();
+            arbol.recorrerPrimeros(arbol.tamanio(), fila -> resultados.fijarPosiciones(fila,
+                    general.siguiente(ms[fila]), 0));
+            for (ArbolPosiciones deCategoria : porCategoria.get(d).values()) {
+                ContadorPosiciones contador = new ContadorPosiciones();
+                deCategoria.recorrerPrimeros(deCategoria.tamanio(), fila -> resultados.fijarPosicionCategoria(fila,
+                        contador.siguiente(ms[fila])));
+            }
+        }
+        resultados.marcarPosicionesVigentes();
+    }
+
+    // ------------------------------------------------------------
+    // Utilidades internas
+    // ------------------------------------------------------------
+
+    private void validar(Inscripcion inscripcion) {
+        if (inscripcion == null) throw new IllegalArgumentException("La inscripción no puede ser nula.");
+        if (inscripcion.getEvento() != evento) {
+            throw new IllegalArgumentException("La inscripción no pertenece a este evento.");
+        }
+    }
+
+    /**
+     * Categoría con la que compite la inscripción: la elegida o, si no hay, la primera por edad.
+     * @param ins inscripción.
+     * @return categoría o {@code null}.
+     */
+    private Categoria resolverCategoria(Inscripcion ins) {
+        Categoria elegida = ins.getCategoria();
+        if (elegida != null) return elegida;
+        int edad = ins.getCorredor().getEdad();
+        for (Categoria c : evento.getCategorias()) {
+            if (c.aceptaEdad(edad)) return c;
+        }
+        return null;
+    }
+
+    /**
+     * Carga un lote en un ranking vacío (p. ej., al restaurar datos): escribe las filas, las ordena una vez
+     * y arma cada árbol en O(n) ({@link ArbolPosiciones#anexar}), llenando tablas, podios e histogramas
+     * en el mismo recorrido. Requiere el monitor tomado; no publica las tablas de líderes.
+     * @param inscripciones inscripciones (ya validadas).
+     * @param milisegundos  tiempo de cada una.
+     * @param cantidad      cantidad de posiciones válidas.
+     */
+    private void cargarEnBloque(Inscripcion[] inscripciones, long[] milisegundos, int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            Inscripcion ins = inscripciones[i];
+            // La distancia, el dorsal y la categoría se leen con el monitor tomado (ver colocar)
+            int fila = resultados.filaDe(ins);
+            if (fila >= 0) {
+                // Inscripción repetida en el lote: queda su último tiempo, como al ubicarlas una a una
+                resultados.reescribir(fila, milisegundos[i], ins.getNumeroDorsal(), ins.getDistancia(),
+                        resolverCategoria(ins));
+            } else {
+                resultados.agregar(ins, milisegundos[i], ins.getNumeroDorsal(), ins.getDistancia(),
+                        resolverCategoria(ins));
+            }
+        }
+        int n = resultados.filas();
+        enlacesDistancia.asegurar(resultados.capacidad());
+        int[] orden = new int[n];
+        for (int i = 0; i < n; i++) orden[i] = i;
+        ArbolPosiciones.ordenar(resultados, orden);
+        for (int fila : orden) {
+            Inscripcion.Distancia d = resultados.distanciaDe(fila);
+            porDistancia.get(d).anexar(fila);
+            histogramas.get(d).registrar(resultados.milisegundos[fila]);
+            ofrecer(lideresDelEvento, fila);
+            ofrecer(lideresPorDistancia.get(d), fila);
+            Categoria c = resultados.categoriaDe(fila);
+            if (c != null) {
+                enlacesCategoria.asegurar(resultados.capacidad());
+                arbolDeCategoria(d, c).anexar(fila);
+                ofrecer(podioDeCategoria(d, c), fila);
+            }
+        }
+        for (Inscripcion.Distancia d : Inscripcion.Distancia.values()) {
+            porDistancia.get(d).cerrarCarga();
+            for (ArbolPosiciones arbol : porCategoria.get(d).values()) arbol.cerrarCarga();
+        }
+    }
+
+    /**
+     * Ubica el tiempo de una inscripción (reemplazando el anterior, si tenía) en el almacén y en los árboles.
+     * Requiere el monitor tomado: la distancia, el dorsal y la categoría se leen con él, así un cambio
+     * concurrente de cualquiera de ellos no queda pisado por una clave leída antes. No publica las tablas
+     * de líderes.
+     * @param ins inscripción (validada).
+     * @param ms  tiempo en milisegundos.
+     * @return fila de la inscripción.
+     */
+    private int colocar(Inscripcion ins, long ms) {
+        int dorsal = ins.getNumeroDorsal();
+        Inscripcion.Distancia distancia = ins.getDistancia();
+        Categoria categoria = resolverCategoria(ins);
+        int fila = resultados.filaDe(ins);
+        if (fila >= 0) {
+            quitarDeArboles(fila);
+            resultados.reescribir(fila, ms, dorsal, distancia, categoria);
+        } else {
+            fila = resultados.agregar(ins, ms, dorsal, distancia, categoria);
+            enlacesDistancia.asegurar(resultados.capacidad());
+        }
+        ponerEnArboles(fila);
+        return fila;
+    }
+
+    /**
+     * Quita una fila de los árboles y del almacén; la última fila ocupa su lugar y sus árboles pasan a
+     * apuntar al nuevo número. Requiere el monitor tomado.
+     * @param fila fila a quitar.
+     */
+    private void quitarFila(int fila) {
+        quitarDeArboles(fila);
+        int movida = resultados.quitar(fila);
+        if (movida < 0) return;
+        Inscripcion.Distancia d = resultados.distanciaDe(fila);
+        porDistancia.get(d).mudar(movida, fila);
+        Categoria c = resultados.categoriaDe(fila);
+        if (c != null) porCategoria.get(d).get(c.getId()).mudar(movida, fila);
+    }
+
+    private void ponerEnArboles(int fila) {
+        Inscripcion.Distancia d = resultados.distanciaDe(fila);
+        porDistancia.get(d).insertar(fila);
+        histogramas.get(d).registrar(resultados.milisegundos[fila]);
+        ofrecer(lideresDelEvento, fila);
+        ofrecer(lideresPorDistancia.get(d), fila);
+        Categoria c = resultados.categoriaDe(fila);
+        if (c != null) {
+            enlacesCategoria.asegurar(resultados.capacidad());
+            arbolDeCategoria(d, c).insertar(fila);
+            ofrecer(podioDeCategoria(d, c), fila);
+        }
+    }
+
+    private void quitarDeArboles(int fila) {
+        Inscripcion.Distancia d = resultados.distanciaDe(fila);
+        long ms = resultados.milisegundos[fila];
+        int dorsal = resultados.dorsales[fila];
+        int id = resultados.ids[fila];
+        ArbolPosiciones arbol = porDistancia.get(d);
+        arbol.remover(fila);
+        histogramas.get(d).remover(ms);
+        // Si sale un líder, se rellena ya para que la tabla siga siendo el prefijo exacto de su clasificación
+        TablaLideres tabla = lideresPorDistancia.get(d);
+        if (tabla.quitar(ms, dorsal, id)) rellenar(tabla, arbol);
+        if (lideresDelEvento.quitar(ms, dorsal, id)) rellenarDelEvento();
+        Categoria c = resultados.categoriaDe(fila);
+        if (c != null) {
+            ArbolPosiciones deCategoria = porCategoria.get(d).get(c.getId());
+            deCategoria.remover(fila);
+            TablaLideres podio = podios.get(d).get(c.getId());
+            if (podio != null && podio.quitar(ms, dorsal, id)) rellenar(podio, deCategoria);
+        }
+    }
+
+    private ArbolPosiciones arbolDeCategoria(Inscripcion.Distancia d, Categoria c) {
+        return porCategoria.get(d).computeIfAbsent(c.getId(), k -> new ArbolPosiciones(resultados, enlacesCategoria));
+    }
+
+    private TablaLideres podioDeCategoria(Inscripcion.Distancia d, Categoria c) {
+        return podios.get(d).computeIfAbsent(c.getId(), k -> new TablaLideres(tamanioPodio));
+    }
+
+    /**
+     * Ofrece una fila a una tabla; la entrada se crea solo si la fila entra.
+     * @param tabla tabla de líderes o podio.
+     * @param fila  fila clasificada.
+     */
+    private void ofrecer(TablaLideres tabla, int fila) {
+        if (tabla.admite(resultados.milisegundos[fila], resultados.dorsales[fila], resultados.ids[fila])) {
+            tabla.ofrecer(entrada(fila));
+        }
+    }
+
+    /**
+     * Completa una tabla de líderes con los siguientes del árbol hasta llenarla o agotar el árbol.
+     * @param tabla tabla con lugares libres.
+     * @param arbol clasificación de la que es prefijo.
+     */
+    private void rellenar(TablaLideres tabla, ArbolPosiciones arbol) {
+        while (tabla.tamanio() < tabla.capacidad() && tabla.tamanio() < arbol.tamanio()) {
+            tabla.ofrecer(entrada(arbol.filaEnPosicion(tabla.tamanio())));
+        }
+    }
+
+    /**
+     * Completa el lugar que dejó un líder del evento. Los primeros del evento están entre los primeros de
+     * cada distancia, así que el siguiente es el menor miembro de las tablas por distancia (ya rellenadas)
+     * posterior al último de la tabla del evento.
+     */
+    private void rellenarDelEvento() {
+        int tam = lideresDelEvento.tamanio();
+        Entrada ultimo = (tam == 0) ? null : lideresDelEvento.miembro(tam - 1);
+        Entrada siguiente = null;
+        for (TablaLideres t : lideresPorDistancia.values()) {
+            for (int i = 0; i < t.tamanio(); i++) {
+                Entrada e = t.miembro(i);
+                if (ultimo != null && ORDEN.compare(e, ultimo) <= 0) continue;
+                if (siguiente == null || ORDEN.compare(e, siguiente) < 0) siguiente = e;
+                break;
+            }
+        }
+        if (siguiente != null) lideresDelEvento.ofrecer(siguiente);
+    }
+
+    /** Publica las tablas de líderes que cambiaron. */
+    private void publicarTablas() {
+        if (lideresDelEvento.estaSucia()) lideresDelEvento.publicar();
+        for (TablaLideres t : lideresPorDistancia.values()) {
+            if (t.estaSucia()) t.publicar();
+        }
+    }
+
+    /**
+     * @param fila fila clasificada.
+     * @return copia de la fila para una tabla de líderes o un podio.
+     */
+    private Entrada entrada(int fila) {
+        return new Entrada(resultados.inscripciones[fila], resultados.milisegundos[fila],
+                resultados.distanciaDe(fila), resultados.categoriaDe(fila), resultados.dorsales[fila]);
+    }
+
+    /**
+     * @param fila fila clasificada.
+     * @return {posición general, posición por categoría} actuales.
+     */
+    private int[] posiciones(int fila) {
+        return posiciones(resultados.distanciaDe(fila), resultados.categoriaDe(fila), resultados.milisegundos[fila]);
+    }
+
+    private int[] posiciones(Inscripcion.Distancia distancia, Categoria categoria, long milisegundos) {
+        int general = porDistancia.get(distancia).contarMenores(milisegundos) + 1;
+        int enCategoria = 0;
+        if (categoria != null) {
+            enCategoria = porCategoria.get(distancia).get(categoria.getId()).contarMenores(milisegundos) + 1;
+        }
+        return new int[]{general, enCategoria};
+    }
+
+    /**
+     * Recalcula las posiciones de una fila y crea su {@code Tiempo}.
+     * @param fila fila clasificada.
+     * @return tiempo nuevo con las posiciones actuales.
+     */
+    private Tiempo tiempoActual(int fila) {
+        int[] pos = posiciones(fila);
+        return Tiempo.deMilisegundos(resultados.milisegundos[fila], pos[0], pos[1]);
+    }
+
+    /**
+     * @param e entrada de una tabla de líderes o un podio (vigente).
+     * @return tiempo nuevo con las posiciones actuales.
+     */
+    private Tiempo tiempoActual(Entrada e) {
+        int[] pos = posiciones(e.distancia, e.categoria, e.milisegundos);
+        return Tiempo.deMilisegundos(e.milisegundos, pos[0], pos[1]);
+    }
+
+    /**
+     * Posiciones de un recorrido en orden: tiempos iguales comparten posición (1, 1, 3...).
+     */
+    private static final class ContadorPosiciones {
+        private int vistos;
+        private int posicion;
+        private long ultimo = -1;
+
+        int siguiente(long milisegundos) {
+            vistos++;
+            if (milisegundos != ultimo) {
+                posicion = vistos;
+                ultimo = milisegundos;
+            }
+            return posicion;
+        }
+    }
+
+    /**
+     * Filas que cumplen un filtro, como entradas creadas al avanzar (solo viven las que retiene
+     * {@link SeleccionMejores}). Se recorre con el monitor tomado.
+     */
+    private final class FilasFiltradas implements Iterator<Entrada> {
+        private final Predicate<Inscripcion> filtro;
+        private int fila = -1;
+
+        FilasFiltradas(Predicate<Inscripcion> filtro) {
+            this.filtro = filtro;
+            avanzar();
+        }
+
+        @Override
+        public boolean hasNext() { return fila < resultados.filas(); }
+
+        @Override
+        public Entrada next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Entrada e = entrada(fila);
+            avanzar();
+            return e;
+        }
+
+        private void avanzar() {
+            do {
+                fila++;
+            } while (fila < resultados.filas() && filtro != null && !filtro.test(resultados.inscripciones[fila]));
+        }
+    }
+
+    private List<Map.Entry<Inscripcion, Tiempo>> listar(ArbolPosiciones arbol, int n) {
+        if (n < 0) throw new IllegalArgumentException("La cantidad no puede ser negativa.");
+        List<Map.Entry<Inscripcion, Tiempo>> res = new ArrayList<>(Math.min(n, arbol.tamanio()));
+        arbol.recorrerPrimeros(n, fila ->
+                res.add(new AbstractMap.SimpleImmutableEntry<>(resultados.inscripciones[fila], tiempoActual(fila))));
+        return res;
+    }
+
+    /**
+     * Los primeros {@code n} de todo el evento: mezcla los primeros {@code n} de cada distancia.
+     * Requiere el monitor tomado.
+     */
+    private List<Map.Entry<Inscripcion, Tiempo>> listarDelEvento(int n) {
+        Inscripcion.Distancia[] distancias = Inscripcion.Distancia.values();
+        int[][] primeras = new int[distancias.length][];
+        int total = 0;
+        for (int d = 0; d < distancias.length; d++) {
+            ArbolPosiciones arbol = porDistancia.get(distancias[d]);
+            int[] filas = new int[Math.min(n, arbol.tamanio())];
+            int[] k = {0};
+            arbol.recorrerPrimeros(filas.length, fila -> filas[k[0]++] = fila);
+            primeras[d] = filas;
+            total += filas.length;
+        }
+        List<Map.Entry<Inscripcion, Tiempo>> res = new ArrayList<>(Math.min(n, total));
+        int[] cursor = new int[distancias.length];
+        while (res.size() < n) {
+            int mejor = -1;
+            for (int d = 0; d < distancias.length; d++) {
+                if (cursor[d] == primeras[d].length) continue;
+                if (mejor < 0 || ArbolPosiciones.comparar(resultados, primeras[d][cursor[d]],
+                        primeras[mejor][cursor[mejor]]) < 0) {
+                    mejor = d;
+                }
+            }
+            if (mejor < 0) break;
+            int fila = primeras[mejor][cursor[mejor]++];
+            res.add(new AbstractMap.SimpleImmutableEntry<>(resultados.inscripciones[fila], tiempoActual(fila)));
+        }
+        return res;
+    }
+}
@@ -0,0 +1,140 @@
+package eventos;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * La clase {@code ResultadoIngesta} resume una ingesta de lecturas de chip
+ * (ver {@link IngestaLecturasChip#procesar(java.io.InputStream)}).
+ *
+ * <p><b>Convenciones de diseño:</b></p>
+ * <ul>
+ *   <li>Sin I/O de consola: la capa orquestadora decide cómo mostrar el resultado.</li>
+ *   <li>Cada lectura se cuenta en exactamente una de: aceptada, duplicada, inválida, dorsal desconocido
+ *       o rechazada (inscripción no CONFIRMADA).</li>
+ *   <li>Se guardan a lo sumo {@link #MAX_ERRORES} errores de línea (memoria acotada); el resto solo se cuenta.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+public class ResultadoIngesta {
+
+    /** Máximo de errores de línea que se conservan con detalle. */
+    public static final int MAX_ERRORES = 100;
+
+    private long lecturas;
+    private long aceptadas;
+    private long duplicadas;
+    private long invalidas;
+    private long desconocidas;
+    private long rechazadas;
+    private long tiemposRegistrados;
+    private long parcialesRegistrados;
+    private int lotes;
+
+    /** Errores por línea, en orden de aparición (a lo sumo {@link #MAX_ERRORES}). */
+    private final List<ErrorLinea> errores = new ArrayList<>();
+
+    /**
+     * DTO inmutable con el error de una línea concreta.
+     */
+    public static final class ErrorLinea {
+        private final long linea;
+        private final String mensaje;
+
+        /**
+         * Crea un error de línea.
+         * @param linea   número de línea en el origen (&ge; 1).
+         * @param mensaje descripción del problema.
+         */
+        public ErrorLinea(long linea, String mensaje) {
+            this.linea = linea;
+            this.mensaje = mensaje;
+        }
+
+        /** @return número de línea en el origen. */
+        public long getLinea() { return linea; }
+
+        /** @return descripción del problema. */
+        public String getMensaje() { return mensaje; }
+
+        @Override
+        public String toString() {
+            return "Línea " + linea + ": " + mensaje;
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Registro (uso interno de la ingesta)
+    // ------------------------------------------------------------
+
+    void contarLectura() { lecturas++; }
+    void contarAceptada() { aceptadas++; }
+    void contarDuplicada() { duplicadas++; }
+    void contarDesconocida() { desconocidas++; }
+    void contarRechazada() { rechazadas++; }
+    void contarTiempos(int n) { tiemposRegistrados += n; }
+    void contarParcial() { parcialesRegistrados++; }
+    void contarLote() { lotes++; }
+
+    /**
+     * Cuenta una lectura inválida y guarda el detalle si aún hay lugar.
+     * @param linea   número de línea.
+     * @param mensaje descripción del problema.
+     */
+    void agregarInvalida(long linea, String mensaje) {
+        invalidas++;
+        if (errores.size() < MAX_ERRORES) errores.add(new ErrorLinea(linea, mensaje));
+    }
+
+    // ------------------------------------------------------------
+    // Consultas
+    // ------------------------------------------------------------
+
+    /** @return lecturas leídas (líneas de datos). */
+    public long getLecturas() { return lecturas; }
+
+    /** @return lecturas que mejoraron la marca de su dorsal en su tapete. */
+    public long getAceptadas() { return aceptadas; }
+
+    /** @return lecturas repetidas descartadas (no mejoran la primera marca del dorsal en ese tapete). */
+    public long getDuplicadas() { return duplicadas; }
+
+    /** @return líneas con formato inválido, tapete desconocido o marca anterior a la largada. */
+    public long getInvalidas() { return invalidas; }
+
+    /** @return lecturas de dorsales que no existen en el evento. */
+    public long getDesconocidas() { return desconocidas; }
+
+    /** @return lecturas de inscripciones que no están CONFIRMADAS. */
+    public long getRechazadas() { return rechazadas; }
+
+    /** @return tiempos finales registrados (o corregidos) en el ranking. */
+    public long getTiemposRegistrados() { return tiemposRegistrados; }
+
+    /** @return tiempos parciales registrados (o corregidos). */
+    public long getParcialesRegistrados() { return parcialesRegistrados; }
+
+    /** @return lotes confirmados. */
+    public int getLotes() { return lotes; }
+
+    /** @return vista inmutable de los errores de línea conservados. */
+    public List<ErrorLinea> getErrores() { return Collections.unmodifiableList(errores); }
+
+    @Override
+    public String toString() {
+        return "ResultadoIngesta{" +
+                "lecturas=" + lecturas +
+                ", aceptadas=" + aceptadas +
+                ", duplicadas=" + duplicadas +
+                ", invalidas=" + invalidas +
+                ", desconocidas=" + desconocidas +
+                ", rechazadas=" + rechazadas +
+                ", tiempos=" + tiemposRegistrados +
+                ", parciales=" + parcialesRegistrados +
+                ", lotes=" + lotes +
+                '}';
+    }
+}
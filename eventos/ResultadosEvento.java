@@ -0,0 +1,346 @@
+package eventos;
+
+import java.util.Arrays;
+
+/**
+ * La clase {@code ResultadosEvento} almacena los tiempos de un {@link Evento} en columnas de tipos
+ * primitivos, una fila por inscripción con tiempo: id de inscripción, tiempo en milisegundos, posición
+ * general y posición por categoría.
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>La fila es la unidad de todo el ranking: {@link RankingEvento} no crea objetos por tiempo. Junto a
+ *       las columnas públicas guarda, para su uso, la inscripción, la clave con la que la fila quedó
+ *       clasificada (dorsal, distancia y categoría) y los enlaces de sus árboles ({@link ArbolPosiciones}),
+ *       también en arreglos indexados por fila.</li>
+ *   <li>La fila de cada inscripción se guarda en la propia {@link Inscripcion} (id → inscripción por el
+ *       índice del {@link Evento} → fila, en O(1)).</li>
+ *   <li>Al crecer, las columnas toman de una vez la cantidad de inscripciones del evento (nadie más
+ *       puede tener tiempo), así que casi no queda capacidad ociosa.</li>
+ *   <li>Las filas no tienen orden: al quitar una, la última ocupa su lugar. Para recorrer en orden de
+ *       clasificación se usa {@link RankingEvento}.</li>
+ *   <li>Un tiempo nuevo desplaza a los que quedan detrás, así que las columnas de posiciones no se
+ *       reescriben con cada registro: se marcan vencidas y se recalculan todas juntas, en O(n), en la
+ *       primera lectura posterior. Un recorrido de todas las filas paga ese recálculo una sola vez; para la
+ *       posición de una sola inscripción conviene {@link RankingEvento#obtenerTiempo(int)} (O(log n)).</li>
+ *   <li>Solo {@link RankingEvento} modifica el almacén, y ambos comparten el monitor del ranking: las
+ *       lecturas son seguras para hilos.</li>
+ *   <li>Sin I/O de consola.</li>
+ * </ul>
+ *
+ * <p><b>Recorrido típico</b> (agregados sin crear objetos):</p>
+ * <pre>
+ * for (int i = 0; i &lt; r.tamanio(); i++) suma += r.milisegundosEn(i);
+ * </pre>
+ * Para un recorrido consistente mientras otros hilos registran tiempos, sincronizar sobre el ranking
+ * ({@link Evento#getRanking()}) sin llamar dentro del bloque a métodos del {@link Evento} ni a los que buscan
+ * por id de inscripción: el evento bloquea antes que el ranking.
+ *
+ * @author
+ * @version 1.0
+ */
+public class ResultadosEvento {
+
+    /** Capacidad inicial de las columnas. */
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    /** Distancias por ordinal (columna {@link #distancias}). */
+    private static final Inscripcion.Distancia[] DISTANCIAS = Inscripcion.Distancia.values();
+
+    /** Columna: id de inscripción. */
+    int[] ids = new int[CAPACIDAD_INICIAL];
+
+    /** Columna: tiempo en milisegundos. */
+    long[] milisegundos = new long[CAPACIDAD_INICIAL];
+
+    /** Columna: posición general (en su distancia); vale si {@link #posicionesVigentes}. */
+    private int[] posicionesGenerales = new int[CAPACIDAD_INICIAL];
+
+    /** Columna: posición en su categoría (0 si no tiene); vale si {@link #posicionesVigentes}. */
+    private int[] posicionesCategoria = new int[CAPACIDAD_INICIAL];
+
+    /** Columna (uso del ranking): inscripción de la fila. */
+    Inscripcion[] inscripciones = new Inscripcion[CAPACIDAD_INICIAL];
+
+    /** Columna (uso del ranking): dorsal con el que la fila quedó clasificada. */
+    int[] dorsales = new int[CAPACIDAD_INICIAL];
+
+    /** Columna (uso del ranking): ordinal de la distancia en la que quedó clasificada. */
+    private byte[] distancias = new byte[CAPACIDAD_INICIAL];
+
+    /** Columna (uso del ranking): categoría con la que quedó clasificada (o {@code null}). */
+    private Categoria[] categorias = new Categoria[CAPACIDAD_INICIAL];
+
+    /** Cantidad de filas. */
+    private int tamanio;
+
+    /** Indica que las columnas de posiciones reflejan los tiempos actuales. */
+    private boolean posicionesVigentes = true;
+
+    /** Evento dueño (para resolver id → inscripción en las consultas). */
+    private final Evento evento;
+
+    /** Ranking dueño: su monitor protege también al almacén y recalcula las posiciones. */
+    private final RankingEvento ranking;
+
+    /**
+     * Crea un almacén vacío (uso de {@link RankingEvento}).
+     * @param evento  evento dueño.
+     * @param ranking ranking dueño.
+     */
+    ResultadosEvento(Evento evento, RankingEvento ranking) {
+        this.evento = evento;
+        this.ranking = ranking;
+    }
+
+    // ------------------------------------------------------------
+    // Escritura (uso de RankingEvento, con su monitor tomado)
+    // ------------------------------------------------------------
+
+    /**
+     * Agrega una fila para una inscripción que aún no tiene tiempo.
+     * @param ins       inscripción del evento.
+     * @param ms        tiempo en milisegundos (&ge; 0).
+     * @param dorsal    dorsal con el que se clasifica.
+     * @param distancia distancia en la que se clasifica.
+     * @param categoria categoría con la que se clasifica (o {@code null}).
+     * @return fila nueva.
+     */
+    int agregar(Inscripcion ins, long ms, int dorsal, Inscripcion.Distancia distancia, Categoria categoria) {
+        if (tamanio == ids.length) crecer();
+        int fila = tamanio++;
+        ids[fila] = ins.getId();
+        inscripciones[fila] = ins;
+        ins.filaResultado = fila;
+        reescribir(fila, ms, dorsal, distancia, categoria);
+        return fila;
+    }
+
+    /**
+     * Reemplaza el tiempo y la clave de una fila (la fila debe estar fuera de los árboles del ranking).
+     * @param fila      fila existente.
+     * @param ms        tiempo en milisegundos (&ge; 0).
+     * @param dorsal    dorsal con el que se clasifica.
+     * @param distancia distancia en la que se clasifica.
+     * @param categoria categoría con la que se clasifica (o {@code null}).
+     */
+    void reescribir(int fila, long ms, int dorsal, Inscripcion.Distancia distancia, Categoria categoria) {
+        milisegundos[fila] = ms;
+        dorsales[fila] = dorsal;
+        distancias[fila] = (byte) distancia.ordinal();
+        categorias[fila] = categoria;
+        posicionesVigentes = false;
+    }
+
+    /**
+     * Quita una fila; la última ocupa su lugar.
+     * @param fila fila a quitar (ya fuera de los árboles del ranking).
+     * @return fila que tenía antes la que se movió al hueco, o -1 si la quitada era la última.
+     */
+    int quitar(int fila) {
+        inscripciones[fila].filaResultado = -1;
+        int ultima = --tamanio;
+        int movida = -1;
+        if (fila != ultima) {
+            ids[fila] = ids[ultima];
+            milisegundos[fila] = milisegundos[ultima];
+            inscripciones[fila] = inscripciones[ultima];
+            dorsales[fila] = dorsales[ultima];
+            distancias[fila] = distancias[ultima];
+            categorias[fila] = categorias[ultima];
+            inscripciones[fila].filaResultado = fila;
+            movida = ultima;
+        }
+        inscripciones[ultima] = null;
+        categorias[ultima] = null;
+        posicionesVigentes = false;
+        return movida;
+    }
+
+    /**
+     * Escribe las posiciones de una fila (uso del recálculo de {@link RankingEvento}).
+     * @param fila      fila.
+     * @param general   posición general.
+     * @param categoria posición en su categoría (0 si no tiene).
+     */
+    void fijarPosiciones(int fila, int general, int categoria) {
+        posicionesGenerales[fila] = general;
+        posicionesCategoria[fila] = categoria;
+    }
+
+    /**
+     * @param fila      fila.
+     * @param categoria posición en su categoría.
+     */
+    void fijarPosicionCategoria(int fila, int categoria) { posicionesCategoria[fila] = categoria; }
+
+    /** Marca las columnas de posiciones como actualizadas (tras el recálculo del ranking). */
+    void marcarPosicionesVigentes() { posicionesVigentes = true; }
+
+    /**
+     * @param ins inscripción.
+     * @return su fila, o -1 si no tiene tiempo en este almacén.
+     */
+    int filaDe(Inscripcion ins) {
+        int fila = ins.filaResultado;
+        return (fila >= 0 && fila < tamanio && inscripciones[fila] == ins) ? fila : -1;
+    }
+
+    /** @return cantidad de filas (sin tomar el monitor). */
+    int filas() { return tamanio; }
+
+    /** @return capacidad de las columnas (para dimensionar los enlaces de los árboles). */
+    int capacidad() { return ids.length; }
+
+    /**
+     * @param fila fila.
+     * @return distancia en la que quedó clasificada.
+     */
+    Inscripcion.Distancia distanciaDe(int fila) { return DISTANCIAS[distancias[fila]]; }
+
+    /**
+     * @param fila fila.
+     * @return categoría con la que quedó clasificada (o {@code null}).
+     */
+    Categoria categoriaDe(int fila) { return categorias[fila]; }
+
+    // ------------------------------------------------------------
+    // Consultas por inscripción
+    // ------------------------------------------------------------
+
+    /** @return cantidad de inscripciones con tiempo. */
+    public int tamanio() {
+        synchronized (ranking) {
+            return tamanio;
+        }
+    }
+
+    /**
+     * @param idInscripcion id de la inscripción.
+     * @return {@code true} si tiene tiempo registrado.
+     */
+    public boolean contiene(int idInscripcion) {
+        return obtenerMilisegundos(idInscripcion) >= 0;
+    }
+
+    /**
+     * @param idInscripcion id de la inscripción.
+     * @return tiempo en milisegundos, o -1 si no tiene tiempo registrado.
+     */
+    public long obtenerMilisegundos(int idInscripcion) {
+        // La inscripción se busca en el evento antes de tomar el monitor (el evento bloquea primero)
+        Inscripcion ins = evento.buscarInscripcionPorId(idInscripcion);
+        if (ins == null) return -1;
+        synchronized (ranking) {
+            int fila = filaDe(ins);
+            return (fila < 0) ? -1 : milisegundos[fila];
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Recorrido por fila (0 ≤ fila < tamanio)
+    // ------------------------------------------------------------
+
+    /**
+     * @param fila fila (0 &le; fila &lt; tamanio).
+     * @return id de inscripción de la fila.
+     */
+    public int idInscripcionEn(int fila) {
+        synchronized (ranking) {
+            return ids[validar(fila)];
+        }
+    }
+
+    /**
+     * @param fila fila (0 &le; fila &lt; tamanio).
+     * @return tiempo en milisegundos de la fila.
+     */
+    public long milisegundosEn(int fila) {
+        synchronized (ranking) {
+            return milisegundos[validar(fila)];
+        }
+    }
+
+    /**
+     * @param fila fila (0 &le; fila &lt; tamanio).
+     * @return posición general (en su distancia) de la fila.
+     */
+    public int posicionGeneralEn(int fila) {
+        synchronized (ranking) {
+            validar(fila);
+            actualizarPosiciones();
+            return posicionesGenerales[fila];
+        }
+    }
+
+    /**
+     * @param fila fila (0 &le; fila &lt; tamanio).
+     * @return posición de la fila en su categoría (0 si no tiene categoría).
+     */
+    public int posicionCategoriaEn(int fila) {
+        synchronized (ranking) {
+            validar(fila);
+            actualizarPosiciones();
+            return posicionesCategoria[fila];
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Agregados (una pasada sobre la columna de tiempos)
+    // ------------------------------------------------------------
+
+    /** @return suma de todos los tiempos en milisegundos. */
+    public long sumaMilisegundos() {
+        synchronized (ranking) {
+            long suma = 0;
+            for (int i = 0; i < tamanio; i++) suma += milisegundos[i];
+            return suma;
+        }
+    }
+
+    /** @return menor tiempo en milisegundos, o -1 si no hay tiempos. */
+    public long mejorMilisegundos() {
+        synchronized (ranking) {
+            if (tamanio == 0) return -1;
+            long mejor = Long.MAX_VALUE;
+            for (int i = 0; i < tamanio; i++) mejor = Math.min(mejor, milisegundos[i]);
+            return mejor;
+        }
+    }
+
+    /** @return mayor tiempo en milisegundos, o -1 si no hay tiempos. */
+    public long peorMilisegundos() {
+        synchronized (ranking) {
+            long peor = -1;
+            for (int i = 0; i < tamanio; i++) peor = Math.max(peor, milisegundos[i]);
+            return peor;
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Utilidades internas
+    // ------------------------------------------------------------
+
+    /** Recalcula las columnas de posiciones si algún tiempo cambió desde el último cálculo. */
+    private void actualizarPosiciones() {
+        if (!posicionesVigentes) ranking.recalcularPosiciones();
+    }
+
+    private int validar(int fila) {
+        if (fila < 0 || fila >= tamanio) throw new IndexOutOfBoundsException("Fila fuera de rango: " + fila);
+        return fila;
+    }
+
+    /** Agranda las columnas en un 50 % o, si es más, hasta la cantidad de inscripciones del evento. */
+    private void crecer() {
+        int nueva = Math.max(ids.length + (ids.length >> 1), evento.getInstantaneaInscripciones().size());
+        ids = Arrays.copyOf(ids, nueva);
+        milisegundos = Arrays.copyOf(milisegundos, nueva);
+        posicionesGenerales = Arrays.copyOf(posicionesGenerales, nueva);
+        posicionesCategoria = Arrays.copyOf(posicionesCategoria, nueva);
+        inscripciones = Arrays.copyOf(inscripciones, nueva);
+        dorsales = Arrays.copyOf(dorsales, nueva);
+        distancias = Arrays.copyOf(distancias, nueva);
+        categorias = Arrays.copyOf(categorias, nueva);
+    }
+}
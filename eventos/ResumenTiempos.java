@@ -0,0 +1,562 @@
+package eventos;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * La clase {@code ResumenTiempos} junta los tiempos de varios {@link Evento} en una clasificación global
+ * ordenada y calcula, por {@link Inscripcion.Distancia} y en total, cantidad, suma, mejor y peor tiempo,
+ * además de percentiles (mediana, p90, p99...) a partir de los {@link HistogramaTiempos} de cada ranking.
+ *
+ * <p><b>Cálculo</b> ({@link #calcular(List)}): dos pasadas fork-join y una mezcla perezosa.</p>
+ * <ul>
+ *   <li>Copia: cada hoja es un evento; copia las columnas de {@link ResultadosEvento} (ids y milisegundos)
+ *       y sus histogramas con el monitor del ranking tomado una vez, resuelve id → {@link Inscripcion} por
+ *       el índice del evento y compacta las filas válidas. Las uniones solo suman histogramas.</li>
+ *   <li>Orden: las filas de cada evento se parten en tramos de a lo sumo {@link #FILAS_POR_TRAMO}, así un
+ *       evento grande no queda en una sola hoja. Cada hoja ordena su tramo en el lugar (o junta en uno los
+ *       tramos de varios eventos chicos) y acumula cantidad, suma, mejor y peor por distancia; cada unión
+ *       combina esos agregados por índice de distancia, sin tocar las filas.</li>
+ *   <li>Clasificación global: una mezcla de k vías (árbol de perdedores sobre los tramos) que avanza recién
+ *       cuando se consulta una fila; ningún paso copia todas las filas de una vez.</li>
+ * </ul>
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>Orden: tiempo ascendente; a igual tiempo, id de evento y luego id de inscripción.</li>
+ *   <li>Se ignoran los tiempos iguales a 0 y las filas cuya inscripción ya no está en el evento.</li>
+ *   <li>Cada evento se lee de forma consistente; entre eventos, el resumen no es una foto atómica.</li>
+ *   <li>Los agregados son inmutables una vez calculados; la mezcla perezosa está sincronizada, así que el
+ *       resumen puede consultarse desde varios hilos. Sin I/O de consola.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+public class ResumenTiempos {
+
+    /** Cantidad de distancias (tamaño de los agregados). */
+    private static final int DISTANCIAS = Inscripcion.Distancia.values().length;
+
+    /** Hoja sin filas pendientes en el árbol de la mezcla. */
+    private static final int AGOTADA = -1;
+
+    /** Filas máximas de un tramo (unidad de ordenamiento de una hoja). */
+    private static final int FILAS_POR_TRAMO = 1 << 13;
+
+    /**
+     * Tramos ordenados: columnas paralelas (las de su evento o las propias de una hoja que juntó varios) y
+     * rango [inicio, fin) de filas, más el cursor de la mezcla.
+     */
+    private final long[][] msDeTramo;
+    private final Inscripcion[][] insDeTramo;
+    private final int[] inicioDeTramo;
+    private final int[] finDeTramo;
+    private final int[] cursorDeTramo;
+
+    /** Cantidad total de filas. */
+    private final int total;
+
+    /** Agregados por ordinal de distancia. */
+    private final Agregados agregados;
+    private final HistogramaTiempos[] histogramas;
+
+    /** Mezcla perezosa: filas ya clasificadas. */
+    private long[] msOrden = new long[0];
+    private Inscripcion[] insOrden = new Inscripcion[0];
+    private int mezcladas;
+
+    /**
+     * Árbol de perdedores de la mezcla: cada hoja es un tramo no vacío ({@link #AGOTADA} al terminarse) con
+     * el tiempo de su fila actual; cada nodo interno guarda la hoja que perdió allí.
+     */
+    private final int[] tramoDeHoja;
+    private final long[] cabezaDeHoja;
+    private final int[] perdedor;
+    private int ganador;
+
+    private ResumenTiempos(long[][] msDeTramo, Inscripcion[][] insDeTramo, int[] inicioDeTramo,
+                           int[] finDeTramo, int total, Agregados agregados, HistogramaTiempos[] histogramas) {
+        this.msDeTramo = msDeTramo;
+        this.insDeTramo = insDeTramo;
+        this.inicioDeTramo = inicioDeTramo;
+        this.finDeTramo = finDeTramo;
+        this.cursorDeTramo = inicioDeTramo.clone();
+        this.total = total;
+        this.agregados = agregados;
+        this.histogramas = histogramas;
+        int hojas = 1;
+        while (hojas < inicioDeTramo.length) hojas <<= 1;
+        this.tramoDeHoja = new int[hojas];
+        this.cabezaDeHoja = new long[hojas];
+        this.perdedor = new int[hojas];
+        Arrays.fill(tramoDeHoja, AGOTADA);
+        for (int t = 0, h = 0; t < inicioDeTramo.length; t++) {
+            if (inicioDeTramo[t] == finDeTramo[t]) continue;
+            tramoDeHoja[h] = t;
+            cabezaDeHoja[h++] = msDeTramo[t][inicioDeTramo[t]];
+        }
+        // Primer torneo, de abajo hacia arriba
+        int[] ganadores = new int[2 * hojas];
+        for (int h = 0; h < hojas; h++) ganadores[hojas + h] = h;
+        for (int n = hojas - 1; n >= 1; n--) {
+            int a = ganadores[2 * n], b = ganadores[2 * n + 1];
+            boolean ganaA = antes(a, b);
+            ganadores[n] = ganaA ? a : b;
+            perdedor[n] = ganaA ? b : a;
+        }
+        ganador = ganadores[1];
+    }
+
+    // ------------------------------------------------------------
+    // Cálculo
+    // ------------------------------------------------------------
+
+    /**
+     * Calcula el resumen en el pool común de fork-join.
+     * @param eventos eventos a resumir (no nula).
+     * @return resumen global.
+     */
+    public static ResumenTiempos calcular(List<Evento> eventos) {
+        return calcular(eventos, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Calcula el resumen en un pool dado.
+     * @param eventos eventos a resumir (no nula).
+     * @param pool    pool fork-join (no nulo).
+     * @return resumen global.
+     */
+    public static ResumenTiempos calcular(List<Evento> eventos, ForkJoinPool pool) {
+        if (eventos == null) throw new IllegalArgumentException("La lista de eventos no puede ser nula.");
+        if (pool == null) throw new IllegalArgumentException("El pool no puede ser nulo.");
+        int e = eventos.size();
+        long[][] ms = new long[e][];
+        Inscripcion[][] ins = new Inscripcion[e][];
+        HistogramaTiempos[] histogramas = (e == 0) ? new HistogramaTiempos[DISTANCIAS]
+                : pool.invoke(new Copia(eventos, ms, ins, 0, e));
+
+        // Tramos: cada evento se parte en rangos de a lo sumo FILAS_POR_TRAMO filas
+        int tramos = 0;
+        long total = 0;
+        for (int i = 0; i < e; i++) {
+            tramos += (ms[i].length + FILAS_POR_TRAMO - 1) / FILAS_POR_TRAMO;
+            total += ms[i].length;
+        }
+        if (total > Integer.MAX_VALUE) throw new IllegalStateException("Demasiados tiempos para un resumen: " + total);
+        long[][] msDeTramo = new long[tramos][];
+        Inscripcion[][] insDeTramo = new Inscripcion[tramos][];
+        int[] inicio = new int[tramos], fin = new int[tramos];
+        long[] acumulado = new long[tramos + 1];
+        for (int i = 0, t = 0; i < e; i++) {
+            for (int desde = 0; desde < ms[i].length; desde += FILAS_POR_TRAMO, t++) {
+                msDeTramo[t] = ms[i];
+                insDeTramo[t] = ins[i];
+                inicio[t] = desde;
+                fin[t] = Math.min(desde + FILAS_POR_TRAMO, ms[i].length);
+                acumulado[t + 1] = acumulado[t] + (fin[t] - desde);
+            }
+        }
+        Agregados agregados = (tramos == 0) ? new Agregados()
+                : pool.invoke(new Orden(msDeTramo, insDeTramo, inicio, fin, acumulado, 0, tramos));
+        return new ResumenTiempos(msDeTramo, insDeTramo, inicio, fin, (int) total, agregados, histogramas);
+    }
+
+    /** Primera pasada: copia las filas válidas de los eventos [desde, hasta) y suma sus histogramas. */
+    private static final class Copia extends RecursiveTask<HistogramaTiempos[]> {
+        private static final long serialVersionUID = 1L;
+        private final transient List<Evento> eventos;
+        private final transient long[][] ms;
+        private final transient Inscripcion[][] ins;
+        private final int desde;
+        private final int hasta;
+
+        Copia(List<Evento> eventos, long[][] ms, Inscripcion[][] ins, int desde, int hasta) {
+            this.eventos = eventos;
+            this.ms = ms;
+            this.ins = ins;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected HistogramaTiempos[] compute() {
+            if (hasta - desde == 1) return copiar(eventos.get(desde), desde, ms, ins);
+            int medio = (desde + hasta) >>> 1;
+            Copia izquierda = new Copia(eventos, ms, ins, desde, medio);
+            izquierda.fork();
+            HistogramaTiempos[] derecha = new Copia(eventos, ms, ins, medio, hasta).compute();
+            HistogramaTiempos[] r = izquierda.join();
+            // Los histogramas son copias propias de esta pasada: se acumula sobre los de la izquierda
+            for (int d = 0; d < DISTANCIAS; d++) r[d].combinar(derecha[d]);
+            return r;
+        }
+    }
+
+    /**
+     * Hoja de la copia: filas válidas de un evento (sin ordenar) y sus histogramas, leídos juntos.
+     * @param ev     evento.
+     * @param indice posición del evento en las columnas.
+     * @param msDe   columnas de tiempos a completar.
+     * @param insDe  columnas de inscripciones a completar.
+     * @return histogramas del evento por ordinal de distancia.
+     */
+    private static HistogramaTiempos[] copiar(Evento ev, int indice, long[][] msDe, Inscripcion[][] insDe) {
+        ResultadosEvento res = ev.getResultados();
+        RankingEvento ranking = ev.getRanking();
+        HistogramaTiempos[] histogramas = new HistogramaTiempos[DISTANCIAS];
+        int[] ids;
+        long[] ms;
+        synchronized (ranking) {
+            int n = res.tamanio();
+            ids = new int[n];
+            ms = new long[n];
+            for (int i = 0; i < n; i++) {
+                ids[i] = res.idInscripcionEn(i);
+                ms[i] = res.milisegundosEn(i);
+            }
+            for (Inscripcion.Distancia d : Inscripcion.Distancia.values()) {
+                histogramas[d.ordinal()] = ranking.getHistograma(d);
+            }
+        }
+        Inscripcion[] ins = new Inscripcion[ids.length];
+        ev.resolverIds(ids, ids.length, ins);
+
+        // Compactar filas válidas
+        int n = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (ins[i] == null || ms[i] <= 0) continue;
+            ms[n] = ms[i];
+            ins[n++] = ins[i];
+        }
+        msDe[indice] = (n == ms.length) ? ms : Arrays.copyOf(ms, n);
+        insDe[indice] = (n == ins.length) ? ins : Arrays.copyOf(ins, n);
+        return histogramas;
+    }
+
+    /**
+     * Segunda pasada: ordena los tramos [desde, hasta) y acumula sus agregados. Una hoja con un solo tramo lo
+     * ordena en el lugar; una con varios (eventos chicos) los junta en un tramo propio, para que la mezcla
+     * final tenga pocas vías.
+     */
+    private static final class Orden extends RecursiveTask<Agregados> {
+        private static final long serialVersionUID = 1L;
+        private final transient long[][] ms;
+        private final transient Inscripcion[][] ins;
+        private final int[] inicio;
+        private final int[] fin;
+        private final long[] acumulado;
+        private final int desde;
+        private final int hasta;
+
+        Orden(long[][] ms, Inscripcion[][] ins, int[] inicio, int[] fin, long[] acumulado, int desde, int hasta) {
+            this.ms = ms;
+            this.ins = ins;
+            this.inicio = inicio;
+            this.fin = fin;
+            this.acumulado = acumulado;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected Agregados compute() {
+            if (hasta - desde > 1 && acumulado[hasta] - acumulado[desde] > FILAS_POR_TRAMO) {
+                int medio = (desde + hasta) >>> 1;
+                Orden izquierda = new Orden(ms, ins, inicio, fin, acumulado, desde, medio);
+                izquierda.fork();
+                Agregados derecha = new Orden(ms, ins, inicio, fin, acumulado, medio, hasta).compute();
+                return izquierda.join().combinar(derecha);
+            }
+            if (hasta - desde > 1) juntar();
+            ordenar(ms[desde], ins[desde], inicio[desde], fin[desde]);
+            Agregados r = new Agregados();
+            r.acumular(ms[desde], ins[desde], inicio[desde], fin[desde]);
+            return r;
+        }
+
+        /** Copia las filas de los tramos de la hoja al primero de ellos; los demás quedan vacíos. */
+        private void juntar() {
+            int n = (int) (acumulado[hasta] - acumulado[desde]), k = 0;
+            long[] m = new long[n];
+            Inscripcion[] i = new Inscripcion[n];
+            for (int t = desde; t < hasta; t++) {
+                int largo = fin[t] - inicio[t];
+                System.arraycopy(ms[t], inicio[t], m, k, largo);
+                System.arraycopy(ins[t], inicio[t], i, k, largo);
+                k += largo;
+                ms[t] = null;
+                ins[t] = null;
+                inicio[t] = 0;
+                fin[t] = 0;
+            }
+            ms[desde] = m;
+            ins[desde] = i;
+            fin[desde] = n;
+        }
+    }
+
+    /** Cantidad, suma, mejor y peor tiempo por ordinal de distancia de un conjunto de tramos. */
+    private static final class Agregados {
+        final long[] cantidad = new long[DISTANCIAS];
+        final long[] suma = new long[DISTANCIAS];
+        final long[] mejor = new long[DISTANCIAS];
+        final long[] peor = new long[DISTANCIAS];
+
+        Agregados() {
+            Arrays.fill(mejor, Long.MAX_VALUE);
+            Arrays.fill(peor, Long.MIN_VALUE);
+        }
+
+        /** Suma las filas [desde, hasta). */
+        void acumular(long[] ms, Inscripcion[] ins, int desde, int hasta) {
+            for (int i = desde; i < hasta; i++) {
+                int d = ins[i].getDistancia().ordinal();
+                cantidad[d]++;
+                suma[d] += ms[i];
+                mejor[d] = Math.min(mejor[d], ms[i]);
+                peor[d] = Math.max(peor[d], ms[i]);
+            }
+        }
+
+        /** Combina otros agregados sobre estos, distancia a distancia. @return estos agregados. */
+        Agregados combinar(Agregados otros) {
+            for (int d = 0; d < DISTANCIAS; d++) {
+                cantidad[d] += otros.cantidad[d];
+                suma[d] += otros.suma[d];
+                mejor[d] = Math.min(mejor[d], otros.mejor[d]);
+                peor[d] = Math.max(peor[d], otros.peor[d]);
+            }
+            return this;
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Consultas
+    // ------------------------------------------------------------
+
+    /** @return cantidad de filas (tiempos) de la clasificación global. */
+    public int tamanio() { return total; }
+
+    /**
+     * Mezcla hasta la fila pedida si hace falta (recorrer en orden cuesta O(log k) por fila, con k tramos).
+     * @param fila fila (0 &le; fila &lt; tamanio), en orden de clasificación.
+     * @return tiempo en milisegundos.
+     * @throws IndexOutOfBoundsException si {@code fila} está fuera de rango.
+     */
+    public synchronized long milisegundosEn(int fila) {
+        mezclarHasta(fila);
+        return msOrden[fila];
+    }
+
+    /**
+     * Mezcla hasta la fila pedida si hace falta (ver {@link #milisegundosEn(int)}).
+     * @param fila fila (0 &le; fila &lt; tamanio), en orden de clasificación.
+     * @return inscripción (su evento se obtiene con {@link Inscripcion#getEvento()}).
+     * @throws IndexOutOfBoundsException si {@code fila} está fuera de rango.
+     */
+    public synchronized Inscripcion inscripcionEn(int fila) {
+        mezclarHasta(fila);
+        return insOrden[fila];
+    }
+
+    /** @return cantidad de tiempos en total. */
+    public long getCantidad() { return total; }
+
+    /** @return suma de todos los tiempos en milisegundos. */
+    public long getSumaMilisegundos() {
+        long s = 0;
+        for (long v : agregados.suma) s += v;
+        return s;
+    }
+
+    /** @return mejor tiempo en milisegundos, o -1 si no hay tiempos. */
+    public long getMejorMilisegundos() {
+        long m = Long.MAX_VALUE;
+        for (long v : agregados.mejor) m = Math.min(m, v);
+        return (total == 0) ? -1 : m;
+    }
+
+    /** @return peor tiempo en milisegundos, o -1 si no hay tiempos. */
+    public long getPeorMilisegundos() {
+        long m = Long.MIN_VALUE;
+        for (long v : agregados.peor) m = Math.max(m, v);
+        return (total == 0) ? -1 : m;
+    }
+
+    /** @return promedio en milisegundos, o -1 si no hay tiempos. */
+    public long getPromedioMilisegundos() {
+        return (total == 0) ? -1 : getSumaMilisegundos() / total;
+    }
+
+    /**
+     * @param distancia distancia (no nula).
+     * @return cantidad de tiempos de la distancia.
+     */
+    public long getCantidad(Inscripcion.Distancia distancia) { return agregados.cantidad[ordinal(distancia)]; }
+
+    /**
+     * @param distancia distancia (no nula).
+     * @return suma de los tiempos de la distancia en milisegundos.
+     */
+    public long getSumaMilisegundos(Inscripcion.Distancia distancia) { return agregados.suma[ordinal(distancia)]; }
+
+    /**
+     * @param distancia distancia (no nula).
+     * @return mejor tiempo de la distancia en milisegundos, o -1 si no hay tiempos.
+     */
+    public long getMejorMilisegundos(Inscripcion.Distancia distancia) {
+        int d = ordinal(distancia);
+        return (agregados.cantidad[d] == 0) ? -1 : agregados.mejor[d];
+    }
+
+    /**
+     * @param distancia distancia (no nula).
+     * @return peor tiempo de la distancia en milisegundos, o -1 si no hay tiempos.
+     */
+    public long getPeorMilisegundos(Inscripcion.Distancia distancia) {
+        int d = ordinal(distancia);
+        return (agregados.cantidad[d] == 0) ? -1 : agregados.peor[d];
+    }
+
+    /**
+     * @param distancia distancia (no nula).
+     * @return promedio de la distancia en milisegundos, o -1 si no hay tiempos.
+     */
+    public long getPromedioMilisegundos(Inscripcion.Distancia distancia) {
+        int d = ordinal(distancia);
+        return (agregados.cantidad[d] == 0) ? -1 : agregados.suma[d] / agregados.cantidad[d];
+    }
+
+    /**
+     * Percentil aproximado de una distancia en todos los eventos (ver {@link HistogramaTiempos#percentil(double)}).
+     * @param distancia distancia (no nula).
+     * @param q         fracción entre 0 y 1 (0.5 = mediana, 0.9 = p90, 0.99 = p99).
+     * @return tiempo en milisegundos, o -1 si no hay tiempos.
+     */
+    public long getPercentilMilisegundos(Inscripcion.Distancia distancia, double q) {
+        HistogramaTiempos h = histogramas[ordinal(distancia)];
+        return (h == null) ? -1 : h.percentil(q);
+    }
+
+    /**
+     * Percentil aproximado de todos los tiempos, sin distinguir distancia.
+     * @param q fracción entre 0 y 1.
+     * @return tiempo en milisegundos, o -1 si no hay tiempos.
+     */
+    public long getPercentilMilisegundos(double q) {
+        HistogramaTiempos total = new HistogramaTiempos();
+        for (HistogramaTiempos h : histogramas) {
+            if (h != null) total.combinar(h);
+        }
+        return total.percentil(q);
+    }
+
+    // ------------------------------------------------------------
+    // Utilidades internas
+    // ------------------------------------------------------------
+
+    private static int ordinal(Inscripcion.Distancia distancia) {
+        if (distancia == null) throw new IllegalArgumentException("La distancia no puede ser nula.");
+        return distancia.ordinal();
+    }
+
+    /** Orden de clasificación: tiempo, id de evento, id de inscripción. */
+    private static int comparar(long ms1, Inscripcion i1, long ms2, Inscripcion i2) {
+        int c = Long.compare(ms1, ms2);
+        if (c != 0) return c;
+        c = Integer.compare(i1.getEvento().getId(), i2.getEvento().getId());
+        return (c != 0) ? c : Integer.compare(i1.getId(), i2.getId());
+    }
+
+    /** Ordena el rango [desde, hasta) de columnas paralelas (merge sort ascendente, sin objetos por fila). */
+    private static void ordenar(long[] ms, Inscripcion[] ins, int desde, int hasta) {
+        int n = hasta - desde;
+        long[] msAux = new long[n];
+        Inscripcion[] insAux = new Inscripcion[n];
+        long[] msDe = ms, msA = msAux;
+        Inscripcion[] insDe = ins, insA = insAux;
+        int baseDe = desde, baseA = 0;
+        for (int ancho = 1; ancho < n; ancho <<= 1) {
+            for (int i = 0; i < n; i += ancho << 1) {
+                int medio = Math.min(i + ancho, n), fin = Math.min(i + (ancho << 1), n);
+                mezclar(msDe, insDe, baseDe + i, baseDe + medio, msDe, insDe, baseDe + medio, baseDe + fin,
+                        msA, insA, baseA + i);
+            }
+            long[] t = msDe; msDe = msA; msA = t;
+            Inscripcion[] u = insDe; insDe = insA; insA = u;
+            int b = baseDe; baseDe = baseA; baseA = b;
+        }
+        if (msDe != ms) {
+            System.arraycopy(msDe, 0, ms, desde, n);
+            System.arraycopy(insDe, 0, ins, desde, n);
+        }
+    }
+
+    /** Avanza la mezcla de k vías hasta tener clasificada la fila pedida. Requiere el monitor. */
+    private void mezclarHasta(int fila) {
+        if (fila < 0 || fila >= total) throw new IndexOutOfBoundsException("Fila fuera de rango: " + fila);
+        if (fila < mezcladas) return;
+        if (fila >= msOrden.length) {
+            int capacidad = (int) Math.min(total, Math.max(fila + 1L, Math.max(1024L, 2L * msOrden.length)));
+            msOrden = Arrays.copyOf(msOrden, capacidad);
+            insOrden = Arrays.copyOf(insOrden, capacidad);
+        }
+        while (mezcladas <= fila) {
+            int h = ganador, t = tramoDeHoja[h];
+            long[] ms = msDeTramo[t];
+            int i = cursorDeTramo[t]++;
+            msOrden[mezcladas] = ms[i];
+            insOrden[mezcladas++] = insDeTramo[t][i];
+            if (i + 1 < finDeTramo[t]) cabezaDeHoja[h] = ms[i + 1];
+            else tramoDeHoja[h] = AGOTADA;
+            // Nuevo torneo solo en el camino de la hoja: una comparación por nivel
+            for (int n = (tramoDeHoja.length + h) >>> 1; n >= 1; n >>>= 1) {
+                if (antes(perdedor[n], h)) {
+                    int x = perdedor[n];
+                    perdedor[n] = h;
+                    h = x;
+                }
+            }
+            ganador = h;
+        }
+    }
+
+    /**
+     * @return {@code true} si la fila actual de la hoja {@code a} va antes que la de {@code b} (una hoja
+     *         agotada va después de todas); casi siempre se resuelve por el tiempo guardado en la hoja.
+     */
+    private boolean antes(int a, int b) {
+        int ta = tramoDeHoja[a], tb = tramoDeHoja[b];
+        if (ta == AGOTADA) return false;
+        if (tb == AGOTADA) return true;
+        if (cabezaDeHoja[a] != cabezaDeHoja[b]) return cabezaDeHoja[a] < cabezaDeHoja[b];
+        return comparar(cabezaDeHoja[a], insDeTramo[ta][cursorDeTramo[ta]],
+                cabezaDeHoja[b], insDeTramo[tb][cursorDeTramo[tb]]) < 0;
+    }
+
+    /** Mezcla los tramos ordenados a[ia, fa) y b[ib, fb) en destino desde {@code k}. */
+    private static void mezclar(long[] msA, Inscripcion[] insA, int ia, int fa,
+                                long[] msB, Inscripcion[] insB, int ib, int fb,
+                                long[] msDestino, Inscripcion[] insDestino, int k) {
+        while (ia < fa && ib < fb) {
+            if (comparar(msB[ib], insB[ib], msA[ia], insA[ia]) < 0) {
+                msDestino[k] = msB[ib];
+                insDestino[k++] = insB[ib++];
+            } else {
+                msDestino[k] = msA[ia];
+                insDestino[k++] = insA[ia++];
+            }
+        }
+        while (ia < fa) {
+            msDestino[k] = msA[ia];
+            insDestino[k++] = insA[ia++];
+        }
+        while (ib < fb) {
+            msDestino[k] = msB[ib];
+            insDestino[k++] = insB[ib++];
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package eventos;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * La clase {@code SeleccionMejores} elige los {@code k} primeros elementos de una colección según un orden,
+ * sin ordenarla completa: mantiene un montículo acotado con los {@code k} mejores vistos hasta el momento.
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>Costo O(n log k) en tiempo y O(k) en memoria (para un top-10 de 40.000 tiempos, unas 40.000
+ *       comparaciones contra el peor del montículo en lugar de ordenar todo).</li>
+ *   <li>El resultado queda en el orden pedido; si el orden es total (con desempate), es determinista.</li>
+ *   <li>Sin estado: métodos estáticos. Sin I/O de consola.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+public final class SeleccionMejores {
+
+    private SeleccionMejores() { }
+
+    /**
+     * Los {@code k} primeros elementos según {@code orden}.
+     * @param elementos elementos a recorrer (no nulo).
+     * @param k         cantidad máxima (&ge; 0).
+     * @param orden     orden ascendente (primero = mejor), no nulo.
+     * @param <T>       tipo de los elementos.
+     * @return lista nueva con a lo sumo {@code k} elementos, en orden.
+     */
+    public static <T> List<T> seleccionar(Iterable<? extends T> elementos, int k, Comparator<? super T> orden) {
+        return seleccionar(elementos, null, k, orden);
+    }
+
+    /**
+     * Los {@code k} primeros elementos que cumplen {@code filtro}, según {@code orden}.
+     * @param elementos elementos a recorrer (no nulo).
+     * @param filtro    condición (o {@code null} para no filtrar).
+     * @param k         cantidad máxima (&ge; 0).
+     * @param orden     orden ascendente (primero = mejor), no nulo.
+     * @param <T>       tipo de los elementos.
+     * @return lista nueva con a lo sumo {@code k} elementos, en orden.
+     * @throws IllegalArgumentException si algún parámetro es inválido.
+     */
+    public static <T> List<T> seleccionar(Iterable<? extends T> elementos, Predicate<? super T> filtro,
+                                          int k, Comparator<? super T> orden) {
+        if (elementos == null) throw new IllegalArgumentException("Los elementos no pueden ser nulos.");
+        if (orden == null) throw new IllegalArgumentException("El orden no puede ser nulo.");
+        if (k < 0) throw new IllegalArgumentException("La cantidad no puede ser negativa.");
+        if (k == 0) return new ArrayList<>();
+
+        // Montículo de máximos: la cima es el peor de los k mejores
+        PriorityQueue<T> peores = new PriorityQueue<>(Math.min(k, 1024), Collections.reverseOrder(orden));
+        for (T e : elementos) {
+            if (filtro != null && !filtro.test(e)) continue;
+            if (peores.size() < k) {
+                peores.add(e);
+            } else if (orden.compare(e, peores.peek()) < 0) {
+                peores.poll();
+                peores.add(e);
+            }
+        }
+        List<T> res = new ArrayList<>(peores.size());
+        while (!peores.isEmpty()) res.add(peores.poll());
+        Collections.reverse(res);
+        return res;
+    }
+}
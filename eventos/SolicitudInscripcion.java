@@ -0,0 +1,92 @@
+package eventos;
+
+import usuarios.Corredor;
+
+/**
+ * La clase {@code SolicitudInscripcion} es un DTO inmutable con los datos de una inscripción
+ * que quedó en lista de espera por falta de cupo en su {@link Inscripcion.Distancia}.
+ *
+ * <p>Cuando se libera un lugar, la capa de negocio (ver {@code Administrador}) la convierte en
+ * una {@link Inscripcion} respetando el orden de llegada.</p>
+ *
+ * @author
+ * @version 1.0
+ */
+public final class SolicitudInscripcion {
+
+    private final int idInscripcion;
+    private final Corredor corredor;
+    private final Inscripcion.Distancia distancia;
+    private final Inscripcion.Talla talla;
+    private final int dorsal;
+    private final Categoria categoria;
+
+    /**
+     * Crea una solicitud sin categoría (se decide por edad).
+     *
+     * @param idInscripcion id que tendrá la inscripción (&gt; 0).
+     * @param corredor      corredor solicitante (no nulo).
+     * @param distancia     distancia solicitada (no nula).
+     * @param talla         talla de camiseta (no nula).
+     * @param dorsal        dorsal solicitado (&gt; 0), o 0 para asignarlo al ser admitida.
+     * @throws IllegalArgumentException si algún parámetro es inválido.
+     */
+    public SolicitudInscripcion(int idInscripcion, Corredor corredor, Inscripcion.Distancia distancia,
+                                Inscripcion.Talla talla, int dorsal) {
+        this(idInscripcion, corredor, distancia, talla, dorsal, null);
+    }
+
+    /**
+     * Crea una solicitud.
+     *
+     * @param idInscripcion id que tendrá la inscripción (&gt; 0).
+     * @param corredor      corredor solicitante (no nulo).
+     * @param distancia     distancia solicitada (no nula).
+     * @param talla         talla de camiseta (no nula).
+     * @param dorsal        dorsal solicitado (&gt; 0), o 0 para asignarlo al ser admitida.
+     * @param categoria     categoría elegida, que recibe la inscripción al ser admitida (o {@code null}).
+     * @throws IllegalArgumentException si algún parámetro es inválido.
+     */
+    public SolicitudInscripcion(int idInscripcion, Corredor corredor, Inscripcion.Distancia distancia,
+                                Inscripcion.Talla talla, int dorsal, Categoria categoria) {
+        if (idInscripcion <= 0) throw new IllegalArgumentException("El ID debe ser mayor que 0.");
+        if (corredor == null) throw new IllegalArgumentException("El corredor no puede ser nulo.");
+        if (distancia == null) throw new IllegalArgumentException("La distancia no puede ser nula.");
+        if (talla == null) throw new IllegalArgumentException("La talla no puede ser nula.");
+        if (dorsal < 0) throw new IllegalArgumentException("El dorsal no puede ser negativo.");
+        this.idInscripcion = idInscripcion;
+        this.corredor = corredor;
+        this.distancia = distancia;
+        this.talla = talla;
+        this.dorsal = dorsal;
+        this.categoria = categoria;
+    }
+
+    /** @return id que tendrá la inscripción. */
+    public int getIdInscripcion() { return idInscripcion; }
+
+    /** @return corredor solicitante. */
+    public Corredor getCorredor() { return corredor; }
+
+    /** @return distancia solicitada. */
+    public Inscripcion.Distancia getDistancia() { return distancia; }
+
+    /** @return talla de camiseta. */
+    public Inscripcion.Talla getTalla() { return talla; }
+
+    /** @return dorsal solicitado (0 = automático). */
+    public int getDorsal() { return dorsal; }
+
+    /** @return categoría elegida, o {@code null} si se decide por edad. */
+    public Categoria getCategoria() { return categoria; }
+
+    @Override
+    public String toString() {
+        return "SolicitudInscripcion{" +
+                "id=" + idInscripcion +
+                ", corredor=" + corredor.getNombre() +
+                ", distancia=" + distancia +
+                ", dorsal=" + dorsal +
+                '}';
+    }
+}
@@ -0,0 +1,190 @@
+package eventos;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * La clase {@code TablaLideres} guarda los mejores tiempos de una clasificación de {@link RankingEvento}
+ * (todo el evento o una {@link Inscripcion.Distancia}) en arreglos ordenados de tamaño acotado, y publica
+ * una lista inmutable para que las pantallas en vivo la lean sin ordenar ni bloquear.
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>Orden: tiempo ascendente; a igual tiempo, dorsal y luego id (el mismo que {@link ArbolPosiciones}).</li>
+ *   <li>Siempre contiene exactamente los primeros {@code min(capacidad, n)} de su clasificación:
+ *       si un miembro sale, {@link RankingEvento} la rellena con el siguiente de su clasificación.</li>
+ *   <li>Las posiciones de los miembros dependen solo de tiempos mejores, que también son miembros; por eso
+ *       se calculan al publicar recorriendo la tabla una vez, sin consultar los árboles.</li>
+ *   <li>Las modificaciones no son seguras para hilos (las hace {@link RankingEvento} con su monitor);
+ *       la lectura de la lista publicada sí lo es.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+final class TablaLideres {
+
+    /** Máximo de tiempos que guarda la tabla. */
+    private final int capacidad;
+
+    /** Miembros en orden de clasificación (solo las primeras {@link #tamanio} posiciones son válidas). */
+    private final RankingEvento.Entrada[] miembros;
+
+    /** Cantidad de miembros. */
+    private int tamanio;
+
+    /** Indica que hubo cambios desde la última publicación. */
+    private boolean sucia;
+
+    /** Lista inmutable publicada para lectores (con copias de los tiempos y sus posiciones). */
+    private volatile List<Map.Entry<Inscripcion, Tiempo>> publicada = Collections.emptyList();
+
+    /**
+     * @param capacidad máximo de tiempos (&gt; 0).
+     */
+    TablaLideres(int capacidad) {
+        if (capacidad <= 0) throw new IllegalArgumentException("La capacidad debe ser > 0.");
+        this.capacidad = capacidad;
+        this.miembros = new RankingEvento.Entrada[capacidad];
+    }
+
+    /** @return máximo de tiempos que guarda la tabla. */
+    int capacidad() { return capacidad; }
+
+    /** @return cantidad de miembros. */
+    int tamanio() { return tamanio; }
+
+    /**
+     * @param i posición en la tabla (0 = primero), menor que {@link #tamanio()}.
+     * @return miembro en esa posición.
+     */
+    RankingEvento.Entrada miembro(int i) { return miembros[i]; }
+
+    /**
+     * Indica si una clave entraría a la tabla, sin crear su entrada (el ranking crea entradas solo para
+     * las filas que entran).
+     * @param milisegundos tiempo.
+     * @param dorsal       dorsal.
+     * @param id           id de inscripción.
+     * @return {@code true} si hay lugar o la clave mejora al último miembro.
+     */
+    boolean admite(long milisegundos, int dorsal, int id) {
+        return tamanio < capacidad || comparar(milisegundos, dorsal, id, miembros[tamanio - 1]) < 0;
+    }
+
+    /**
+     * Ofrece una entrada a la tabla: entra si hay lugar o si mejora al último (que sale).
+     * @param e entrada recién clasificada.
+     */
+    void ofrecer(RankingEvento.Entrada e) {
+        if (tamanio == capacidad && comparar(e, miembros[tamanio - 1]) >= 0) return;
+        int lo = 0, hi = tamanio;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparar(miembros[mid], e) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        int mover = Math.min(tamanio, capacidad - 1) - lo;
+        System.arraycopy(miembros, lo, miembros, lo + 1, mover);
+        miembros[lo] = e;
+        if (tamanio < capacidad) tamanio++;
+        sucia = true;
+    }
+
+    /**
+     * Quita al miembro con la clave dada, si lo hay.
+     * @param milisegundos tiempo con el que se clasificó.
+     * @param dorsal       dorsal con el que se clasificó.
+     * @param id           id de inscripción.
+     * @return {@code true} si era miembro (la tabla queda con un lugar libre que hay que rellenar).
+     */
+    boolean quitar(long milisegundos, int dorsal, int id) {
+        int lo = 0, hi = tamanio;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparar(milisegundos, dorsal, id, miembros[mid]) > 0) lo = mid + 1;
+            else hi = mid;
+        }
+        if (lo == tamanio || comparar(milisegundos, dorsal, id, miembros[lo]) != 0) return false;
+        System.arraycopy(miembros, lo + 1, miembros, lo, tamanio - lo - 1);
+        miembros[--tamanio] = null;
+        sucia = true;
+        return true;
+    }
+
+    /** @return {@code true} si hubo cambios desde la última publicación. */
+    boolean estaSucia() { return sucia; }
+
+    /**
+     * Publica la lista para lectores, calculando las posiciones general (por distancia) y por categoría
+     * de cada miembro en una sola pasada.
+     */
+    void publicar() {
+        List<Map.Entry<Inscripcion, Tiempo>> lista = new ArrayList<>(tamanio);
+        Map<Long, Grupo> grupos = new HashMap<>();
+        for (int i = 0; i < tamanio; i++) {
+            RankingEvento.Entrada e = miembros[i];
+            long d = e.distancia.ordinal();
+            // Grupo general: -(ordinal + 1); grupo de categoría: (ordinal << 32) | id
+            int posGeneral = posicionEnGrupo(grupos, -(d + 1), e.milisegundos);
+            int posCategoria = (e.categoria == null) ? 0
+                    : posicionEnGrupo(grupos, (d << 32) | (e.categoria.getId() & 0xFFFFFFFFL), e.milisegundos);
+            lista.add(new AbstractMap.SimpleImmutableEntry<>(e.inscripcion,
+                    Tiempo.deMilisegundos(e.milisegundos, posGeneral, posCategoria)));
+        }
+        publicada = Collections.unmodifiableList(lista);
+        sucia = false;
+    }
+
+    /**
+     * Lectura sin bloqueo: los primeros {@code n} miembros publicados.
+     * @param n cantidad máxima (&ge; 0).
+     * @return lista inmutable en orden de clasificación.
+     */
+    List<Map.Entry<Inscripcion, Tiempo>> listar(int n) {
+        List<Map.Entry<Inscripcion, Tiempo>> l = publicada;
+        return (n >= l.size()) ? l : l.subList(0, n);
+    }
+
+    // ------------------------------------------------------------
+    // Utilidades internas
+    // ------------------------------------------------------------
+
+    private static int comparar(RankingEvento.Entrada a, RankingEvento.Entrada b) {
+        return RankingEvento.ORDEN.compare(a, b);
+    }
+
+    private static int comparar(long milisegundos, int dorsal, int id, RankingEvento.Entrada e) {
+        int c = Long.compare(milisegundos, e.milisegundos);
+        if (c != 0) return c;
+        c = Integer.compare(dorsal, e.dorsal);
+        return (c != 0) ? c : Integer.compare(id, e.inscripcion.getId());
+    }
+
+    /**
+     * Posición dentro de un grupo al recorrer en orden; los tiempos iguales comparten posición.
+     * @param grupos       estado por grupo.
+     * @param grupo        clave del grupo.
+     * @param milisegundos tiempo del miembro actual.
+     * @return posición del miembro en su grupo.
+     */
+    private static int posicionEnGrupo(Map<Long, Grupo> grupos, long grupo, long milisegundos) {
+        Grupo g = grupos.computeIfAbsent(grupo, k -> new Grupo());
+        int pos = (g.vistos > 0 && g.ultimoTiempo == milisegundos) ? g.ultimaPosicion : g.vistos + 1;
+        g.vistos++;
+        g.ultimaPosicion = pos;
+        g.ultimoTiempo = milisegundos;
+        return pos;
+    }
+
+    /** Estado de un grupo (distancia o categoría) durante {@link #publicar()}. */
+    private static final class Grupo {
+        int vistos;
+        int ultimaPosicion;
+        long ultimoTiempo;
+    }
+}
@@ -9,6 +9,8 @@ import java.util.Objects;
  * <p><b>Reglas de negocio / validaciones:</b></p>
  * <ul>
  *   <li>{@code tiempoIndividual} debe ser &ge; 0 (en segundos).</li>
+ *   <li>Internamente se guarda en milisegundos enteros: dos tiempos de chip iguales siempre comparan iguales
+ *       (los segundos con decimales se redondean al milisegundo más cercano).</li>
  *   <li>{@code posicionGeneral} y {@code posicionCategoria} deben ser &ge; 1 cuando existan; si no aplica aún, usar 0.</li>
  *   <li>No hay I/O de consola en esta entidad.</li>
  * </ul>
@@ -22,8 +24,8 @@ import java.util.Objects;
  */
 public class Tiempo implements Comparable<Tiempo> {
 
-    /** Tiempo total individual en segundos (&ge; 0). */
-    private double tiempoIndividual;
+    /** Tiempo total individual en milisegundos (&ge; 0). */
+    private long milisegundos;
 
     /** Posición general (1 = primero). Usar 0 mientras no esté asignada. */
     private int posicionGeneral;
@@ -45,6 +47,21 @@ public class Tiempo implements Comparable<Tiempo> {
         setPosicionCategoria(posicionCategoria);
     }
 
+    /**
+     * Crea un {@code Tiempo} a partir de milisegundos exactos.
+     *
+     * @param milisegundos      tiempo total en milisegundos (&ge; 0).
+     * @param posicionGeneral   posición general (&ge; 1) o 0 si no aplica aún.
+     * @param posicionCategoria posición por categoría (&ge; 1) o 0 si no aplica aún.
+     * @return el tiempo creado.
+     * @throws IllegalArgumentException si los parámetros violan las reglas de validación.
+     */
+    public static Tiempo deMilisegundos(long milisegundos, int posicionGeneral, int posicionCategoria) {
+        Tiempo t = new Tiempo(0, posicionGeneral, posicionCategoria);
+        t.setMilisegundos(milisegundos);
+        return t;
+    }
+
     // ------------------------------------------------------------
     // Getters / Setters (con validación)
     // ------------------------------------------------------------
@@ -53,20 +70,40 @@ public class Tiempo implements Comparable<Tiempo> {
      * @return tiempo total individual en segundos.
      */
     public double getTiempoIndividual() {
-        return tiempoIndividual;
+        return milisegundos / 1000.0;
     }
 
     /**
-     * Establece el tiempo total individual (en segundos).
+     * Establece el tiempo total individual (en segundos), redondeado al milisegundo.
      *
      * @param tiempoIndividual valor &ge; 0.
      * @throws IllegalArgumentException si {@code tiempoIndividual < 0}.
      */
     public void setTiempoIndividual(double tiempoIndividual) {
-        if (tiempoIndividual < 0) {
+        if (!(tiempoIndividual >= 0)) {
             throw new IllegalArgumentException("El tiempo individual debe ser >= 0 segundos.");
         }
-        this.tiempoIndividual = tiempoIndividual;
+        this.milisegundos = Math.round(tiempoIndividual * 1000.0);
+    }
+
+    /**
+     * @return tiempo total individual en milisegundos (valor exacto).
+     */
+    public long getMilisegundos() {
+        return milisegundos;
+    }
+
+    /**
+     * Establece el tiempo total individual en milisegundos.
+     *
+     * @param milisegundos valor &ge; 0.
+     * @throws IllegalArgumentException si {@code milisegundos < 0}.
+     */
+    public void setMilisegundos(long milisegundos) {
+        if (milisegundos < 0) {
+            throw new IllegalArgumentException("El tiempo individual debe ser >= 0 milisegundos.");
+        }
+        this.milisegundos = milisegundos;
     }
 
     /**
@@ -133,7 +170,17 @@ public class Tiempo implements Comparable<Tiempo> {
      * @return cadena formateada del tiempo individual.
      */
     public String getTiempoFormateado() {
-        return formatearSegundos(tiempoIndividual);
+        return formatearMilisegundos(milisegundos, new StringBuilder(12)).toString();
+    }
+
+    /**
+     * Escribe el tiempo como {@code HH:MM:SS.mmm} al final de {@code destino}, sin crear objetos intermedios.
+     *
+     * @param destino buffer reutilizable (no nulo).
+     * @return el mismo {@code destino}.
+     */
+    public StringBuilder formatearEn(StringBuilder destino) {
+        return formatearMilisegundos(milisegundos, destino);
     }
 
     /**
@@ -145,14 +192,39 @@ public class Tiempo implements Comparable<Tiempo> {
      */
     public static String formatearSegundos(double segundos) {
         if (segundos < 0) throw new IllegalArgumentException("Los segundos deben ser >= 0.");
-        long totalMillis = Math.round(segundos * 1000.0);
-        long hours = totalMillis / 3_600_000;
-        long rem = totalMillis % 3_600_000;
-        long minutes = rem / 60_000;
-        rem = rem % 60_000;
-        long secs = rem / 1000;
-        long millis = rem % 1000;
-        return String.format("%02d:%02d:%02d.%03d", hours, minutes, secs, millis);
+        return formatearMilisegundos(Math.round(segundos * 1000.0), new StringBuilder(12)).toString();
+    }
+
+    /**
+     * Escribe milisegundos como {@code HH:MM:SS.mmm} al final de {@code destino}, dígito a dígito
+     * (sin {@code String.format} ni objetos intermedios). Las horas usan al menos dos dígitos.
+     *
+     * @param milisegundos valor &ge; 0.
+     * @param destino      buffer reutilizable (no nulo).
+     * @return el mismo {@code destino}.
+     * @throws IllegalArgumentException si {@code milisegundos < 0}.
+     */
+    public static StringBuilder formatearMilisegundos(long milisegundos, StringBuilder destino) {
+        if (milisegundos < 0) throw new IllegalArgumentException("Los milisegundos deben ser >= 0.");
+        long horas = milisegundos / 3_600_000;
+        int resto = (int) (milisegundos % 3_600_000);
+        if (horas < 10) destino.append('0');
+        destino.append(horas).append(':');
+        agregarDigitos(destino, resto / 60_000, 2);
+        destino.append(':');
+        agregarDigitos(destino, (resto / 1000) % 60, 2);
+        destino.append('.');
+        agregarDigitos(destino, resto % 1000, 3);
+        return destino;
+    }
+
+    /**
+     * Agrega {@code valor} con exactamente {@code digitos} cifras (rellenando con ceros).
+     */
+    private static void agregarDigitos(StringBuilder destino, int valor, int digitos) {
+        for (int divisor = (digitos == 3) ? 100 : 10; divisor > 0; divisor /= 10) {
+            destino.append((char) ('0' + (valor / divisor) % 10));
+        }
     }
 
     // ------------------------------------------------------------
@@ -160,13 +232,13 @@ public class Tiempo implements Comparable<Tiempo> {
     // ------------------------------------------------------------
 
     /**
-     * Orden natural por {@code tiempoIndividual} ascendente.
+     * Orden natural por tiempo ascendente (exacto, en milisegundos).
      * @param o otro tiempo.
      * @return negativo/0/positivo según corresponda.
      */
     @Override
     public int compareTo(Tiempo o) {
-        return Double.compare(this.tiempoIndividual, o.tiempoIndividual);
+        return Long.compare(this.milisegundos, o.milisegundos);
     }
 
     /**
@@ -181,7 +253,7 @@ public class Tiempo implements Comparable<Tiempo> {
         if (this == o) return true;
         if (!(o instanceof Tiempo)) return false;
         Tiempo tiempo = (Tiempo) o;
-        return Double.compare(tiempo.tiempoIndividual, tiempoIndividual) == 0 &&
+        return milisegundos == tiempo.milisegundos &&
                posicionGeneral == tiempo.posicionGeneral &&
                posicionCategoria == tiempo.posicionCategoria;
     }
@@ -192,7 +264,7 @@ public class Tiempo implements Comparable<Tiempo> {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(tiempoIndividual, posicionGeneral, posicionCategoria);
+        return Objects.hash(milisegundos, posicionGeneral, posicionCategoria);
     }
 
     /**
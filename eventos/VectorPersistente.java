@@ -0,0 +1,218 @@
+package eventos;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * La clase {@code VectorPersistente} es una lista inmutable con compartición estructural
+ * (árbol de 32 ramas con cola, al estilo de los vectores persistentes de Clojure).
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>Cada modificación devuelve un vector nuevo y deja intacto el original.</li>
+ *   <li>Agregar, reemplazar y quitar el último copian solo el camino afectado: O(log<sub>32</sub> n).</li>
+ *   <li>Al ser inmutable, puede leerse desde cualquier hilo sin sincronización una vez publicado.</li>
+ *   <li>Los métodos mutadores de {@link java.util.List} lanzan {@link UnsupportedOperationException}.</li>
+ * </ul>
+ *
+ * @param <T> tipo de los elementos.
+ * @author
+ * @version 1.0
+ */
+final class VectorPersistente<T> extends AbstractList<T> implements RandomAccess {
+
+    /** Bits por nivel del árbol (32 ramas). */
+    private static final int BITS = 5;
+
+    /** Ancho de cada nodo. */
+    private static final int ANCHO = 1 << BITS;
+
+    /** Máscara para el índice dentro de un nodo. */
+    private static final int MASCARA = ANCHO - 1;
+
+    /** Nodo raíz vacío compartido. */
+    private static final Object[] NODO_VACIO = new Object[ANCHO];
+
+    /** Vector vacío compartido. */
+    private static final VectorPersistente<?> VACIO = new VectorPersistente<>(0, BITS, NODO_VACIO, new Object[0]);
+
+    /** Cantidad de elementos. */
+    private final int cantidad;
+
+    /** Desplazamiento del nivel raíz (múltiplo de {@link #BITS}). */
+    private final int nivel;
+
+    /** Raíz del árbol (contiene todos los elementos salvo la cola). */
+    private final Object[] raiz;
+
+    /** Últimos elementos (hasta 32), fuera del árbol para que agregar sea barato. */
+    private final Object[] cola;
+
+    private VectorPersistente(int cantidad, int nivel, Object[] raiz, Object[] cola) {
+        this.cantidad = cantidad;
+        this.nivel = nivel;
+        this.raiz = raiz;
+        this.cola = cola;
+    }
+
+    /**
+     * @param <T> tipo de los elementos.
+     * @return el vector vacío.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> VectorPersistente<T> vacio() {
+        return (VectorPersistente<T>) VACIO;
+    }
+
+    // ------------------------------------------------------------
+    // Lectura
+    // ------------------------------------------------------------
+
+    @Override
+    public int size() { return cantidad; }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int i) {
+        if (i < 0 || i >= cantidad) throw new IndexOutOfBoundsException("Índice fuera de rango: " + i);
+        return (T) hojaDe(i)[i & MASCARA];
+    }
+
+    // ------------------------------------------------------------
+    // "Modificación" (devuelve un vector nuevo)
+    // ------------------------------------------------------------
+
+    /**
+     * Devuelve un vector con {@code x} agregado al final.
+     * @param x elemento a agregar.
+     * @return vector nuevo.
+     */
+    VectorPersistente<T> agregar(T x) {
+        if (cantidad - inicioCola() < ANCHO) {
+            Object[] nuevaCola = Arrays.copyOf(cola, cola.length + 1);
+            nuevaCola[cola.length] = x;
+            return new VectorPersistente<>(cantidad + 1, nivel, raiz, nuevaCola);
+        }
+        // La cola está llena: se inserta en el árbol y se empieza una cola nueva.
+        Object[] nuevaRaiz;
+        int nuevoNivel = nivel;
+        if ((cantidad >>> BITS) > (1 << nivel)) {
+            nuevaRaiz = new Object[ANCHO];
+            nuevaRaiz[0] = raiz;
+            nuevaRaiz[1] = nuevoCamino(nivel, cola);
+            nuevoNivel += BITS;
+        } else {
+            nuevaRaiz = empujarCola(nivel, raiz, cola);
+        }
+        return new VectorPersistente<>(cantidad + 1, nuevoNivel, nuevaRaiz, new Object[]{x});
+    }
+
+    /**
+     * Devuelve un vector con la posición {@code i} reemplazada por {@code x}.
+     * @param i índice (0 &le; i &lt; size).
+     * @param x nuevo elemento.
+     * @return vector nuevo.
+     */
+    VectorPersistente<T> reemplazar(int i, T x) {
+        if (i < 0 || i >= cantidad) throw new IndexOutOfBoundsException("Índice fuera de rango: " + i);
+        if (i >= inicioCola()) {
+            Object[] nuevaCola = cola.clone();
+            nuevaCola[i & MASCARA] = x;
+            return new VectorPersistente<>(cantidad, nivel, raiz, nuevaCola);
+        }
+        return new VectorPersistente<>(cantidad, nivel, reemplazarEn(nivel, raiz, i, x), cola);
+    }
+
+    /**
+     * Devuelve un vector sin su último elemento.
+     * @return vector nuevo.
+     * @throws IllegalStateException si el vector está vacío.
+     */
+    VectorPersistente<T> quitarUltimo() {
+        if (cantidad == 0) throw new IllegalStateException("El vector está vacío.");
+        if (cantidad == 1) return vacio();
+        if (cantidad - inicioCola() > 1) {
+            return new VectorPersistente<>(cantidad - 1, nivel, raiz, Arrays.copyOf(cola, cola.length - 1));
+        }
+        // La cola queda vacía: la última hoja del árbol pasa a ser la cola.
+        Object[] nuevaCola = hojaDe(cantidad - 2);
+        Object[] nuevaRaiz = sacarCola(nivel, raiz);
+        int nuevoNivel = nivel;
+        if (nuevaRaiz == null) nuevaRaiz = NODO_VACIO;
+        if (nivel > BITS && nuevaRaiz[1] == null) {
+            nuevaRaiz = (Object[]) nuevaRaiz[0];
+            nuevoNivel -= BITS;
+        }
+        return new VectorPersistente<>(cantidad - 1, nuevoNivel, nuevaRaiz, nuevaCola);
+    }
+
+    // ------------------------------------------------------------
+    // Utilidades internas del árbol
+    // ------------------------------------------------------------
+
+    /** @return índice del primer elemento que vive en la cola. */
+    private int inicioCola() {
+        return (cantidad < ANCHO) ? 0 : ((cantidad - 1) >>> BITS) << BITS;
+    }
+
+    /**
+     * @param i índice válido.
+     * @return la hoja (arreglo de hasta 32) que contiene el índice.
+     */
+    private Object[] hojaDe(int i) {
+        if (i >= inicioCola()) return cola;
+        Object[] nodo = raiz;
+        for (int n = nivel; n > 0; n -= BITS) {
+            nodo = (Object[]) nodo[(i >>> n) & MASCARA];
+        }
+        return nodo;
+    }
+
+    private Object[] empujarCola(int n, Object[] padre, Object[] hoja) {
+        int sub = ((cantidad - 1) >>> n) & MASCARA;
+        Object[] copia = padre.clone();
+        Object[] insertar;
+        if (n == BITS) {
+            insertar = hoja;
+        } else {
+            Object[] hijo = (Object[]) padre[sub];
+            insertar = (hijo != null) ? empujarCola(n - BITS, hijo, hoja) : nuevoCamino(n - BITS, hoja);
+        }
+        copia[sub] = insertar;
+        return copia;
+    }
+
+    private static Object[] nuevoCamino(int n, Object[] hoja) {
+        if (n == 0) return hoja;
+        Object[] nodo = new Object[ANCHO];
+        nodo[0] = nuevoCamino(n - BITS, hoja);
+        return nodo;
+    }
+
+    private static Object[] reemplazarEn(int n, Object[] nodo, int i, Object x) {
+        Object[] copia = nodo.clone();
+        if (n == 0) {
+            copia[i & MASCARA] = x;
+        } else {
+            int sub = (i >>> n) & MASCARA;
+            copia[sub] = reemplazarEn(n - BITS, (Object[]) nodo[sub], i, x);
+        }
+        return copia;
+    }
+
+    private Object[] sacarCola(int n, Object[] nodo) {
+        int sub = ((cantidad - 2) >>> n) & MASCARA;
+        if (n > BITS) {
+            Object[] hijo = sacarCola(n - BITS, (Object[]) nodo[sub]);
+            if (hijo == null && sub == 0) return null;
+            Object[] copia = nodo.clone();
+            copia[sub] = hijo;
+            return copia;
+        }
+        if (sub == 0) return null;
+        Object[] copia = nodo.clone();
+        copia[sub] = null;
+        return copia;
+    }
+}
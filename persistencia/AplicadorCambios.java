@@ -0,0 +1,246 @@
+package persistencia;
+
+import chats.ChatGeneral;
+import chats.MensajeriaDirecta;
+import eventos.Evento;
+import eventos.Inscripcion;
+import usuarios.Administrador;
+import usuarios.Corredor;
+import usuarios.Usuario;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * La clase {@code AplicadorCambios} reproduce los registros de un {@link DiarioCambios} sobre las
+ * estructuras de la aplicación ({@link EstadoAplicacion}), en el orden en que se escribieron.
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>Usuarios, eventos e inscripciones se crean si no existen o se actualizan con los datos del registro.</li>
+ *   <li>Las remociones y las salidas de la lista de espera no hacen nada si ya se aplicaron. Una inscripción
+ *       nueva retira además la solicitud en espera con su id, por si el corte dejó su salida sin registrar.</li>
+ *   <li>Las inscripciones se agregan al evento y al corredor con el mismo orden de bloqueo que
+ *       {@link Administrador} (corredor → evento) y avanzan de estado con sus transiciones normales.</li>
+ *   <li>Un registro que no puede aplicarse (p. ej., referencia un evento inexistente) aborta la
+ *       reproducción con {@link IOException}.</li>
+ *   <li>Sin I/O de consola.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+final class AplicadorCambios {
+
+    /** Estructuras destino. */
+    private final EstadoAplicacion estado;
+
+    /** Registros aplicados. */
+    private long aplicados;
+
+    /** Entrada reutilizada para decodificar cada registro. */
+    private final CodecBinario.Entrada entrada = new CodecBinario.Entrada();
+
+    /**
+     * @param estado estructuras destino.
+     */
+    AplicadorCambios(EstadoAplicacion estado) {
+        this.estado = estado;
+    }
+
+    /** @return cantidad de registros aplicados. */
+    long getAplicados() { return aplicados; }
+
+    /**
+     * Aplica un registro.
+     * @param tipo  tipo del registro.
+     * @param datos datos del registro.
+     * @throws IOException si el registro es inválido o no puede aplicarse.
+     */
+    void aplicar(byte tipo, ByteBuffer datos) throws IOException {
+        entrada.reiniciar(datos);
+        CodecBinario.Entrada e = entrada;
+        try {
+            switch (tipo) {
+                case DiarioCambios.USUARIO -> aplicarUsuario(e);
+                case DiarioCambios.EVENTO -> aplicarEvento(e);
+                case DiarioCambios.INSCRIPCION -> aplicarInscripcion(e);
+                case DiarioCambios.EN_ESPERA -> aplicarEnEspera(e);
+                case DiarioCambios.TIEMPO -> aplicarTiempo(e);
+                case DiarioCambios.PARCIAL -> aplicarParcial(e);
+                case DiarioCambios.PARTICIPANTE -> aplicarParticipante(e);
+                case DiarioCambios.MENSAJE_CHAT -> aplicarMensajeChat(e);
+                case DiarioCambios.CONVERSACION -> aplicarConversacion(e);
+                case DiarioCambios.MENSAJE_DIRECTO -> aplicarMensajeDirecto(e);
+                case DiarioCambios.REMOCION -> aplicarRemocion(e);
+                case DiarioCambios.SALIDA_ESPERA -> aplicarSalidaEspera(e);
+                default -> throw new IOException("Tipo de registro desconocido: " + tipo);
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException | IllegalStateException ex) {
+            throw new IOException("Registro de tipo " + tipo + " inválido (registro " + (aplicados + 1) + "): "
+                    + ex.getMessage(), ex);
+        }
+        aplicados++;
+    }
+
+    // ------------------------------------------------------------
+    // Usuarios y eventos
+    // ------------------------------------------------------------
+
+    private void aplicarUsuario(CodecBinario.Entrada e) {
+        Usuario leido = CodecBinario.leerUsuario(e);
+        Usuario u = estado.getUsuarios().get(leido.getId());
+        if (u == null) {
+            estado.getUsuarios().put(leido.getId(), leido);
+            return;
+        }
+        if (CodecBinario.claseDe(u) != CodecBinario.claseDe(leido)) {
+            throw new IllegalStateException("El usuario " + u.getId() + " cambió de tipo.");
+        }
+        u.actualizarDatos(leido.getNombre(), leido.getTelefono(), leido.getCorreo());
+        if (u instanceof Administrador) {
+            ((Administrador) u).setRol(((Administrador) leido).getRol());
+        } else if (u instanceof Corredor) {
+            Corredor c = (Corredor) u;
+            Corredor l = (Corredor) leido;
+            c.setEdad(l.getEdad());
+            c.setNombreContactoEmergencia(l.getNombreContactoEmergencia());
+            c.setParentescoContactoEmergencia(l.getParentescoContactoEmergencia());
+            c.setTelefonoContactoEmergencia(l.getTelefonoContactoEmergencia());
+        }
+    }
+
+    private void aplicarEvento(CodecBinario.Entrada e) {
+        Evento leido = CodecBinario.leerEvento(e);
+        Evento.EstadoEvento estadoEvento = e.enumerado(Evento.EstadoEvento.values());
+        Evento ev = estado.getEventos().obtener(leido.getId());
+        if (ev == null) {
+            ev = leido;
+            estado.getEventos().agregar(ev);
+        } else {
+            ev.setNombre(leido.getNombre());
+            ev.setFecha(leido.getFecha());
+            ev.setDescripcion(leido.getDescripcion());
+        }
+        if (ev.getEstado() != estadoEvento) ev.setEstado(estadoEvento);
+    }
+
+    // ------------------------------------------------------------
+    // Inscripciones y tiempos
+    // ------------------------------------------------------------
+
+    private void aplicarInscripcion(CodecBinario.Entrada e) {
+        Evento ev = evento(e.natural());
+        Inscripcion leida = CodecBinario.leerInscripcion(e, ev, estado.getUsuarios());
+        Inscripcion ins = ev.buscarInscripcionPorId(leida.getId());
+        if (ins == null) {
+            Corredor corredor = leida.getCorredor();
+            synchronized (corredor) {
+                ev.agregarInscripcion(leida);
+                corredor.agregarInscripcion(leida);
+            }
+            // Si venía de la lista de espera y el corte llegó antes de registrar su salida
+            if (ev.hayEnEspera(leida.getDistancia())) ev.retirarDeEspera(leida.getDistancia(), leida.getId());
+            return;
+        }
+        if (ins.getCorredor() != leida.getCorredor()) {
+            throw new IllegalStateException("La inscripción " + ins.getId() + " cambió de corredor.");
+        }
+        if (ins.getDistancia() != leida.getDistancia()) ins.setDistancia(leida.getDistancia());
+        if (ins.getTalla() != leida.getTalla()) ins.setTalla(leida.getTalla());
+        if (ins.getNumeroDorsal() != leida.getNumeroDorsal()) ins.setNumeroDorsal(leida.getNumeroDorsal());
+        if (ins.getCategoria() != leida.getCategoria()) ins.setCategoria(leida.getCategoria());
+        Inscripcion.Estado estadoIns = leida.getEstado();
+        if (ins.getEstado().ordinal() > estadoIns.ordinal()) {
+            throw new IllegalStateException("La inscripción " + ins.getId() + " no puede volver a " + estadoIns + ".");
+        }
+        while (ins.getEstado() != estadoIns) {
+            if (ins.getEstado() == Inscripcion.Estado.PENDIENTE) ins.confirmarPago();
+            else ins.confirmarInscripcion();
+        }
+    }
+
+    private void aplicarEnEspera(CodecBinario.Entrada e) {
+        Evento ev = evento(e.natural());
+        ev.encolarEnEspera(CodecBinario.leerSolicitud(e, ev, estado.getUsuarios()));
+    }
+
+    private void aplicarRemocion(CodecBinario.Entrada e) {
+        Evento ev = evento(e.natural());
+        Inscripcion ins = ev.buscarInscripcionPorId(e.natural());
+        if (ins == null) return; // ya removida
+        Corredor corredor = ins.getCorredor();
+        synchronized (corredor) {
+            ev.removerInscripcionPorId(ins.getId());
+            corredor.removerInscripcion(ins);
+        }
+    }
+
+    private void aplicarSalidaEspera(CodecBinario.Entrada e) {
+        Evento ev = evento(e.natural());
+        Inscripcion.Distancia distancia = e.enumerado(Inscripcion.Distancia.values());
+        ev.retirarDeEspera(distancia, e.natural()); // sin efecto si ya salió
+    }
+
+    private void aplicarTiempo(CodecBinario.Entrada e) {
+        Evento ev = evento(e.natural());
+        Inscripcion ins = inscripcion(ev, e.natural());
+        // Las posiciones guardadas se recalculan al clasificar
+        ev.getRanking().registrar(ins, CodecBinario.leerTiempo(e));
+    }
+
+    private void aplicarParcial(CodecBinario.Entrada e) {
+        Evento ev = evento(e.natural());
+        Inscripcion ins = inscripcion(ev, e.natural());
+        int punto = e.natural();
+        ev.getParciales().registrar(ins, punto, e.largo());
+    }
+
+    // ------------------------------------------------------------
+    // Chats
+    // ------------------------------------------------------------
+
+    private void aplicarParticipante(CodecBinario.Entrada e) {
+        Usuario u = CodecBinario.usuario(estado.getUsuarios(), e.natural());
+        ChatGeneral chat = estado.getChatGeneral();
+        if (e.octeto() != 0) chat.agregarParticipante(u);
+        else chat.eliminarParticipante(u);
+    }
+
+    private void aplicarMensajeChat(CodecBinario.Entrada e) {
+        ChatGeneral.Mensaje m = CodecBinario.leerMensajeChat(e, estado.getUsuarios());
+        estado.getChatGeneral().enviarMensaje(m.getRemitente(), m.getTexto(), m.getFecha());
+    }
+
+    private void aplicarConversacion(CodecBinario.Entrada e) {
+        int id = e.natural();
+        Usuario a = CodecBinario.usuario(estado.getUsuarios(), e.natural());
+        Usuario b = CodecBinario.usuario(estado.getUsuarios(), e.natural());
+        estado.getConversaciones().putIfAbsent(id, new MensajeriaDirecta(id, a, b));
+    }
+
+    private void aplicarMensajeDirecto(CodecBinario.Entrada e) {
+        int id = e.natural();
+        MensajeriaDirecta dm = estado.getConversaciones().get(id);
+        if (dm == null) throw new IllegalStateException("No existe la conversación " + id + ".");
+        MensajeriaDirecta.Mensaje m = CodecBinario.leerMensajeDirecto(e, estado.getUsuarios());
+        dm.enviarMensaje(m.getRemitente(), m.getTexto(), m.getFecha());
+    }
+
+    // ------------------------------------------------------------
+    // Búsquedas
+    // ------------------------------------------------------------
+
+    private Evento evento(int id) {
+        Evento ev = estado.getEventos().obtener(id);
+        if (ev == null) throw new IllegalStateException("No existe el evento " + id + ".");
+        return ev;
+    }
+
+    private static Inscripcion inscripcion(Evento ev, int id) {
+        Inscripcion ins = ev.buscarInscripcionPorId(id);
+        if (ins == null) throw new IllegalStateException("No existe la inscripción " + id + " en el evento " + ev.getId() + ".");
+        return ins;
+    }
+}
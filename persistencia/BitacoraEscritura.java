@@ -0,0 +1,328 @@
+package persistencia;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * La clase {@code BitacoraEscritura} es un archivo de solo agregado (write-ahead log) con registros
+ * binarios y <i>group commit</i>: los registros se acumulan en memoria y un hilo escritor los vuelca
+ * juntos con una sola sincronización a disco ({@code fsync}) por grupo.
+ *
+ * <p><b>Formato de cada registro:</b> {@code [int largo][int crc32c][byte tipo][largo bytes de datos]};
+ * el CRC cubre el tipo y los datos.</p>
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>{@link #agregar} no bloquea por el disco: devuelve la posición (en bytes) del archivo en la que
+ *       termina el registro. {@link #esperar(long)} bloquea hasta que esa posición es durable, y
+ *       {@link #sincronizar()} hasta que lo es todo lo agregado.</li>
+ *   <li>Mientras el escritor sincroniza un grupo, los registros nuevos forman el siguiente: con muchos
+ *       cambios seguidos (importaciones, lecturas de chip) miles de registros comparten un {@code fsync}.</li>
+ *   <li>Al abrir, los registros existentes se entregan en orden a un {@link Lector}; un final incompleto
+ *       o con CRC inválido (corte durante una escritura) se descarta y se trunca.</li>
+ *   <li>Segura para hilos. Sin I/O de consola.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+public final class BitacoraEscritura implements Closeable {
+
+    /** Bytes de cabecera de cada registro (largo, CRC y tipo). */
+    static final int CABECERA = 9;
+
+    /** Largo máximo de los datos de un registro. */
+    public static final int MAXIMO_REGISTRO = 16 << 20;
+
+    /** Capacidad inicial de cada búfer de grupo. */
+    private static final int TAMANIO_BUFER = 64 << 10;
+
+    /**
+     * Receptor de los registros existentes al abrir la bitácora.
+     */
+    @FunctionalInterface
+    public interface Lector {
+        /**
+         * @param tipo  tipo del registro.
+         * @param datos datos del registro (posición al inicio, límite al final).
+         * @throws IOException si el registro no puede interpretarse (se aborta la apertura).
+         */
+        void leer(byte tipo, ByteBuffer datos) throws IOException;
+    }
+
+    /** Canal del archivo. */
+    private final FileChannel canal;
+
+    /** Registros agregados que esperan al escritor (protegido por {@code this}). */
+    private ByteBuffer pendiente = ByteBuffer.allocate(TAMANIO_BUFER);
+
+    /** Búfer que está volcando el escritor (se intercambia con {@link #pendiente}). */
+    private ByteBuffer enEscritura = ByteBuffer.allocate(TAMANIO_BUFER);
+
+    /** Posición del archivo al final del último registro agregado. */
+    private long posicionAgregada;
+
+    /** Posición del archivo hasta la que todo es durable. */
+    private long posicionDurable;
+
+    /** Cantidad de sincronizaciones a disco realizadas. */
+    private long sincronizaciones;
+
+    /** Falla del escritor (a partir de ella no se aceptan registros). */
+    private IOException falla;
+
+    /** Indica que se pidió cerrar la bitácora. */
+    private boolean cerrada;
+
+    /** CRC reutilizado por {@link #agregar} (protegido por {@code this}). */
+    private final CRC32C crc = new CRC32C();
+
+    /** Hilo que vuelca y sincroniza los grupos. */
+    private final Thread escritor;
+
+    private BitacoraEscritura(FileChannel canal, long posicion) {
+        this.canal = canal;
+        this.posicionAgregada = posicion;
+        this.posicionDurable = posicion;
+        this.escritor = new Thread(this::escribirGrupos, "bitacora-escritura");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    /**
+     * Abre (o crea) una bitácora, entrega sus registros a {@code lector} y la deja lista para agregar al final.
+     * @param archivo ruta del archivo (no nula).
+     * @param lector  receptor de los registros existentes (o {@code null} para no leerlos).
+     * @return bitácora abierta.
+     * @throws IOException si el archivo no puede leerse o el lector rechaza un registro.
+     */
+    public static BitacoraEscritura abrir(Path archivo, Lector lector) throws IOException {
+        if (archivo == null) throw new IllegalArgumentException("El archivo no puede ser nulo.");
+        FileChannel canal = FileChannel.open(archivo,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long fin = leerRegistros(canal, lector);
+            if (fin < canal.size()) {
+                canal.truncate(fin);
+                canal.force(true);
+            }
+            canal.position(fin);
+            return new BitacoraEscritura(canal, fin);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Lee los registros válidos de una bitácora sin abrirla para escritura.
+     * @param archivo ruta del archivo (si no existe, no hay registros).
+     * @param lector  receptor de los registros (no nulo).
+     * @return posición del final del último registro válido.
+     * @throws IOException si el archivo no puede leerse o el lector rechaza un registro.
+     */
+    public static long leer(Path archivo, Lector lector) throws IOException {
+        if (!Files.exists(archivo)) return 0;
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            return leerRegistros(canal, lector);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Escritura
+    // ------------------------------------------------------------
+
+    /**
+     * Agrega un registro al grupo en curso, sin esperar al disco.
+     * @param tipo  tipo del registro.
+     * @param datos arreglo con los datos.
+     * @param desde posición inicial en {@code datos}.
+     * @param largo cantidad de bytes (&le; {@link #MAXIMO_REGISTRO}).
+     * @return posición del archivo al final del registro (para {@link #esperar(long)}).
+     * @throws IllegalArgumentException si el largo es inválido.
+     * @throws IllegalStateException si la bitácora está cerrada o el escritor falló.
+     */
+    public synchronized long agregar(byte tipo, byte[] datos, int desde, int largo) {
+        if (largo < 0 || largo > MAXIMO_REGISTRO) throw new IllegalArgumentException("Largo de registro inválido: " + largo);
+        if (cerrada) throw new IllegalStateException("La bitácora está cerrada.");
+        if (falla != null) throw new IllegalStateException("La bitácora dejó de escribir: " + falla.getMessage(), falla);
+        if (pendiente.remaining() < CABECERA + largo) pendiente = agrandar(pendiente, CABECERA + largo);
+        crc.reset();
+        crc.update(tipo);
+        crc.update(datos, desde, largo);
+        boolean estabaVacio = pendiente.position() == 0;
+        pendiente.putInt(largo).putInt((int) crc.getValue()).put(tipo).put(datos, desde, largo);
+        posicionAgregada += CABECERA + largo;
+        if (estabaVacio) notifyAll();
+        return posicionAgregada;
+    }
+
+    /**
+     * Bloquea hasta que el archivo es durable al menos hasta {@code posicion}.
+     * @param posicion posición devuelta por {@link #agregar}.
+     * @throws IOException si el escritor falló.
+     */
+    public synchronized void esperar(long posicion) throws IOException {
+        boolean interrumpido = false;
+        while (posicionDurable < posicion && falla == null) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrumpido = true;
+            }
+        }
+        if (interrumpido) Thread.currentThread().interrupt();
+        if (posicionDurable < posicion) throw new IOException("No se pudo escribir la bitácora.", falla);
+    }
+
+    /**
+     * Bloquea hasta que todo lo agregado es durable.
+     * @throws IOException si el escritor falló.
+     */
+    public void sincronizar() throws IOException {
+        long hasta;
+        synchronized (this) {
+            hasta = posicionAgregada;
+        }
+        esperar(hasta);
+    }
+
+    /** @return posición del archivo al final del último registro agregado. */
+    public synchronized long getPosicion() { return posicionAgregada; }
+
+    /** @return cantidad de sincronizaciones a disco realizadas (grupos volcados). */
+    public synchronized long getSincronizaciones() { return sincronizaciones; }
+
+    /**
+     * Vuelca lo pendiente, detiene el escritor y cierra el archivo.
+     * @throws IOException si el último volcado o el cierre fallan.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (cerrada) return;
+            cerrada = true;
+            notifyAll();
+        }
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        canal.close();
+        synchronized (this) {
+            if (falla != null) throw new IOException("No se pudo escribir la bitácora.", falla);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Utilidades internas
+    // ------------------------------------------------------------
+
+    /** Bucle del hilo escritor: toma el grupo pendiente, lo escribe y sincroniza una sola vez. */
+    private void escribirGrupos() {
+        while (true) {
+            ByteBuffer grupo;
+            long hasta;
+            synchronized (this) {
+                while (pendiente.position() == 0 && !cerrada) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        // Solo se termina al cerrar
+                    }
+                }
+                if (pendiente.position() == 0) return;
+                grupo = pendiente;
+                pendiente = enEscritura;
+                enEscritura = grupo;
+                hasta = posicionAgregada;
+            }
+            try {
+                grupo.flip();
+                while (grupo.hasRemaining()) canal.write(grupo);
+                canal.force(false);
+                grupo.clear();
+            } catch (IOException e) {
+                synchronized (this) {
+                    falla = e;
+                    notifyAll();
+                }
+                return;
+            }
+            synchronized (this) {
+                posicionDurable = hasta;
+                sincronizaciones++;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Lee registros desde el inicio del canal hasta el primero incompleto o inválido.
+     * @param canal  canal abierto para lectura.
+     * @param lector receptor (o {@code null}).
+     * @return posición del final del último registro válido.
+     */
+    private static long leerRegistros(FileChannel canal, Lector lector) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(1 << 20);
+        CRC32C verificador = new CRC32C();
+        long posicion = 0;
+        canal.position(0);
+        boolean fin = false;
+        while (!fin) {
+            fin = canal.read(buf) < 0;
+            buf.flip();
+            int necesario = 0;
+            while (buf.remaining() >= CABECERA) {
+                int inicio = buf.position();
+                int largo = buf.getInt(inicio);
+                if (largo < 0 || largo > MAXIMO_REGISTRO) return posicion;
+                if (buf.remaining() < CABECERA + largo) {
+                    necesario = CABECERA + largo;
+                    break;
+                }
+                int esperado = buf.getInt(inicio + 4);
+                byte tipo = buf.get(inicio + 8);
+                ByteBuffer datos = buf.duplicate();
+                datos.limit(inicio + CABECERA + largo).position(inicio + CABECERA);
+                verificador.reset();
+                verificador.update(tipo);
+                verificador.update(datos.duplicate());
+                if ((int) verificador.getValue() != esperado) return posicion;
+                if (lector != null) lector.leer(tipo, datos.slice());
+                buf.position(inicio + CABECERA + largo);
+                posicion += CABECERA + largo;
+            }
+            if (necesario > buf.capacity()) {
+                // Registro más grande que el búfer: se pasa lo leído a uno mayor
+                ByteBuffer mayor = ByteBuffer.allocate(Integer.highestOneBit(necesario) << 1);
+                mayor.put(buf);
+                buf = mayor;
+            } else {
+                buf.compact();
+            }
+        }
+        return posicion;
+    }
+
+    /**
+     * @param buf   búfer en modo escritura.
+     * @param extra bytes que deben caber.
+     * @return búfer nuevo con el contenido de {@code buf} y lugar para {@code extra} bytes más.
+     */
+    private static ByteBuffer agrandar(ByteBuffer buf, int extra) {
+        int capacidad = buf.capacity();
+        while (capacidad - buf.position() < extra) capacidad *= 2;
+        ByteBuffer nuevo = ByteBuffer.allocate(capacidad);
+        buf.flip();
+        nuevo.put(buf);
+        return nuevo;
+    }
+}
@@ -0,0 +1,628 @@
+package persistencia;
+
+import chats.ChatGeneral;
+import chats.MensajeriaDirecta;
+import eventos.Categoria;
+import eventos.Evento;
+import eventos.Inscripcion;
+import eventos.SolicitudInscripcion;
+import eventos.Tiempo;
+import usuarios.Administrador;
+import usuarios.Corredor;
+import usuarios.Usuario;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * La clase {@code CodecBinario} es el formato binario compacto de las entidades del modelo (usuarios,
+ * categorías, eventos, inscripciones, solicitudes en espera, tiempos y mensajes), compartido por la
+ * bitácora de cambios ({@link DiarioCambios}) y las instantáneas ({@link InstantaneaDatos}).
+ *
+ * <p><b>Codificación:</b></p>
+ * <ul>
+ *   <li>Ids, cantidades y posiciones como <i>varint</i> sin signo (7 bits por byte); enteros que pueden
+ *       ser negativos y milisegundos como <i>varint</i> zigzag.</li>
+ *   <li>Enumerados ({@code Distancia}, {@code Talla}, {@code Estado}, {@code EstadoEvento}) como su ordinal
+ *       en un byte; fechas como milisegundos desde la época.</li>
+ *   <li>Textos como largo en bytes UTF-8 más los bytes. Los textos que se repiten mucho (nombres,
+ *       parentescos, roles, categorías) pasan por una tabla compartida: la primera vez van completos y las
+ *       siguientes como índice de la tabla. La tabla vive mientras vive la {@link Salida}/{@link Entrada}
+ *       (un registro de bitácora o una instantánea entera) y tiene un tope de {@link #MAXIMO_TABLA} textos.</li>
+ *   <li>Sin reflexión: cada entidad tiene su par escribir/leer y la lectura devuelve objetos iguales a los
+ *       escritos. Lo que depende del contexto (evento de una inscripción, estado de un evento) lo escribe
+ *       quien llama.</li>
+ * </ul>
+ *
+ * <p><b>Reglas/consideraciones:</b> {@link Salida} y {@link Entrada} no son seguras para hilos. Una lectura
+ * inconsistente lanza {@link IllegalStateException} o {@link BufferUnderflowException}. Sin I/O de
+ * consola.</p>
+ *
+ * @author
+ * @version 1.0
+ */
+public final class CodecBinario {
+
+    /** Cantidad máxima de textos en la tabla compartida. */
+    public static final int MAXIMO_TABLA = 1 << 16;
+
+    /** Largo máximo (en caracteres) de un texto que entra a la tabla compartida. */
+    private static final int MAXIMO_TEXTO_TABLA = 64;
+
+    // Marcas de texto en la tabla compartida (los índices van desplazados en 2)
+    private static final int TEXTO_NULO = 0;
+    private static final int TEXTO_NUEVO = 1;
+
+    // Clases de usuario
+    static final byte CLASE_USUARIO = 0;
+    static final byte CLASE_ADMINISTRADOR = 1;
+    static final byte CLASE_CORREDOR = 2;
+
+    private CodecBinario() { }
+
+    // ------------------------------------------------------------
+    // Usuarios
+    // ------------------------------------------------------------
+
+    /**
+     * Escribe un usuario con su clase y todos sus datos.
+     * @param s destino.
+     * @param u usuario (no nulo).
+     */
+    public static void escribirUsuario(Salida s, Usuario u) {
+        s.octeto(claseDe(u));
+        s.natural(u.getId());
+        s.textoRepetido(u.getNombre());
+        s.texto(u.getTelefono());
+        s.texto(u.getCorreo());
+        if (u instanceof Administrador) {
+            s.textoRepetido(((Administrador) u).getRol());
+        } else if (u instanceof Corredor) {
+            Corredor c = (Corredor) u;
+            s.entero(c.getEdad());
+            s.textoRepetido(c.getNombreContactoEmergencia());
+            s.textoRepetido(c.getParentescoContactoEmergencia());
+            s.texto(c.getTelefonoContactoEmergencia());
+        }
+    }
+
+    /**
+     * @param e origen.
+     * @return usuario nuevo con los datos leídos (de la misma clase que el escrito).
+     */
+    public static Usuario leerUsuario(Entrada e) {
+        byte clase = e.octeto();
+        int id = e.natural();
+        String nombre = e.textoRepetido();
+        String telefono = e.texto();
+        String correo = e.texto();
+        switch (clase) {
+            case CLASE_ADMINISTRADOR:
+                return new Administrador(id, nombre, telefono, correo, e.textoRepetido());
+            case CLASE_CORREDOR:
+                Corredor c = new Corredor(id, nombre, "", "");
+                // El constructor de Corredor recibe teléfono y correo en otro orden: se fijan explícitamente
+                c.setTelefono(telefono);
+                c.setCorreo(correo);
+                c.setEdad((byte) e.entero());
+                c.setNombreContactoEmergencia(e.textoRepetido());
+                c.setParentescoContactoEmergencia(e.textoRepetido());
+                c.setTelefonoContactoEmergencia(e.texto());
+                return c;
+            case CLASE_USUARIO:
+                return new Usuario(id, nombre, telefono, correo);
+            default:
+                throw new IllegalStateException("Clase de usuario desconocida: " + clase);
+        }
+    }
+
+    /**
+     * @param u usuario.
+     * @return clase con la que se codifica.
+     */
+    static byte claseDe(Usuario u) {
+        if (u instanceof Administrador) return CLASE_ADMINISTRADOR;
+        if (u instanceof Corredor) return CLASE_CORREDOR;
+        return CLASE_USUARIO;
+    }
+
+    // ------------------------------------------------------------
+    // Eventos y categorías
+    // ------------------------------------------------------------
+
+    /**
+     * @param s destino.
+     * @param c categoría (no nula).
+     */
+    public static void escribirCategoria(Salida s, Categoria c) {
+        s.natural(c.getId());
+        s.textoRepetido(c.getNombre());
+        s.natural(c.getEdadMin());
+        s.natural(c.getEdadMax());
+    }
+
+    /**
+     * @param e origen.
+     * @return categoría nueva con los datos leídos.
+     */
+    public static Categoria leerCategoria(Entrada e) {
+        return new Categoria(e.natural(), e.textoRepetido(), e.natural(), e.natural());
+    }
+
+    /**
+     * Escribe los datos y la configuración de un evento: nombre, fecha, descripción, categorías y, por
+     * distancia, cupo, rango de dorsales y puntos de control; además el tamaño de podio. No escribe el
+     * estado ni las inscripciones.
+     * @param s  destino.
+     * @param ev evento (no nulo).
+     */
+    public static void escribirEvento(Salida s, Evento ev) {
+        s.natural(ev.getId());
+        s.textoRepetido(ev.getNombre());
+        s.instante(ev.getFecha());
+        s.texto(ev.getDescripcion());
+        List<Categoria> categorias = ev.getCategorias();
+        s.natural(categorias.size());
+        for (Categoria c : categorias) escribirCategoria(s, c);
+        for (Inscripcion.Distancia d : Inscripcion.Distancia.values()) {
+            s.natural(ev.getCupo(d));
+            s.natural(ev.getDorsalDesde(d));
+            s.natural(ev.getDorsalHasta(d));
+            double[] puntos = ev.getParciales().getPuntos(d);
+            s.natural(puntos.length);
+            for (double km : puntos) s.real(km);
+        }
+        s.natural(ev.getRanking().getTamanioPodio());
+    }
+
+    /**
+     * @param e origen.
+     * @return evento nuevo (en su estado inicial, sin inscripciones) con los datos y la configuración leídos.
+     */
+    public static Evento leerEvento(Entrada e) {
+        int id = e.natural();
+        String nombre = e.textoRepetido();
+        Date fecha = e.instante();
+        String descripcion = e.texto();
+        int n = e.natural();
+        List<Categoria> categorias = new ArrayList<>(Math.min(n, 64));
+        for (int i = 0; i < n; i++) categorias.add(leerCategoria(e));
+        Evento ev = new Evento(id, nombre, fecha, descripcion, categorias);
+        for (Inscripcion.Distancia d : Inscripcion.Distancia.values()) {
+            int cupo = e.natural();
+            int desde = e.natural();
+            int hasta = e.natural();
+            if (cupo > 0) ev.configurarCupo(d, cupo);
+            if (desde > 0) ev.configurarRangoDorsales(d, desde, hasta);
+            double[] puntos = new double[e.natural()];
+            for (int p = 0; p < puntos.length; p++) puntos[p] = e.real();
+            ev.getParciales().configurarPuntos(d, puntos);
+        }
+        ev.getRanking().setTamanioPodio(e.natural());
+        return ev;
+    }
+
+    // ------------------------------------------------------------
+    // Inscripciones y tiempos
+    // ------------------------------------------------------------
+
+    /**
+     * Escribe una inscripción sin su evento (lo conoce quien llama).
+     * @param s   destino.
+     * @param ins inscripción (no nula).
+     */
+    public static void escribirInscripcion(Salida s, Inscripcion ins) {
+        s.natural(ins.getId());
+        s.natural(ins.getCorredor().getId());
+        s.enumerado(ins.getDistancia());
+        s.enumerado(ins.getTalla());
+        s.natural(ins.getNumeroDorsal());
+        s.natural(ins.getCategoria() == null ? 0 : ins.getCategoria().getId());
+        s.enumerado(ins.getEstado());
+    }
+
+    /**
+     * Lee una inscripción y la lleva a su estado con las transiciones normales. No la agrega al evento ni
+     * al corredor.
+     * @param e        origen.
+     * @param ev       evento de la inscripción.
+     * @param usuarios usuarios por cédula (para resolver el corredor).
+     * @return inscripción nueva.
+     */
+    public static Inscripcion leerInscripcion(Entrada e, Evento ev, Map<Integer, Usuario> usuarios) {
+        int id = e.natural();
+        Corredor corredor = corredor(usuarios, e.natural());
+        Inscripcion.Distancia distancia = e.enumerado(DISTANCIAS);
+        Inscripcion.Talla talla = e.enumerado(TALLAS);
+        Inscripcion ins = new Inscripcion(id, distancia, talla, e.natural(), corredor, ev);
+        int idCategoria = e.natural();
+        if (idCategoria != 0) ins.setCategoria(categoria(ev, idCategoria));
+        Inscripcion.Estado estado = e.enumerado(ESTADOS);
+        if (estado != Inscripcion.Estado.PENDIENTE) ins.confirmarPago();
+        if (estado == Inscripcion.Estado.CONFIRMADO) ins.confirmarInscripcion();
+        return ins;
+    }
+
+    /**
+     * @param s         destino.
+     * @param solicitud solicitud en espera (no nula).
+     */
+    public static void escribirSolicitud(Salida s, SolicitudInscripcion solicitud) {
+        s.natural(solicitud.getIdInscripcion());
+        s.natural(solicitud.getCorredor().getId());
+        s.enumerado(solicitud.getDistancia());
+        s.enumerado(solicitud.getTalla());
+        s.natural(solicitud.getDorsal());
+        s.natural(solicitud.getCategoria() == null ? 0 : solicitud.getCategoria().getId());
+    }
+
+    /**
+     * @param e        origen.
+     * @param ev       evento de la solicitud (para resolver la categoría).
+     * @param usuarios usuarios por cédula (para resolver el corredor).
+     * @return solicitud nueva.
+     */
+    public static SolicitudInscripcion leerSolicitud(Entrada e, Evento ev, Map<Integer, Usuario> usuarios) {
+        int id = e.natural();
+        Corredor corredor = corredor(usuarios, e.natural());
+        Inscripcion.Distancia distancia = e.enumerado(DISTANCIAS);
+        Inscripcion.Talla talla = e.enumerado(TALLAS);
+        int dorsal = e.natural();
+        int idCategoria = e.natural();
+        Categoria categoria = (idCategoria == 0) ? null : categoria(ev, idCategoria);
+        return new SolicitudInscripcion(id, corredor, distancia, talla, dorsal, categoria);
+    }
+
+    /**
+     * @param s destino.
+     * @param t tiempo (no nulo).
+     */
+    public static void escribirTiempo(Salida s, Tiempo t) {
+        s.largo(t.getMilisegundos());
+        s.natural(t.getPosicionGeneral());
+        s.natural(t.getPosicionCategoria());
+    }
+
+    /**
+     * @param e origen.
+     * @return tiempo nuevo (milisegundos y posiciones).
+     */
+    public static Tiempo leerTiempo(Entrada e) {
+        long milisegundos = e.largo();
+        return Tiempo.deMilisegundos(milisegundos, e.natural(), e.natural());
+    }
+
+    // ------------------------------------------------------------
+    // Mensajes
+    // ------------------------------------------------------------
+
+    /**
+     * @param s destino.
+     * @param m mensaje del chat general (no nulo).
+     */
+    public static void escribirMensaje(Salida s, ChatGeneral.Mensaje m) {
+        s.instante(m.getFecha());
+        s.natural(m.getRemitente().getId());
+        s.texto(m.getTexto());
+    }
+
+    /**
+     * @param s destino.
+     * @param m mensaje directo (no nulo).
+     */
+    public static void escribirMensaje(Salida s, MensajeriaDirecta.Mensaje m) {
+        s.instante(m.getFecha());
+        s.natural(m.getRemitente().getId());
+        s.texto(m.getTexto());
+    }
+
+    /**
+     * @param e        origen.
+     * @param usuarios usuarios por cédula (para resolver el remitente).
+     * @return mensaje nuevo (no se agrega a ningún chat).
+     */
+    public static ChatGeneral.Mensaje leerMensajeChat(Entrada e, Map<Integer, Usuario> usuarios) {
+        Date fecha = e.instante();
+        Usuario remitente = usuario(usuarios, e.natural());
+        return new ChatGeneral.Mensaje(fecha, remitente, e.texto());
+    }
+
+    /**
+     * @param e        origen.
+     * @param usuarios usuarios por cédula (para resolver el remitente).
+     * @return mensaje nuevo (no se agrega a ninguna conversación).
+     */
+    public static MensajeriaDirecta.Mensaje leerMensajeDirecto(Entrada e, Map<Integer, Usuario> usuarios) {
+        Date fecha = e.instante();
+        Usuario remitente = usuario(usuarios, e.natural());
+        return new MensajeriaDirecta.Mensaje(fecha, remitente, e.texto());
+    }
+
+    // ------------------------------------------------------------
+    // Búsquedas
+    // ------------------------------------------------------------
+
+    private static final Inscripcion.Distancia[] DISTANCIAS = Inscripcion.Distancia.values();
+    private static final Inscripcion.Talla[] TALLAS = Inscripcion.Talla.values();
+    private static final Inscripcion.Estado[] ESTADOS = Inscripcion.Estado.values();
+
+    /**
+     * @param usuarios usuarios por cédula.
+     * @param id       cédula.
+     * @return usuario existente.
+     * @throws IllegalStateException si no existe.
+     */
+    static Usuario usuario(Map<Integer, Usuario> usuarios, int id) {
+        Usuario u = usuarios.get(id);
+        if (u == null) throw new IllegalStateException("No existe el usuario " + id + ".");
+        return u;
+    }
+
+    private static Corredor corredor(Map<Integer, Usuario> usuarios, int id) {
+        Usuario u = usuario(usuarios, id);
+        if (!(u instanceof Corredor)) throw new IllegalStateException("El usuario " + id + " no es corredor.");
+        return (Corredor) u;
+    }
+
+    private static Categoria categoria(Evento ev, int id) {
+        for (Categoria c : ev.getCategorias()) {
+            if (c.getId() == id) return c;
+        }
+        throw new IllegalStateException("No existe la categoría " + id + " en el evento " + ev.getId() + ".");
+    }
+
+    // ------------------------------------------------------------
+    // Salida
+    // ------------------------------------------------------------
+
+    /**
+     * Destino de la codificación: arreglo que crece según haga falta, más la tabla de textos compartidos.
+     */
+    public static final class Salida {
+        private byte[] b;
+        private int n;
+        private final Map<String, Integer> tabla = new HashMap<>();
+
+        /** Crea una salida con capacidad inicial de 256 bytes. */
+        public Salida() { this(256); }
+
+        /**
+         * @param capacidad capacidad inicial en bytes (&gt; 0).
+         */
+        public Salida(int capacidad) {
+            if (capacidad <= 0) throw new IllegalArgumentException("La capacidad debe ser mayor que 0.");
+            b = new byte[capacidad];
+        }
+
+        /** @return arreglo con los bytes escritos en {@code [0, tamanio())} (no copiar: se reutiliza). */
+        public byte[] arreglo() { return b; }
+
+        /** @return cantidad de bytes escritos. */
+        public int tamanio() { return n; }
+
+        /** Descarta los bytes escritos pero conserva la tabla de textos (se sigue el mismo flujo). */
+        public void vaciar() { n = 0; }
+
+        /** Descarta los bytes escritos y la tabla de textos (empieza un flujo nuevo). */
+        public void reiniciar() {
+            n = 0;
+            tabla.clear();
+        }
+
+        /** @param v byte (se toman los 8 bits bajos). */
+        public void octeto(int v) {
+            asegurar(1);
+            b[n++] = (byte) v;
+        }
+
+        /**
+         * @param v entero &ge; 0, como varint.
+         * @throws IllegalArgumentException si es negativo.
+         */
+        public void natural(int v) {
+            if (v < 0) throw new IllegalArgumentException("Se esperaba un valor >= 0: " + v);
+            varint(v & 0xFFFFFFFFL);
+        }
+
+        /** @param v entero con signo, como varint zigzag. */
+        public void entero(int v) { varint(((v << 1) ^ (v >> 31)) & 0xFFFFFFFFL); }
+
+        /** @param v largo con signo, como varint zigzag. */
+        public void largo(long v) { varint((v << 1) ^ (v >> 63)); }
+
+        /** @param v real en 8 bytes (IEEE 754, big-endian). */
+        public void real(double v) {
+            long bits = Double.doubleToRawLongBits(v);
+            asegurar(8);
+            for (int k = 56; k >= 0; k -= 8) b[n++] = (byte) (bits >>> k);
+        }
+
+        /** @param fecha fecha (no nula), como milisegundos desde la época. */
+        public void instante(Date fecha) { largo(fecha.getTime()); }
+
+        /** @param v enumerado (no nulo), como ordinal en un byte. */
+        public void enumerado(Enum<?> v) { octeto(v.ordinal()); }
+
+        /** @param s texto (o {@code null}), completo. */
+        public void texto(String s) {
+            if (s == null) {
+                natural(0);
+                return;
+            }
+            literal(s, 1);
+        }
+
+        /** @param s texto (o {@code null}) que suele repetirse: la segunda vez va como índice de la tabla. */
+        public void textoRepetido(String s) {
+            if (s == null) {
+                natural(TEXTO_NULO);
+                return;
+            }
+            Integer indice = tabla.get(s);
+            if (indice != null) {
+                natural(indice + 2);
+                return;
+            }
+            natural(TEXTO_NUEVO);
+            literal(s, 0);
+            if (tabla.size() < MAXIMO_TABLA && s.length() <= MAXIMO_TEXTO_TABLA) tabla.put(s, tabla.size());
+        }
+
+        /** Largo en bytes UTF-8 (más {@code desplazamiento}) seguido de los bytes. */
+        private void literal(String s, int desplazamiento) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            natural(bytes.length + desplazamiento);
+            asegurar(bytes.length);
+            System.arraycopy(bytes, 0, b, n, bytes.length);
+            n += bytes.length;
+        }
+
+        private void varint(long v) {
+            asegurar(10);
+            while ((v & ~0x7FL) != 0) {
+                b[n++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            b[n++] = (byte) v;
+        }
+
+        private void asegurar(int extra) {
+            if (b.length - n >= extra) return;
+            b = Arrays.copyOf(b, Math.max(b.length * 2, n + extra));
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Entrada
+    // ------------------------------------------------------------
+
+    /**
+     * Origen de la decodificación sobre un {@link ByteBuffer} (de arreglo, directo o mapeado), más la tabla
+     * de textos compartidos.
+     */
+    public static final class Entrada {
+        private ByteBuffer b;
+        private final List<String> tabla = new ArrayList<>();
+        private byte[] bytes = new byte[256];
+
+        /** Crea una entrada sin búfer (ver {@link #reiniciar(ByteBuffer)}). */
+        public Entrada() { }
+
+        /**
+         * @param b búfer a leer desde su posición (no nulo).
+         */
+        public Entrada(ByteBuffer b) { reiniciar(b); }
+
+        /**
+         * Pasa a leer otro búfer con la tabla de textos vacía (empieza un flujo nuevo).
+         * @param b búfer a leer desde su posición (no nulo).
+         */
+        public void reiniciar(ByteBuffer b) {
+            if (b == null) throw new IllegalArgumentException("El búfer no puede ser nulo.");
+            this.b = b;
+            tabla.clear();
+        }
+
+        /**
+         * Sigue el mismo flujo en otro búfer, conservando la tabla de textos (un flujo partido en tramos,
+         * como una instantánea mapeada por segmentos).
+         * @param b búfer a leer desde su posición (no nulo); empieza donde terminó lo leído del anterior.
+         */
+        public void continuar(ByteBuffer b) {
+            if (b == null) throw new IllegalArgumentException("El búfer no puede ser nulo.");
+            this.b = b;
+        }
+
+        /** @return bytes que quedan por leer. */
+        public int restantes() { return b.remaining(); }
+
+        /** @return byte leído. */
+        public byte octeto() { return b.get(); }
+
+        /** @return entero &ge; 0 leído como varint. */
+        public int natural() {
+            long v = varint();
+            if (v > Integer.MAX_VALUE) throw new IllegalStateException("Valor fuera de rango: " + v);
+            return (int) v;
+        }
+
+        /** @return entero con signo leído como varint zigzag. */
+        public int entero() {
+            long v = varint();
+            if (v > 0xFFFFFFFFL) throw new IllegalStateException("Valor fuera de rango: " + v);
+            int u = (int) v;
+            return (u >>> 1) ^ -(u & 1);
+        }
+
+        /** @return largo con signo leído como varint zigzag. */
+        public long largo() {
+            long v = varint();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        /** @return real de 8 bytes. */
+        public double real() { return Double.longBitsToDouble(b.getLong()); }
+
+        /** @return fecha leída de milisegundos desde la época. */
+        public Date instante() { return new Date(largo()); }
+
+        /**
+         * @param valores valores del enumerado ({@code E.values()}).
+         * @return valor con el ordinal leído.
+         */
+        public <E extends Enum<E>> E enumerado(E[] valores) {
+            int ordinal = b.get();
+            if (ordinal < 0 || ordinal >= valores.length) throw new IllegalStateException("Ordinal inválido: " + ordinal);
+            return valores[ordinal];
+        }
+
+        /** @return texto leído (o {@code null}). */
+        public String texto() {
+            int largo = natural();
+            return (largo == 0) ? null : literal(largo - 1);
+        }
+
+        /** @return texto leído con la tabla compartida (o {@code null}). */
+        public String textoRepetido() {
+            int marca = natural();
+            if (marca == TEXTO_NULO) return null;
+            if (marca != TEXTO_NUEVO) {
+                int indice = marca - 2;
+                if (indice >= tabla.size()) throw new IllegalStateException("Índice de texto inválido: " + indice);
+                return tabla.get(indice);
+            }
+            String s = literal(natural());
+            if (tabla.size() < MAXIMO_TABLA && s.length() <= MAXIMO_TEXTO_TABLA) tabla.add(s);
+            return s;
+        }
+
+        private String literal(int largo) {
+            if (largo > b.remaining()) throw new BufferUnderflowException();
+            if (b.hasArray()) {
+                String s = new String(b.array(), b.arrayOffset() + b.position(), largo, StandardCharsets.UTF_8);
+                b.position(b.position() + largo);
+                return s;
+            }
+            if (largo > bytes.length) bytes = new byte[Math.max(largo, bytes.length * 2)];
+            b.get(bytes, 0, largo);
+            return new String(bytes, 0, largo, StandardCharsets.UTF_8);
+        }
+
+        private long varint() {
+            long v = 0;
+            for (int corrimiento = 0; corrimiento < 64; corrimiento += 7) {
+                byte x = b.get();
+                v |= (long) (x & 0x7F) << corrimiento;
+                if (x >= 0) return v;
+            }
+            throw new IllegalStateException("Varint demasiado largo.");
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package persistencia;
+
+import chats.ChatGeneral;
+import chats.MensajeriaDirecta;
+import eventos.Evento;
+import eventos.Inscripcion;
+import eventos.SolicitudInscripcion;
+import eventos.Tiempo;
+import usuarios.Usuario;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * La clase {@code DiarioCambios} registra cada cambio del modelo (usuario creado, evento creado o con nuevo
+ * estado, inscripción creada o confirmada, tiempo registrado, mensaje enviado...) en una
+ * {@link BitacoraEscritura}, y al abrirse reconstruye el estado en memoria a partir de la última
+ * instantánea ({@link InstantaneaDatos}) más las bitácoras escritas después de ella.
+ *
+ * <p><b>Archivos de la carpeta:</b> {@code instantanea.bin} (opcional) y una bitácora por generación,
+ * {@code cambios-NNNNNN.wal}. La instantánea indica la primera generación que hay que reproducir encima;
+ * las anteriores se borran.</p>
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>Los registros de usuario, evento e inscripción llevan el estado completo de la entidad: al
+ *       reproducirlos se crea o se actualiza (reproducir dos veces el mismo registro no cambia nada).</li>
+ *   <li>La lista de espera se reconstruye con sus entradas ({@code EN_ESPERA}) y sus salidas
+ *       ({@code SALIDA_ESPERA}, admitidas o descartadas); la baja de una inscripción tiene su propio
+ *       registro ({@code REMOCION}).</li>
+ *   <li>Registrar no espera al disco; {@link #confirmar()} espera a que todo lo registrado sea durable.
+ *       Los registros de una misma operación (p. ej., una importación) comparten una sola sincronización.</li>
+ *   <li>Los registros se codifican con {@link CodecBinario}, cada uno con su propia tabla de textos.</li>
+ *   <li>La configuración de un evento (cupos, rangos de dorsales, puntos de control, podio) se restaura al
+ *       crearlo; después solo cambian nombre, fecha, descripción y estado.</li>
+ *   <li>{@link #guardarInstantanea()} cierra la generación en curso, abre la siguiente y escribe la
+ *       instantánea; así el arranque solo reproduce lo registrado después de ella.</li>
+ *   <li>Un diario desactivado ({@link #desactivado()}) no registra nada (aplicación sin persistencia).</li>
+ *   <li>Seguro para hilos. Sin I/O de consola.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+public final class DiarioCambios implements Closeable {
+
+    // Tipos de registro
+    static final byte USUARIO = 1;
+    static final byte EVENTO = 2;
+    static final byte INSCRIPCION = 3;
+    static final byte EN_ESPERA = 4;
+    static final byte TIEMPO = 5;
+    static final byte PARCIAL = 6;
+    static final byte PARTICIPANTE = 7;
+    static final byte MENSAJE_CHAT = 8;
+    static final byte CONVERSACION = 9;
+    static final byte MENSAJE_DIRECTO = 10;
+    static final byte REMOCION = 11;
+    static final byte SALIDA_ESPERA = 12;
+
+    /** Nombre del archivo de la instantánea. */
+    private static final String INSTANTANEA = "instantanea.bin";
+
+    /** Tamaño de la bitácora en curso a partir del cual conviene una instantánea nueva. */
+    public static final long UMBRAL_INSTANTANEA = 64L << 20;
+
+    /** Carpeta de los archivos ({@code null} si el diario está desactivado). */
+    private final Path carpeta;
+
+    /** Estructuras que se vuelcan en cada instantánea. */
+    private final EstadoAplicacion estado;
+
+    /** Bitácora destino ({@code null} si el diario está desactivado; protegida por {@code this}). */
+    private BitacoraEscritura bitacora;
+
+    /** Generación de la bitácora en curso. */
+    private long generacion;
+
+    /** Salida reutilizada para armar cada registro (protegida por {@code this}). */
+    private final CodecBinario.Salida salida = new CodecBinario.Salida(1024);
+
+    private DiarioCambios(Path carpeta, EstadoAplicacion estado, BitacoraEscritura bitacora, long generacion) {
+        this.carpeta = carpeta;
+        this.estado = estado;
+        this.bitacora = bitacora;
+        this.generacion = generacion;
+    }
+
+    /**
+     * Abre (o crea) el diario de una carpeta: carga la instantánea, reproduce las bitácoras posteriores sobre
+     * {@code estado} y queda listo para registrar en la última.
+     * @param carpeta carpeta de los archivos (se crea si no existe; no nula).
+     * @param estado  estructuras de la aplicación, vacías (no nulo).
+     * @return diario abierto.
+     * @throws IOException si un archivo no puede leerse, está dañado o contiene un registro inválido.
+     */
+    public static DiarioCambios abrir(Path carpeta, EstadoAplicacion estado) throws IOException {
+        if (carpeta == null) throw new IllegalArgumentException("La carpeta no puede ser nula.");
+        if (estado == null) throw new IllegalArgumentException("El estado no puede ser nulo.");
+        Files.createDirectories(carpeta);
+
+        Path instantanea = carpeta.resolve(INSTANTANEA);
+        long desde = Files.exists(instantanea) ? InstantaneaDatos.cargar(instantanea, estado) : 0;
+
+        List<Long> generaciones = generaciones(carpeta);
+        AplicadorCambios aplicador = new AplicadorCambios(estado);
+        long ultima = desde;
+        for (long g : generaciones) {
+            if (g < desde) {
+                Files.delete(bitacora(carpeta, g));
+            } else if (g < generaciones.get(generaciones.size() - 1)) {
+                BitacoraEscritura.leer(bitacora(carpeta, g), aplicador::aplicar);
+            } else {
+                ultima = g;
+            }
+        }
+        BitacoraEscritura enCurso = BitacoraEscritura.abrir(bitacora(carpeta, ultima), aplicador::aplicar);
+        return new DiarioCambios(carpeta, estado, enCurso, ultima);
+    }
+
+    /** @return diario que no registra nada. */
+    public static DiarioCambios desactivado() {
+        return new DiarioCambios(null, null, null, 0);
+    }
+
+    /** @return {@code true} si el diario escribe en una bitácora. */
+    public boolean estaActivo() { return carpeta != null; }
+
+    /** @return generación de la bitácora en curso. */
+    public synchronized long getGeneracion() { return generacion; }
+
+    // ------------------------------------------------------------
+    // Usuarios y eventos
+    // ------------------------------------------------------------
+
+    /**
+     * Registra el estado completo de un usuario (alta o modificación).
+     * @param u usuario (no nulo).
+     */
+    public synchronized void usuario(Usuario u) {
+        if (bitacora == null) return;
+        salida.reiniciar();
+        CodecBinario.escribirUsuario(salida, u);
+        terminar(USUARIO);
+    }
+
+    /**
+     * Registra el estado completo de un evento (alta, cambio de estado o de datos).
+     * @param ev evento (no nulo).
+     */
+    public synchronized void evento(Evento ev) {
+        if (bitacora == null) return;
+        salida.reiniciar();
+        CodecBinario.escribirEvento(salida, ev);
+        salida.enumerado(ev.getEstado());
+        terminar(EVENTO);
+    }
+
+    // ------------------------------------------------------------
+    // Inscripciones y tiempos
+    // ------------------------------------------------------------
+
+    /**
+     * Registra el estado completo de una inscripción (alta, confirmación de pago o de inscripción...).
+     * @param ins inscripción (no nula).
+     */
+    public synchronized void inscripcion(Inscripcion ins) {
+        if (bitacora == null) return;
+        salida.reiniciar();
+        salida.natural(ins.getEvento().getId());
+        CodecBinario.escribirInscripcion(salida, ins);
+        terminar(INSCRIPCION);
+    }
+
+    /**
+     * Registra una solicitud que quedó en la lista de espera de un evento.
+     * @param ev        evento (no nulo).
+     * @param solicitud solicitud encolada (no nula).
+     */
+    public synchronized void enEspera(Evento ev, SolicitudInscripcion solicitud) {
+        if (bitacora == null) return;
+        salida.reiniciar();
+        salida.natural(ev.getId());
+        CodecBinario.escribirSolicitud(salida, solicitud);
+        terminar(EN_ESPERA);
+    }
+
+    /**
+     * Registra la remoción de una inscripción de su evento (y de su corredor).
+     * @param ins inscripción removida (no nula).
+     */
+    public synchronized void remocion(Inscripcion ins) {
+        if (bitacora == null) return;
+        salida.reiniciar();
+        salida.natural(ins.getEvento().getId());
+        salida.natural(ins.getId());
+        terminar(REMOCION);
+    }
+
+    /**
+     * Registra que una solicitud salió de la lista de espera (admitida o descartada).
+     * @param ev        evento (no nulo).
+     * @param solicitud solicitud retirada (no nula).
+     */
+    public synchronized void salidaEspera(Evento ev, SolicitudInscripcion solicitud) {
+        if (bitacora == null) return;
+        salida.reiniciar();
+        salida.natural(ev.getId());
+        salida.enumerado(solicitud.getDistancia());
+        salida.natural(solicitud.getIdInscripcion());
+        terminar(SALIDA_ESPERA);
+    }
+
+    /**
+     * Registra el tiempo (final) de una inscripción.
+     * @param ins    inscripción (no nula).
+     * @param tiempo tiempo registrado (no nulo).
+     */
+    public synchronized void tiempo(Inscripcion ins, Tiempo tiempo) {
+        if (bitacora == null) return;
+        salida.reiniciar();
+        salida.natural(ins.getEvento().getId());
+        salida.natural(ins.getId());
+        CodecBinario.escribirTiempo(salida, tiempo);
+        terminar(TIEMPO);
+    }
+
+    /**
+     * Registra el paso de una inscripción por un punto de control.
+     * @param ins          inscripción (no nula).
+     * @param punto        índice del punto de control.
+     * @param milisegundos tiempo desde la largada.
+     */
+    public synchronized void parcial(Inscripcion ins, int punto, long milisegundos) {
+        if (bitacora == null) return;
+        salida.reiniciar();
+        salida.natural(ins.getEvento().getId());
+        salida.natural(ins.getId());
+        salida.natural(punto);
+        salida.largo(milisegundos);
+        terminar(PARCIAL);
+    }
+
+    // ------------------------------------------------------------
+    // Chats
+    // ------------------------------------------------------------
+
+    /**
+     * Registra que un usuario se unió al chat general o salió de él.
+     * @param u     usuario (no nulo).
+     * @param unido {@code true} si se unió; {@code false} si salió.
+     */
+    public synchronized void participante(Usuario u, boolean unido) {
+        if (bitacora == null) return;
+        salida.reiniciar();
+        salida.natural(u.getId());
+        salida.octeto(unido ? 1 : 0);
+        terminar(PARTICIPANTE);
+    }
+
+    /**
+     * Registra un mensaje del chat general.
+     * @param m mensaje enviado (no nulo).
+     */
+    public synchronized void mensajeChat(ChatGeneral.Mensaje m) {
+        if (bitacora == null) return;
+        salida.reiniciar();
+        CodecBinario.escribirMensaje(salida, m);
+        terminar(MENSAJE_CHAT);
+    }
+
+    /**
+     * Registra una conversación directa nueva.
+     * @param dm conversación (no nula).
+     */
+    public synchronized void conversacion(MensajeriaDirecta dm) {
+        if (bitacora == null) return;
+        salida.reiniciar();
+        salida.natural(dm.getIdDM());
+        salida.natural(dm.getUsuarioA().getId());
+        salida.natural(dm.getUsuarioB().getId());
+        terminar(CONVERSACION);
+    }
+
+    /**
+     * Registra un mensaje de una conversación directa.
+     * @param dm conversación (no nula).
+     * @param m  mensaje enviado (no nulo).
+     */
+    public synchronized void mensajeDirecto(MensajeriaDirecta dm, MensajeriaDirecta.Mensaje m) {
+        if (bitacora == null) return;
+        salida.reiniciar();
+        salida.natural(dm.getIdDM());
+        CodecBinario.escribirMensaje(salida, m);
+        terminar(MENSAJE_DIRECTO);
+    }
+
+    // ------------------------------------------------------------
+    // Durabilidad
+    // ------------------------------------------------------------
+
+    /**
+     * Espera a que todo lo registrado hasta ahora esté en disco.
+     * @throws IOException si la bitácora no pudo escribirse.
+     */
+    public void confirmar() throws IOException {
+        BitacoraEscritura b;
+        synchronized (this) {
+            b = bitacora;
+        }
+        if (b != null) b.sincronizar();
+    }
+
+    /** @return {@code true} si la bitácora en curso superó {@link #UMBRAL_INSTANTANEA}. */
+    public synchronized boolean convieneInstantanea() {
+        return bitacora != null && bitacora.getPosicion() >= UMBRAL_INSTANTANEA;
+    }
+
+    /**
+     * Guarda una instantánea del estado completo y descarta las bitácoras que quedan cubiertas por ella.
+     * Debe llamarse sin cambios concurrentes en el modelo.
+     * <p>Pasos: se cierra (y sincroniza) la generación en curso, se abre la siguiente, se escribe la
+     * instantánea en un archivo temporal que luego la reemplaza y se borran las bitácoras anteriores. Un
+     * corte en cualquier punto deja la instantánea previa con sus bitácoras intactas.</p>
+     * @throws IOException si algún archivo no puede escribirse.
+     */
+    public synchronized void guardarInstantanea() throws IOException {
+        if (bitacora == null) return;
+        bitacora.close();
+        bitacora = null;
+        long siguiente = generacion + 1;
+        bitacora = BitacoraEscritura.abrir(bitacora(carpeta, siguiente), null);
+        generacion = siguiente;
+
+        Path temporal = carpeta.resolve(INSTANTANEA + ".tmp");
+        InstantaneaDatos.guardar(temporal, estado, siguiente);
+        Files.move(temporal, carpeta.resolve(INSTANTANEA),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        for (long g : generaciones(carpeta)) {
+            if (g < siguiente) Files.delete(bitacora(carpeta, g));
+        }
+    }
+
+    /**
+     * Vuelca lo pendiente y cierra la bitácora.
+     * @throws IOException si el volcado o el cierre fallan.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (bitacora == null) return;
+        bitacora.close();
+        bitacora = null;
+    }
+
+    // ------------------------------------------------------------
+    // Archivos
+    // ------------------------------------------------------------
+
+    private static Path bitacora(Path carpeta, long generacion) {
+        return carpeta.resolve(String.format("cambios-%06d.wal", generacion));
+    }
+
+    /** @return generaciones de las bitácoras presentes en la carpeta, en orden ascendente. */
+    private static List<Long> generaciones(Path carpeta) throws IOException {
+        List<Long> res = new ArrayList<>();
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(carpeta, "cambios-*.wal")) {
+            for (Path p : archivos) {
+                String nombre = p.getFileName().toString();
+                try {
+                    res.add(Long.parseLong(nombre.substring("cambios-".length(), nombre.length() - ".wal".length())));
+                } catch (NumberFormatException e) {
+                    // No es una bitácora de este diario
+                }
+            }
+        }
+        Collections.sort(res);
+        return res;
+    }
+
+    // ------------------------------------------------------------
+    // Utilidades internas
+    // ------------------------------------------------------------
+
+    private void terminar(byte tipo) {
+        bitacora.agregar(tipo, salida.arreglo(), 0, salida.tamanio());
+    }
+}
@@ -0,0 +1,100 @@
+package persistencia;
+
+import chats.ChatGeneral;
+import chats.MensajeriaDirecta;
+import eventos.CatalogoEventos;
+import eventos.Evento;
+import eventos.Inscripcion;
+import eventos.SolicitudInscripcion;
+import usuarios.Usuario;
+
+import java.util.Map;
+
+/**
+ * La clase {@code EstadoAplicacion} agrupa las estructuras en memoria de la aplicación (usuarios, catálogo
+ * de eventos, mensajería directa y chat general) para que la persistencia las reconstruya y las recorra.
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>No copia nada: guarda las mismas referencias que usa la aplicación.</li>
+ *   <li>Calcula los próximos ids libres tras una restauración.</li>
+ *   <li>Sin I/O de consola.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+public class EstadoAplicacion {
+
+    /** Usuarios por cédula. */
+    private final Map<Integer, Usuario> usuarios;
+
+    /** Catálogo de eventos. */
+    private final CatalogoEventos eventos;
+
+    /** Conversaciones directas por id. */
+    private final Map<Integer, MensajeriaDirecta> conversaciones;
+
+    /** Chat general. */
+    private final ChatGeneral chatGeneral;
+
+    /**
+     * @param usuarios       usuarios por cédula (no nulo).
+     * @param eventos        catálogo de eventos (no nulo).
+     * @param conversaciones conversaciones directas por id (no nulo).
+     * @param chatGeneral    chat general (no nulo).
+     * @throws IllegalArgumentException si algún parámetro es nulo.
+     */
+    public EstadoAplicacion(Map<Integer, Usuario> usuarios, CatalogoEventos eventos,
+                            Map<Integer, MensajeriaDirecta> conversaciones, ChatGeneral chatGeneral) {
+        if (usuarios == null || eventos == null || conversaciones == null || chatGeneral == null) {
+            throw new IllegalArgumentException("Las estructuras de la aplicación no pueden ser nulas.");
+        }
+        this.usuarios = usuarios;
+        this.eventos = eventos;
+        this.conversaciones = conversaciones;
+        this.chatGeneral = chatGeneral;
+    }
+
+    /** @return usuarios por cédula. */
+    public Map<Integer, Usuario> getUsuarios() { return usuarios; }
+
+    /** @return catálogo de eventos. */
+    public CatalogoEventos getEventos() { return eventos; }
+
+    /** @return conversaciones directas por id. */
+    public Map<Integer, MensajeriaDirecta> getConversaciones() { return conversaciones; }
+
+    /** @return chat general. */
+    public ChatGeneral getChatGeneral() { return chatGeneral; }
+
+    // ------------------------------------------------------------
+    // Próximos ids
+    // ------------------------------------------------------------
+
+    /** @return id mayor que el de todos los eventos. */
+    public int siguienteIdEvento() {
+        int max = 0;
+        for (Evento ev : eventos.listarPorId()) max = Math.max(max, ev.getId());
+        return max + 1;
+    }
+
+    /** @return id mayor que el de todas las inscripciones y solicitudes en espera. */
+    public int siguienteIdInscripcion() {
+        int max = 0;
+        for (Evento ev : eventos.listarPorId()) {
+            for (Inscripcion ins : ev.getInstantaneaInscripciones()) max = Math.max(max, ins.getId());
+            for (Inscripcion.Distancia d : Inscripcion.Distancia.values()) {
+                for (SolicitudInscripcion s : ev.getListaEspera(d)) max = Math.max(max, s.getIdInscripcion());
+            }
+        }
+        return max + 1;
+    }
+
+    /** @return id mayor que el de todas las conversaciones directas. */
+    public int siguienteIdConversacion() {
+        int max = 0;
+        for (int id : conversaciones.keySet()) max = Math.max(max, id);
+        return max + 1;
+    }
+}
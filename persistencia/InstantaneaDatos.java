@@ -0,0 +1,389 @@
+package persistencia;
+
+import chats.ChatGeneral;
+import chats.MensajeriaDirecta;
+import eventos.Evento;
+import eventos.Inscripcion;
+import eventos.ParcialesEvento;
+import eventos.ResultadosEvento;
+import eventos.SolicitudInscripcion;
+import eventos.Tiempo;
+import usuarios.Usuario;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * La clase {@code InstantaneaDatos} guarda y carga una instantánea binaria completa del modelo (usuarios,
+ * eventos con categorías, inscripciones, listas de espera, tiempos y parciales, chat general y mensajería
+ * directa), para que el arranque solo reproduzca la bitácora escrita después de ella.
+ *
+ * <p><b>Formato:</b> un solo flujo de {@link CodecBinario} (con una tabla de textos para todo el archivo):
+ * marca, versión y generación, secciones de usuarios, eventos, chat general y conversaciones; al final, un
+ * CRC32C de 4 bytes de todo lo anterior. La generación es la de la primera bitácora que hay que reproducir
+ * encima.</p>
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>La escritura recorre el modelo una vez y vuelca la salida al archivo cada 1 MB.</li>
+ *   <li>La carga mapea el archivo en memoria ({@link FileChannel#map}) por ventanas de 1 GB, así el tamaño
+ *       no queda limitado a los 2 GB de un solo mapeo, y lo decodifica de corrido, sin copias intermedias;
+ *       las inscripciones de cada evento se agregan en bloque
+ *       ({@link Evento#setInscripciones(List)}) y los tiempos en un solo lote del ranking.</li>
+ *   <li>El estado de cada evento se fija al final, así la premiación de un evento FINALIZADO se arma con
+ *       sus tiempos ya cargados.</li>
+ *   <li>Debe guardarse sin cambios concurrentes en el modelo. Sin I/O de consola.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+final class InstantaneaDatos {
+
+    /** Marca de archivo ("INST"). */
+    private static final int MAGICO = 0x494E5354;
+
+    /** Versión del formato. */
+    private static final int VERSION = 3;
+
+    /** Bytes de cada ventana mapeada al cargar (un mapeo no puede pasar de 2 GB). */
+    private static final long VENTANA = 1L << 30;
+
+    /**
+     * Resto de la ventana a partir del cual se mapea la siguiente. Un elemento (usuario, inscripción,
+     * tiempo, mensaje...) nunca ocupa tanto, así que no queda partido entre dos ventanas.
+     */
+    private static final long MARGEN = 64L << 20;
+
+    /** Bytes acumulados en la salida antes de volcarlos al archivo. */
+    private static final int TAMANIO_BUFER = 1 << 20;
+
+    private InstantaneaDatos() { }
+
+    // ------------------------------------------------------------
+    // Escritura
+    // ------------------------------------------------------------
+
+    /**
+     * Escribe la instantánea del estado en {@code archivo} (reemplazándolo) y la sincroniza a disco.
+     * @param archivo    archivo destino.
+     * @param estado     estructuras de la aplicación.
+     * @param generacion primera generación de bitácora posterior a la instantánea.
+     * @throws IOException si no se puede escribir.
+     */
+    static void guardar(Path archivo, EstadoAplicacion estado, long generacion) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Volcado v = new Volcado(canal);
+            CodecBinario.Salida s = v.salida;
+            s.natural(MAGICO);
+            s.natural(VERSION);
+            s.largo(generacion);
+
+            Map<Integer, Usuario> usuarios = estado.getUsuarios();
+            s.natural(usuarios.size());
+            for (Usuario u : usuarios.values()) {
+                CodecBinario.escribirUsuario(s, u);
+                v.quizasVolcar();
+            }
+            List<Evento> eventos = estado.getEventos().listarPorId();
+            s.natural(eventos.size());
+            for (Evento ev : eventos) escribirEvento(v, ev);
+            escribirChats(v, estado);
+            v.terminar();
+            canal.force(true);
+        }
+    }
+
+    private static void escribirEvento(Volcado v, Evento ev) throws IOException {
+        CodecBinario.Salida s = v.salida;
+        CodecBinario.escribirEvento(s, ev);
+
+        List<Inscripcion> inscripciones = ev.getInstantaneaInscripciones();
+        s.natural(inscripciones.size());
+        for (Inscripcion ins : inscripciones) {
+            CodecBinario.escribirInscripcion(s, ins);
+            v.quizasVolcar();
+        }
+        for (Inscripcion.Distancia d : Inscripcion.Distancia.values()) {
+            List<SolicitudInscripcion> espera = ev.getListaEspera(d);
+            s.natural(espera.size());
+            for (SolicitudInscripcion sol : espera) CodecBinario.escribirSolicitud(s, sol);
+        }
+
+        ResultadosEvento resultados = ev.getResultados();
+        int n = resultados.tamanio();
+        s.natural(n);
+        for (int fila = 0; fila < n; fila++) {
+            s.natural(resultados.idInscripcionEn(fila));
+            // Las posiciones no se guardan: el ranking las recalcula al restaurar
+            CodecBinario.escribirTiempo(s, Tiempo.deMilisegundos(resultados.milisegundosEn(fila), 0, 0));
+            v.quizasVolcar();
+        }
+        ParcialesEvento parciales = ev.getParciales();
+        for (Inscripcion ins : inscripciones) {
+            long[] marcas = parciales.obtenerTodos(ins);
+            for (int p = 0; p < marcas.length; p++) {
+                if (marcas[p] < 0) continue;
+                s.natural(ins.getId());
+                s.natural(p);
+                s.largo(marcas[p]);
+            }
+            v.quizasVolcar();
+        }
+        s.natural(0); // fin de parciales (los ids de inscripción son > 0)
+        s.enumerado(ev.getEstado());
+    }
+
+    private static void escribirChats(Volcado v, EstadoAplicacion estado) throws IOException {
+        CodecBinario.Salida s = v.salida;
+        ChatGeneral chat = estado.getChatGeneral();
+        List<Usuario> participantes = chat.getParticipantes();
+        s.natural(participantes.size());
+        for (Usuario u : participantes) s.natural(u.getId());
+        List<ChatGeneral.Mensaje> mensajes = chat.getMensajes();
+        s.natural(mensajes.size());
+        for (ChatGeneral.Mensaje m : mensajes) {
+            CodecBinario.escribirMensaje(s, m);
+            v.quizasVolcar();
+        }
+
+        Map<Integer, MensajeriaDirecta> conversaciones = estado.getConversaciones();
+        s.natural(conversaciones.size());
+        for (MensajeriaDirecta dm : conversaciones.values()) {
+            s.natural(dm.getIdDM());
+            s.natural(dm.getUsuarioA().getId());
+            s.natural(dm.getUsuarioB().getId());
+            List<MensajeriaDirecta.Mensaje> dms = dm.getMensajes();
+            s.natural(dms.size());
+            for (MensajeriaDirecta.Mensaje m : dms) {
+                CodecBinario.escribirMensaje(s, m);
+                v.quizasVolcar();
+            }
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Carga
+    // ------------------------------------------------------------
+
+    /**
+     * Carga una instantánea sobre estructuras vacías.
+     * @param archivo archivo de la instantánea.
+     * @param estado  estructuras destino (vacías).
+     * @return generación de la primera bitácora a reproducir encima.
+     * @throws IOException si el archivo no puede leerse, está dañado o es inconsistente.
+     */
+    static long cargar(Path archivo, EstadoAplicacion estado) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamanio = canal.size();
+            if (tamanio < 8) throw new IOException("Tamaño de instantánea inválido: " + tamanio);
+            long fin = tamanio - 4;
+            verificarCrc(canal, fin);
+
+            Lectura l = new Lectura(canal, fin);
+            CodecBinario.Entrada e = l.entrada;
+            try {
+                if (e.natural() != MAGICO) throw new IOException("El archivo no es una instantánea.");
+                int version = e.natural();
+                if (version != VERSION) throw new IOException("Versión de instantánea no soportada: " + version);
+                long generacion = e.largo();
+                Map<Integer, Usuario> usuarios = estado.getUsuarios();
+                int n = e.natural();
+                for (int i = 0; i < n; i++) {
+                    Usuario u = CodecBinario.leerUsuario(e);
+                    usuarios.put(u.getId(), u);
+                    l.avanzar();
+                }
+                int eventos = e.natural();
+                for (int i = 0; i < eventos; i++) leerEvento(l, estado);
+                leerChats(l, estado);
+                return generacion;
+            } catch (BufferUnderflowException | IllegalArgumentException | IllegalStateException ex) {
+                throw new IOException("Instantánea inconsistente: " + ex.getMessage(), ex);
+            }
+        }
+    }
+
+    /** Compara el CRC32C del cuerpo (mapeado por ventanas) con los 4 bytes finales. */
+    private static void verificarCrc(FileChannel canal, long fin) throws IOException {
+        CRC32C crc = new CRC32C();
+        for (long desde = 0; desde < fin; desde += VENTANA) {
+            crc.update(canal.map(FileChannel.MapMode.READ_ONLY, desde, Math.min(VENTANA, fin - desde)));
+        }
+        ByteBuffer cola = ByteBuffer.allocate(4);
+        while (cola.hasRemaining()) {
+            if (canal.read(cola, fin + cola.position()) < 0) throw new IOException("Instantánea truncada.");
+        }
+        if ((int) crc.getValue() != cola.getInt(0)) throw new IOException("La instantánea está dañada (CRC inválido).");
+    }
+
+    private static void leerEvento(Lectura l, EstadoAplicacion estado) throws IOException {
+        CodecBinario.Entrada e = l.entrada;
+        Evento ev = CodecBinario.leerEvento(e);
+        Map<Integer, Usuario> usuarios = estado.getUsuarios();
+        l.avanzar();
+
+        // Inscripciones: se arman fuera del evento y se agregan en bloque
+        int n = e.natural();
+        List<Inscripcion> inscripciones = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            inscripciones.add(CodecBinario.leerInscripcion(e, ev, usuarios));
+            l.avanzar();
+        }
+        ev.setInscripciones(inscripciones);
+        for (Inscripcion ins : inscripciones) ins.getCorredor().agregarInscripcion(ins);
+
+        for (Inscripcion.Distancia d : Inscripcion.Distancia.values()) {
+            int enEspera = e.natural();
+            for (int i = 0; i < enEspera; i++) {
+                ev.encolarEnEspera(CodecBinario.leerSolicitud(e, ev, usuarios));
+                l.avanzar();
+            }
+        }
+
+        // Tiempos: un solo lote (las posiciones guardadas se recalculan al clasificar)
+        int tiempos = e.natural();
+        Inscripcion[] conTiempo = new Inscripcion[tiempos];
+        long[] milisegundos = new long[tiempos];
+        for (int i = 0; i < tiempos; i++) {
+            conTiempo[i] = inscripcion(ev, e.natural());
+            milisegundos[i] = CodecBinario.leerTiempo(e).getMilisegundos();
+            l.avanzar();
+        }
+        ev.getRanking().registrarLote(conTiempo, milisegundos, tiempos);
+
+        ParcialesEvento parciales = ev.getParciales();
+        for (int idIns = e.natural(); idIns != 0; idIns = e.natural()) {
+            Inscripcion ins = inscripcion(ev, idIns);
+            int punto = e.natural();
+            parciales.registrar(ins, punto, e.largo());
+            l.avanzar();
+        }
+
+        Evento.EstadoEvento estadoEvento = e.enumerado(Evento.EstadoEvento.values());
+        if (estadoEvento != ev.getEstado()) ev.setEstado(estadoEvento);
+        estado.getEventos().agregar(ev);
+    }
+
+    private static void leerChats(Lectura l, EstadoAplicacion estado) throws IOException {
+        CodecBinario.Entrada e = l.entrada;
+        Map<Integer, Usuario> usuarios = estado.getUsuarios();
+        ChatGeneral chat = estado.getChatGeneral();
+        int participantes = e.natural();
+        for (int i = 0; i < participantes; i++) {
+            chat.agregarParticipante(CodecBinario.usuario(usuarios, e.natural()));
+            l.avanzar();
+        }
+        int mensajes = e.natural();
+        // La lista guardada es la final: los remitentes que ya salieron del chat no están en ella
+        for (int i = 0; i < mensajes; i++) {
+            chat.restaurarMensaje(CodecBinario.leerMensajeChat(e, usuarios));
+            l.avanzar();
+        }
+
+        int conversaciones = e.natural();
+        for (int i = 0; i < conversaciones; i++) {
+            int id = e.natural();
+            Usuario a = CodecBinario.usuario(usuarios, e.natural());
+            MensajeriaDirecta dm = new MensajeriaDirecta(id, a, CodecBinario.usuario(usuarios, e.natural()));
+            int n = e.natural();
+            for (int k = 0; k < n; k++) {
+                MensajeriaDirecta.Mensaje m = CodecBinario.leerMensajeDirecto(e, usuarios);
+                dm.enviarMensaje(m.getRemitente(), m.getTexto(), m.getFecha());
+                l.avanzar();
+            }
+            estado.getConversaciones().put(id, dm);
+            l.avanzar();
+        }
+    }
+
+    private static Inscripcion inscripcion(Evento ev, int id) {
+        Inscripcion ins = ev.buscarInscripcionPorId(id);
+        if (ins == null) throw new IllegalStateException("No existe la inscripción " + id + " en el evento " + ev.getId() + ".");
+        return ins;
+    }
+
+    // ------------------------------------------------------------
+    // Lectura por ventanas
+    // ------------------------------------------------------------
+
+    /**
+     * Entrada del codec sobre el cuerpo de la instantánea mapeado por ventanas de {@link #VENTANA} bytes.
+     * La carga llama a {@link #avanzar()} después de cada elemento; cuando lo leído entra en los últimos
+     * {@link #MARGEN} bytes de la ventana, se mapea la siguiente desde la posición actual.
+     */
+    private static final class Lectura {
+        final CodecBinario.Entrada entrada = new CodecBinario.Entrada();
+        private final FileChannel canal;
+        private final long fin;
+        private long base;
+        private MappedByteBuffer ventana;
+
+        /**
+         * @param canal canal del archivo.
+         * @param fin   fin del cuerpo (sin el CRC).
+         */
+        Lectura(FileChannel canal, long fin) throws IOException {
+            this.canal = canal;
+            this.fin = fin;
+            mapear(0);
+            entrada.reiniciar(ventana);
+        }
+
+        /** Pasa a la ventana siguiente si la actual está por agotarse (la tabla de textos se conserva). */
+        void avanzar() throws IOException {
+            int leido = ventana.position();
+            if (leido < VENTANA - MARGEN || base + ventana.limit() == fin) return;
+            mapear(base + leido);
+            entrada.continuar(ventana);
+        }
+
+        private void mapear(long desde) throws IOException {
+            base = desde;
+            ventana = canal.map(FileChannel.MapMode.READ_ONLY, desde, Math.min(VENTANA, fin - desde));
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Volcado
+    // ------------------------------------------------------------
+
+    /** Salida del codec que se vuelca al canal cada {@link #TAMANIO_BUFER} bytes, acumulando el CRC. */
+    private static final class Volcado {
+        final CodecBinario.Salida salida = new CodecBinario.Salida(TAMANIO_BUFER + (TAMANIO_BUFER >> 2));
+        private final FileChannel canal;
+        private final CRC32C crc = new CRC32C();
+
+        Volcado(FileChannel canal) { this.canal = canal; }
+
+        /** Vuelca si la salida superó el tamaño de búfer (la tabla de textos se conserva). */
+        void quizasVolcar() throws IOException {
+            if (salida.tamanio() >= TAMANIO_BUFER) volcar();
+        }
+
+        /** Vuelca lo pendiente y agrega el CRC final. */
+        void terminar() throws IOException {
+            volcar();
+            ByteBuffer cola = ByteBuffer.allocate(4).putInt((int) crc.getValue());
+            cola.flip();
+            while (cola.hasRemaining()) canal.write(cola);
+        }
+
+        private void volcar() throws IOException {
+            crc.update(salida.arreglo(), 0, salida.tamanio());
+            ByteBuffer b = ByteBuffer.wrap(salida.arreglo(), 0, salida.tamanio());
+            while (b.hasRemaining()) canal.write(b);
+            salida.vaciar();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package persistencia;
+
+import chats.ChatGeneral;
+import chats.MensajeriaDirecta;
+import usuarios.Usuario;
+
+import java.util.Collection;
+
+/**
+ * La interfaz {@code RepositorioConversaciones} define el acceso al chat general y a las conversaciones
+ * directas.
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>Las lecturas devuelven las mismas instancias que usa la aplicación.</li>
+ *   <li>Los mensajes se envían en el chat o la conversación y luego se registran con {@code guardarMensaje}.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+public interface RepositorioConversaciones {
+
+    /** @return chat general único. */
+    ChatGeneral getChatGeneral();
+
+    /**
+     * Registra que un usuario se unió al chat general o salió de él.
+     * @param u     usuario (no nulo).
+     * @param unido {@code true} si se unió; {@code false} si salió.
+     * @throws IllegalArgumentException si el usuario es nulo.
+     */
+    void guardarParticipante(Usuario u, boolean unido);
+
+    /**
+     * Registra un mensaje ya enviado en el chat general.
+     * @param m mensaje (no nulo).
+     * @throws IllegalArgumentException si es nulo.
+     */
+    void guardarMensaje(ChatGeneral.Mensaje m);
+
+    /**
+     * @param id ID de la conversación.
+     * @return conversación o {@code null} si no existe.
+     */
+    MensajeriaDirecta buscar(int id);
+
+    /**
+     * @param a usuario (no nulo).
+     * @param b usuario (no nulo).
+     * @return conversación entre ambos o {@code null} si no existe.
+     */
+    MensajeriaDirecta buscarEntre(Usuario a, Usuario b);
+
+    /** @return vista no modificable de todas las conversaciones. */
+    Collection<MensajeriaDirecta> listar();
+
+    /**
+     * Crea y registra una conversación nueva con un ID libre.
+     * @param a usuario (no nulo).
+     * @param b usuario (no nulo, distinto de {@code a}).
+     * @return conversación creada.
+     * @throws IllegalArgumentException si los usuarios son inválidos.
+     */
+    MensajeriaDirecta crear(Usuario a, Usuario b);
+
+    /**
+     * Registra un mensaje ya enviado en una conversación.
+     * @param dm conversación (no nula).
+     * @param m  mensaje (no nulo).
+     * @throws IllegalArgumentException si algún parámetro es nulo.
+     */
+    void guardarMensaje(MensajeriaDirecta dm, MensajeriaDirecta.Mensaje m);
+}
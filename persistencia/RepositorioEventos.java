@@ -0,0 +1,54 @@
+package persistencia;
+
+import eventos.Evento;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * La interfaz {@code RepositorioEventos} define el acceso a los eventos por ID, fecha y estado.
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>Las lecturas devuelven las mismas instancias que usa la aplicación.</li>
+ *   <li>{@link #guardar(Evento)} se llama tras crear un evento o cambiar sus datos o su estado.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+public interface RepositorioEventos {
+
+    /**
+     * @param id ID del evento.
+     * @return evento o {@code null} si no existe.
+     */
+    Evento buscar(int id);
+
+    /**
+     * Da de alta un evento o registra sus cambios.
+     * @param ev evento (no nulo).
+     * @throws IllegalArgumentException si es nulo.
+     */
+    void guardar(Evento ev);
+
+    /** @return eventos ordenados por ID. */
+    List<Evento> listarPorId();
+
+    /**
+     * @param estado estado buscado (no nulo).
+     * @param desde  fecha inicial (no nula).
+     * @param dias   cantidad de días hacia adelante (&ge; 0).
+     * @return eventos en ese estado con fecha en {@code [desde, desde + dias]}, ordenados por fecha.
+     */
+    List<Evento> buscarProximos(Evento.EstadoEvento estado, Date desde, int dias);
+
+    /** @return cantidad de eventos. */
+    int tamanio();
+
+    /** @return {@code true} si no hay eventos. */
+    boolean estaVacio();
+
+    /** @return un ID de evento libre (no se repite). */
+    int nuevoId();
+}
@@ -0,0 +1,57 @@
+package persistencia;
+
+import eventos.Evento;
+import eventos.Inscripcion;
+import eventos.SolicitudInscripcion;
+
+/**
+ * La interfaz {@code RepositorioInscripciones} define el acceso a las inscripciones y a las solicitudes en
+ * lista de espera. Las inscripciones viven en su {@link Evento} (y en su corredor); el repositorio las
+ * ubica y registra sus cambios.
+ *
+ * @author
+ * @version 1.0
+ */
+public interface RepositorioInscripciones {
+
+    /**
+     * @param idEvento      ID del evento.
+     * @param idInscripcion ID de la inscripción.
+     * @return inscripción o {@code null} si el evento o la inscripción no existen.
+     */
+    Inscripcion buscar(int idEvento, int idInscripcion);
+
+    /**
+     * Registra una inscripción nueva (ya agregada a su evento) o sus cambios (estado, categoría...).
+     * @param ins inscripción (no nula).
+     * @throws IllegalArgumentException si es nula.
+     */
+    void guardar(Inscripcion ins);
+
+    /**
+     * Registra una solicitud que quedó en la lista de espera de un evento.
+     * @param ev        evento (no nulo).
+     * @param solicitud solicitud ya encolada (no nula).
+     * @throws IllegalArgumentException si algún parámetro es nulo.
+     */
+    void guardarEnEspera(Evento ev, SolicitudInscripcion solicitud);
+
+    /**
+     * Registra que una inscripción se quitó de su evento y de su corredor.
+     * @param ins inscripción ya removida (no nula).
+     * @throws IllegalArgumentException si es nula.
+     */
+    void guardarRemocion(Inscripcion ins);
+
+    /**
+     * Registra que una solicitud salió de la lista de espera de un evento, tanto si fue admitida (su
+     * inscripción se registra aparte con {@link #guardar(Inscripcion)}) como si se descartó.
+     * @param ev        evento (no nulo).
+     * @param solicitud solicitud ya retirada (no nula).
+     * @throws IllegalArgumentException si algún parámetro es nulo.
+     */
+    void guardarSalidaEspera(Evento ev, SolicitudInscripcion solicitud);
+
+    /** @return un ID de inscripción libre (no se repite, tampoco con las solicitudes en espera). */
+    int nuevoId();
+}
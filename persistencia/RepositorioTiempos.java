@@ -0,0 +1,39 @@
+package persistencia;
+
+import eventos.Evento;
+import eventos.Inscripcion;
+import eventos.Tiempo;
+
+/**
+ * La interfaz {@code RepositorioTiempos} define el acceso a los tiempos finales y parciales. Los tiempos
+ * viven en el ranking y los parciales de su {@link Evento}; el repositorio los consulta y registra sus
+ * cambios.
+ *
+ * @author
+ * @version 1.0
+ */
+public interface RepositorioTiempos {
+
+    /**
+     * @param ins inscripción (no nula).
+     * @return tiempo con sus posiciones actuales o {@code null} si no tiene.
+     */
+    Tiempo buscar(Inscripcion ins);
+
+    /**
+     * Registra el tiempo final (ya clasificado en el ranking) de una inscripción.
+     * @param ins    inscripción (no nula).
+     * @param tiempo tiempo registrado (no nulo).
+     * @throws IllegalArgumentException si algún parámetro es nulo.
+     */
+    void guardar(Inscripcion ins, Tiempo tiempo);
+
+    /**
+     * Registra el paso (ya cargado en los parciales del evento) por un punto de control.
+     * @param ins          inscripción (no nula).
+     * @param punto        índice del punto de control.
+     * @param milisegundos tiempo desde la largada.
+     * @throws IllegalArgumentException si la inscripción es nula.
+     */
+    void guardarParcial(Inscripcion ins, int punto, long milisegundos);
+}
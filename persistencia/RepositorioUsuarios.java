@@ -0,0 +1,48 @@
+package persistencia;
+
+import usuarios.Usuario;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * La interfaz {@code RepositorioUsuarios} define el acceso a los usuarios (administradores y corredores)
+ * por cédula.
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>Las lecturas devuelven las mismas instancias que usa la aplicación.</li>
+ *   <li>{@link #guardar(Usuario)} se llama tras dar de alta o modificar un usuario; según la
+ *       implementación, además lo deja registrado para persistirlo.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+public interface RepositorioUsuarios {
+
+    /**
+     * @param cedula cédula del usuario.
+     * @return usuario o {@code null} si no existe.
+     */
+    Usuario buscar(int cedula);
+
+    /**
+     * Da de alta un usuario o registra sus cambios.
+     * @param u usuario (no nulo).
+     * @throws IllegalArgumentException si es nulo.
+     */
+    void guardar(Usuario u);
+
+    /** @return vista no modificable de todos los usuarios. */
+    Collection<Usuario> listar();
+
+    /** @return cantidad de usuarios. */
+    int tamanio();
+
+    /**
+     * @return vista de mapa por cédula respaldada por el repositorio: {@code get} equivale a
+     *         {@link #buscar(int)} y {@code put} a {@link #guardar(Usuario)} (uso de la importación masiva).
+     */
+    Map<Integer, Usuario> comoMapa();
+}
@@ -0,0 +1,38 @@
+package persistencia;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * La interfaz {@code Repositorios} agrupa los repositorios de la aplicación y el ciclo de vida de su
+ * almacenamiento.
+ *
+ * <p>Implementaciones: {@link RepositoriosMemoria} (solo memoria) y {@link RepositoriosArchivo} (memoria
+ * más escritura diferida a disco).</p>
+ *
+ * @author
+ * @version 1.0
+ */
+public interface Repositorios extends Closeable {
+
+    /** @return repositorio de usuarios. */
+    RepositorioUsuarios getUsuarios();
+
+    /** @return repositorio de eventos. */
+    RepositorioEventos getEventos();
+
+    /** @return repositorio de inscripciones. */
+    RepositorioInscripciones getInscripciones();
+
+    /** @return repositorio de tiempos. */
+    RepositorioTiempos getTiempos();
+
+    /** @return repositorio del chat general y las conversaciones directas. */
+    RepositorioConversaciones getConversaciones();
+
+    /**
+     * Espera a que todo lo guardado hasta ahora sea durable (sin efecto si el almacenamiento es solo memoria).
+     * @throws IOException si no pudo escribirse.
+     */
+    void confirmar() throws IOException;
+}
@@ -0,0 +1,114 @@
+package persistencia;
+
+import chats.ChatGeneral;
+import chats.MensajeriaDirecta;
+import eventos.CatalogoEventos;
+import eventos.Evento;
+import eventos.Inscripcion;
+import eventos.SolicitudInscripcion;
+import eventos.Tiempo;
+import usuarios.Usuario;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+
+/**
+ * La clase {@code RepositoriosArchivo} implementa los repositorios con las estructuras en memoria como
+ * caché completa y escritura diferida (<i>write-behind</i>) a una carpeta de datos.
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>Las lecturas son las de {@link RepositoriosMemoria}: nunca tocan el disco.</li>
+ *   <li>Cada {@code guardar} actualiza la memoria y agrega un registro al {@link DiarioCambios} sin esperar
+ *       al disco; el hilo escritor de la bitácora vuelca los registros acumulados en grupos, con una sola
+ *       sincronización por grupo.</li>
+ *   <li>{@link #confirmar()} espera a que lo guardado sea durable y, si la bitácora creció lo suficiente,
+ *       guarda una instantánea nueva. {@link #close()} guarda una instantánea y cierra el diario.</li>
+ *   <li>Sin I/O de consola.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+public class RepositoriosArchivo extends RepositoriosMemoria {
+
+    /** Diario de cambios de la carpeta de datos. */
+    private final DiarioCambios diario;
+
+    private RepositoriosArchivo(EstadoAplicacion estado, DiarioCambios diario) {
+        super(estado);
+        this.diario = diario;
+    }
+
+    /**
+     * Abre (o crea) la carpeta de datos y restaura su contenido (última instantánea más la bitácora posterior).
+     * @param carpeta carpeta de datos (no nula).
+     * @return repositorios con los datos restaurados.
+     * @throws IOException si los datos no pueden leerse o están dañados.
+     */
+    public static RepositoriosArchivo abrir(Path carpeta) throws IOException {
+        EstadoAplicacion estado = new EstadoAplicacion(new HashMap<>(), new CatalogoEventos(), new HashMap<>(),
+                new ChatGeneral(1));
+        return new RepositoriosArchivo(estado, DiarioCambios.abrir(carpeta, estado));
+    }
+
+    @Override
+    public void confirmar() throws IOException {
+        diario.confirmar();
+        if (diario.convieneInstantanea()) diario.guardarInstantanea();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            diario.guardarInstantanea();
+        } finally {
+            diario.close();
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Ganchos de persistencia
+    // ------------------------------------------------------------
+
+    @Override
+    protected void persistirUsuario(Usuario u) { diario.usuario(u); }
+
+    @Override
+    protected void persistirEvento(Evento ev) { diario.evento(ev); }
+
+    @Override
+    protected void persistirInscripcion(Inscripcion ins) { diario.inscripcion(ins); }
+
+    @Override
+    protected void persistirEnEspera(Evento ev, SolicitudInscripcion solicitud) { diario.enEspera(ev, solicitud); }
+
+    @Override
+    protected void persistirRemocion(Inscripcion ins) { diario.remocion(ins); }
+
+    @Override
+    protected void persistirSalidaEspera(Evento ev, SolicitudInscripcion solicitud) {
+        diario.salidaEspera(ev, solicitud);
+    }
+
+    @Override
+    protected void persistirTiempo(Inscripcion ins, Tiempo tiempo) { diario.tiempo(ins, tiempo); }
+
+    @Override
+    protected void persistirParcial(Inscripcion ins, int punto, long milisegundos) {
+        diario.parcial(ins, punto, milisegundos);
+    }
+
+    @Override
+    protected void persistirParticipante(Usuario u, boolean unido) { diario.participante(u, unido); }
+
+    @Override
+    protected void persistirMensaje(ChatGeneral.Mensaje m) { diario.mensajeChat(m); }
+
+    @Override
+    protected void persistirConversacion(MensajeriaDirecta dm) { diario.conversacion(dm); }
+
+    @Override
+    protected void persistirMensaje(MensajeriaDirecta dm, MensajeriaDirecta.Mensaje m) { diario.mensajeDirecto(dm, m); }
+}
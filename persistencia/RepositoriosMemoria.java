@@ -0,0 +1,364 @@
+package persistencia;
+
+import chats.ChatGeneral;
+import chats.MensajeriaDirecta;
+import eventos.CatalogoEventos;
+import eventos.Evento;
+import eventos.Inscripcion;
+import eventos.SolicitudInscripcion;
+import eventos.Tiempo;
+import usuarios.Usuario;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * La clase {@code RepositoriosMemoria} implementa los repositorios sobre las estructuras en memoria de
+ * {@link EstadoAplicacion} (mapas por ID y {@link CatalogoEventos}).
+ *
+ * <p><b>Reglas/consideraciones:</b></p>
+ * <ul>
+ *   <li>Las lecturas son consultas directas a mapas e índices en memoria.</li>
+ *   <li>Cada {@code guardar} actualiza la memoria y llama a un gancho {@code persistir...} que aquí no hace
+ *       nada; {@link RepositoriosArchivo} los redefine para escribir en disco.</li>
+ *   <li>Los IDs nuevos se reparten con contadores que arrancan después de los IDs existentes.</li>
+ *   <li>No es segura para hilos (como los mapas de la aplicación). Sin I/O de consola.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+public class RepositoriosMemoria implements Repositorios {
+
+    /** Estructuras en memoria. */
+    private final EstadoAplicacion estado;
+
+    /** Contadores de IDs. */
+    private final AtomicInteger siguienteEvento;
+    private final AtomicInteger siguienteInscripcion;
+    private final AtomicInteger siguienteConversacion;
+
+    private final RepositorioUsuarios usuarios;
+    private final RepositorioEventos eventos;
+    private final RepositorioInscripciones inscripciones;
+    private final RepositorioTiempos tiempos;
+    private final RepositorioConversaciones conversaciones;
+
+    /** Crea repositorios vacíos (con un chat general de ID 1). */
+    public RepositoriosMemoria() {
+        this(new EstadoAplicacion(new HashMap<>(), new CatalogoEventos(), new HashMap<>(), new ChatGeneral(1)));
+    }
+
+    /**
+     * Crea repositorios sobre estructuras existentes (p. ej., restauradas de disco).
+     * @param estado estructuras en memoria (no nulo).
+     * @throws IllegalArgumentException si es nulo.
+     */
+    public RepositoriosMemoria(EstadoAplicacion estado) {
+        if (estado == null) throw new IllegalArgumentException("El estado no puede ser nulo.");
+        this.estado = estado;
+        this.siguienteEvento = new AtomicInteger(estado.siguienteIdEvento());
+        this.siguienteInscripcion = new AtomicInteger(estado.siguienteIdInscripcion());
+        this.siguienteConversacion = new AtomicInteger(estado.siguienteIdConversacion());
+        this.usuarios = new Usuarios();
+        this.eventos = new Eventos();
+        this.inscripciones = new Inscripciones();
+        this.tiempos = new Tiempos();
+        this.conversaciones = new Conversaciones();
+    }
+
+    @Override
+    public RepositorioUsuarios getUsuarios() { return usuarios; }
+
+    @Override
+    public RepositorioEventos getEventos() { return eventos; }
+
+    @Override
+    public RepositorioInscripciones getInscripciones() { return inscripciones; }
+
+    @Override
+    public RepositorioTiempos getTiempos() { return tiempos; }
+
+    @Override
+    public RepositorioConversaciones getConversaciones() { return conversaciones; }
+
+    /** @return estructuras en memoria. */
+    protected EstadoAplicacion getEstado() { return estado; }
+
+    /** Sin efecto: todo está en memoria. */
+    @Override
+    public void confirmar() throws IOException { }
+
+    /** Sin efecto: no hay recursos abiertos. */
+    @Override
+    public void close() throws IOException { }
+
+    // ------------------------------------------------------------
+    // Ganchos de persistencia (sin efecto en memoria)
+    // ------------------------------------------------------------
+
+    /** @param u usuario guardado. */
+    protected void persistirUsuario(Usuario u) { }
+
+    /** @param ev evento guardado. */
+    protected void persistirEvento(Evento ev) { }
+
+    /** @param ins inscripción guardada. */
+    protected void persistirInscripcion(Inscripcion ins) { }
+
+    /**
+     * @param ev        evento.
+     * @param solicitud solicitud encolada.
+     */
+    protected void persistirEnEspera(Evento ev, SolicitudInscripcion solicitud) { }
+
+    /** @param ins inscripción removida. */
+    protected void persistirRemocion(Inscripcion ins) { }
+
+    /**
+     * @param ev        evento.
+     * @param solicitud solicitud retirada de la lista de espera.
+     */
+    protected void persistirSalidaEspera(Evento ev, SolicitudInscripcion solicitud) { }
+
+    /**
+     * @param ins    inscripción.
+     * @param tiempo tiempo registrado.
+     */
+    protected void persistirTiempo(Inscripcion ins, Tiempo tiempo) { }
+
+    /**
+     * @param ins          inscripción.
+     * @param punto        índice del punto de control.
+     * @param milisegundos tiempo desde la largada.
+     */
+    protected void persistirParcial(Inscripcion ins, int punto, long milisegundos) { }
+
+    /**
+     * @param u     usuario.
+     * @param unido {@code true} si se unió al chat general.
+     */
+    protected void persistirParticipante(Usuario u, boolean unido) { }
+
+    /** @param m mensaje del chat general. */
+    protected void persistirMensaje(ChatGeneral.Mensaje m) { }
+
+    /** @param dm conversación creada. */
+    protected void persistirConversacion(MensajeriaDirecta dm) { }
+
+    /**
+     * @param dm conversación.
+     * @param m  mensaje enviado.
+     */
+    protected void persistirMensaje(MensajeriaDirecta dm, MensajeriaDirecta.Mensaje m) { }
+
+    private static void validar(Object o, String nombre) {
+        if (o == null) throw new IllegalArgumentException(nombre + " no puede ser nulo.");
+    }
+
+    // ------------------------------------------------------------
+    // Repositorios
+    // ------------------------------------------------------------
+
+    /** Usuarios sobre el mapa por cédula. */
+    private final class Usuarios implements RepositorioUsuarios {
+        private final Map<Integer, Usuario> mapa = estado.getUsuarios();
+        private final Map<Integer, Usuario> vista = new VistaUsuarios();
+
+        @Override
+        public Usuario buscar(int cedula) { return mapa.get(cedula); }
+
+        @Override
+        public void guardar(Usuario u) {
+            validar(u, "El usuario");
+            mapa.put(u.getId(), u);
+            persistirUsuario(u);
+        }
+
+        @Override
+        public Collection<Usuario> listar() { return Collections.unmodifiableCollection(mapa.values()); }
+
+        @Override
+        public int tamanio() { return mapa.size(); }
+
+        @Override
+        public Map<Integer, Usuario> comoMapa() { return vista; }
+
+        /** Vista de mapa que guarda por el repositorio. */
+        private final class VistaUsuarios extends AbstractMap<Integer, Usuario> {
+            @Override
+            public Usuario get(Object cedula) { return mapa.get(cedula); }
+
+            @Override
+            public boolean containsKey(Object cedula) { return mapa.containsKey(cedula); }
+
+            @Override
+            public Usuario put(Integer cedula, Usuario u) {
+                validar(u, "El usuario");
+                if (cedula == null || cedula != u.getId()) {
+                    throw new IllegalArgumentException("La clave debe ser la cédula del usuario.");
+                }
+                Usuario anterior = mapa.get(cedula);
+                guardar(u);
+                return anterior;
+            }
+
+            @Override
+            public int size() { return mapa.size(); }
+
+            @Override
+            public Set<Map.Entry<Integer, Usuario>> entrySet() {
+                return Collections.unmodifiableMap(mapa).entrySet();
+            }
+        }
+    }
+
+    /** Eventos sobre el catálogo. */
+    private final class Eventos implements RepositorioEventos {
+        private final CatalogoEventos catalogo = estado.getEventos();
+
+        @Override
+        public Evento buscar(int id) { return catalogo.obtener(id); }
+
+        @Override
+        public void guardar(Evento ev) {
+            validar(ev, "El evento");
+            if (catalogo.obtener(ev.getId()) == null) catalogo.agregar(ev);
+            persistirEvento(ev);
+        }
+
+        @Override
+        public List<Evento> listarPorId() { return catalogo.listarPorId(); }
+
+        @Override
+        public List<Evento> buscarProximos(Evento.EstadoEvento estadoEvento, Date desde, int dias) {
+            return catalogo.buscarProximos(estadoEvento, desde, dias);
+        }
+
+        @Override
+        public int tamanio() { return catalogo.tamanio(); }
+
+        @Override
+        public boolean estaVacio() { return catalogo.estaVacio(); }
+
+        @Override
+        public int nuevoId() { return siguienteEvento.getAndIncrement(); }
+    }
+
+    /** Inscripciones dentro de sus eventos. */
+    private final class Inscripciones implements RepositorioInscripciones {
+        @Override
+        public Inscripcion buscar(int idEvento, int idInscripcion) {
+            Evento ev = estado.getEventos().obtener(idEvento);
+            return (ev == null) ? null : ev.buscarInscripcionPorId(idInscripcion);
+        }
+
+        @Override
+        public void guardar(Inscripcion ins) {
+            validar(ins, "La inscripción");
+            persistirInscripcion(ins);
+        }
+
+        @Override
+        public void guardarEnEspera(Evento ev, SolicitudInscripcion solicitud) {
+            validar(ev, "El evento");
+            validar(solicitud, "La solicitud");
+            persistirEnEspera(ev, solicitud);
+        }
+
+        @Override
+        public void guardarRemocion(Inscripcion ins) {
+            validar(ins, "La inscripción");
+            persistirRemocion(ins);
+        }
+
+        @Override
+        public void guardarSalidaEspera(Evento ev, SolicitudInscripcion solicitud) {
+            validar(ev, "El evento");
+            validar(solicitud, "La solicitud");
+            persistirSalidaEspera(ev, solicitud);
+        }
+
+        @Override
+        public int nuevoId() { return siguienteInscripcion.getAndIncrement(); }
+    }
+
+    /** Tiempos en el ranking y los parciales de cada evento. */
+    private final class Tiempos implements RepositorioTiempos {
+        @Override
+        public Tiempo buscar(Inscripcion ins) {
+            validar(ins, "La inscripción");
+            return ins.getEvento().getRanking().obtenerTiempo(ins.getId());
+        }
+
+        @Override
+        public void guardar(Inscripcion ins, Tiempo tiempo) {
+            validar(ins, "La inscripción");
+            validar(tiempo, "El tiempo");
+            persistirTiempo(ins, tiempo);
+        }
+
+        @Override
+        public void guardarParcial(Inscripcion ins, int punto, long milisegundos) {
+            validar(ins, "La inscripción");
+            persistirParcial(ins, punto, milisegundos);
+        }
+    }
+
+    /** Chat general y conversaciones directas por ID. */
+    private final class Conversaciones implements RepositorioConversaciones {
+        private final Map<Integer, MensajeriaDirecta> mapa = estado.getConversaciones();
+
+        @Override
+        public ChatGeneral getChatGeneral() { return estado.getChatGeneral(); }
+
+        @Override
+        public void guardarParticipante(Usuario u, boolean unido) {
+            validar(u, "El usuario");
+            persistirParticipante(u, unido);
+        }
+
+        @Override
+        public void guardarMensaje(ChatGeneral.Mensaje m) {
+            validar(m, "El mensaje");
+            persistirMensaje(m);
+        }
+
+        @Override
+        public MensajeriaDirecta buscar(int id) { return mapa.get(id); }
+
+        @Override
+        public MensajeriaDirecta buscarEntre(Usuario a, Usuario b) {
+            for (MensajeriaDirecta dm : mapa.values()) {
+                if (dm.esParticipante(a) && dm.esParticipante(b)) return dm;
+            }
+            return null;
+        }
+
+        @Override
+        public Collection<MensajeriaDirecta> listar() { return Collections.unmodifiableCollection(mapa.values()); }
+
+        @Override
+        public MensajeriaDirecta crear(Usuario a, Usuario b) {
+            MensajeriaDirecta dm = new MensajeriaDirecta(siguienteConversacion.getAndIncrement(), a, b);
+            mapa.put(dm.getIdDM(), dm);
+            persistirConversacion(dm);
+            return dm;
+        }
+
+        @Override
+        public void guardarMensaje(MensajeriaDirecta dm, MensajeriaDirecta.Mensaje m) {
+            validar(dm, "La conversación");
+            validar(m, "El mensaje");
+            persistirMensaje(dm, m);
+        }
+    }
+}
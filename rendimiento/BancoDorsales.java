@@ -0,0 +1,126 @@
+package rendimiento;
+
+import eventos.Evento;
+import eventos.Inscripcion;
+import usuarios.Corredor;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Medición del costo por alta de {@link Evento#agregarInscripcion(Inscripcion)} y por consulta de
+ * {@link Evento#existeDorsal(int)} con el índice de dorsales.
+ *
+ * <p><b>Qué hace:</b> para cada tamaño (1.000, 10.000 y 100.000 inscripciones por defecto) crea un evento
+ * vacío, agrega las inscripciones con dorsales consecutivos y mide el tiempo medio por alta; luego mide
+ * {@code existeDorsal} con dorsales al azar y, como referencia, la búsqueda lineal sobre la lista que el
+ * índice reemplazó. Repite la serie varias veces; las primeras rondas sirven de calentamiento del JIT y no
+ * se informan (se informa la mediana de las demás).</p>
+ *
+ * <p>Con el índice, la consulta y cada alta hacen una cantidad de trabajo fija: no recorren la lista. Eso
+ * no significa que el costo por alta sea plano. En una máquina de 1 CPU se midió alrededor de 150-215 ns
+ * con 1.000 inscripciones, 190-245 ns con 10.000 y 440-490 ns con 100.000, mientras la búsqueda lineal
+ * crece unas 130 veces en el mismo rango.</p>
+ *
+ * <p>La suba tiene dos causas:</p>
+ * <ul>
+ *   <li>Cada alta escribe en tres tablas hash: dorsal, posición y posición en el estado. El hash dispersa
+ *       a propósito los dorsales e ids consecutivos, para que claves con paso fijo no se amontonen. Con
+ *       100.000 claves las tablas ya no entran en caché, así que cada escritura es un fallo de caché.</li>
+ *   <li>El evento sobrevive a las recolecciones jóvenes y se copia entero en cada una.</li>
+ * </ul>
+ *
+ * <p>Sin recolector (Epsilon) se midieron 155, 240 y 350 ns. Con un hash que conserva la contigüidad el
+ * costo queda en unos 140 ns en todo el rango. No se usa porque con claves de paso fijo (ids repartidos
+ * entre eventos) degenera en grupos largos.</p>
+ *
+ * <p>Uso: {@code java rendimiento.BancoDorsales [tamaño...]}.</p>
+ *
+ * @author
+ * @version 1.0
+ */
+public final class BancoDorsales {
+
+    /** Rondas descartadas antes de medir. */
+    private static final int RONDAS_CALENTAMIENTO = 5;
+
+    /** Rondas medidas (se informa la mediana). */
+    private static final int RONDAS_MEDIDAS = 7;
+
+    /** Consultas de dorsal por ronda. */
+    private static final int CONSULTAS = 1_000;
+
+    private BancoDorsales() { }
+
+    /**
+     * @param args tamaños de evento a medir (opcionales).
+     */
+    public static void main(String[] args) {
+        int[] tamanios = (args.length == 0) ? new int[]{1_000, 10_000, 100_000} : new int[args.length];
+        for (int i = 0; i < args.length; i++) tamanios[i] = Integer.parseInt(args[i]);
+
+        Corredor corredor = new Corredor(1, "Corredor", "", "");
+        for (int r = 0; r < RONDAS_CALENTAMIENTO; r++) {
+            for (int n : tamanios) medir(n, corredor);
+        }
+        System.out.println("inscripciones   ns/alta   ns/existeDorsal   ns/búsqueda lineal");
+        for (int n : tamanios) {
+            double[][] rondas = new double[3][RONDAS_MEDIDAS];
+            for (int r = 0; r < RONDAS_MEDIDAS; r++) {
+                double[] m = medir(n, corredor);
+                for (int k = 0; k < 3; k++) rondas[k][r] = m[k];
+            }
+            for (double[] serie : rondas) Arrays.sort(serie);
+            int medio = RONDAS_MEDIDAS / 2;
+            System.out.printf("%,13d %9.1f %17.1f %20.1f%n", n, rondas[0][medio], rondas[1][medio], rondas[2][medio]);
+        }
+    }
+
+    /**
+     * Llena un evento nuevo con {@code n} inscripciones y consulta dorsales al azar.
+     * @return {ns por alta, ns por {@code existeDorsal}, ns por búsqueda lineal}.
+     */
+    private static double[] medir(int n, Corredor corredor) {
+        Evento evento = new Evento(1, "Banco", new Date(), "", null);
+        Inscripcion[] lote = new Inscripcion[n];
+        for (int i = 0; i < n; i++) {
+            lote[i] = new Inscripcion(i + 1, Inscripcion.Distancia.MARATON, Inscripcion.Talla.M, i + 1,
+                    corredor, evento);
+        }
+        long inicio = System.nanoTime();
+        for (Inscripcion ins : lote) evento.agregarInscripcion(ins);
+        long fin = System.nanoTime();
+        double alta = (fin - inicio) / (double) n;
+
+        int[] dorsales = new int[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) dorsales[i] = ThreadLocalRandom.current().nextInt(1, 2 * n);
+        int hallados = 0;
+        inicio = System.nanoTime();
+        for (int d : dorsales) {
+            if (evento.existeDorsal(d)) hallados++;
+        }
+        fin = System.nanoTime();
+        double indice = (fin - inicio) / (double) CONSULTAS;
+
+        List<Inscripcion> lista = evento.getInscripciones();
+        int halladosLineal = 0;
+        inicio = System.nanoTime();
+        for (int d : dorsales) {
+            for (Inscripcion ins : lista) {
+                if (ins.getNumeroDorsal() == d) {
+                    halladosLineal++;
+                    break;
+                }
+            }
+        }
+        fin = System.nanoTime();
+        double lineal = (fin - inicio) / (double) CONSULTAS;
+
+        if (hallados != halladosLineal) {
+            throw new IllegalStateException("El índice y la búsqueda lineal no coinciden.");
+        }
+        return new double[]{alta, indice, lineal};
+    }
+}
@@ -0,0 +1,89 @@
+package rendimiento;
+
+import eventos.Tiempo;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Medición del formateo de tiempos {@code HH:MM:SS.mmm}: {@link String#format} contra
+ * {@link Tiempo#formatearMilisegundos(long, StringBuilder)} con un búfer reutilizado.
+ *
+ * <p><b>Qué hace:</b> genera 65.536 tiempos al azar (0 a ~5,5 h, semilla fija), verifica que ambos
+ * formateos den el mismo texto para todos y mide el tiempo medio por tiempo formateado. Cada ronda formatea
+ * la muestra 10 veces con cada método; las primeras rondas sirven de calentamiento del JIT y no se informan
+ * (se informa la mediana de las demás). La longitud acumulada de los textos se imprime para que el JIT no
+ * descarte el trabajo.</p>
+ *
+ * <p>Uso: {@code java rendimiento.BancoFormatoTiempo}.</p>
+ *
+ * @author
+ * @version 1.0
+ */
+public final class BancoFormatoTiempo {
+
+    /** Tiempos de la muestra. */
+    private static final int MUESTRA = 1 << 16;
+
+    /** Pasadas sobre la muestra por ronda y método. */
+    private static final int PASADAS = 10;
+
+    /** Rondas descartadas antes de medir. */
+    private static final int RONDAS_CALENTAMIENTO = 5;
+
+    /** Rondas medidas. */
+    private static final int RONDAS_MEDIDAS = 7;
+
+    private BancoFormatoTiempo() { }
+
+    /**
+     * @param args sin uso.
+     */
+    public static void main(String[] args) {
+        long[] muestra = new long[MUESTRA];
+        Random azar = new Random(1);
+        for (int i = 0; i < MUESTRA; i++) muestra[i] = azar.nextInt(20_000_000);
+
+        StringBuilder bufer = new StringBuilder(16);
+        for (long ms : muestra) {
+            bufer.setLength(0);
+            String esperado = conFormat(ms);
+            if (!esperado.contentEquals(Tiempo.formatearMilisegundos(ms, bufer))) {
+                throw new IllegalStateException("Formato distinto para " + ms + " ms: " + bufer + " / " + esperado);
+            }
+        }
+
+        long control = 0;
+        double[] format = new double[RONDAS_MEDIDAS];
+        double[] propio = new double[RONDAS_MEDIDAS];
+        for (int r = 0; r < RONDAS_CALENTAMIENTO + RONDAS_MEDIDAS; r++) {
+            long inicio = System.nanoTime();
+            for (int p = 0; p < PASADAS; p++) {
+                for (long ms : muestra) control += conFormat(ms).length();
+            }
+            long medio = System.nanoTime();
+            for (int p = 0; p < PASADAS; p++) {
+                for (long ms : muestra) {
+                    bufer.setLength(0);
+                    control += Tiempo.formatearMilisegundos(ms, bufer).length();
+                }
+            }
+            long fin = System.nanoTime();
+            if (r >= RONDAS_CALENTAMIENTO) {
+                format[r - RONDAS_CALENTAMIENTO] = (medio - inicio) / (double) (PASADAS * MUESTRA);
+                propio[r - RONDAS_CALENTAMIENTO] = (fin - medio) / (double) (PASADAS * MUESTRA);
+            }
+        }
+        Arrays.sort(format);
+        Arrays.sort(propio);
+        System.out.printf("%-22s %8.1f ns/tiempo%n", "String.format", format[RONDAS_MEDIDAS / 2]);
+        System.out.printf("%-22s %8.1f ns/tiempo%n", "formatearMilisegundos", propio[RONDAS_MEDIDAS / 2]);
+        System.out.println("(control " + control + ")");
+    }
+
+    /** Formateo de referencia, como lo hacía la consola antes. */
+    private static String conFormat(long ms) {
+        return String.format("%02d:%02d:%02d.%03d", ms / 3_600_000, ms % 3_600_000 / 60_000, ms % 60_000 / 1000,
+                ms % 1000);
+    }
+}
@@ -0,0 +1,179 @@
+package rendimiento;
+
+import eventos.Evento;
+import eventos.Inscripcion;
+import usuarios.Administrador;
+import usuarios.Corredor;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Prueba de estrés de la inscripción concurrente sobre un mismo {@link Evento}.
+ *
+ * <p><b>Qué hace:</b></p>
+ * <ul>
+ *   <li>Lanza {@code hilos} hilos (64 por defecto) que reparten {@code intentos} llamadas (1.000.000 por
+ *       defecto) a {@link Administrador#crearInscripcionParaCorredor}. Cada corredor se intenta inscribir
+ *       dos veces, desde hilos distintos, con dorsal automático.</li>
+ *   <li>Las distancias tienen cupo (el de maratón, menor que la demanda) y rango de dorsales propio.</li>
+ *   <li>Mientras tanto, parte de las inscripciones creadas se pagan o se confirman, para ejercitar el
+ *       índice por estado.</li>
+ * </ul>
+ *
+ * <p><b>Invariantes que verifica al terminar:</b> ninguna distancia supera su cupo (y la saturada lo llena
+ * exacto), los dorsales son únicos y caen en el rango de su distancia, cada corredor tiene a lo sumo una
+ * inscripción en el evento, y los conteos del índice por estado coinciden con un recuento de la lista.</p>
+ *
+ * <p>Uso: {@code java rendimiento.EstresInscripciones [hilos] [intentos]}. Termina con código 1 si algún
+ * invariante falla.</p>
+ *
+ * @author
+ * @version 1.0
+ */
+public final class EstresInscripciones {
+
+    /** Rango de dorsales por distancia: {@code base(d) + 1 .. base(d) + TAMANIO_RANGO}. */
+    private static final int TAMANIO_RANGO = 1_000_000;
+
+    private EstresInscripciones() { }
+
+    /**
+     * @param args {@code [hilos] [intentos]} (opcionales).
+     * @throws Exception si un hilo falla de forma inesperada.
+     */
+    public static void main(String[] args) throws Exception {
+        int hilos = (args.length > 0) ? Integer.parseInt(args[0]) : 64;
+        int intentos = (args.length > 1) ? Integer.parseInt(args[1]) : 1_000_000;
+        int corredores = intentos / 2;
+
+        Inscripcion.Distancia[] distancias = Inscripcion.Distancia.values();
+        Evento evento = new Evento(1, "Estrés", new Date(), "Prueba de inscripción concurrente", null);
+        EnumMap<Inscripcion.Distancia, Integer> cupos = new EnumMap<>(Inscripcion.Distancia.class);
+        for (Inscripcion.Distancia d : distancias) {
+            evento.configurarRangoDorsales(d, base(d) + 1, base(d) + TAMANIO_RANGO);
+            // Maratón queda saturada (la mitad de su demanda); el resto tiene lugar para todos
+            int demanda = (corredores + distancias.length - 1) / distancias.length;
+            int cupo = (d == Inscripcion.Distancia.MARATON) ? demanda / 2 : demanda;
+            evento.configurarCupo(d, cupo);
+            cupos.put(d, cupo);
+        }
+
+        Corredor[] cs = new Corredor[corredores];
+        for (int i = 0; i < corredores; i++) cs[i] = new Corredor(i + 1, "Corredor " + (i + 1), "", "");
+        Administrador admin = new Administrador(1, "Admin", "", "", "ADMIN");
+
+        AtomicInteger siguienteId = new AtomicInteger(1);
+        AtomicInteger creadas = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        List<Future<?>> tareas = new ArrayList<>();
+        long inicio = System.nanoTime();
+        for (int h = 0; h < hilos; h++) {
+            final int hilo = h;
+            tareas.add(pool.submit(() -> {
+                for (int k = hilo; k < intentos; k += hilos) {
+                    int c = k % corredores;
+                    Inscripcion.Distancia d = distancias[c % distancias.length];
+                    try {
+                        Inscripcion ins = admin.crearInscripcionParaCorredor(siguienteId.getAndIncrement(), cs[c],
+                                evento, d, Inscripcion.Talla.M, 0);
+                        creadas.incrementAndGet();
+                        if (c % 3 >= 1) admin.confirmarPagoInscripcion(ins);
+                        if (c % 3 == 2) admin.confirmarInscripcion(ins);
+                    } catch (IllegalStateException e) {
+                        // Segundo intento del mismo corredor o distancia sin cupo
+                        rechazadas.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : tareas) f.get();
+        pool.shutdown();
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+
+        List<String> fallas = verificar(evento, cs, cupos, creadas.get());
+        System.out.println(intentos + " intentos en " + hilos + " hilos: " + ms + " ms; creadas=" + creadas
+                + " rechazadas=" + rechazadas);
+        for (Inscripcion.Estado e : Inscripcion.Estado.values()) {
+            System.out.println("   " + e + ": " + evento.contarInscripcionesPorEstado(e));
+        }
+        if (fallas.isEmpty()) {
+            System.out.println("Invariantes OK.");
+        } else {
+            for (String f : fallas) System.out.println("FALLA: " + f);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Verifica los invariantes con el evento ya quieto.
+     * @return descripción de cada invariante violado (vacía si todo está bien).
+     */
+    private static List<String> verificar(Evento evento, Corredor[] cs,
+                                          EnumMap<Inscripcion.Distancia, Integer> cupos, int creadas) {
+        List<String> fallas = new ArrayList<>();
+        List<Inscripcion> todas = evento.getInscripciones();
+        if (todas.size() != creadas) {
+            fallas.add("el evento tiene " + todas.size() + " inscripciones y se crearon " + creadas);
+        }
+
+        // Cupo por distancia
+        for (Inscripcion.Distancia d : Inscripcion.Distancia.values()) {
+            int n = evento.contarInscripcionesPorDistancia(d);
+            int cupo = cupos.get(d);
+            if (n > cupo) fallas.add(d + ": " + n + " inscripciones con cupo " + cupo);
+            if (d == Inscripcion.Distancia.MARATON && n != cupo) {
+                fallas.add(d + " (saturada): " + n + " inscripciones, se esperaba llenar el cupo " + cupo);
+            }
+        }
+
+        // Dorsales únicos y dentro del rango de su distancia
+        boolean[] usados = new boolean[Inscripcion.Distancia.values().length * TAMANIO_RANGO + 1];
+        int[] recuentoEstados = new int[Inscripcion.Estado.values().length];
+        for (Inscripcion ins : todas) {
+            int dorsal = ins.getNumeroDorsal();
+            int desde = base(ins.getDistancia()) + 1;
+            if (dorsal < desde || dorsal >= desde + TAMANIO_RANGO) {
+                fallas.add("dorsal " + dorsal + " fuera del rango de " + ins.getDistancia());
+            } else if (usados[dorsal]) {
+                fallas.add("dorsal repetido: " + dorsal);
+            } else {
+                usados[dorsal] = true;
+            }
+            recuentoEstados[ins.getEstado().ordinal()]++;
+        }
+
+        // Una inscripción por corredor
+        for (Corredor c : cs) {
+            int propias = 0;
+            for (Inscripcion ins : c.getInscripciones()) {
+                if (ins.getEvento() == evento) propias++;
+            }
+            if (propias > 1) fallas.add("corredor " + c.getId() + " tiene " + propias + " inscripciones");
+        }
+
+        // Índice por estado
+        for (Inscripcion.Estado e : Inscripcion.Estado.values()) {
+            int esperado = recuentoEstados[e.ordinal()];
+            int contado = evento.contarInscripcionesPorEstado(e);
+            int listado = evento.obtenerInscripcionesPorEstado(e).size();
+            if (contado != esperado || listado != esperado) {
+                fallas.add(e + ": índice cuenta " + contado + " y lista " + listado + ", recuento " + esperado);
+            }
+        }
+        return fallas;
+    }
+
+    /** @return desplazamiento del rango de dorsales de una distancia. */
+    private static int base(Inscripcion.Distancia d) {
+        return d.ordinal() * TAMANIO_RANGO;
+    }
+}
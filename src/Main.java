@@ -2,14 +2,37 @@ import chats.ChatGeneral;
 import chats.MensajeriaDirecta;
 import eventos.Categoria;
 import eventos.Evento;
+import eventos.ExportadorEvento;
+import eventos.IngestaLecturasChip;
 import eventos.Inscripcion;
+import eventos.ParcialesEvento;
+import eventos.Premiacion;
+import eventos.PromocionEspera;
+import eventos.RankingEvento;
+import eventos.ResultadoIngesta;
+import eventos.ResumenTiempos;
+import eventos.SolicitudInscripcion;
 import eventos.Tiempo;
+import persistencia.Repositorios;
+import persistencia.RepositoriosArchivo;
+import persistencia.RepositoriosMemoria;
 import usuarios.Administrador;
 import usuarios.Corredor;
+import usuarios.ResultadoImportacion;
+import usuarios.ResultadoSolicitud;
 import usuarios.Usuario;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Punto de entrada de la aplicación de consola.
@@ -18,10 +41,12 @@ import java.util.concurrent.atomic.AtomicInteger;
  * <ul>
  *   <li>Login por cédula: asigna rol por pertenencia a un set de cédulas de administrador.</li>
  *   <li>Menú de <b>Administrador</b>: crear eventos (con fecha real), cambiar estado (transiciones válidas),
- *       inscribir corredores (creación en caliente), confirmar pago/inscripción y registrar tiempos.</li>
+ *       inscribir corredores (creación en caliente o importación masiva CSV), confirmar pago/inscripción
+ *       y registrar tiempos.</li>
  *   <li>Menú de <b>Corredor</b>: ver eventos, ver inscripciones propias y participar en chats.</li>
  *   <li><b>Chat General</b> y <b>Mensajería Directa</b> con validaciones de participación.</li>
- *   <li>Persistencia simple en memoria: Map de usuarios, eventos, DMs y tiempos por evento.</li>
+ *   <li>Datos accedidos a través de {@link Repositorios}: en memoria, con escritura diferida a la carpeta de
+ *       datos ({@link RepositoriosArchivo}) que se restaura al iniciar.</li>
  * </ul>
  *
  * <p><b>Convenciones:</b> no se cierra el {@link Scanner} global (no cerrar System.in); toda la interacción
@@ -35,40 +60,32 @@ public class Main {
     /** Cédulas reconocidas como administradores (ajustar a tu entorno). */
     private static final Set<Integer> ADMIN_CEDULAS = new HashSet<>(Arrays.asList(1010, 2020));
 
-    /** Almacenamiento en memoria de usuarios por cédula. */
-    private static final Map<Integer, Usuario> USUARIOS = new HashMap<>();
+    /** Carpeta de datos (propiedad de sistema {@code corredores.datos}; por defecto {@code datos}). */
+    private static final String CARPETA_DATOS = System.getProperty("corredores.datos", "datos");
 
-    /** Almacenamiento en memoria de eventos por ID. */
-    private static final Map<Integer, Evento> EVENTOS = new HashMap<>();
-
-    /** Almacenamiento en memoria de hilos de DM por ID. */
-    private static final Map<Integer, MensajeriaDirecta> DMS = new HashMap<>();
-
-    /** Contadores simples de IDs. */
-    private static final AtomicInteger SEQ_EVENTO = new AtomicInteger(1);
-    private static final AtomicInteger SEQ_INSCRIPCION = new AtomicInteger(1);
-    private static final AtomicInteger SEQ_DM = new AtomicInteger(1);
-
-    /** Chat general único. */
-    private static final ChatGeneral CHAT_GENERAL = new ChatGeneral(1);
-
-    /** Tiempos por evento: Map<EventoId, Map<InscripcionId, Tiempo>> */
-    private static final Map<Integer, Map<Integer, Tiempo>> TIEMPOS_POR_EVENTO = new HashMap<>();
+    /** Repositorios de usuarios, eventos, inscripciones, tiempos y chats (solo memoria si no hay carpeta de datos). */
+    private static Repositorios DATOS = new RepositoriosMemoria();
 
     /** Usuario autenticado en la sesión actual. */
     private static Usuario usuarioActual = null;
 
+    /** Exportadores por formato (cada uno reutiliza su búfer entre exportaciones). */
+    private static final Map<ExportadorEvento.Formato, ExportadorEvento> EXPORTADORES =
+            new EnumMap<>(ExportadorEvento.Formato.class);
+
     /** Catálogo base de categorías para selección rápida. */
     private static final List<Categoria> CATEGORIAS_BASE = new ArrayList<>();
 
     /**
      * Método principal.
-     * <p>Precarga categorías de ejemplo y entra al bucle de login/ruteo de menús por rol.</p>
+     * <p>Precarga categorías de ejemplo, restaura los datos guardados y entra al bucle de login/ruteo de
+     * menús por rol.</p>
      *
      * @param args argumentos de línea de comandos (no usados).
      */
     public static void main(String[] args) {
         seedCategoriasDeEjemplo();
+        abrirPersistencia();
         loopLogin();
         // Nota: No cerramos SC para no cerrar System.in.
     }
@@ -86,7 +103,7 @@ public class Main {
             limpiarPantalla();
             titulo("Inicio de sesión");
             int cedula = leerEntero("Cédula (números): ");
-            Usuario u = USUARIOS.get(cedula);
+            Usuario u = DATOS.getUsuarios().buscar(cedula);
 
             if (u == null) {
                 String nombre = leerObligatorio("Nombre: ");
@@ -95,11 +112,9 @@ public class Main {
 
                 if (esAdminPorCedula(cedula)) {
                     u = new Administrador(cedula, nombre, tel, correo, "ADMIN");
-                    USUARIOS.put(cedula, u);
                     println("Creado y autenticado como Administrador.");
                 } else {
                     u = new Corredor(cedula, nombre, tel, correo);
-                    USUARIOS.put(cedula, u);
                     println("Creado y autenticado como Corredor.");
 
                     // >>> Edad y contacto de emergencia
@@ -119,6 +134,8 @@ public class Main {
                     ((Corredor) u).setTelefonoContactoEmergencia(telCE.isEmpty() ? null : telCE);
                     // <<< END
                 }
+                DATOS.getUsuarios().guardar(u);
+                confirmarCambios();
             } else {
                 println("Bienvenido de nuevo, " + u.getNombre() + " (" + (u instanceof Administrador ? "Admin" : "Corredor") + ")");
             }
@@ -170,6 +187,9 @@ public class Main {
             println("10) Chat General");
             println("11) Mensajería Directa");
             println("12) Cerrar sesión");
+            println("13) Importar inscripciones desde CSV");
+            println("14) Ingestar lecturas de chip (archivo o socket local)");
+            println("15) Exportar inscripciones o resultados (CSV/JSON)");
             println("0) Salir");
             opt = leerEntero("Opción: ");
 
@@ -186,9 +206,13 @@ public class Main {
                 case 10 -> submenuChatGeneral();
                 case 11 -> submenuMensajeriaDirecta();
                 case 12 -> { usuarioActual = null; return; }
+                case 13 -> accionImportarInscripciones(admin);
+                case 14 -> accionIngestarLecturasChip();
+                case 15 -> accionExportarEvento();
                 case 0 -> salida();
                 default -> println("Opción inválida.");
             }
+            confirmarCambios();
             pausa();
         } while (true);
     }
@@ -215,6 +239,7 @@ public class Main {
             println("6) Chat General");
             println("7) Mensajería Directa");
             println("8) Cerrar sesión");
+            println("9) Próximos eventos abiertos (30 días)");
             println("0) Salir");
             opt = leerEntero("Opción: ");
 
@@ -227,9 +252,11 @@ public class Main {
                 case 6 -> submenuChatGeneral();
                 case 7 -> submenuMensajeriaDirecta();
                 case 8 -> { usuarioActual = null; return; }
+                case 9 -> accionProximosEventosAbiertos();
                 case 0 -> salida();
                 default -> println("Opción inválida.");
             }
+            confirmarCambios();
             pausa();
         } while (true);
     }
@@ -266,14 +293,50 @@ public class Main {
 
         List<Categoria> categorias = seleccionarCategorias();
 
-        int id = SEQ_EVENTO.getAndIncrement();
+        int id = DATOS.getEventos().nuevoId();
         Evento ev = admin.crearEvento(id, nombre, fecha, descripcion, categorias);
-        EVENTOS.put(ev.getId(), ev);
+        configurarDistancias(ev);
+        DATOS.getEventos().guardar(ev);
 
         println("Evento creado con ID: " + ev.getId() + " (estado: " + ev.getEstado() + ")");
         println("Recuerda ABRIR el evento para permitir inscripciones.");
     }
 
+    /**
+     * Pide opcionalmente el cupo y un rango de dorsales automáticos (DESDE-HASTA) para cada distancia.
+     *
+     * @param ev evento recién creado.
+     */
+    private static void configurarDistancias(Evento ev) {
+        println("Cupo por distancia (ENTER = sin límite):");
+        for (Inscripcion.Distancia d : Inscripcion.Distancia.values()) {
+            while (true) {
+                String c = leerLinea("  " + nombrarDistancia(d) + ": ");
+                if (c.isEmpty()) break;
+                try {
+                    ev.configurarCupo(d, Integer.parseInt(c));
+                    break;
+                } catch (RuntimeException e) {
+                    println("Cupo inválido.");
+                }
+            }
+        }
+        println("Rangos de dorsales automáticos (ENTER = sin rango):");
+        for (Inscripcion.Distancia d : Inscripcion.Distancia.values()) {
+            while (true) {
+                String r = leerLinea("  " + nombrarDistancia(d) + " (ej. 1-4999): ");
+                if (r.isEmpty()) break;
+                try {
+                    String[] p = r.split("-");
+                    ev.configurarRangoDorsales(d, Integer.parseInt(p[0].trim()), Integer.parseInt(p[1].trim()));
+                    break;
+                } catch (RuntimeException e) {
+                    println("Rango inválido: " + (e.getMessage() != null ? e.getMessage() : r));
+                }
+            }
+        }
+    }
+
     /**
      * Cambia el estado de un evento respetando transiciones válidas:
      * PLANIFICADO→ABIERTO→CERRADO→FINALIZADO.
@@ -306,6 +369,35 @@ public class Main {
             println("Error: " + e.getMessage());
         }
         println("Estado actual: " + ev.getEstado());
+        DATOS.getEventos().guardar(ev);
+        if (ev.getPremiacion() != null) imprimirPremiacion(ev.getPremiacion());
+    }
+
+    /**
+     * Imprime los podios de una premiación: por distancia y categoría, puesto, corredor, dorsal y tiempo.
+     *
+     * @param premiacion premiación del evento.
+     */
+    private static void imprimirPremiacion(Premiacion premiacion) {
+        titulo("Premiación");
+        if (premiacion.getPodios().isEmpty()) {
+            println("No hay tiempos por categoría para premiar.");
+            return;
+        }
+        for (Premiacion.Podio p : premiacion.getPodios()) {
+            Categoria c = p.getCategoria();
+            println(nombrarDistancia(p.getDistancia()) + " - " + c.getNombre()
+                    + " (" + c.getEdadMin() + "-" + c.getEdadMax() + ")");
+            for (Map.Entry<Inscripcion, Tiempo> e : p.getPuestos()) {
+                Inscripcion ins = e.getKey();
+                StringBuilder fila = nuevaFila().append("  ");
+                columna(fila, e.getValue().getPosicionCategoria(), 4);
+                columna(fila, ins.getCorredor().getNombre(), 20);
+                columna(fila, ins.getNumeroDorsal(), 8);
+                columnaTiempo(fila, e.getValue().getMilisegundos(), 12);
+                imprimirFila(fila);
+            }
+        }
     }
 
     /**
@@ -313,21 +405,38 @@ public class Main {
      */
     private static void accionListarEventosConResumen() {
         titulo("Eventos y resumen");
-        if (EVENTOS.isEmpty()) {
+        if (DATOS.getEventos().estaVacio()) {
             println("No hay eventos registrados.");
             return;
         }
-        EVENTOS.values().stream()
-                .sorted(Comparator.comparing(Evento::getId))
+        DATOS.getEventos().listarPorId()
                 .forEach(ev -> {
                     println("[" + ev.getId() + "] " + ev.getNombre() + " | " + ev.getEstado());
                     println("   " + ev.generarResumenInscripciones());
-                    Map<Integer, Tiempo> mapT = TIEMPOS_POR_EVENTO.get(ev.getId());
-                    int cantTiempos = (mapT == null) ? 0 : mapT.size();
-                    println("   Tiempos registrados: " + cantTiempos);
+                    println("   Tiempos registrados: " + ev.getResultados().tamanio());
+                    for (Inscripcion.Distancia d : Inscripcion.Distancia.values()) {
+                        if (ev.getCupo(d) == 0 && !ev.hayEnEspera(d)) continue;
+                        println("   " + nombrarDistancia(d) + ": " + ev.contarInscripcionesPorDistancia(d) + "/" + ev.getCupo(d)
+                                + " | En espera: " + ev.getListaEspera(d).size());
+                    }
                 });
     }
 
+    /**
+     * Lista los eventos ABIERTOS cuya fecha cae en los próximos 30 días, ordenados por fecha.
+     */
+    private static void accionProximosEventosAbiertos() {
+        titulo("Próximos eventos abiertos (30 días)");
+        List<Evento> proximos = DATOS.getEventos().buscarProximos(Evento.EstadoEvento.ABIERTO, new Date(), 30);
+        if (proximos.isEmpty()) {
+            println("No hay eventos abiertos en los próximos 30 días.");
+            return;
+        }
+        for (Evento ev : proximos) {
+            println(String.format("[%d] %s | %tF", ev.getId(), ev.getNombre(), ev.getFecha()));
+        }
+    }
+
     /**
      * Crea una inscripción para un corredor (crea al corredor “en caliente” si no existe),
      * valida estado del evento, unicidad de dorsal y (nuevo) rango de edad vs categoría seleccionada.
@@ -369,7 +478,7 @@ public class Main {
 
         // ==== Buscar/crear corredor ====
         int ced = leerEntero("Cédula del corredor: ");
-        Usuario u = USUARIOS.get(ced);
+        Usuario u = DATOS.getUsuarios().buscar(ced);
         Corredor cor;
         if (u == null) {
             println("No existe esa cédula. Creemos al corredor:");
@@ -377,7 +486,6 @@ public class Main {
             String tel = leerLinea("Tel (opcional): ");
             String correo = leerLinea("Correo (opcional): ");
             cor = new Corredor(ced, nombre, tel, correo);
-            USUARIOS.put(ced, cor);
             println("Corredor creado.");
 
             // >>> Edad y contacto de emergencia
@@ -396,6 +504,7 @@ public class Main {
             String telCE = SC.nextLine().trim();
             cor.setTelefonoContactoEmergencia(telCE.isEmpty() ? null : telCE);
             // <<< END
+            DATOS.getUsuarios().guardar(cor);
 
         } else if (u instanceof Corredor) {
             cor = (Corredor) u;
@@ -434,18 +543,200 @@ public class Main {
         };
         if (talla == null) { println("Talla inválida."); return; }
 
-        int dorsal = leerEntero("Dorsal (>0 y único en el evento): ");
-        int insId = SEQ_INSCRIPCION.getAndIncrement();
+        String promptDorsal = ev.tieneRangoDorsales(dist)
+                ? "Dorsal (>0 y único en el evento, 0 = automático): "
+                : "Dorsal (>0 y único en el evento): ";
+        int dorsal = leerEntero(promptDorsal);
+        int insId = DATOS.getInscripciones().nuevoId();
 
         try {
-            // Tu Admin crea la inscripción (no pasa categoría). La validación ya se hizo antes.
-            Inscripcion ins = admin.crearInscripcionParaCorredor(insId, cor, ev, dist, talla, dorsal);
-            println("Inscripción creada: " + ins);
+            // La categoría viaja con la solicitud: se aplica también si se admite más tarde desde la espera.
+            ResultadoSolicitud res = admin.solicitarInscripcion(insId, cor, ev, dist, talla, dorsal, catSel);
+            Inscripcion ins = res.getInscripcion();
+            if (res.getSolicitud() != null) DATOS.getInscripciones().guardarEnEspera(ev, res.getSolicitud());
+            if (ins != null && res.getSolicitud() == null) DATOS.getInscripciones().guardar(ins);
+            registrarPromocion(ev, res.getPromocion());
+            if (ins != null) {
+                println("Inscripción creada: " + ins);
+            } else {
+                println("Sin cupo en " + nombrarDistancia(dist) + ": la solicitud quedó en lista de espera (posición "
+                        + ev.getListaEspera(dist).size() + ").");
+            }
         } catch (Exception ex) {
             println("Error: " + ex.getMessage());
         }
     }
 
+    /**
+     * Registra una promoción de la lista de espera: cada inscripción admitida y la salida de cada
+     * solicitud retirada (admitida o descartada).
+     *
+     * @param ev        evento.
+     * @param promocion promoción hecha.
+     */
+    private static void registrarPromocion(Evento ev, PromocionEspera promocion) {
+        for (Inscripcion admitida : promocion.getAdmitidas()) DATOS.getInscripciones().guardar(admitida);
+        for (SolicitudInscripcion s : promocion.getRetiradas()) DATOS.getInscripciones().guardarSalidaEspera(ev, s);
+    }
+
+    /**
+     * Importa inscripciones masivamente desde un archivo CSV (ver
+     * {@link Administrador#importarInscripcionesCsv}) y muestra el resumen con los errores por fila.
+     *
+     * @param admin administrador actual.
+     */
+    private static void accionImportarInscripciones(Administrador admin) {
+        titulo("Importar inscripciones (CSV)");
+        Evento ev = seleccionarEvento();
+        if (ev == null) { println("No hay eventos."); return; }
+        if (ev.getEstado() != Evento.EstadoEvento.ABIERTO) {
+            println("El evento no está ABIERTO. Ábrelo antes de inscribir.");
+            return;
+        }
+        println("Formato: cedula,nombre,telefono,correo,edad,idCategoria,distancia,talla,dorsal");
+        String ruta = leerObligatorio("Ruta del archivo: ");
+
+        Set<Integer> inscripcionesAntes = new HashSet<>();
+        for (Inscripcion i : ev.getInstantaneaInscripciones()) inscripcionesAntes.add(i.getId());
+        try (BufferedReader lector = Files.newBufferedReader(Paths.get(ruta), StandardCharsets.UTF_8)) {
+            ResultadoImportacion res = admin.importarInscripcionesCsv(lector, ev, DATOS.getUsuarios().comoMapa(),
+                    DATOS.getInscripciones()::nuevoId);
+            for (Inscripcion i : ev.getInstantaneaInscripciones()) {
+                if (!inscripcionesAntes.contains(i.getId())) DATOS.getInscripciones().guardar(i);
+            }
+            println("Filas procesadas: " + res.getFilasProcesadas());
+            println("Inscripciones creadas: " + res.getInscripcionesCreadas());
+            println("Corredores nuevos: " + res.getCorredoresCreados());
+            List<ResultadoImportacion.ErrorFila> errores = res.getErrores();
+            println("Errores: " + errores.size());
+            errores.stream().limit(20).forEach(e -> println("   " + e));
+            if (errores.size() > 20) println("   ... (" + (errores.size() - 20) + " más)");
+        } catch (IOException | InvalidPathException ex) {
+            println("Error leyendo el archivo: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Registra tiempos a partir de lecturas crudas de los tapetes (archivo o socket local), por lotes.
+     * Solo se registran inscripciones CONFIRMADAS; las lecturas repetidas se descartan.
+     */
+    private static void accionIngestarLecturasChip() {
+        titulo("Ingestar lecturas de chip");
+        Evento ev = seleccionarEvento();
+        if (ev == null) { println("No hay eventos."); return; }
+        if (ev.getEstado() == Evento.EstadoEvento.CERRADO) {
+            println("No se pueden registrar tiempos: el evento está CERRADO.");
+            return;
+        }
+
+        IngestaLecturasChip ingesta;
+        try {
+            String s = leerLinea("Largada (milisegundos en la escala de las marcas; ENTER si son relativas): ");
+            long largada = s.isEmpty() ? 0 : Long.parseLong(s);
+            ingesta = new IngestaLecturasChip(ev, largada, leerEntero("Id del tapete de meta: "));
+            while (true) {
+                String t = leerLinea("Tapete intermedio (id,km; ENTER para terminar): ");
+                if (t.isEmpty()) break;
+                String[] partes = t.split(",");
+                if (partes.length != 2) { println("Formato: id,km"); continue; }
+                ingesta.definirTapeteParcial(Integer.parseInt(partes[0].trim()), Double.parseDouble(partes[1].trim()));
+            }
+        } catch (NumberFormatException ex) {
+            println("Número inválido.");
+            return;
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            println("Error: " + ex.getMessage());
+            return;
+        }
+
+        // Se guarda solo lo que cada lote registra o corrige, a medida que se confirma
+        ingesta.setOyente(new IngestaLecturasChip.OyenteRegistros() {
+            @Override
+            public void tiempo(Inscripcion ins, long milisegundos) {
+                // Las posiciones no se guardan: se recalculan al restaurar
+                DATOS.getTiempos().guardar(ins, Tiempo.deMilisegundos(milisegundos, 0, 0));
+            }
+
+            @Override
+            public void parcial(Inscripcion ins, int punto, long milisegundos) {
+                DATOS.getTiempos().guardarParcial(ins, punto, milisegundos);
+            }
+        });
+
+        println("Formato: dorsal,marca,tapete (marca en milisegundos)");
+        println("1) Archivo");
+        println("2) Socket local (una conexión, hasta que el emisor la cierre)");
+        int o = leerEntero("Opción: ");
+        long inicio = System.nanoTime();
+        ResultadoIngesta res;
+        try {
+            if (o == 1) {
+                String ruta = leerObligatorio("Ruta del archivo: ");
+                try (InputStream in = Files.newInputStream(Paths.get(ruta))) {
+                    res = ingesta.procesar(in);
+                }
+            } else if (o == 2) {
+                int puerto = leerEntero("Puerto: ");
+                try (ServerSocket servidor = new ServerSocket(puerto, 1, InetAddress.getLoopbackAddress())) {
+                    println("Esperando conexión en 127.0.0.1:" + puerto + "...");
+                    try (Socket cliente = servidor.accept(); InputStream in = cliente.getInputStream()) {
+                        inicio = System.nanoTime();
+                        res = ingesta.procesar(in);
+                    }
+                }
+            } else {
+                println("Opción inválida.");
+                return;
+            }
+        } catch (IOException | IllegalArgumentException ex) {
+            println("Error leyendo las lecturas: " + ex.getMessage());
+            return;
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        println("Lecturas: " + res.getLecturas() + String.format(" (%.0f lecturas/s)", res.getLecturas() / Math.max(segundos, 1e-9)));
+        println("Aceptadas: " + res.getAceptadas() + " | Duplicadas: " + res.getDuplicadas());
+        println("Dorsal desconocido: " + res.getDesconocidas() + " | No CONFIRMADAS: " + res.getRechazadas());
+        println("Tiempos registrados: " + res.getTiemposRegistrados() + " | Parciales: " + res.getParcialesRegistrados());
+        println("Inválidas: " + res.getInvalidas());
+        res.getErrores().stream().limit(20).forEach(e -> println("   " + e));
+        if (res.getInvalidas() > 20) println("   ... (" + (res.getInvalidas() - 20) + " más)");
+    }
+
+    /**
+     * Exporta las inscripciones (con datos del corredor) o los resultados (con posiciones) de un evento a un
+     * archivo CSV o JSON (ver {@link ExportadorEvento}).
+     */
+    private static void accionExportarEvento() {
+        titulo("Exportar evento");
+        Evento ev = seleccionarEvento();
+        if (ev == null) { println("No hay eventos."); return; }
+        println("1) Inscripciones (con datos del corredor)");
+        println("2) Resultados (con posiciones)");
+        int que = leerEntero("Opción: ");
+        if (que != 1 && que != 2) { println("Opción inválida."); return; }
+        println("1) CSV");
+        println("2) JSON");
+        ExportadorEvento.Formato formato = switch (leerEntero("Formato: ")) {
+            case 1 -> ExportadorEvento.Formato.CSV;
+            case 2 -> ExportadorEvento.Formato.JSON;
+            default -> null;
+        };
+        if (formato == null) { println("Formato inválido."); return; }
+        String ruta = leerObligatorio("Ruta del archivo: ");
+
+        ExportadorEvento exportador = EXPORTADORES.computeIfAbsent(formato, ExportadorEvento::new);
+        long inicio = System.nanoTime();
+        try {
+            long filas = (que == 1)
+                    ? exportador.exportarInscripciones(ev, Paths.get(ruta))
+                    : exportador.exportarResultados(ev, Paths.get(ruta));
+            println(String.format("Filas exportadas: %d (%.0f ms).", filas, (System.nanoTime() - inicio) / 1e6));
+        } catch (IOException | InvalidPathException ex) {
+            println("Error escribiendo el archivo: " + ex.getMessage());
+        }
+    }
+
     /**
      * Permite confirmar pago (PENDIENTE→PAGADO) o confirmar inscripción (PAGADO→CONFIRMADO).
      */
@@ -458,9 +749,7 @@ public class Main {
         }
         listarInscripciones(ev);
         int idIns = leerEntero("ID de inscripción: ");
-        Inscripcion target = ev.getInscripciones().stream()
-                .filter(i -> i.getId() == idIns)
-                .findFirst().orElse(null);
+        Inscripcion target = ev.buscarInscripcionPorId(idIns);
         if (target == null) { println("No existe esa inscripción."); return; }
 
         println("Estado actual: " + target.getEstado());
@@ -476,6 +765,7 @@ public class Main {
                 println("Opción inválida.");
                 return;
             }
+            DATOS.getInscripciones().guardar(target);
             println("Nuevo estado: " + target.getEstado());
         } catch (Exception ex) {
             println("Error: " + ex.getMessage());
@@ -483,8 +773,8 @@ public class Main {
     }
 
     /**
-     * Registra un tiempo para una inscripción y lo almacena en memoria bajo {@code TIEMPOS_POR_EVENTO}.
-     * <p><b>Cambio solicitado:</b> ahora solo pide el tiempo y posiciona general/categoría en 0.</p>
+     * Registra (o corrige) un tiempo para una inscripción; queda guardado en los resultados del evento.
+     * <p>Las posiciones general y por categoría las calcula el ranking del evento.</p>
      *
      * @param admin administrador actual.
      */
@@ -504,9 +794,7 @@ public class Main {
 
         listarInscripciones(ev);
         int idIns = leerEntero("ID de inscripción: ");
-        Inscripcion ins = ev.getInscripciones().stream()
-                .filter(i -> i.getId() == idIns)
-                .findFirst().orElse(null);
+        Inscripcion ins = ev.buscarInscripcionPorId(idIns);
         if (ins == null) { println("No existe esa inscripción."); return; }
 
         // ✅ Validación: solo inscripciones CONFIRMADAS
@@ -518,16 +806,49 @@ public class Main {
         double tiempoSeg = leerDouble("Tiempo (segundos ≥ 0): ");
 
         try {
-            // Posiciones en 0 como acordado
-            int posGen = 0;
-            int posCat = 0;
-            Tiempo t = admin.registrarTiempoParaInscripcion(ins, tiempoSeg, posGen, posCat);
-            TIEMPOS_POR_EVENTO
-                    .computeIfAbsent(ev.getId(), k -> new HashMap<>())
-                    .put(ins.getId(), t);
+            Tiempo t = admin.registrarTiempoParaInscripcion(ins, tiempoSeg);
+            DATOS.getTiempos().guardar(ins, t);
             println("Tiempo registrado y guardado: " + t);
         } catch (Exception ex) {
             println("Error: " + ex.getMessage());
+            return;
+        }
+
+        ParcialesEvento parciales = ev.getParciales();
+        double[] puntos = parciales.getPuntos(ins.getDistancia());
+        if (puntos.length == 0 || !leerLinea("¿Registrar parciales? (s/n): ").equalsIgnoreCase("s")) return;
+        for (int p = 0; p < puntos.length; p++) {
+            String s = leerLinea("Parcial km " + puntos[p] + " (segundos desde la largada, ENTER para omitir): ");
+            if (s.isEmpty()) continue;
+            try {
+                admin.registrarParcialParaInscripcion(ins, p, Double.parseDouble(s));
+                DATOS.getTiempos().guardarParcial(ins, p, parciales.obtener(ins, p));
+            } catch (Exception ex) {
+                println("Parcial omitido: " + (ex instanceof NumberFormatException ? "número inválido." : ex.getMessage()));
+            }
+        }
+        imprimirParciales(ins);
+    }
+
+    /**
+     * Muestra los tramos de una inscripción (puntos de control y llegada) con su duración y ritmo.
+     *
+     * @param ins inscripción con tiempo.
+     */
+    private static void imprimirParciales(Inscripcion ins) {
+        ParcialesEvento parciales = ins.getEvento().getParciales();
+        double[] puntos = parciales.getPuntos(ins.getDistancia());
+        println(String.format("%-16s %-12s %-12s", "Tramo", "Duración", "Ritmo/km"));
+        for (int tramo = 0; tramo <= puntos.length; tramo++) {
+            String desde = (tramo == 0) ? "0" : String.valueOf(puntos[tramo - 1]);
+            String hasta = (tramo == puntos.length) ? "meta" : String.valueOf(puntos[tramo]);
+            long ms = parciales.milisegundosTramo(ins, tramo);
+            double ritmo = parciales.ritmoTramo(ins, tramo);
+            StringBuilder fila = nuevaFila();
+            columna(fila, desde + "-" + hasta, 16);
+            columnaTiempo(fila, ms, 12);
+            columnaTiempo(fila, (ritmo < 0) ? -1 : Math.round(ritmo * 1000.0), 12);
+            imprimirFila(fila);
         }
     }
 
@@ -559,94 +880,71 @@ public class Main {
     private static void accionResumenGeneralTiempoYDistancia() {
     titulo("Resumen general de tiempos (TODOS los eventos)");
 
-    if (EVENTOS.isEmpty()) {
+    if (DATOS.getEventos().estaVacio()) {
         println("No hay eventos registrados.");
         return;
     }
 
-    // Recolectar todas las filas válidas (tiempo > 0) de todos los eventos
-    class Row {
-        int evId;
-        String evNombre;
-        Inscripcion ins;
-        Tiempo t;
-        Row(int evId, String evNombre, Inscripcion ins, Tiempo t) {
-            this.evId = evId; this.evNombre = evNombre; this.ins = ins; this.t = t;
-        }
-    }
-    List<Row> filas = new ArrayList<>();
-
-    for (Map.Entry<Integer, Map<Integer, Tiempo>> eEv : TIEMPOS_POR_EVENTO.entrySet()) {
-        int evId = eEv.getKey();
-        Evento ev = EVENTOS.get(evId);
-        if (ev == null) continue; // evento pudo ser removido
-
-        Map<Integer, Tiempo> mapa = eEv.getValue();
-        if (mapa == null || mapa.isEmpty()) continue;
-
-        for (Map.Entry<Integer, Tiempo> eIns : mapa.entrySet()) {
-            int insId = eIns.getKey();
-            Tiempo t = eIns.getValue();
-            if (t == null) continue;
-            double seg = t.getTiempoIndividual();
-            if (seg <= 0) continue;
-
-            // Buscar la inscripción dentro del evento (simple y suficiente aquí)
-            Inscripcion ins = ev.getInscripciones().stream()
-                    .filter(i -> i.getId() == insId)
-                    .findFirst().orElse(null);
-            if (ins == null) continue;
-
-            filas.add(new Row(evId, ev.getNombre(), ins, t));
-        }
-    }
+    // Agregación paralela por tramos de eventos (fork-join); las filas salen en orden de tiempo
+    ResumenTiempos resumen = ResumenTiempos.calcular(DATOS.getEventos().listarPorId());
 
-    if (filas.isEmpty()) {
+    if (resumen.tamanio() == 0) {
         println("No hay tiempos válidos registrados en ningún evento.");
         return;
     }
 
-    // Ordenar globalmente por mejor tiempo (ascendente)
-    filas.sort(Comparator.comparingDouble(r -> r.t.getTiempoIndividual()));
-
     // Encabezado y tabla
-    println(String.format("%-4s %-28s %-20s %-8s %-12s %-10s",
+    println(String.format("%-4s %-28s %-20s %-8s %-12s %-12s",
             "Pos", "Evento", "Corredor", "Dorsal", "Distancia", "Tiempo"));
     println("------------------------------------------------------------------------------------------");
 
-    int pos = 1;
-    double suma = 0.0;
-    double mejor = Double.POSITIVE_INFINITY;
-    double peor = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < resumen.tamanio(); i++) {
+        Inscripcion ins = resumen.inscripcionEn(i);
+        Evento ev = ins.getEvento();
 
-    for (Row r : filas) {
-        double s = r.t.getTiempoIndividual();
-        suma += s;
-        if (s < mejor) mejor = s;
-        if (s > peor) peor = s;
-
-        String etiquetaEvento = ("[" + r.evId + "] " + r.evNombre);
+        String etiquetaEvento = ("[" + ev.getId() + "] " + ev.getNombre());
         if (etiquetaEvento.length() > 28) etiquetaEvento = etiquetaEvento.substring(0, 28);
 
-        println(String.format("%-4d %-28s %-20s %-8d %-12s %-10s",
-                pos++,
-                etiquetaEvento,
-                r.ins.getCorredor().getNombre(),
-                r.ins.getNumeroDorsal(),
-                nombrarDistancia(r.ins.getDistancia()),
-                formatearSegundos(s)
-        ));
+        StringBuilder fila = nuevaFila();
+        columna(fila, i + 1, 4);
+        columna(fila, etiquetaEvento, 28);
+        columna(fila, ins.getCorredor().getNombre(), 20);
+        columna(fila, ins.getNumeroDorsal(), 8);
+        columna(fila, nombrarDistancia(ins.getDistancia()), 12);
+        columnaTiempo(fila, resumen.milisegundosEn(i), 12);
+        imprimirFila(fila);
+    }
+
+    // Estadísticos por distancia
+    println("------------------------------------------------------------------------------------------");
+    println(String.format("%-12s %-8s %-12s %-12s %-12s %-12s %-12s %-12s",
+            "Distancia", "N", "Mejor", "Promedio", "Mediana", "P90", "P99", "Peor"));
+    for (Inscripcion.Distancia d : Inscripcion.Distancia.values()) {
+        if (resumen.getCantidad(d) == 0) continue;
+        StringBuilder fila = nuevaFila();
+        columna(fila, nombrarDistancia(d), 12);
+        columna(fila, resumen.getCantidad(d), 8);
+        columnaTiempo(fila, resumen.getMejorMilisegundos(d), 12);
+        columnaTiempo(fila, resumen.getPromedioMilisegundos(d), 12);
+        columnaTiempo(fila, resumen.getPercentilMilisegundos(d, 0.5), 12);
+        columnaTiempo(fila, resumen.getPercentilMilisegundos(d, 0.9), 12);
+        columnaTiempo(fila, resumen.getPercentilMilisegundos(d, 0.99), 12);
+        columnaTiempo(fila, resumen.getPeorMilisegundos(d), 12);
+        imprimirFila(fila);
     }
 
     // Estadísticos globales
-    int total = filas.size();
-    double promedio = suma / total;
     println("------------------------------------------------------------------------------------------");
     println("Global (todos los eventos y distancias):");
-    println("Participantes con tiempo: " + total);
-    println("Mejor:                    " + formatearSegundos(mejor));
-    println("Promedio:                 " + formatearSegundos(promedio));
-    println("Peor:                     " + formatearSegundos(peor));
+    println("Participantes con tiempo: " + resumen.getCantidad());
+    println(Tiempo.formatearMilisegundos(resumen.getMejorMilisegundos(),
+            nuevaFila().append("Mejor:                    ")).toString());
+    println(Tiempo.formatearMilisegundos(resumen.getPromedioMilisegundos(),
+            nuevaFila().append("Promedio:                 ")).toString());
+    println(Tiempo.formatearMilisegundos(resumen.getPercentilMilisegundos(0.5),
+            nuevaFila().append("Mediana:                  ")).toString());
+    println(Tiempo.formatearMilisegundos(resumen.getPeorMilisegundos(),
+            nuevaFila().append("Peor:                     ")).toString());
     println("------------------------------------------------------------------------------------------");
     }
  
@@ -660,26 +958,14 @@ public class Main {
         Evento ev = seleccionarEvento();
         if (ev == null) { println("No hay eventos."); return; }
 
-        Map<Integer, Tiempo> mapa = TIEMPOS_POR_EVENTO.get(ev.getId());
-        if (mapa == null || mapa.isEmpty()) {
+        if (ev.getRanking().tamanio() == 0) {
             println("No hay tiempos registrados para este evento.");
             return;
         }
 
         int topN = leerEntero("¿Cuántos mostrar? (ej. 10): ");
-        // Construir pares (Inscripcion, Tiempo)
-        List<Map.Entry<Inscripcion, Tiempo>> pares = new ArrayList<>();
-        for (Inscripcion ins : ev.getInscripciones()) {
-            Tiempo t = mapa.get(ins.getId());
-            if (t != null) pares.add(new AbstractMap.SimpleEntry<>(ins, t));
-        }
-        if (pares.isEmpty()) {
-            println("No hay tiempos vinculados a inscripciones de este evento.");
-            return;
-        }
-
-        pares.sort(Comparator.comparingDouble(e -> e.getValue().getTiempoIndividual()));
-        imprimirTablaTiempos(pares, Math.max(1, topN));
+        // El ranking ya está ordenado: solo se recorren los primeros N
+        imprimirTablaTiempos(ev.getRanking().listarGeneral(Math.max(1, topN)));
     }
 
     /**
@@ -691,8 +977,7 @@ public class Main {
         Evento ev = seleccionarEvento();
         if (ev == null) { println("No hay eventos."); return; }
 
-        Map<Integer, Tiempo> mapa = TIEMPOS_POR_EVENTO.get(ev.getId());
-        if (mapa == null || mapa.isEmpty()) {
+        if (ev.getRanking().tamanio() == 0) {
             println("No hay tiempos registrados para este evento.");
             return;
         }
@@ -710,56 +995,97 @@ public class Main {
 
         int topN = leerEntero("¿Cuántos mostrar? (ej. 10): ");
 
-        List<Map.Entry<Inscripcion, Tiempo>> pares = new ArrayList<>();
-        for (Inscripcion ins : ev.getInscripciones()) {
-            if (ins.getDistancia() == dist) {
-                Tiempo t = mapa.get(ins.getId());
-                if (t != null) pares.add(new AbstractMap.SimpleEntry<>(ins, t));
-            }
-        }
+        List<Map.Entry<Inscripcion, Tiempo>> pares = ev.getRanking().listarPorDistancia(dist, Math.max(1, topN));
         if (pares.isEmpty()) {
             println("No hay tiempos para la distancia seleccionada.");
             return;
         }
-
-        pares.sort(Comparator.comparingDouble(e -> e.getValue().getTiempoIndividual()));
-        imprimirTablaTiempos(pares, Math.max(1, topN));
+        imprimirTablaTiempos(pares);
+
+        RankingEvento ranking = ev.getRanking();
+        StringBuilder fila = nuevaFila().append("Participantes: ").append(ranking.tamanio(dist));
+        Tiempo.formatearMilisegundos(ranking.percentil(dist, 0.5), fila.append(" | Mediana: "));
+        Tiempo.formatearMilisegundos(ranking.percentil(dist, 0.9), fila.append(" | P90: "));
+        Tiempo.formatearMilisegundos(ranking.percentil(dist, 0.99), fila.append(" | P99: "));
+        println(fila.toString());
     }
 
     /**
-     * Imprime tabla compacta de tiempos: Pos, Corredor, Dorsal, Distancia y Tiempo formateado.
+     * Imprime tabla compacta de tiempos: Pos, Corredor, Dorsal, Distancia, Tiempo formateado y
+     * posiciones en su distancia y en su categoría.
      *
      * @param pares lista de pares (Inscripcion, Tiempo) ordenada ascendente por tiempo.
-     * @param topN  cantidad a mostrar.
      */
-    private static void imprimirTablaTiempos(List<Map.Entry<Inscripcion, Tiempo>> pares, int topN) {
-        println(String.format("%-4s %-20s %-8s %-12s %-10s", "Pos", "Corredor", "Dorsal", "Distancia", "Tiempo"));
-        println("---------------------------------------------------------------");
-        for (int i = 0; i < Math.min(topN, pares.size()); i++) {
+    private static void imprimirTablaTiempos(List<Map.Entry<Inscripcion, Tiempo>> pares) {
+        println(String.format("%-4s %-20s %-8s %-12s %-12s %-6s %-6s",
+                "Pos", "Corredor", "Dorsal", "Distancia", "Tiempo", "PosD", "PosCat"));
+        println("------------------------------------------------------------------------------");
+        for (int i = 0; i < pares.size(); i++) {
             var e = pares.get(i);
             Inscripcion ins = e.getKey();
             Tiempo t = e.getValue();
-            String tiempoFmt = formatearSegundos(t.getTiempoIndividual());
-            println(String.format("%-4d %-20s %-8d %-12s %-10s",
-                    (i + 1),
-                    ins.getCorredor().getNombre(),
-                    ins.getNumeroDorsal(),
-                    nombrarDistancia(ins.getDistancia()),
-                    tiempoFmt
-            ));
+            StringBuilder fila = nuevaFila();
+            columna(fila, i + 1, 4);
+            columna(fila, ins.getCorredor().getNombre(), 20);
+            columna(fila, ins.getNumeroDorsal(), 8);
+            columna(fila, nombrarDistancia(ins.getDistancia()), 12);
+            columnaTiempo(fila, t.getMilisegundos(), 12);
+            columna(fila, t.getPosicionGeneral(), 6);
+            columna(fila, t.getPosicionCategoria(), 6);
+            imprimirFila(fila);
         }
     }
 
+    /** Buffer reutilizado para armar las filas de las tablas (la consola es de un solo hilo). */
+    private static final StringBuilder FILA = new StringBuilder(128);
+
+    /** @return el buffer de fila, vacío. */
+    private static StringBuilder nuevaFila() {
+        FILA.setLength(0);
+        return FILA;
+    }
+
+    /**
+     * Agrega una columna de texto alineada a la izquierda (como {@code %-Ns}) y un espacio separador.
+     * @return la misma fila.
+     */
+    private static StringBuilder columna(StringBuilder fila, CharSequence texto, int ancho) {
+        int inicio = fila.length();
+        fila.append(texto);
+        return rellenar(fila, inicio, ancho);
+    }
+
+    /**
+     * Agrega una columna numérica alineada a la izquierda (como {@code %-Nd}) y un espacio separador.
+     * @return la misma fila.
+     */
+    private static StringBuilder columna(StringBuilder fila, long valor, int ancho) {
+        int inicio = fila.length();
+        fila.append(valor);
+        return rellenar(fila, inicio, ancho);
+    }
+
     /**
-     * Convierte segundos a formato mm:ss (o hh:mm:ss si aplica).
+     * Agrega un tiempo {@code HH:MM:SS.mmm} (ver {@link Tiempo#formatearMilisegundos(long, StringBuilder)}),
+     * o "-" si es negativo (sin dato), alineado a la izquierda y con un espacio separador.
+     * @return la misma fila.
      */
-    private static String formatearSegundos(double segundos) {
-        long total = (long) Math.floor(segundos);
-        long h = total / 3600;
-        long m = (total % 3600) / 60;
-        long s = total % 60;
-        if (h > 0) return String.format("%d:%02d:%02d", h, m, s);
-        return String.format("%02d:%02d", m, s);
+    private static StringBuilder columnaTiempo(StringBuilder fila, long milisegundos, int ancho) {
+        int inicio = fila.length();
+        if (milisegundos < 0) fila.append('-');
+        else Tiempo.formatearMilisegundos(milisegundos, fila);
+        return rellenar(fila, inicio, ancho);
+    }
+
+    private static StringBuilder rellenar(StringBuilder fila, int inicio, int ancho) {
+        for (int n = fila.length() - inicio; n < ancho; n++) fila.append(' ');
+        return fila.append(' ');
+    }
+
+    /** Imprime una fila armada con {@link #columna}, sin el separador final. */
+    private static void imprimirFila(StringBuilder fila) {
+        if (fila.length() > 0 && fila.charAt(fila.length() - 1) == ' ') fila.setLength(fila.length() - 1);
+        println(fila.toString());
     }
 
     /**
@@ -782,11 +1108,12 @@ public class Main {
      * Submenú del chat general: unirse/salir, enviar y ver últimos mensajes.
      */
     private static void submenuChatGeneral() {
+        ChatGeneral chatGeneral = DATOS.getConversaciones().getChatGeneral();
         int opt;
         do {
             limpiarPantalla();
-            titulo("Chat General (ID=" + CHAT_GENERAL.getIdChat() + ")");
-            println("Participantes: " + CHAT_GENERAL.getParticipantes().size() + " | Mensajes: " + CHAT_GENERAL.getMensajes().size());
+            titulo("Chat General (ID=" + chatGeneral.getIdChat() + ")");
+            println("Participantes: " + chatGeneral.getParticipantes().size() + " | Mensajes: " + chatGeneral.getMensajes().size());
             println("1) Unirme (si no estoy)");
             println("2) Salir del chat");
             println("3) Enviar mensaje");
@@ -797,7 +1124,8 @@ public class Main {
             switch (opt) {
                 case 1 -> {
                     try {
-                        boolean added = CHAT_GENERAL.agregarParticipante(usuarioActual);
+                        boolean added = chatGeneral.agregarParticipante(usuarioActual);
+                        if (added) DATOS.getConversaciones().guardarParticipante(usuarioActual, true);
                         println(added ? "Te uniste al chat." : "Ya estabas en el chat.");
                     } catch (Exception ex) {
                         println("Error: " + ex.getMessage());
@@ -805,14 +1133,15 @@ public class Main {
                 }
                 case 2 -> {
                     try {
-                        boolean removed = CHAT_GENERAL.eliminarParticipante(usuarioActual);
+                        boolean removed = chatGeneral.eliminarParticipante(usuarioActual);
+                        if (removed) DATOS.getConversaciones().guardarParticipante(usuarioActual, false);
                         println(removed ? "Saliste del chat." : "No estabas en el chat.");
                     } catch (Exception ex) {
                         println("Error: " + ex.getMessage());
                     }
                 }
                 case 3 -> {
-                    if (!CHAT_GENERAL.getParticipantes().contains(usuarioActual)) {
+                    if (!chatGeneral.getParticipantes().contains(usuarioActual)) {
                         println("Debes unirte al chat antes de enviar mensajes.");
                     } else {
                         String texto = leerLinea("Mensaje: ");
@@ -820,7 +1149,7 @@ public class Main {
                             println("El mensaje no puede estar vacío.");
                         } else {
                             try {
-                                CHAT_GENERAL.enviarMensaje(usuarioActual, texto);
+                                DATOS.getConversaciones().guardarMensaje(chatGeneral.enviarMensaje(usuarioActual, texto));
                                 println("Mensaje enviado.");
                             } catch (Exception ex) {
                                 println("Error: " + ex.getMessage());
@@ -830,7 +1159,7 @@ public class Main {
                     }
                 }
                 case 4 -> {
-                    List<ChatGeneral.Mensaje> all = CHAT_GENERAL.getMensajes();
+                    List<ChatGeneral.Mensaje> all = chatGeneral.getMensajes();
                     int from = Math.max(0, all.size() - 10);
                     List<ChatGeneral.Mensaje> ultimos = all.subList(from, all.size());
                     if (ultimos.isEmpty()) {
@@ -844,6 +1173,7 @@ public class Main {
                 case 9 -> { return; }
                 default -> println("Opción inválida.");
             }
+            confirmarCambios();
             pausa();
         } while (true);
     }
@@ -873,6 +1203,7 @@ public class Main {
                 case 9 -> { return; }
                 default -> println("Opción inválida.");
             }
+            confirmarCambios();
             pausa();
         } while (true);
     }
@@ -883,14 +1214,13 @@ public class Main {
     private static void accionIniciarDM() {
         if (usuarioActual == null) { println("Debes iniciar sesión."); return; }
         int cedReceptor = leerEntero("Cédula del otro usuario: ");
-        Usuario otro = USUARIOS.get(cedReceptor);
+        Usuario otro = DATOS.getUsuarios().buscar(cedReceptor);
         if (otro == null) { println("No existe ese usuario."); return; }
         if (otro.equals(usuarioActual)) { println("No puedes abrir DM contigo mismo."); return; }
 
-        MensajeriaDirecta dm = buscarDMEntre(usuarioActual, otro);
+        MensajeriaDirecta dm = DATOS.getConversaciones().buscarEntre(usuarioActual, otro);
         if (dm == null) {
-            dm = new MensajeriaDirecta(SEQ_DM.getAndIncrement(), usuarioActual, otro);
-            DMS.put(dm.getIdDM(), dm);
+            dm = DATOS.getConversaciones().crear(usuarioActual, otro);
             println("DM creado con ID: " + dm.getIdDM());
         } else {
             println("Ya existía un DM: ID " + dm.getIdDM());
@@ -910,7 +1240,8 @@ public class Main {
         } else {
             try {
                 // Mantengo tu flujo original.
-                CHAT_GENERAL.enviarMensaje(usuarioActual, texto);
+                ChatGeneral chatGeneral = DATOS.getConversaciones().getChatGeneral();
+                DATOS.getConversaciones().guardarMensaje(chatGeneral.enviarMensaje(usuarioActual, texto));
                 println("Mensaje enviado.");
             } catch (Exception ex) {
                 println("Error: " + ex.getMessage());
@@ -944,20 +1275,6 @@ public class Main {
     // Utilidades auxiliares
     // =====================================================================================
 
-    /**
-     * Busca un DM existente entre dos usuarios.
-     *
-     * @param a usuario A.
-     * @param b usuario B.
-     * @return instancia de DM si existe; {@code null} en caso contrario.
-     */
-    private static MensajeriaDirecta buscarDMEntre(Usuario a, Usuario b) {
-        for (MensajeriaDirecta dm : DMS.values()) {
-            if (dm.esParticipante(a) && dm.esParticipante(b)) return dm;
-        }
-        return null;
-    }
-
     /**
      * Permite seleccionar un DM donde participa el usuario actual, validando pertenencia.
      *
@@ -965,7 +1282,7 @@ public class Main {
      */
     private static MensajeriaDirecta seleccionarDMDelUsuarioActual() {
         List<MensajeriaDirecta> mis = new ArrayList<>();
-        for (MensajeriaDirecta dm : DMS.values()) {
+        for (MensajeriaDirecta dm : DATOS.getConversaciones().listar()) {
             if (dm.esParticipante(usuarioActual)) mis.add(dm);
         }
         if (mis.isEmpty()) return null;
@@ -975,7 +1292,7 @@ public class Main {
             println("[" + dm.getIdDM() + "] con " + otro.getNombre() + " (cédula " + otro.getId() + ")");
         }
         int id = leerEntero("ID DM: ");
-        MensajeriaDirecta elegido = DMS.get(id);
+        MensajeriaDirecta elegido = DATOS.getConversaciones().buscar(id);
         if (elegido == null || !elegido.esParticipante(usuarioActual)) {
             println("ID inválido o no eres participante.");
             return null;
@@ -989,13 +1306,13 @@ public class Main {
      * @return evento elegido o {@code null} si no hay eventos.
      */
     private static Evento seleccionarEvento() {
-        if (EVENTOS.isEmpty()) return null;
+        if (DATOS.getEventos().estaVacio()) return null;
         println("Eventos:");
-        EVENTOS.values().stream()
-                .sorted(Comparator.comparing(Evento::getId))
-                .forEach(ev -> println("[" + ev.getId() + "] " + ev.getNombre() + " | " + ev.getEstado()));
+        for (Evento ev : DATOS.getEventos().listarPorId()) {
+            println("[" + ev.getId() + "] " + ev.getNombre() + " | " + ev.getEstado());
+        }
         int id = leerEntero("ID evento: ");
-        return EVENTOS.get(id);
+        return DATOS.getEventos().buscar(id);
     }
 
     /**
@@ -1004,12 +1321,13 @@ public class Main {
      * @param ev evento del cual listar inscripciones.
      */
     private static void listarInscripciones(Evento ev) {
-        if (ev.getInscripciones().isEmpty()) {
+        List<Inscripcion> lista = ev.getInscripciones(); // instantánea consistente
+        if (lista.isEmpty()) {
             println("No hay inscripciones.");
             return;
         }
         println("Inscripciones:");
-        ev.getInscripciones().forEach(i ->
+        lista.forEach(i ->
                 println("ID=" + i.getId() + " | Corredor=" + i.getCorredor().getNombre()
                         + " | Dorsal=" + i.getNumeroDorsal() + " | Estado=" + i.getEstado())
         );
@@ -1054,6 +1372,40 @@ public class Main {
         return res;
     }
 
+    // =====================================================================================
+    // Persistencia (instantánea + bitácora de cambios)
+    // =====================================================================================
+
+    /**
+     * Abre los repositorios de la carpeta de datos, que reconstruyen usuarios, eventos y chats (última
+     * instantánea más la bitácora posterior). Si no pueden abrirse, la aplicación sigue solo en memoria.
+     */
+    private static void abrirPersistencia() {
+        long inicio = System.nanoTime();
+        try {
+            DATOS = RepositoriosArchivo.abrir(Paths.get(CARPETA_DATOS));
+        } catch (IOException | InvalidPathException ex) {
+            println("No se pudo abrir la bitácora de datos (" + ex.getMessage() + "); los cambios no se guardarán.");
+            return;
+        }
+        if (DATOS.getUsuarios().tamanio() > 0 || !DATOS.getEventos().estaVacio()) {
+            println(String.format("Datos restaurados: %d usuarios, %d eventos (%.0f ms).",
+                    DATOS.getUsuarios().tamanio(), DATOS.getEventos().tamanio(), (System.nanoTime() - inicio) / 1e6));
+        }
+    }
+
+    /**
+     * Espera a que los cambios registrados estén en disco y, si la bitácora creció lo suficiente, guarda una
+     * instantánea nueva; avisa si algo falló.
+     */
+    private static void confirmarCambios() {
+        try {
+            DATOS.confirmar();
+        } catch (IOException ex) {
+            println("⚠ No se pudieron guardar los últimos cambios: " + ex.getMessage());
+        }
+    }
+
     // =====================================================================================
     // Categorías de ejemplo (catálogo base)
     // =====================================================================================
@@ -1202,6 +1554,11 @@ public class Main {
      * Termina la aplicación sin cerrar el {@link Scanner} global explícitamente.
      */
     private static void salida() {
+        try {
+            DATOS.close();
+        } catch (IOException ex) {
+            println("⚠ No se pudieron guardar los últimos cambios: " + ex.getMessage());
+        }
         System.out.println("¡Hasta pronto!");
         System.exit(0);
     }
@@ -3,11 +3,19 @@ package usuarios;
 import eventos.Categoria;
 import eventos.Evento;
 import eventos.Inscripcion;
+import eventos.PromocionEspera;
+import eventos.SolicitudInscripcion;
 import eventos.Tiempo;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.text.Normalizer;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.IntSupplier;
 
 /**
  * La clase {@code Administrador} representa a un usuario con permisos de gestión:
@@ -116,15 +124,22 @@ public class Administrador extends Usuario {
      * Crea y registra una inscripción para un corredor en un evento.
      * <p>Valida que la inscripción referencie el mismo evento, y que el dorsal sea único
      * mediante {@link Evento#agregarInscripcion(Inscripcion)}.</p>
+     * <p>Es segura para hilos: el alta en el evento y en el corredor ocurre de forma atómica
+     * respecto del corredor (se bloquea el corredor y luego el evento), así que varios hilos pueden
+     * inscribir en el mismo evento a la vez sin romper la unicidad de dorsal ni la regla de una
+     * inscripción por corredor y evento.</p>
      *
      * @param inscripcionId id de la inscripción (&gt; 0).
      * @param corredor      corredor dueño de la inscripción (no nulo).
      * @param evento        evento destino (no nulo).
      * @param distancia     distancia seleccionada (no nula).
      * @param talla         talla de camiseta (no nula).
-     * @param dorsal        dorsal &gt; 0 (unicidad por evento la valida {@code Evento}).
+     * @param dorsal        dorsal &gt; 0 (unicidad por evento la valida {@code Evento}), o 0 para
+     *                      asignarlo automáticamente desde el rango de la distancia.
      * @return la inscripción creada y ya agregada al {@code Evento} y al {@code Corredor}.
-     * @throws IllegalArgumentException / IllegalStateException según reglas violadas.
+     * @throws IllegalArgumentException / IllegalStateException según reglas violadas
+     *         (incluida la falta de cupo en la distancia).
+     * @see #solicitarInscripcion
      */
     public Inscripcion crearInscripcionParaCorredor(
             int inscripcionId,
@@ -133,20 +148,99 @@ public class Administrador extends Usuario {
             Inscripcion.Distancia distancia,
             Inscripcion.Talla talla,
             int dorsal
+    ) {
+        Inscripcion ins = registrarSiHayCupo(inscripcionId, corredor, evento, distancia, talla, dorsal);
+        if (ins == null) throw new IllegalStateException("No hay cupo disponible para " + distancia + ".");
+        return ins;
+    }
+
+    /**
+     * Igual que {@link #crearInscripcionParaCorredor}, pero si la distancia no tiene cupo (o ya hay
+     * gente esperando en ella) la solicitud pasa al final de la lista de espera del evento.
+     * <p>La consulta y el encolado se hacen con el corredor bloqueado (un corredor no puede esperar dos
+     * veces en el mismo evento). Como un lugar puede liberarse entre la consulta de cupo y el encolado,
+     * después de encolar se vuelve a promover la lista: nunca queda un lugar libre con gente esperando.</p>
+     *
+     * @param inscripcionId id de la inscripción (&gt; 0).
+     * @param corredor      corredor solicitante (no nulo).
+     * @param evento        evento destino (no nulo).
+     * @param distancia     distancia seleccionada (no nula).
+     * @param talla         talla de camiseta (no nula).
+     * @param dorsal        dorsal &gt; 0, o 0 para asignarlo automáticamente al ser admitida.
+     * @param categoria     categoría elegida (o {@code null} para decidirla por edad); se aplica al
+     *                      admitirla, también si la admisión llega después desde la lista de espera.
+     * @return inscripción propia (si se admitió), solicitud encolada (si pasó por la lista) y la promoción
+     *         hecha tras encolar, que puede haber admitido o descartado solicitudes de otros corredores.
+     * @throws IllegalArgumentException / IllegalStateException según reglas violadas (incluido que el
+     *         corredor ya esté inscrito o en lista de espera en el evento).
+     */
+    public ResultadoSolicitud solicitarInscripcion(
+            int inscripcionId,
+            Corredor corredor,
+            Evento evento,
+            Inscripcion.Distancia distancia,
+            Inscripcion.Talla talla,
+            int dorsal,
+            Categoria categoria
     ) {
         Objects.requireNonNull(corredor, "corredor no puede ser nulo.");
         validarEventoNoNulo(evento);
+        SolicitudInscripcion solicitud =
+                new SolicitudInscripcion(inscripcionId, corredor, distancia, talla, dorsal, categoria);
+        synchronized (corredor) {
+            if (corredor.estaInscritoEn(evento)) {
+                throw new IllegalStateException("El corredor ya tiene una inscripción en este evento.");
+            }
+            if (evento.estaEnEspera(corredor)) {
+                throw new IllegalStateException("El corredor ya está en lista de espera en este evento.");
+            }
+            // Respeta el orden de llegada: si ya hay cola, se espera detrás de ella.
+            if (!evento.hayEnEspera(distancia) && evento.hayCupo(distancia)) {
+                Inscripcion ins = registrarSiHayCupo(inscripcionId, corredor, evento, distancia, talla, dorsal);
+                if (ins != null) {
+                    if (categoria != null) ins.setCategoria(categoria);
+                    return new ResultadoSolicitud(ins, null, new PromocionEspera());
+                }
+            }
+            evento.encolarEnEspera(solicitud);
+        }
+        // Fuera del bloqueo del corredor: promover toma el de cada corredor admitido.
+        PromocionEspera promocion = evento.promoverListaEspera(distancia);
+        Inscripcion propia = null;
+        for (Inscripcion ins : promocion.getAdmitidas()) {
+            if (ins.getId() == inscripcionId && ins.getCorredor() == corredor) propia = ins;
+        }
+        return new ResultadoSolicitud(propia, solicitud, promocion);
+    }
 
-        // Construir la inscripción (referenciando el mismo evento)
-        Inscripcion ins = new Inscripcion(inscripcionId, distancia, talla, dorsal, corredor, evento);
-
-        // Agregar al evento (valida unicidad de dorsal y consistencia de referencia)
-        evento.agregarInscripcion(ins);
-
-        // Agregar al corredor (evita doble inscripción del mismo evento para el corredor)
-        corredor.agregarInscripcion(ins);
+    /**
+     * Admite solicitudes de la lista de espera de una distancia mientras haya cupo, en orden de llegada
+     * (ver {@link Evento#promoverListaEspera(Inscripcion.Distancia)}).
+     *
+     * @param evento    evento (no nulo).
+     * @param distancia distancia a promover (no nula).
+     * @return solicitudes retiradas de la lista e inscripciones creadas a partir de ellas.
+     */
+    public PromocionEspera promoverListaEspera(Evento evento, Inscripcion.Distancia distancia) {
+        validarEventoNoNulo(evento);
+        return evento.promoverListaEspera(distancia);
+    }
 
-        return ins;
+    /**
+     * Núcleo del alta (ver {@link Evento#inscribirSiHayCupo}).
+     *
+     * @return la inscripción creada, o {@code null} si la distancia no tenía cupo.
+     * @throws IllegalArgumentException / IllegalStateException según reglas violadas.
+     */
+    private Inscripcion registrarSiHayCupo(int inscripcionId,
+                                           Corredor corredor,
+                                           Evento evento,
+                                           Inscripcion.Distancia distancia,
+                                           Inscripcion.Talla talla,
+                                           int dorsal) {
+        Objects.requireNonNull(corredor, "corredor no puede ser nulo.");
+        validarEventoNoNulo(evento);
+        return evento.inscribirSiHayCupo(inscripcionId, corredor, distancia, talla, dorsal);
     }
 
     /**
@@ -168,17 +262,238 @@ public class Administrador extends Usuario {
     }
 
     /**
-     * Elimina una inscripción del evento por ID (si existe).
-     * <p>Importante: remueve solo del evento. Si deseas simetría total, también
-     * remueve del corredor en la capa orquestadora.</p>
+     * Elimina una inscripción del evento por ID (si existe) y también del corredor.
+     * <p>El lugar liberado se ofrece de inmediato a la lista de espera de esa distancia
+     * (ver {@link #promoverListaEspera(Evento, Inscripcion.Distancia)}). Quien persiste debe registrar la
+     * remoción y también la promoción devuelta.</p>
      *
      * @param evento         evento (no nulo).
      * @param idInscripcion  id a eliminar.
-     * @return {@code true} si se eliminó; {@code false} en caso contrario.
+     * @return la promoción hecha con el lugar liberado, o {@code null} si la inscripción no existía.
      */
-    public boolean eliminarInscripcionDeEvento(Evento evento, int idInscripcion) {
+    public PromocionEspera eliminarInscripcionDeEvento(Evento evento, int idInscripcion) {
         validarEventoNoNulo(evento);
-        return evento.removerInscripcionPorId(idInscripcion);
+        Inscripcion ins = evento.buscarInscripcionPorId(idInscripcion);
+        if (ins == null || !evento.removerInscripcionPorId(idInscripcion)) return null;
+        ins.getCorredor().removerInscripcion(ins);
+        return promoverListaEspera(evento, ins.getDistancia());
+    }
+
+    // ------------------------------------------------------------
+    // Importación masiva de inscripciones
+    // ------------------------------------------------------------
+
+    /** Cantidad de columnas esperadas por fila del CSV de importación. */
+    private static final int COLUMNAS_CSV = 9;
+
+    /** Nombres de las columnas del CSV de importación, en orden (sin tildes y en minúsculas). */
+    private static final String[] ENCABEZADO_CSV = {
+            "cedula", "nombre", "telefono", "correo", "edad", "idcategoria", "distancia", "talla", "dorsal"
+    };
+
+    /**
+     * Importa inscripciones desde un CSV leído línea a línea (nunca se carga el archivo completo).
+     *
+     * <p>Formato por fila (separador coma; campos entre comillas dobles opcionales):</p>
+     * <pre>cedula,nombre,telefono,correo,edad,idCategoria,distancia,talla,dorsal</pre>
+     * <p>{@code distancia} y {@code talla} usan los nombres de {@link Inscripcion.Distancia} y
+     * {@link Inscripcion.Talla}. La primera línea no vacía se toma como encabezado solo si sus columnas son
+     * exactamente esos nombres (sin distinguir mayúsculas ni tildes); si no, es una fila de datos más.</p>
+     *
+     * <p>Por cada fila se reutiliza el {@link Corredor} existente con esa cédula o se crea uno nuevo
+     * en {@code usuarios}; se valida la edad contra la {@link Categoria} indicada y la unicidad de dorsal
+     * del evento. Las filas inválidas no detienen la importación: se reportan en el resultado.</p>
+     *
+     * @param lector         origen del CSV (no nulo); lo abre y cierra la capa orquestadora.
+     * @param evento         evento destino (no nulo).
+     * @param usuarios       almacén de usuarios por cédula; se agregan los corredores nuevos (no nulo).
+     * @param generadorIds   proveedor de IDs de inscripción (no nulo).
+     * @return resumen con conteos y errores por fila.
+     * @throws IOException si falla la lectura.
+     */
+    public ResultadoImportacion importarInscripcionesCsv(BufferedReader lector,
+                                                         Evento evento,
+                                                         Map<Integer, Usuario> usuarios,
+                                                         IntSupplier generadorIds) throws IOException {
+        Objects.requireNonNull(lector, "lector no puede ser nulo.");
+        Objects.requireNonNull(usuarios, "usuarios no puede ser nulo.");
+        Objects.requireNonNull(generadorIds, "generadorIds no puede ser nulo.");
+        validarEventoNoNulo(evento);
+
+        Map<Integer, Categoria> categorias = new HashMap<>();
+        for (Categoria c : evento.getCategorias()) categorias.put(c.getId(), c);
+
+        ResultadoImportacion res = new ResultadoImportacion();
+        String[] campos = new String[COLUMNAS_CSV];
+        int numLinea = 0;
+        boolean primera = true;
+        String linea;
+        while ((linea = lector.readLine()) != null) {
+            numLinea++;
+            if (linea.isBlank()) continue;
+            if (primera) {
+                primera = false;
+                if (esEncabezadoCsv(linea, campos)) continue;
+            }
+            res.contarFila();
+            try {
+                if (dividirCsv(linea, campos) != COLUMNAS_CSV) {
+                    throw new IllegalArgumentException("Se esperaban " + COLUMNAS_CSV + " columnas.");
+                }
+                importarFila(campos, evento, categorias, usuarios, generadorIds, res);
+            } catch (IllegalArgumentException | IllegalStateException ex) {
+                res.agregarError(numLinea, ex.getMessage());
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Valida y registra una fila ya dividida en campos.
+     *
+     * @param campos       campos de la fila.
+     * @param evento       evento destino.
+     * @param categorias   categorías del evento por ID.
+     * @param usuarios     almacén de usuarios por cédula.
+     * @param generadorIds proveedor de IDs de inscripción.
+     * @param res          resultado a actualizar.
+     * @throws IllegalArgumentException / IllegalStateException si la fila viola alguna regla.
+     */
+    private void importarFila(String[] campos,
+                              Evento evento,
+                              Map<Integer, Categoria> categorias,
+                              Map<Integer, Usuario> usuarios,
+                              IntSupplier generadorIds,
+                              ResultadoImportacion res) {
+        int cedula = parsearEntero(campos[0], "cédula");
+        int edad = parsearEntero(campos[4], "edad");
+        if (edad < 0 || edad > 127) throw new IllegalArgumentException("Edad fuera de rango (0–127): " + edad);
+        int idCategoria = parsearEntero(campos[5], "categoría");
+        Categoria categoria = categorias.get(idCategoria);
+        if (categoria == null) throw new IllegalArgumentException("La categoría " + idCategoria + " no existe en el evento.");
+        Inscripcion.Distancia distancia = parsearEnum(Inscripcion.Distancia.class, campos[6], "distancia");
+        Inscripcion.Talla talla = parsearEnum(Inscripcion.Talla.class, campos[7], "talla");
+        int dorsal = parsearEntero(campos[8], "dorsal");
+
+        Usuario u = usuarios.get(cedula);
+        Corredor corredor;
+        boolean nuevo = false;
+        if (u == null) {
+            corredor = new Corredor(cedula, campos[1], campos[2], campos[3]);
+            corredor.setEdad((byte) edad);
+            nuevo = true;
+        } else if (u instanceof Corredor) {
+            corredor = (Corredor) u;
+        } else {
+            throw new IllegalStateException("La cédula " + cedula + " pertenece a un Administrador.");
+        }
+
+        if (!corredor.puedeInscribirseEn(categoria)) {
+            throw new IllegalStateException("La edad del corredor no pertenece a la categoría " + categoria.getNombre() + ".");
+        }
+        if (corredor.estaInscritoEn(evento)) {
+            throw new IllegalStateException("El corredor " + cedula + " ya está inscrito en este evento.");
+        }
+        if (evento.existeDorsal(dorsal)) {
+            throw new IllegalStateException("Dorsal ya utilizado en este evento: " + dorsal);
+        }
+
+        crearInscripcionParaCorredor(generadorIds.getAsInt(), corredor, evento, distancia, talla, dorsal)
+                .setCategoria(categoria);
+        if (nuevo) {
+            usuarios.put(cedula, corredor);
+            res.contarCorredor();
+        }
+        res.contarInscripcion();
+    }
+
+    /**
+     * Indica si una línea es el encabezado del CSV de importación.
+     *
+     * @param linea  primera línea no vacía.
+     * @param campos arreglo de trabajo (se sobrescribe).
+     * @return {@code true} si sus columnas coinciden, en orden, con {@link #ENCABEZADO_CSV}.
+     */
+    private static boolean esEncabezadoCsv(String linea, String[] campos) {
+        if (dividirCsv(linea.replace("\uFEFF", ""), campos) != COLUMNAS_CSV) return false;
+        for (int i = 0; i < COLUMNAS_CSV; i++) {
+            String nombre = Normalizer.normalize(campos[i], Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+            if (!nombre.replace(" ", "").equalsIgnoreCase(ENCABEZADO_CSV[i])) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Divide una línea CSV en campos (con soporte de comillas dobles y {@code ""} como escape).
+     *
+     * @param linea  línea a dividir.
+     * @param campos arreglo destino (se reutiliza entre filas).
+     * @return cantidad de campos encontrados (puede superar la capacidad del arreglo).
+     */
+    private static int dividirCsv(String linea, String[] campos) {
+        int n = 0;
+        int i = 0;
+        int len = linea.length();
+        while (true) {
+            String valor;
+            if (i < len && linea.charAt(i) == '"') {
+                StringBuilder sb = new StringBuilder();
+                i++;
+                while (i < len) {
+                    char c = linea.charAt(i++);
+                    if (c == '"') {
+                        if (i < len && linea.charAt(i) == '"') { sb.append('"'); i++; }
+                        else break;
+                    } else {
+                        sb.append(c);
+                    }
+                }
+                int coma = linea.indexOf(',', i);
+                i = (coma < 0) ? len : coma;
+                valor = sb.toString();
+            } else {
+                int coma = linea.indexOf(',', i);
+                int fin = (coma < 0) ? len : coma;
+                valor = linea.substring(i, fin).trim();
+                i = fin;
+            }
+            if (n < campos.length) campos[n] = valor;
+            n++;
+            if (i >= len) return n;
+            i++; // saltar la coma
+        }
+    }
+
+    /**
+     * Convierte un campo a entero.
+     * @param valor texto del campo.
+     * @param campo nombre del campo (para el mensaje de error).
+     * @return entero leído.
+     * @throws IllegalArgumentException si no es un entero válido.
+     */
+    private static int parsearEntero(String valor, String campo) {
+        try {
+            return Integer.parseInt(valor.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Valor inválido para " + campo + ": '" + valor + "'.");
+        }
+    }
+
+    /**
+     * Convierte un campo al valor de enumeración con ese nombre (sin distinguir mayúsculas).
+     * @param tipo  clase de la enumeración.
+     * @param valor texto del campo.
+     * @param campo nombre del campo (para el mensaje de error).
+     * @param <E>   tipo de la enumeración.
+     * @return constante correspondiente.
+     * @throws IllegalArgumentException si no existe esa constante.
+     */
+    private static <E extends Enum<E>> E parsearEnum(Class<E> tipo, String valor, String campo) {
+        try {
+            return Enum.valueOf(tipo, valor.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Valor inválido para " + campo + ": '" + valor + "'.");
+        }
     }
 
     // ------------------------------------------------------------
@@ -205,6 +520,35 @@ public class Administrador extends Usuario {
         return new Tiempo(tiempoSeg, posGeneral, posCategoria);
     }
 
+    /**
+     * Registra (o corrige) el tiempo de una inscripción en el ranking de su evento, que calcula
+     * las posiciones general y por categoría (ver {@link eventos.RankingEvento}).
+     *
+     * @param inscripcion inscripción objetivo (no nula).
+     * @param tiempoSeg   tiempo total en segundos (&ge; 0).
+     * @return instancia de {@code Tiempo} con las posiciones asignadas.
+     * @throws IllegalArgumentException si el tiempo es negativo.
+     */
+    public Tiempo registrarTiempoParaInscripcion(Inscripcion inscripcion, double tiempoSeg) {
+        Objects.requireNonNull(inscripcion, "inscripción no puede ser nula.");
+        return inscripcion.getEvento().getRanking().registrar(inscripcion, new Tiempo(tiempoSeg, 0, 0));
+    }
+
+    /**
+     * Registra (o corrige) el paso de una inscripción por un punto de control de su distancia
+     * (ver {@link eventos.ParcialesEvento}).
+     *
+     * @param inscripcion inscripción objetivo (no nula).
+     * @param punto       índice del punto de control.
+     * @param tiempoSeg   tiempo desde la largada en segundos (&ge; 0).
+     * @throws IllegalArgumentException si el punto o el tiempo no son válidos.
+     */
+    public void registrarParcialParaInscripcion(Inscripcion inscripcion, int punto, double tiempoSeg) {
+        Objects.requireNonNull(inscripcion, "inscripción no puede ser nula.");
+        if (!(tiempoSeg >= 0)) throw new IllegalArgumentException("El parcial debe ser >= 0 segundos.");
+        inscripcion.getEvento().getParciales().registrar(inscripcion, punto, Math.round(tiempoSeg * 1000.0));
+    }
+
     // ------------------------------------------------------------
     // Utilidades privadas
     // ------------------------------------------------------------
@@ -4,9 +4,9 @@ import eventos.Categoria;
 import eventos.Evento;
 import eventos.Inscripcion;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * La clase {@code Corredor} representa a un usuario participante en eventos.
@@ -17,6 +17,7 @@ import java.util.List;
  *   <li>Sin I/O (nada de Scanner/println) dentro de la entidad.</li>
  *   <li>Evitar inscripciones duplicadas del mismo evento para el mismo corredor.</li>
  *   <li>La unicidad del dorsal se valida en {@link Evento}.</li>
+ *   <li>El alta de inscripciones se sincroniza con el monitor del corredor.</li>
  * </ul>
  *
  * @author
@@ -24,8 +25,11 @@ import java.util.List;
  */
 public class Corredor extends Usuario {
 
-    /** Lista de inscripciones del corredor. */
-    private final List<Inscripcion> inscripciones = new ArrayList<>();
+    /**
+     * Lista de inscripciones del corredor. Es pequeña y se lee mucho más de lo que se escribe,
+     * por lo que se usa copia en escritura: las lecturas no bloquean y nunca ven cambios a medias.
+     */
+    private final List<Inscripcion> inscripciones = new CopyOnWriteArrayList<>();
 
     /** Edad del corredor en años (0–127). Usa {@code byte} para menor huella de memoria. */
     private byte edad;
@@ -202,6 +206,30 @@ public class Corredor extends Usuario {
     // (Opcional) Utilidades internas de inscripciones
     // =======================
 
+    /**
+     * Quita una inscripción del corredor (p. ej., al eliminarla de su evento).
+     *
+     * @param inscripcion la inscripción a quitar.
+     * @return {@code true} si estaba y se quitó.
+     */
+    public synchronized boolean removerInscripcion(Inscripcion inscripcion) {
+        return inscripciones.remove(inscripcion);
+    }
+
+    /**
+     * Indica si el corredor ya tiene una inscripción en el evento dado.
+     *
+     * @param evento evento a verificar.
+     * @return {@code true} si existe una inscripción del corredor para ese evento.
+     */
+    public boolean estaInscritoEn(Evento evento) {
+        if (evento == null) return false;
+        for (Inscripcion i : inscripciones) {
+            if (evento.equals(i.getEvento())) return true;
+        }
+        return false;
+    }
+
     /**
      * Agrega una inscripción si no existe otra del mismo evento para este corredor.
      * <p>No realiza I/O ni valida pagos; la unicidad de dorsal corresponde al {@link Evento}.</p>
@@ -210,12 +238,10 @@ public class Corredor extends Usuario {
      * @return {@code true} si se agregó; {@code false} si ya existía una inscripción al mismo evento.
      * @throws IllegalArgumentException si {@code inscripcion} es {@code null}.
      */
-    public boolean agregarInscripcion(Inscripcion inscripcion) {
+    public synchronized boolean agregarInscripcion(Inscripcion inscripcion) {
         if (inscripcion == null) throw new IllegalArgumentException("La inscripción no puede ser null.");
-        for (Inscripcion i : inscripciones) {
-            if (i.getEvento() != null && i.getEvento().equals(inscripcion.getEvento())) {
-                return false; // ya existe una inscripción para ese evento
-            }
+        if (estaInscritoEn(inscripcion.getEvento())) {
+            return false; // ya existe una inscripción para ese evento
         }
         return inscripciones.add(inscripcion);
     }
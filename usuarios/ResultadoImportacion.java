@@ -0,0 +1,110 @@
+package usuarios;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * La clase {@code ResultadoImportacion} resume una importación masiva de inscripciones
+ * (ver {@link Administrador#importarInscripcionesCsv}).
+ *
+ * <p><b>Convenciones de diseño:</b></p>
+ * <ul>
+ *   <li>Sin I/O de consola: la capa orquestadora decide cómo mostrar el resultado.</li>
+ *   <li>Los errores se reportan por fila con el número de línea del archivo (1 = primera línea).</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+public class ResultadoImportacion {
+
+    /** Filas de datos procesadas (sin contar encabezado ni líneas en blanco). */
+    private int filasProcesadas;
+
+    /** Inscripciones creadas y registradas en el evento. */
+    private int inscripcionesCreadas;
+
+    /** Corredores nuevos creados durante la importación. */
+    private int corredoresCreados;
+
+    /** Errores por fila, en orden de aparición. */
+    private final List<ErrorFila> errores = new ArrayList<>();
+
+    /**
+     * DTO inmutable con el error de una fila concreta.
+     */
+    public static final class ErrorFila {
+        private final int linea;
+        private final String mensaje;
+
+        /**
+         * Crea un error de fila.
+         * @param linea   número de línea en el archivo (&ge; 1).
+         * @param mensaje descripción del problema.
+         */
+        public ErrorFila(int linea, String mensaje) {
+            this.linea = linea;
+            this.mensaje = mensaje;
+        }
+
+        /** @return número de línea en el archivo. */
+        public int getLinea() { return linea; }
+
+        /** @return descripción del problema. */
+        public String getMensaje() { return mensaje; }
+
+        @Override
+        public String toString() {
+            return "Línea " + linea + ": " + mensaje;
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Registro (uso interno del importador)
+    // ------------------------------------------------------------
+
+    /** Cuenta una fila de datos procesada. */
+    void contarFila() { filasProcesadas++; }
+
+    /** Cuenta una inscripción creada. */
+    void contarInscripcion() { inscripcionesCreadas++; }
+
+    /** Cuenta un corredor nuevo. */
+    void contarCorredor() { corredoresCreados++; }
+
+    /**
+     * Registra un error para una fila.
+     * @param linea   número de línea.
+     * @param mensaje descripción del problema.
+     */
+    void agregarError(int linea, String mensaje) {
+        errores.add(new ErrorFila(linea, mensaje));
+    }
+
+    // ------------------------------------------------------------
+    // Consultas
+    // ------------------------------------------------------------
+
+    /** @return filas de datos procesadas. */
+    public int getFilasProcesadas() { return filasProcesadas; }
+
+    /** @return inscripciones creadas. */
+    public int getInscripcionesCreadas() { return inscripcionesCreadas; }
+
+    /** @return corredores nuevos creados. */
+    public int getCorredoresCreados() { return corredoresCreados; }
+
+    /** @return vista inmutable de los errores por fila. */
+    public List<ErrorFila> getErrores() { return Collections.unmodifiableList(errores); }
+
+    @Override
+    public String toString() {
+        return "ResultadoImportacion{" +
+                "filas=" + filasProcesadas +
+                ", inscripciones=" + inscripcionesCreadas +
+                ", corredoresNuevos=" + corredoresCreados +
+                ", errores=" + errores.size() +
+                '}';
+    }
+}
@@ -0,0 +1,56 @@
+package usuarios;
+
+import eventos.Inscripcion;
+import eventos.PromocionEspera;
+import eventos.SolicitudInscripcion;
+
+/**
+ * La clase {@code ResultadoSolicitud} describe el desenlace de
+ * {@link Administrador#solicitarInscripcion}: la inscripción creada, la solicitud que quedó en lista de
+ * espera o ambas (si se encoló y fue admitida en la misma llamada).
+ *
+ * <p><b>Convenciones de diseño:</b></p>
+ * <ul>
+ *   <li>Sin I/O de consola: la capa orquestadora decide cómo mostrar el resultado.</li>
+ *   <li>Inmutable. La promoción incluye también las solicitudes de otros corredores que salieron de la
+ *       lista por el intento; quien persiste debe registrarlas todas.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+public final class ResultadoSolicitud {
+
+    private final Inscripcion inscripcion;
+    private final SolicitudInscripcion solicitud;
+    private final PromocionEspera promocion;
+
+    /**
+     * @param inscripcion inscripción propia creada, o {@code null} si sigue en espera.
+     * @param solicitud   solicitud encolada, o {@code null} si se admitió sin pasar por la lista.
+     * @param promocion   promoción hecha tras encolar (no nula; vacía si no hubo).
+     */
+    ResultadoSolicitud(Inscripcion inscripcion, SolicitudInscripcion solicitud, PromocionEspera promocion) {
+        this.inscripcion = inscripcion;
+        this.solicitud = solicitud;
+        this.promocion = promocion;
+    }
+
+    /** @return inscripción propia creada, o {@code null} si la solicitud sigue en lista de espera. */
+    public Inscripcion getInscripcion() { return inscripcion; }
+
+    /** @return solicitud que pasó por la lista de espera, o {@code null} si se admitió directamente. */
+    public SolicitudInscripcion getSolicitud() { return solicitud; }
+
+    /** @return promoción de la lista de espera hecha tras encolar (vacía si no hubo). */
+    public PromocionEspera getPromocion() { return promocion; }
+
+    /** @return {@code true} si la solicitud quedó en lista de espera. */
+    public boolean quedoEnEspera() { return inscripcion == null; }
+
+    @Override
+    public String toString() {
+        return "ResultadoSolicitud{inscripcion=" + ((inscripcion == null) ? "-" : inscripcion.getId())
+                + ", enEspera=" + quedoEnEspera() + ", " + promocion + '}';
+    }
+}